@@ -4,9 +4,11 @@
 package com.nephest.battlenet.sc2;
 
 import com.nephest.battlenet.sc2.config.GlobalRestTemplateCustomizer;
+import com.nephest.battlenet.sc2.config.StartupReport;
 import com.nephest.battlenet.sc2.web.service.WebServiceUtil;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.boot.web.client.RestTemplateCustomizer;
 import org.springframework.boot.web.servlet.support.SpringBootServletInitializer;
 import org.springframework.cache.annotation.EnableCaching;
@@ -33,7 +35,15 @@ extends SpringBootServletInitializer
 
     public static void main(String[] args)
     {
-        SpringApplication.run(Application.class, args);
+        SpringApplication application = new SpringApplication(Application.class);
+        application.setApplicationStartup(StartupReport.createApplicationStartup());
+        application.run(args);
+    }
+
+    @Override
+    protected SpringApplicationBuilder configure(SpringApplicationBuilder builder)
+    {
+        return builder.applicationStartup(StartupReport.createApplicationStartup());
     }
 
     @Bean
@@ -4,6 +4,7 @@
 package com.nephest.battlenet.sc2.cache;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nephest.battlenet.sc2.web.service.GroupMembershipIndex;
 import com.nephest.battlenet.sc2.web.service.community.CommunityService;
 import java.util.List;
 import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
@@ -69,4 +70,59 @@ public class CacheConfig
         );
     }
 
+    @Bean
+    public CaffeineCache groupClanCharacters()
+    {
+        return new CaffeineCache
+        (
+            GroupMembershipIndex.CLAN_CACHE_NAME,
+            Caffeine.newBuilder()
+                .maximumSize(GroupMembershipIndex.CLAN_CACHE_SIZE)
+                .expireAfterWrite(GroupMembershipIndex.CLAN_TTL)
+                .buildAsync(),
+            false
+        );
+    }
+
+    @Bean
+    public CaffeineCache groupProPlayerCharacters()
+    {
+        return new CaffeineCache
+        (
+            GroupMembershipIndex.PRO_PLAYER_CACHE_NAME,
+            Caffeine.newBuilder()
+                .expireAfterWrite(GroupMembershipIndex.ACCOUNT_TTL)
+                .buildAsync(),
+            false
+        );
+    }
+
+    @Bean
+    public CaffeineCache groupAccountCharacters()
+    {
+        return new CaffeineCache
+        (
+            GroupMembershipIndex.ACCOUNT_CACHE_NAME,
+            Caffeine.newBuilder()
+                .maximumSize(GroupMembershipIndex.ACCOUNT_CACHE_SIZE)
+                .expireAfterWrite(GroupMembershipIndex.ACCOUNT_TTL)
+                .buildAsync(),
+            false
+        );
+    }
+
+    @Bean
+    public CaffeineCache groupToonHandleCharacters()
+    {
+        return new CaffeineCache
+        (
+            GroupMembershipIndex.TOON_HANDLE_CACHE_NAME,
+            Caffeine.newBuilder()
+                .maximumSize(GroupMembershipIndex.TOON_HANDLE_CACHE_SIZE)
+                .expireAfterWrite(GroupMembershipIndex.CLAN_TTL)
+                .buildAsync(),
+            false
+        );
+    }
+
 }
@@ -22,6 +22,7 @@ import com.nephest.battlenet.sc2.config.convert.StringToAuditLogEntryActionConve
 import com.nephest.battlenet.sc2.config.convert.min.IdentifiableToMinimalObjectConverter;
 import com.nephest.battlenet.sc2.config.convert.min.TemporalAccessorToMinimalObjectConverter;
 import com.nephest.battlenet.sc2.config.convert.min.TimestampToMinimalObjectConverter;
+import com.nephest.battlenet.sc2.config.data.Workload;
 import com.nephest.battlenet.sc2.model.Region;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -110,13 +111,21 @@ public class CommonBeanConfig
     @Bean
     public ExecutorService dbExecutorService()
     {
-        return Executors.newFixedThreadPool(DB_THREADS);
+        return Executors.newFixedThreadPool
+        (
+            DB_THREADS,
+            Workload.threadFactory(Workload.INGEST, Executors.defaultThreadFactory())
+        );
     }
 
     @Bean
     public ExecutorService secondaryDbExecutorService()
     {
-        return Executors.newFixedThreadPool(DB_THREADS);
+        return Executors.newFixedThreadPool
+        (
+            DB_THREADS,
+            Workload.threadFactory(Workload.MAINTENANCE, Executors.defaultThreadFactory())
+        );
     }
 
     @Bean
@@ -128,7 +137,11 @@ public class CommonBeanConfig
             CORE_WEB_THREADS + BACKGROUND_WEB_THREADS,
             WEB_THREAD_TTL_SECONDS, TimeUnit.SECONDS,
             new SynchronousQueue<>(),
-            new CustomizableThreadFactory(WEB_THREAD_POOL_NAME)
+            Workload.threadFactory
+            (
+                Workload.BACKGROUND,
+                new CustomizableThreadFactory(WEB_THREAD_POOL_NAME)
+            )
         );
     }
 
@@ -3,6 +3,7 @@
 
 package com.nephest.battlenet.sc2.config;
 
+import com.nephest.battlenet.sc2.config.data.Workload;
 import com.nephest.battlenet.sc2.model.Region;
 import com.nephest.battlenet.sc2.model.local.TimerVar;
 import com.nephest.battlenet.sc2.model.local.dao.EvidenceDAO;
@@ -13,16 +14,21 @@ import com.nephest.battlenet.sc2.model.local.dao.TeamStateDAO;
 import com.nephest.battlenet.sc2.model.local.dao.VarDAO;
 import com.nephest.battlenet.sc2.model.util.PostgreSQLUtils;
 import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import com.nephest.battlenet.sc2.service.LeaderElectionService;
 import com.nephest.battlenet.sc2.util.MiscUtil;
 import com.nephest.battlenet.sc2.util.SingleRunnable;
 import com.nephest.battlenet.sc2.web.service.BlizzardPrivacyService;
 import com.nephest.battlenet.sc2.web.service.BlizzardSC2API;
+import com.nephest.battlenet.sc2.web.service.ClanService;
 import com.nephest.battlenet.sc2.web.service.DiscordService;
+import com.nephest.battlenet.sc2.web.service.FastTeamSnapshotService;
 import com.nephest.battlenet.sc2.web.service.GlobalContext;
 import com.nephest.battlenet.sc2.web.service.LadderUpdateContext;
 import com.nephest.battlenet.sc2.web.service.LadderUpdateTaskContext;
+import com.nephest.battlenet.sc2.web.service.MatchService;
 import com.nephest.battlenet.sc2.web.service.PlayerCharacterReportService;
 import com.nephest.battlenet.sc2.web.service.ProPlayerService;
+import com.nephest.battlenet.sc2.web.service.SC2MetaService;
 import com.nephest.battlenet.sc2.web.service.StatsService;
 import com.nephest.battlenet.sc2.web.service.StatusService;
 import com.nephest.battlenet.sc2.web.service.UpdateService;
@@ -42,6 +48,7 @@ import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -131,6 +138,21 @@ public class Cron
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private LeaderElectionService leaderElectionService;
+
+    @Autowired
+    private FastTeamSnapshotService fastTeamSnapshotService;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private ClanService clanService;
+
+    @Autowired
+    private SC2MetaService sc2MetaService;
+
     private SingleRunnable updateLaddersTask;
     private Future<Void> afterLadderUpdateTask;
 
@@ -145,7 +167,7 @@ public class Cron
                 "ladder.stats.heavy.timestamp",
                 true,
                 HEAVY_STATS_UPDATE_FRAME,
-                this::calculateHeavyStats
+                ()->Workload.run(Workload.MAINTENANCE, this::calculateHeavyStats)
             );
             maintenanceFrequentTask = new TimerVar
             (
@@ -175,7 +197,25 @@ public class Cron
         catch(RuntimeException ex) {
             LOG.warn(ex.getMessage(), ex);
         }
-        updateLaddersTask = new SingleRunnable(this::nonStopUpdate);
+        updateLaddersTask = new SingleRunnable
+        (
+            ()->Workload.run(Workload.INGEST, this::nonStopUpdate)
+        );
+        leaderElectionService.onLeadershipAcquired(this::initLeaderState);
+    }
+
+    /*
+        Vars are already reloaded at this point, only the state that is derived from them or
+        accumulated by previous leader runs is reset here.
+     */
+    private void initLeaderState()
+    {
+        updateService.initContexts();
+        statsService.reloadAlternativeRegions();
+        matchService.resetUpdateContext();
+        sc2API.initHealth();
+        fastTeamSnapshotService.reset();
+        LOG.info("Initialized leader state");
     }
 
     public static OffsetDateTime getNextCharacterReportUpdateTime()
@@ -188,18 +228,24 @@ public class Cron
     @Scheduled(fixedDelay = 10_000)
     public void updateAll()
     {
+        if(!leaderElectionService.isLeader()) return;
+
         updateLaddersTask.tryRun();
     }
 
     @Scheduled(cron="0 0 5 * * *")
     public void updateCharacterReports()
     {
+        if(!leaderElectionService.isLeader()) return;
+
         characterReportService.update(REPORT_UPDATE_FROM);
     }
 
     @Scheduled(cron="0 0 4 * * *")
     public void updateProPlayers()
     {
+        if(!leaderElectionService.isLeader()) return;
+
         proPlayerService.update().subscribe();
     }
 
@@ -212,18 +258,24 @@ public class Cron
     @Scheduled(cron="0 59 * * * *")
     public void updateSeasonState()
     {
+        if(!leaderElectionService.isLeader()) return;
+
         seasonStateDAO.merge(SC2Pulse.offsetDateTime(), seasonDAO.getMaxBattlenetId());
     }
 
     @Scheduled(cron="0 0/10 * * * *")
     public void updateBackgroundServices()
     {
+        if(!leaderElectionService.isLeader()) return;
+
         updateDiscordTask.runIfAvailable().block();
     }
 
     @Scheduled(cron="0 0/10 * * * *")
     public void sendNotifications()
     {
+        if(!leaderElectionService.isLeader()) return;
+
         webExecutorService.submit(()->{
             int notificationsRemoved = notificationService.removeExpired();
             if(notificationsRemoved > 0) LOG.info("Removed {} expired notifications", notificationsRemoved);
@@ -233,11 +285,61 @@ public class Cron
         });
     }
 
+    @Scheduled(cron="0 0 6 * * *", zone = "UTC")
+    public void updateOldPrivacyData()
+    {
+        if(!leaderElectionService.isLeader()) return;
+
+        blizzardPrivacyService.updateOldSeasons();
+    }
+
+    @Scheduled(cron="0 15 5 * * *")
+    public void updatePatches()
+    {
+        if(!leaderElectionService.isLeader()) return;
+
+        sc2MetaService.updatePatches();
+    }
+
+    @Scheduled(cron="0 0/10 * * * *")
+    public void removeOldClanUpdates()
+    {
+        if(!leaderElectionService.isLeader()) return;
+
+        clanService.removeOldClanUpdates();
+    }
+
+    @Scheduled(cron="0 0 6 * * *")
+    public void removeExpiredLadderUpdates()
+    {
+        if(!leaderElectionService.isLeader()) return;
+
+        updateService.removeExpiredLadderUpdates();
+    }
+
+    @Scheduled(fixedDelay = 3, initialDelay = 3, timeUnit = TimeUnit.MINUTES)
+    public void saveApiHealth()
+    {
+        if(!leaderElectionService.isLeader()) return;
+
+        sc2API.saveHealth();
+    }
+
+    @Scheduled(cron="0 0 * * * *")
+    public void processApiErrorRates()
+    {
+        if(!leaderElectionService.isLeader()) return;
+
+        sc2API.processErrorRates();
+    }
+
     @Scheduled(cron="0 0 0/1 * * *")
     public void updateCurrentSeasonLadderStructure()
     {
-        webExecutorService.submit(()->
-            statsService.updateCurrentSeasonLadderStructure(globalContext.getActiveRegions()));
+        if(!leaderElectionService.isLeader()) return;
+
+        webExecutorService.submit(()->Workload.run(Workload.INGEST, ()->
+            statsService.updateCurrentSeasonLadderStructure(globalContext.getActiveRegions())));
     }
 
     private void nonStopUpdate()
@@ -282,6 +384,7 @@ public class Cron
     {
         boolean result = true;
         Instant begin = SC2Pulse.instant();
+        for(Region region : regions) fastTeamSnapshotService.restore(region);
         for(Region region : regions)
         {
             try
@@ -307,6 +410,8 @@ public class Cron
             }
         }
         for(Region region : regions) updateService.updated(region, begin);
+        //don't persist the working set if it can be ahead of the DB
+        if(result) for(Region region : regions) fastTeamSnapshotService.checkpoint(region);
         return result;
     }
 
@@ -314,7 +419,11 @@ public class Cron
     {
         List<Future<Void>> tasks = new ArrayList<>();
         for(Region region : globalContext.getActiveRegions())
-            tasks.add(webExecutorService.submit(()->doUpdateSeasons(region), null));
+            tasks.add(webExecutorService.submit
+            (
+                ()->Workload.run(Workload.INGEST, ()->doUpdateSeasons(region)),
+                null
+            ));
 
         MiscUtil.awaitAndThrowException(tasks, true, true);
         if(afterLadderUpdateTask != null && !afterLadderUpdateTask.isDone())
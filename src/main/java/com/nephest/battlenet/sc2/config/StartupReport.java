@@ -0,0 +1,95 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.core.metrics.jfr.FlightRecorderApplicationStartup;
+import org.springframework.stereotype.Component;
+
+/*
+    # Startup profile
+
+    Set the `sc2.startup.profile` system property to record startup steps(bean instantiation,
+    context refresh, etc.):
+
+    * `buffer` - steps are buffered in memory, the slowest ones are logged when the
+      application is ready;
+    * `jfr` - steps are recorded as JFR events, start the JVM with `-XX:StartFlightRecording`
+      to save them.
+
+    Startup steps are not recorded by default.
+ */
+@Component
+public class StartupReport
+{
+
+    private static final Logger LOG = LoggerFactory.getLogger(StartupReport.class);
+
+    public static final String PROFILE_PROPERTY = "sc2.startup.profile";
+    public static final int BUFFER_CAPACITY = 20_000;
+    public static final int REPORT_SIZE = 30;
+
+    public static ApplicationStartup createApplicationStartup(String profile)
+    {
+        if(profile == null || profile.isBlank()) return ApplicationStartup.DEFAULT;
+
+        return switch(profile)
+        {
+            case "buffer" -> new BufferingApplicationStartup(BUFFER_CAPACITY);
+            case "jfr" -> new FlightRecorderApplicationStartup();
+            default -> throw new IllegalArgumentException("Unsupported startup profile: " + profile);
+        };
+    }
+
+    public static ApplicationStartup createApplicationStartup()
+    {
+        return createApplicationStartup(System.getProperty(PROFILE_PROPERTY));
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent evt)
+    {
+        if(!(evt.getApplicationContext().getApplicationStartup()
+            instanceof BufferingApplicationStartup startup)) return;
+
+        List<StartupTimeline.TimelineEvent> events = startup.drainBufferedTimeline().getEvents();
+        LOG.info
+        (
+            "Startup took {}, {} steps recorded, slowest steps:\n{}",
+            evt.getTimeTaken(),
+            events.size(),
+            events.stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(REPORT_SIZE)
+                .map(StartupReport::format)
+                .collect(Collectors.joining("\n"))
+        );
+    }
+
+    private static String format(StartupTimeline.TimelineEvent evt)
+    {
+        StartupStep step = evt.getStartupStep();
+        return String.format
+        (
+            "%8d ms %s %s",
+            evt.getDuration().toMillis(),
+            step.getName(),
+            StreamSupport.stream(step.getTags().spliterator(), false)
+                .map(tag->tag.getKey() + "=" + tag.getValue())
+                .collect(Collectors.joining(", ", "[", "]"))
+        );
+    }
+
+}
@@ -3,6 +3,7 @@
 
 package com.nephest.battlenet.sc2.config.convert.jackson;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.nephest.battlenet.sc2.model.BaseLeague;
 import com.nephest.battlenet.sc2.model.BaseLeagueTier;
 import com.nephest.battlenet.sc2.model.QueueType;
@@ -13,7 +14,10 @@ import com.nephest.battlenet.sc2.model.local.PopulationState;
 import com.nephest.battlenet.sc2.model.local.TeamState;
 import com.nephest.battlenet.sc2.model.local.ladder.LadderTeamState;
 import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -50,7 +54,7 @@ extends SimpleArrayFieldToArrayListDeserializer<List<LadderTeamState>, LadderTea
                 Map.entry("teamId", (node, state)->state.getTeamState()
                     .setTeamId(node.asLong())),
                 Map.entry("dateTime", (node, state)->state.getTeamState()
-                    .setDateTime(SC2Pulse.offsetDateTime(OffsetDateTime.parse(node.asText())))),
+                    .setDateTime(parseDateTime(node))),
                 Map.entry("wins", (node, state)->state.getTeamState()
                     .setWins(node.isNull() ? null : node.asInt())),
                 Map.entry("games", (node, state)->state.getTeamState()
@@ -79,4 +83,14 @@ extends SimpleArrayFieldToArrayListDeserializer<List<LadderTeamState>, LadderTea
         );
     }
 
+    /*
+        Binary formats use epoch microseconds, see LadderTeamStateCollectionToArraySerializer
+     */
+    private static OffsetDateTime parseDateTime(JsonNode node)
+    {
+        return node.isNumber()
+            ? OffsetDateTime.ofInstant(Instant.EPOCH.plus(node.asLong(), ChronoUnit.MICROS), ZoneOffset.UTC)
+            : SC2Pulse.offsetDateTime(OffsetDateTime.parse(node.asText()));
+    }
+
 }
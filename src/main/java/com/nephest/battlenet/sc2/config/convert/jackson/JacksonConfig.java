@@ -3,10 +3,21 @@
 
 package com.nephest.battlenet.sc2.config.convert.jackson;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 
+/*
+    Binary formats are opt-in, they are used only when requested explicitly via the Accept
+    header(application/cbor, application/x-jackson-smile). JSON converter comes first, so it's
+    used for wildcard requests. Binary mappers are built by the same builder as the JSON mapper,
+    so they share modules and settings.
+ */
 @Configuration
 public class JacksonConfig
 {
@@ -17,4 +28,22 @@ public class JacksonConfig
         return new JavaTimeModule();
     }
 
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter
+    (
+        Jackson2ObjectMapperBuilder builder
+    )
+    {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter
+    (
+        Jackson2ObjectMapperBuilder builder
+    )
+    {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
 }
@@ -3,61 +3,162 @@
 
 package com.nephest.battlenet.sc2.config.convert.jackson;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.nephest.battlenet.sc2.model.local.ladder.LadderTeamState;
-import java.util.Map;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 
+/**
+ * Writes each field of the states as a separate array. States are the biggest part of the
+ * largest responses, so the fields are written directly, without per-field dispatch, and
+ * non-null numeric fields are written as primitive arrays.
+ * <p>
+ *     {@code dateTime} is an ISO string in text formats. Binary formats(CBOR, Smile) use
+ *     epoch microseconds instead, it's the precision of the stored timestamps.
+ * </p>
+ */
 public class LadderTeamStateCollectionToArraySerializer
-extends SimpleCollectionToFieldArraySerializer<LadderTeamState>
+extends StdSerializer<Collection<? extends LadderTeamState>>
 {
 
+    @SuppressWarnings("unchecked")
     public LadderTeamStateCollectionToArraySerializer()
     {
-        super(Map.ofEntries(
-            Map.entry("teamId", (g, s)->g.writeNumber(s.getTeamState().getTeamId())),
-            Map.entry("dateTime", (g, s)->g.writeString(s.getTeamState().getDateTime().toString())),
-            Map.entry("wins", (g, s)->{
-                if(s.getTeamState().getWins() == null) {g.writeNull();}
-                else{g.writeNumber(s.getTeamState().getWins());}
-            }),
-            Map.entry("games", (g, s)->g.writeNumber(s.getTeamState().getGames())),
-            Map.entry("rating", (g, s)->g.writeNumber(s.getTeamState().getRating())),
-            Map.entry("leagueType", (g, s)->g.writeNumber(s.getLeague().getType().getId())),
-            Map.entry("queueType", (g, s)->g.writeNumber(s.getLeague().getQueueType().getId())),
-            Map.entry("teamType", (g, s)->g.writeNumber(s.getLeague().getTeamType().getId())),
-            Map.entry("tier", (g, s)->{
-                if(s.getTier() == null) {g.writeNull();}
-                else {g.writeNumber(s.getTier().getId());}
-            }),
-            Map.entry("globalRank", (g, s)->{
-                if(s.getTeamState().getGlobalRank() == null) {g.writeNull();}
-                else {g.writeNumber(s.getTeamState().getGlobalRank());}
-            }),
-            Map.entry("globalTeamCount", (g, s)->{
-                if(s.getPopulationState().getGlobalTeamCount() == null) {g.writeNull();}
-                else {g.writeNumber(s.getPopulationState().getGlobalTeamCount());}
-            }),
-            Map.entry("regionRank", (g, s)->{
-                if(s.getTeamState().getRegionRank() == null) {g.writeNull();}
-                else {g.writeNumber(s.getTeamState().getRegionRank());}
-            }),
-            Map.entry("regionTeamCount", (g, s)->{
-                if(s.getPopulationState().getRegionTeamCount() == null) {g.writeNull();}
-                else {g.writeNumber(s.getPopulationState().getRegionTeamCount());}
-            }),
-            Map.entry("leagueRank", (g, s)->{
-                if(s.getTeamState().getLeagueRank() == null) {g.writeNull();}
-                else {g.writeNumber(s.getTeamState().getLeagueRank());}
-            }),
-            Map.entry("leagueTeamCount", (g, s)->{
-                if(s.getPopulationState().getLeagueTeamCount() == null) {g.writeNull();}
-                else {g.writeNumber(s.getPopulationState().getLeagueTeamCount());}
-            }),
-            Map.entry("race", (g, s)->{
-                if(s.getRace() == null) {g.writeNull();}
-                else {g.writeString(s.getRace().toString());}
-            }),
-            Map.entry("season", (g, s)->g.writeNumber(s.getSeason()))
-        ));
+        super((Class<Collection<? extends LadderTeamState>>) null);
+    }
+
+    @Override
+    public void serialize
+    (
+        Collection<? extends LadderTeamState> collection,
+        JsonGenerator g,
+        SerializerProvider serializerProvider
+    )
+    throws IOException
+    {
+        LadderTeamState[] states = collection.toArray(new LadderTeamState[0]);
+        int length = states.length;
+        long[] teamIds = new long[length];
+        int[] games = new int[length];
+        int[] ratings = new int[length];
+        int[] leagueTypes = new int[length];
+        int[] queueTypes = new int[length];
+        int[] teamTypes = new int[length];
+        int[] seasons = new int[length];
+        for(int i = 0; i < length; i++)
+        {
+            LadderTeamState s = states[i];
+            teamIds[i] = s.getTeamState().getTeamId();
+            games[i] = s.getTeamState().getGames();
+            ratings[i] = s.getTeamState().getRating();
+            leagueTypes[i] = s.getLeague().getType().getId();
+            queueTypes[i] = s.getLeague().getQueueType().getId();
+            teamTypes[i] = s.getLeague().getTeamType().getId();
+            seasons[i] = s.getSeason();
+        }
+
+        g.writeStartObject();
+
+        g.writeFieldName("teamId");
+        g.writeArray(teamIds, 0, length);
+
+        g.writeArrayFieldStart("dateTime");
+        if(isBinary(g))
+        {
+            for(LadderTeamState s : states)
+                g.writeNumber(ChronoUnit.MICROS.between(Instant.EPOCH, s.getTeamState().getDateTime()));
+        }
+        else
+        {
+            for(LadderTeamState s : states) g.writeString(s.getTeamState().getDateTime().toString());
+        }
+        g.writeEndArray();
+
+        g.writeArrayFieldStart("wins");
+        for(LadderTeamState s : states) writeNullable(g, s.getTeamState().getWins());
+        g.writeEndArray();
+
+        g.writeFieldName("games");
+        g.writeArray(games, 0, length);
+        g.writeFieldName("rating");
+        g.writeArray(ratings, 0, length);
+        g.writeFieldName("leagueType");
+        g.writeArray(leagueTypes, 0, length);
+        g.writeFieldName("queueType");
+        g.writeArray(queueTypes, 0, length);
+        g.writeFieldName("teamType");
+        g.writeArray(teamTypes, 0, length);
+
+        g.writeArrayFieldStart("tier");
+        for(LadderTeamState s : states) writeNullable(g, s.getTier() == null ? null : s.getTier().getId());
+        g.writeEndArray();
+
+        g.writeArrayFieldStart("globalRank");
+        for(LadderTeamState s : states) writeNullable(g, s.getTeamState().getGlobalRank());
+        g.writeEndArray();
+        g.writeArrayFieldStart("globalTeamCount");
+        for(LadderTeamState s : states) writeNullable(g, s.getPopulationState().getGlobalTeamCount());
+        g.writeEndArray();
+
+        g.writeArrayFieldStart("regionRank");
+        for(LadderTeamState s : states) writeNullable(g, s.getTeamState().getRegionRank());
+        g.writeEndArray();
+        g.writeArrayFieldStart("regionTeamCount");
+        for(LadderTeamState s : states) writeNullable(g, s.getPopulationState().getRegionTeamCount());
+        g.writeEndArray();
+
+        g.writeArrayFieldStart("leagueRank");
+        for(LadderTeamState s : states) writeNullable(g, s.getTeamState().getLeagueRank());
+        g.writeEndArray();
+        g.writeArrayFieldStart("leagueTeamCount");
+        for(LadderTeamState s : states) writeNullable(g, s.getPopulationState().getLeagueTeamCount());
+        g.writeEndArray();
+
+        g.writeArrayFieldStart("race");
+        for(LadderTeamState s : states)
+        {
+            if(s.getRace() == null)
+            {
+                g.writeNull();
+            }
+            else
+            {
+                g.writeString(s.getRace().toString());
+            }
+        }
+        g.writeEndArray();
+
+        g.writeFieldName("season");
+        g.writeArray(seasons, 0, length);
+
+        g.writeEndObject();
+    }
+
+    /*
+        TokenBuffer can write binary data, but its content is usually converted to trees and
+        other formats, keep the text representation there.
+     */
+    private static boolean isBinary(JsonGenerator g)
+    {
+        return g.canWriteBinaryNatively() && !(g instanceof TokenBuffer);
+    }
+
+    private static void writeNullable(JsonGenerator g, Integer value)
+    throws IOException
+    {
+        if(value == null)
+        {
+            g.writeNull();
+        }
+        else
+        {
+            g.writeNumber(value);
+        }
     }
 
 }
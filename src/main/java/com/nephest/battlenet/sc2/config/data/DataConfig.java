@@ -3,10 +3,13 @@
 
 package com.nephest.battlenet.sc2.config.data;
 
+import java.time.Duration;
 import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -15,6 +18,8 @@ import org.springframework.transaction.PlatformTransactionManager;
 public class DataConfig
 {
 
+    public static final int STREAMING_FETCH_SIZE = 1000;
+
     @Bean
     public PlatformTransactionManager txManager(DataSource dataSource)
     {
@@ -27,6 +32,34 @@ public class DataConfig
         return new NamedParameterJdbcTemplate(dataSource);
     }
 
+    /*
+        Postgres driver uses a server-side cursor only when fetch size is set and autocommit is
+        off, use this template in transactions to stream big result sets with bounded memory.
+     */
+    @Bean
+    public NamedParameterJdbcTemplate sc2StatsStreamingNamedTemplate(DataSource dataSource)
+    {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(STREAMING_FETCH_SIZE);
+        return new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Bean
+    public QueryTimings queryTimings
+    (
+        @Value("${com.nephest.battlenet.sc2.dao.slow.threshold:#{'PT1S'}}") Duration slowThreshold,
+        @Value("${com.nephest.battlenet.sc2.dao.slow.count:#{'100'}}") int slowQueryCount
+    )
+    {
+        return new QueryTimings(slowThreshold, slowQueryCount);
+    }
+
+    @Bean
+    public QueryTimingAspect queryTimingAspect(QueryTimings queryTimings)
+    {
+        return new QueryTimingAspect(queryTimings);
+    }
+
     /*TODO
         This temporarily fixes https://github.com/spring-projects/spring-batch/issues/4519.
         Spring fix should be available in Batch 5.2. This fix should be removed when Spring fix
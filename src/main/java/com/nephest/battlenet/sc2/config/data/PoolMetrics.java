@@ -0,0 +1,133 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.data;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/*
+    # Pool metrics
+
+    Hikari metrics tracker factory that records connection wait times, timeouts and usage
+    times per pool. Wait time is the main bulkhead health indicator, a pool that is too small
+    for its workload has growing waits while other pools are unaffected.
+ */
+public class PoolMetrics
+implements MetricsTrackerFactory
+{
+
+    public record Stats
+    (
+        int active,
+        int idle,
+        int total,
+        int max,
+        int waiting,
+        long acquired,
+        Duration waitTotal,
+        Duration waitMax,
+        long timeouts,
+        Duration usageTotal
+    )
+    {
+
+        public Duration getWaitMean()
+        {
+            return acquired == 0 ? Duration.ZERO : waitTotal.dividedBy(acquired);
+        }
+
+    }
+
+    private static class Tracker
+    implements IMetricsTracker
+    {
+
+        private final PoolStats poolStats;
+        private final LongAdder acquired = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAccumulator waitMaxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder usageMillis = new LongAdder();
+
+        private Tracker(PoolStats poolStats)
+        {
+            this.poolStats = poolStats;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos)
+        {
+            acquired.increment();
+            waitNanos.add(elapsedAcquiredNanos);
+            waitMaxNanos.accumulate(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis)
+        {
+            usageMillis.add(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout()
+        {
+            timeouts.increment();
+        }
+
+        private Stats getStats()
+        {
+            return new Stats
+            (
+                poolStats.getActiveConnections(),
+                poolStats.getIdleConnections(),
+                poolStats.getTotalConnections(),
+                poolStats.getMaxConnections(),
+                poolStats.getPendingThreads(),
+                acquired.sum(),
+                Duration.ofNanos(waitNanos.sum()),
+                Duration.ofNanos(waitMaxNanos.get()),
+                timeouts.sum(),
+                Duration.ofMillis(usageMillis.sum())
+            );
+        }
+
+    }
+
+    private final Map<String, Tracker> trackers = new ConcurrentHashMap<>();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats)
+    {
+        Tracker tracker = new Tracker(poolStats);
+        trackers.put(poolName, tracker);
+        return tracker;
+    }
+
+    /**
+     * @return stats of started pools by pool name
+     */
+    public Map<String, Stats> getStats()
+    {
+        return trackers.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, e->e.getValue().getStats()));
+    }
+
+    /**
+     * @param poolName pool name
+     * @return number of threads waiting for a connection, 0 if the pool is not started
+     */
+    public int getWaiting(String poolName)
+    {
+        Tracker tracker = trackers.get(poolName);
+        return tracker != null ? tracker.poolStats.getPendingThreads() : 0;
+    }
+
+}
@@ -0,0 +1,41 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.data;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event of a DAO method call. Enabled in all recordings, calls faster than the threshold
+ * are not committed.
+ */
+@Name("com.nephest.battlenet.sc2.DAOQuery")
+@Label("DAO Query")
+@Category({"SC2 Pulse", "Database"})
+@Description("DAO method call")
+@Threshold("20 ms")
+@StackTrace(false)
+public class QueryEvent
+extends jdk.jfr.Event
+{
+
+    @Label("Method")
+    public String method;
+
+    @Label("Rows")
+    @Description("Number of returned or affected rows")
+    public long rows;
+
+    @Label("Parameters")
+    @Description("Number of bind parameters, collection elements are counted individually")
+    public long parameters;
+
+    @Label("Error")
+    public boolean error;
+
+}
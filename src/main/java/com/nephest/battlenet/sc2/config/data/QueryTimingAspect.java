@@ -0,0 +1,172 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.data;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+/*
+    # Query timing aspect
+
+    Times public methods of repositories and feeds QueryTimings and JFR. In-memory repositories
+    (Fast*DAO) and methods or types annotated with NotTimed are excluded, they don't access the
+    DB and would only add noise and overhead to hot paths. Row and parameter counts are derived
+    from method results and arguments, so DAOs don't need to change:
+
+    * rows: collection/map/array size, update count(s) for int/long/int[] results, 1 for other
+      non-null values and present optionals;
+    * parameters: collection/map/array size, 1 for other arguments.
+
+    Methods that return counts, not rows, report the count as rows, this is fine for spotting
+    regressions.
+ */
+@Aspect
+public class QueryTimingAspect
+{
+
+    private final QueryTimings timings;
+    //target class, not the declaring class, shared base methods are timed per DAO
+    private final Map<Class<?>, Map<Method, String>> methodNames = new ConcurrentHashMap<>();
+
+    public QueryTimingAspect(QueryTimings timings)
+    {
+        this.timings = timings;
+    }
+
+    @Around
+    (
+        "within(@org.springframework.stereotype.Repository com.nephest.battlenet.sc2..*) "
+        + "&& !within(com.nephest.battlenet.sc2..Fast*DAO) "
+        + "&& !within(@com.nephest.battlenet.sc2.config.data.NotTimed *) "
+        + "&& !@annotation(com.nephest.battlenet.sc2.config.data.NotTimed) "
+        + "&& execution(public * *(..))"
+    )
+    public Object time(ProceedingJoinPoint joinPoint)
+    throws Throwable
+    {
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Object result = null;
+        boolean error = true;
+        try
+        {
+            result = joinPoint.proceed();
+            error = false;
+            return result;
+        }
+        finally
+        {
+            long nanos = System.nanoTime() - start;
+            String method = getMethodName(joinPoint);
+            Object[] args = joinPoint.getArgs();
+            long rows = countRows(result);
+            long parameters = countParameters(args);
+            timings.record(method, nanos, rows, parameters, error, ()->getShape(args));
+            event.end();
+            if(event.shouldCommit())
+            {
+                event.method = method;
+                event.rows = rows;
+                event.parameters = parameters;
+                event.error = error;
+                event.commit();
+            }
+        }
+    }
+
+    /*
+        Spring AOP creates a new Signature for each call, so names are cached per target class
+        and Method instead.
+     */
+    private String getMethodName(ProceedingJoinPoint joinPoint)
+    {
+        Class<?> target = joinPoint.getTarget().getClass();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Map<Method, String> names = methodNames.get(target);
+        String name = names != null ? names.get(method) : null;
+        if(name != null) return name;
+
+        return methodNames
+            .computeIfAbsent(target, t->new ConcurrentHashMap<>())
+            .computeIfAbsent(method, m->target.getSimpleName() + "." + m.getName());
+    }
+
+    private static int size(Object obj)
+    {
+        if(obj instanceof Collection<?> collection) return collection.size();
+        if(obj instanceof Map<?, ?> map) return map.size();
+        if(obj != null && obj.getClass().isArray()) return Array.getLength(obj);
+        return -1;
+    }
+
+    public static long countRows(Object result)
+    {
+        if(result == null) return 0;
+        if(result instanceof Integer count) return count;
+        if(result instanceof Long count) return count;
+        if(result instanceof int[] counts)
+        {
+            long sum = 0;
+            for(int count : counts) sum += Math.max(count, 0);
+            return sum;
+        }
+        if(result instanceof Optional<?> optional) return optional.isPresent() ? 1 : 0;
+        int size = size(result);
+        return size >= 0 ? size : 1;
+    }
+
+    public static long countParameters(Object[] args)
+    {
+        long count = 0;
+        for(Object arg : args)
+        {
+            int size = size(arg);
+            count += size >= 0 ? size : 1;
+        }
+        return count;
+    }
+
+    /**
+     * @param args method arguments
+     * @return argument types and sizes, e.g. {@code (Set[500], Integer, null)}
+     */
+    public static String getShape(Object[] args)
+    {
+        StringJoiner joiner = new StringJoiner(", ", "(", ")");
+        for(Object arg : args)
+        {
+            if(arg == null)
+            {
+                joiner.add("null");
+                continue;
+            }
+            int size = size(arg);
+            joiner.add(size >= 0 ? getType(arg) + "[" + size + "]" : getType(arg));
+        }
+        return joiner.toString();
+    }
+
+    private static String getType(Object arg)
+    {
+        if(arg.getClass().isArray()) return arg.getClass().getComponentType().getSimpleName();
+        if(arg instanceof List<?>) return "List";
+        if(arg instanceof Set<?>) return "Set";
+        if(arg instanceof Collection<?>) return "Collection";
+        if(arg instanceof Map<?, ?>) return "Map";
+        return arg.getClass().getSimpleName();
+    }
+
+}
@@ -0,0 +1,243 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.data;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/*
+    # Query timings
+
+    Per-DAO-method latency histograms, row and bind parameter counts, and a ring buffer of
+    recent slow calls. It's fed by QueryTimingAspect and is viewable from the admin API.
+
+    * Histograms have fixed power of 2 millisecond buckets, percentiles are bucket upper
+      bounds. This is enough to see which method regressed, and recording is a few atomic
+      increments.
+    * Timings are inclusive, a DAO method that calls another DAO includes the nested call.
+    * Slow calls are captured with their parameter shapes(types and sizes), never with values,
+      so they don't leak user data into the admin API.
+ */
+public class QueryTimings
+{
+
+    //upper bounds: 1ms, 2ms, 4ms, ..., 2^(BUCKET_COUNT - 2)ms, overflow
+    public static final int BUCKET_COUNT = 20;
+    public static final double[] PERCENTILES = new double[]{0.5, 0.95, 0.99};
+
+    public record SlowQuery
+    (
+        Instant timestamp,
+        String method,
+        Duration duration,
+        long rows,
+        long parameters,
+        String shape,
+        String thread
+    )
+    {}
+
+    public record Stats
+    (
+        long calls,
+        long errors,
+        Duration total,
+        Duration max,
+        Map<String, Duration> percentiles,
+        long rows,
+        long parameters,
+        long[] histogram
+    )
+    {
+
+        public Duration getMean()
+        {
+            return calls == 0 ? Duration.ZERO : total.dividedBy(calls);
+        }
+
+    }
+
+    private static class MethodTimings
+    {
+
+        private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder parameters = new LongAdder();
+
+        private MethodTimings()
+        {
+            for(int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+        }
+
+        private void record(long nanos, long rows, long parameters, boolean error)
+        {
+            buckets[getBucket(nanos)].increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            this.rows.add(rows);
+            this.parameters.add(parameters);
+            if(error) errors.increment();
+        }
+
+        private Stats getStats()
+        {
+            long[] histogram = new long[buckets.length];
+            long calls = 0;
+            for(int i = 0; i < histogram.length; i++)
+            {
+                histogram[i] = buckets[i].sum();
+                calls += histogram[i];
+            }
+            return new Stats
+            (
+                calls,
+                errors.sum(),
+                Duration.ofNanos(totalNanos.sum()),
+                Duration.ofNanos(maxNanos.get()),
+                getPercentiles(histogram, calls),
+                rows.sum(),
+                parameters.sum(),
+                histogram
+            );
+        }
+
+    }
+
+    private final Map<String, MethodTimings> timings = new ConcurrentHashMap<>();
+    private final long slowThresholdNanos;
+    private final AtomicReferenceArray<SlowQuery> slowQueries;
+    private final AtomicLong slowQueryIx = new AtomicLong();
+
+    /**
+     * @param slowThreshold calls that are slower than this value are captured
+     * @param slowQueryCount max number of captured slow calls, older calls are overwritten
+     */
+    public QueryTimings(Duration slowThreshold, int slowQueryCount)
+    {
+        if(slowQueryCount < 1) throw new IllegalArgumentException("Slow query count must be positive");
+
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.slowQueries = new AtomicReferenceArray<>(slowQueryCount);
+    }
+
+    public static int getBucket(long nanos)
+    {
+        long millis = nanos / 1_000_000;
+        //bucket 0 is [0, 1ms), bucket n is [2^(n - 1)ms, 2^n ms)
+        int bucket = 64 - Long.numberOfLeadingZeros(millis);
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+
+    /**
+     * @param bucket bucket index
+     * @return exclusive upper bound of the bucket, max value for the overflow bucket
+     */
+    public static Duration getBucketUpperBound(int bucket)
+    {
+        return bucket >= BUCKET_COUNT - 1
+            ? Duration.ofNanos(Long.MAX_VALUE)
+            : Duration.ofMillis(1L << bucket);
+    }
+
+    private static Map<String, Duration> getPercentiles(long[] histogram, long calls)
+    {
+        Map<String, Duration> percentiles = new LinkedHashMap<>(PERCENTILES.length, 1.0F);
+        if(calls == 0) return percentiles;
+
+        for(double percentile : PERCENTILES)
+        {
+            long rank = (long) Math.ceil(percentile * calls);
+            long seen = 0;
+            for(int i = 0; i < histogram.length; i++)
+            {
+                seen += histogram[i];
+                if(seen >= rank)
+                {
+                    percentiles.put("p" + Math.round(percentile * 100), getBucketUpperBound(i));
+                    break;
+                }
+            }
+        }
+        return percentiles;
+    }
+
+    /**
+     * @param shape parameter shape supplier, it's called only for slow calls
+     */
+    public void record
+    (
+        String method,
+        long nanos,
+        long rows,
+        long parameters,
+        boolean error,
+        Supplier<String> shape
+    )
+    {
+        timings.computeIfAbsent(method, m->new MethodTimings())
+            .record(nanos, rows, parameters, error);
+        if(nanos >= slowThresholdNanos)
+        {
+            int ix = (int) (slowQueryIx.getAndIncrement() % slowQueries.length());
+            slowQueries.set(ix, new SlowQuery
+            (
+                Instant.now(),
+                method,
+                Duration.ofNanos(nanos),
+                rows,
+                parameters,
+                shape.get(),
+                Thread.currentThread().getName()
+            ));
+        }
+    }
+
+    public Duration getSlowThreshold()
+    {
+        return Duration.ofNanos(slowThresholdNanos);
+    }
+
+    public Map<String, Stats> getStats()
+    {
+        return timings.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, e->e.getValue().getStats()));
+    }
+
+    /**
+     * @return captured slow calls, slowest first
+     */
+    public List<SlowQuery> getSlowQueries()
+    {
+        List<SlowQuery> result = new ArrayList<>(slowQueries.length());
+        for(int i = 0; i < slowQueries.length(); i++)
+        {
+            SlowQuery query = slowQueries.get(i);
+            if(query != null) result.add(query);
+        }
+        result.sort(Comparator.comparing(SlowQuery::duration).reversed());
+        return result;
+    }
+
+    public void reset()
+    {
+        timings.clear();
+        for(int i = 0; i < slowQueries.length(); i++) slowQueries.set(i, null);
+    }
+
+}
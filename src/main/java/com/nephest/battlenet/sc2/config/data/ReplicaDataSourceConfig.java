@@ -0,0 +1,137 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.data;
+
+import com.nephest.battlenet.sc2.config.filter.PrimaryPinningFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/*
+    # Read/write data source split
+
+    Enabled when the replica URL is set, the default single data source is used otherwise.
+
+    * Primary pool: spring.datasource.*, spring.datasource.hikari.*
+    * Replica pool: com.nephest.battlenet.sc2.datasource.replica.url, username, password,
+      com.nephest.battlenet.sc2.datasource.replica.hikari.*. Username and password default to
+      the primary ones.
+    * Read-only transactions are routed to the replica. Everything else, including
+      non-transactional statements, goes to the primary.
+    * Pinned and write transactions use the bulkheaded workload pools instead of the primary
+      pool when they are enabled, see WorkloadDataSourceConfig.
+    * Connections are acquired lazily, so the read-only flag of a transaction is known when a
+      connection is taken.
+ */
+@Configuration
+@ConditionalOnProperty(name = "com.nephest.battlenet.sc2.datasource.replica.url")
+public class ReplicaDataSourceConfig
+{
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties)
+    {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("com.nephest.battlenet.sc2.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource
+    (
+        DataSourceProperties properties,
+        @Value("${com.nephest.battlenet.sc2.datasource.replica.url}") String url,
+        @Value("${com.nephest.battlenet.sc2.datasource.replica.username:#{null}}") String username,
+        @Value("${com.nephest.battlenet.sc2.datasource.replica.password:#{null}}") String password
+    )
+    {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .url(url)
+            .username(username != null ? username : properties.determineUsername())
+            .password(password != null ? password : properties.determinePassword())
+            .build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.REPLICA);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    private static DataSource getPrimary
+    (
+        DataSource primaryDataSource,
+        ObjectProvider<WorkloadRoutingDataSource> workloadRoutingDataSource
+    )
+    {
+        WorkloadRoutingDataSource workloadDataSource = workloadRoutingDataSource.getIfAvailable();
+        return workloadDataSource != null ? workloadDataSource : primaryDataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource
+    (
+        @Qualifier("primaryDataSource") DataSource primaryDataSource,
+        @Qualifier("replicaDataSource") DataSource replicaDataSource,
+        ObjectProvider<WorkloadRoutingDataSource> workloadRoutingDataSource,
+        @Value("${com.nephest.battlenet.sc2.datasource.replica.lag.max:#{'PT30S'}}") Duration maxLag,
+        @Value("${com.nephest.battlenet.sc2.datasource.replica.pin:#{'PT10S'}}") Duration pinDuration
+    )
+    {
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource
+        (
+            getPrimary(primaryDataSource, workloadRoutingDataSource),
+            replicaDataSource,
+            maxLag,
+            pinDuration
+        );
+        dataSource.updateLag();
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource
+    (
+        @Qualifier("primaryDataSource") DataSource primaryDataSource,
+        ObjectProvider<WorkloadRoutingDataSource> workloadRoutingDataSource,
+        ReplicaRoutingDataSource replicaRoutingDataSource
+    )
+    {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy
+        (
+            getPrimary(primaryDataSource, workloadRoutingDataSource)
+        );
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public FilterRegistrationBean<PrimaryPinningFilter> primaryPinningFilter
+    (
+        ReplicaRoutingDataSource replicaRoutingDataSource
+    )
+    {
+        FilterRegistrationBean<PrimaryPinningFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new PrimaryPinningFilter(replicaRoutingDataSource));
+        registrationBean.addUrlPatterns("/*");
+        registrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registrationBean;
+    }
+
+}
@@ -0,0 +1,225 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.data;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/*
+    # Read-only connection routing
+
+    This is a read-only data source of the LazyConnectionDataSourceProxy, it's used for
+    read-only transactions only. Connections are taken from the replica pool unless:
+
+    * the current thread is pinned to the primary, e.g. the session has written something
+      recently and must see its own writes;
+    * replication lag is unknown or too big;
+    * the replica is unavailable.
+
+    Replication lag is measured periodically. The lag is 0 when the replica is not in
+    recovery, so two independent local instances can be used for tests.
+ */
+public class ReplicaRoutingDataSource
+extends AbstractDataSource
+{
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+    public static final String LAG_QUERY =
+        "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() "
+                + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) "
+        + "END";
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    public record PoolStats
+    (
+        String role,
+        int active,
+        int idle,
+        int total,
+        int waiting,
+        long routed
+    )
+    {}
+
+    public record Stats(Duration lag, Duration maxLag, PoolStats primary, PoolStats replica)
+    {}
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final Duration pinDuration;
+    private final AtomicLong primaryConnections = new AtomicLong();
+    private final AtomicLong replicaConnections = new AtomicLong();
+    private volatile Duration lag;
+
+    /**
+     * @param primary primary data source, it's used as a fallback
+     * @param replica replica data source
+     * @param maxLag replica is not used if its lag is bigger than this value
+     * @param pinDuration min duration a session is pinned to the primary after its writes
+     */
+    public ReplicaRoutingDataSource
+    (
+        DataSource primary,
+        DataSource replica,
+        Duration maxLag,
+        Duration pinDuration
+    )
+    {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.pinDuration = pinDuration;
+    }
+
+    /**
+     * Pins the current thread to the primary. Pins are not nested.
+     */
+    public static void pin()
+    {
+        PINNED.set(true);
+    }
+
+    public static void unpin()
+    {
+        PINNED.remove();
+    }
+
+    public static boolean isPinned()
+    {
+        return PINNED.get() != null;
+    }
+
+    public static <T> T onPrimary(Supplier<T> supplier)
+    {
+        if(isPinned()) return supplier.get();
+
+        pin();
+        try
+        {
+            return supplier.get();
+        }
+        finally
+        {
+            unpin();
+        }
+    }
+
+    @Scheduled(fixedDelay = 5_000)
+    public void updateLag()
+    {
+        try
+        (
+            Connection connection = replica.getConnection();
+            Statement statement = connection.createStatement();
+            ResultSet rs = statement.executeQuery(LAG_QUERY)
+        )
+        {
+            rs.next();
+            Duration newLag = Duration.ofMillis(Math.round(rs.getDouble(1)));
+            if(newLag.compareTo(maxLag) > 0 && (lag == null || lag.compareTo(maxLag) <= 0))
+                LOG.warn("Replica lag {} is bigger than {}, routing reads to the primary", newLag, maxLag);
+            lag = newLag;
+        }
+        catch (SQLException | RuntimeException ex)
+        {
+            if(lag != null) LOG.error("Replica is unavailable, routing reads to the primary", ex);
+            lag = null;
+        }
+    }
+
+    public boolean isReplicaAvailable()
+    {
+        Duration currentLag = lag;
+        return currentLag != null && currentLag.compareTo(maxLag) <= 0;
+    }
+
+    private DataSource determineDataSource()
+    {
+        if(!isPinned() && isReplicaAvailable())
+        {
+            replicaConnections.incrementAndGet();
+            return replica;
+        }
+        primaryConnections.incrementAndGet();
+        return primary;
+    }
+
+    @Override
+    public Connection getConnection()
+    throws SQLException
+    {
+        return determineDataSource().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password)
+    throws SQLException
+    {
+        return determineDataSource().getConnection(username, password);
+    }
+
+    /**
+     * @return how long a session should be pinned to the primary after its writes. It's the
+     * configured pin duration or the current replication lag, whichever is bigger.
+     */
+    public Duration getPinDuration()
+    {
+        Duration currentLag = lag;
+        return currentLag != null && currentLag.compareTo(pinDuration) > 0 ? currentLag : pinDuration;
+    }
+
+    public Duration getLag()
+    {
+        return lag;
+    }
+
+    public Stats getStats()
+    {
+        return new Stats
+        (
+            lag,
+            maxLag,
+            getPoolStats(PRIMARY, primary, primaryConnections.get()),
+            getPoolStats(REPLICA, replica, replicaConnections.get())
+        );
+    }
+
+    private static PoolStats getPoolStats(String role, DataSource dataSource, long routed)
+    {
+        HikariPoolMXBean pool = dataSource instanceof HikariDataSource hikari
+            ? hikari.getHikariPoolMXBean()
+            : null;
+        return pool == null
+            ? new PoolStats(role, -1, -1, -1, -1, routed)
+            : new PoolStats
+            (
+                role,
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection(),
+                routed
+            );
+    }
+
+}
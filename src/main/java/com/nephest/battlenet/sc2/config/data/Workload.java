@@ -0,0 +1,104 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.data;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+/*
+    # Workload
+
+    Kind of work the current thread is doing, WorkloadRoutingDataSource takes connections from
+    the pool of the current workload.
+
+    * Executor threads are bound to a workload by their thread factory, see CommonBeanConfig.
+    * Web requests are bound by WorkloadFilter, long-running requests(exports, admin) are
+      maintenance requests.
+    * Unbound threads(schedulers, bots, etc.) are background threads.
+    * Reactor blocking tasks are bound by the WebServiceUtil.blockingRunnable/blockingCallable
+      overloads that take a workload.
+    * Tasks that do a different kind of work must be wrapped in run/call. Transactions take
+      their connection when they begin, so the workload must be set before a transactional
+      method is called.
+ */
+public enum Workload
+{
+
+    WEB, INGEST, MAINTENANCE, BACKGROUND;
+
+    public static final Workload DEFAULT = BACKGROUND;
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    public static Workload current()
+    {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : DEFAULT;
+    }
+
+    /**
+     * Binds the current thread to a workload.
+     *
+     * @param workload new workload
+     * @return previous workload, must be passed to {@link #restore(Workload)}
+     */
+    public static Workload bind(Workload workload)
+    {
+        Workload previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    public static void restore(Workload previous)
+    {
+        if(previous != null)
+        {
+            CURRENT.set(previous);
+        }
+        else
+        {
+            CURRENT.remove();
+        }
+    }
+
+    public static <T> T call(Workload workload, Supplier<T> supplier)
+    {
+        Workload previous = bind(workload);
+        try
+        {
+            return supplier.get();
+        }
+        finally
+        {
+            restore(previous);
+        }
+    }
+
+    public static void run(Workload workload, Runnable runnable)
+    {
+        call(workload, ()->{
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * @param workload workload of created threads
+     * @param threadFactory thread factory
+     * @return thread factory that binds all created threads to the workload
+     */
+    public static ThreadFactory threadFactory(Workload workload, ThreadFactory threadFactory)
+    {
+        return r->threadFactory.newThread(()->{
+            CURRENT.set(workload);
+            r.run();
+        });
+    }
+
+    public String getPoolName()
+    {
+        return name().toLowerCase();
+    }
+
+}
@@ -0,0 +1,177 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.data;
+
+import com.nephest.battlenet.sc2.config.filter.WorkloadFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/*
+    # Bulkheaded connection pools
+
+    Enabled when com.nephest.battlenet.sc2.datasource.bulkhead.enabled is true. Each Workload
+    gets its own pool:
+
+    * web: the primary pool, spring.datasource.hikari.*. It's also used by workloads without a
+      dedicated pool;
+    * ingest, maintenance, background:
+      com.nephest.battlenet.sc2.datasource.pool.{name}.hikari.*. Connection settings are
+      inherited from spring.datasource.*.
+
+    Each pool has its own statement timeout,
+    com.nephest.battlenet.sc2.datasource.pool.{name}.statement-timeout, 0 disables the
+    timeout. The timeout is set by the connection init SQL, so it's ignored if the pool has
+    its own init SQL.
+
+    Works with the replica data source too. Read-only transactions of all workloads use the
+    replica pool then, pinned and write transactions use the workload pools.
+ */
+@Configuration
+@ConditionalOnProperty(name = "com.nephest.battlenet.sc2.datasource.bulkhead.enabled", havingValue = "true")
+public class WorkloadDataSourceConfig
+{
+
+    public static final String POOL_PREFIX = "com.nephest.battlenet.sc2.datasource.pool.";
+
+    @Configuration
+    @ConditionalOnExpression("'${com.nephest.battlenet.sc2.datasource.replica.url:}' == ''")
+    public static class SingleDataSourceConfig
+    {
+
+        @Bean
+        @ConfigurationProperties("spring.datasource.hikari")
+        public HikariDataSource primaryDataSource(DataSourceProperties properties)
+        {
+            HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+            dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+            return dataSource;
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(WorkloadRoutingDataSource workloadRoutingDataSource)
+        {
+            return new LazyConnectionDataSourceProxy(workloadRoutingDataSource);
+        }
+
+    }
+
+    public static String getStatementTimeoutSql(Duration timeout)
+    {
+        return "SET statement_timeout = " + timeout.toMillis();
+    }
+
+    private static HikariDataSource createPool
+    (
+        DataSourceProperties properties,
+        Workload workload,
+        Duration statementTimeout,
+        PoolMetrics poolMetrics
+    )
+    {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        dataSource.setPoolName(workload.getPoolName());
+        dataSource.setConnectionInitSql(getStatementTimeoutSql(statementTimeout));
+        dataSource.setMetricsTrackerFactory(poolMetrics);
+        return dataSource;
+    }
+
+    @Bean
+    public PoolMetrics poolMetrics()
+    {
+        return new PoolMetrics();
+    }
+
+    @Bean
+    @ConfigurationProperties(POOL_PREFIX + "ingest.hikari")
+    public HikariDataSource ingestDataSource
+    (
+        DataSourceProperties properties,
+        PoolMetrics poolMetrics,
+        @Value("${" + POOL_PREFIX + "ingest.statement-timeout:#{'PT0S'}}") Duration statementTimeout
+    )
+    {
+        return createPool(properties, Workload.INGEST, statementTimeout, poolMetrics);
+    }
+
+    @Bean
+    @ConfigurationProperties(POOL_PREFIX + "maintenance.hikari")
+    public HikariDataSource maintenanceDataSource
+    (
+        DataSourceProperties properties,
+        PoolMetrics poolMetrics,
+        @Value("${" + POOL_PREFIX + "maintenance.statement-timeout:#{'PT0S'}}") Duration statementTimeout
+    )
+    {
+        return createPool(properties, Workload.MAINTENANCE, statementTimeout, poolMetrics);
+    }
+
+    @Bean
+    @ConfigurationProperties(POOL_PREFIX + "background.hikari")
+    public HikariDataSource backgroundDataSource
+    (
+        DataSourceProperties properties,
+        PoolMetrics poolMetrics,
+        @Value("${" + POOL_PREFIX + "background.statement-timeout:#{'PT10M'}}") Duration statementTimeout
+    )
+    {
+        return createPool(properties, Workload.BACKGROUND, statementTimeout, poolMetrics);
+    }
+
+    @Bean
+    public WorkloadRoutingDataSource workloadRoutingDataSource
+    (
+        @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+        @Qualifier("ingestDataSource") DataSource ingestDataSource,
+        @Qualifier("maintenanceDataSource") DataSource maintenanceDataSource,
+        @Qualifier("backgroundDataSource") DataSource backgroundDataSource,
+        PoolMetrics poolMetrics,
+        @Value("${" + POOL_PREFIX + "web.statement-timeout:#{'PT1M'}}") Duration webStatementTimeout
+    )
+    {
+        //the primary pool is lazy, it's not started yet
+        if(primaryDataSource.getConnectionInitSql() == null)
+            primaryDataSource.setConnectionInitSql(getStatementTimeoutSql(webStatementTimeout));
+        primaryDataSource.setMetricsTrackerFactory(poolMetrics);
+        return new WorkloadRoutingDataSource
+        (
+            primaryDataSource,
+            Map.of
+            (
+                Workload.INGEST, ingestDataSource,
+                Workload.MAINTENANCE, maintenanceDataSource,
+                Workload.BACKGROUND, backgroundDataSource
+            )
+        );
+    }
+
+    @Bean
+    public FilterRegistrationBean<WorkloadFilter> workloadFilter()
+    {
+        FilterRegistrationBean<WorkloadFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new WorkloadFilter());
+        registrationBean.addUrlPatterns("/*");
+        registrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registrationBean;
+    }
+
+}
@@ -0,0 +1,66 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.data;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/*
+    # Bulkheaded connection pools
+
+    Takes connections from the pool of the current Workload, so a long maintenance or
+    ingestion window can't starve web requests of connections, and vice versa. Workloads
+    without a dedicated pool use the default pool.
+
+    This is the primary data source when bulkheads are enabled, see WorkloadDataSourceConfig.
+    It's used by all templates and the transaction manager, so transactions and DAOs don't
+    need to know about pools.
+ */
+public class WorkloadRoutingDataSource
+extends AbstractDataSource
+{
+
+    private final DataSource defaultDataSource;
+    private final Map<Workload, DataSource> dataSources;
+
+    /**
+     * @param defaultDataSource used by workloads without a dedicated pool
+     * @param dataSources dedicated pools
+     */
+    public WorkloadRoutingDataSource
+    (
+        DataSource defaultDataSource,
+        Map<Workload, ? extends DataSource> dataSources
+    )
+    {
+        this.defaultDataSource = defaultDataSource;
+        this.dataSources = dataSources.isEmpty()
+            ? new EnumMap<>(Workload.class)
+            : new EnumMap<>(dataSources);
+    }
+
+    public DataSource determineDataSource()
+    {
+        return dataSources.getOrDefault(Workload.current(), defaultDataSource);
+    }
+
+    @Override
+    public Connection getConnection()
+    throws SQLException
+    {
+        return determineDataSource().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password)
+    throws SQLException
+    {
+        return determineDataSource().getConnection(username, password);
+    }
+
+}
@@ -0,0 +1,72 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.filter;
+
+import com.nephest.battlenet.sc2.web.service.ApiAdmissionService;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Admits API requests via {@link ApiAdmissionService}, rejected requests get an empty 429
+ * response with the Retry-After header. Clients are identified by their remote address.
+ * Requests that carry a valid interactive cookie(issued by {@link InteractiveCookieFilter}
+ * when the site's pages are loaded) are interactive.
+ */
+public class ApiAdmissionFilter
+implements Filter
+{
+
+    private final ApiAdmissionService admissionService;
+
+    public ApiAdmissionFilter(ApiAdmissionService admissionService)
+    {
+        this.admissionService = admissionService;
+    }
+
+    public static boolean isInteractive(HttpServletRequest req, ApiAdmissionService admissionService)
+    {
+        Cookie cookie = WebUtils.getCookie(req, InteractiveCookieFilter.COOKIE_NAME);
+        return cookie != null && admissionService.isInteractiveToken(cookie.getValue(), req.getRemoteAddr());
+    }
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse resp, FilterChain chain)
+    throws IOException, ServletException
+    {
+        HttpServletRequest hreq = (HttpServletRequest) req;
+        ApiAdmissionService.Admission admission = admissionService.admit
+        (
+            hreq.getRemoteAddr(),
+            hreq.getRequestURI().substring(hreq.getContextPath().length()),
+            isInteractive(hreq, admissionService)
+        );
+        if(!admission.isAdmitted())
+        {
+            HttpServletResponse hresp = (HttpServletResponse) resp;
+            hresp.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            hresp.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(admission.retryAfter().toSeconds()));
+            return;
+        }
+
+        try
+        {
+            chain.doFilter(req, resp);
+        }
+        finally
+        {
+            admissionService.complete(admission);
+        }
+    }
+
+}
@@ -5,12 +5,15 @@ package com.nephest.battlenet.sc2.config.filter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nephest.battlenet.sc2.model.local.dao.SeasonDAO;
+import com.nephest.battlenet.sc2.web.service.ApiAdmissionService;
 import com.nephest.battlenet.sc2.web.service.GlobalContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.core.convert.ConversionService;
 
 @Configuration
@@ -52,6 +55,39 @@ public class FilterConfig
         return registrationBean;
     }
 
+    @Bean
+    @ConditionalOnProperty(name = "com.nephest.battlenet.sc2.web.admission.enabled", havingValue = "true")
+    public FilterRegistrationBean<ApiAdmissionFilter> apiAdmissionFilter
+    (
+        ApiAdmissionService admissionService
+    )
+    {
+        FilterRegistrationBean<ApiAdmissionFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new ApiAdmissionFilter(admissionService));
+        registrationBean.addUrlPatterns("/api/*");
+        //reject before security and other filters do any work
+        registrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registrationBean;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "com.nephest.battlenet.sc2.web.admission.enabled", havingValue = "true")
+    public FilterRegistrationBean<InteractiveCookieFilter> interactiveCookieFilter
+    (
+        ApiAdmissionService admissionService
+    )
+    {
+        FilterRegistrationBean<InteractiveCookieFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new InteractiveCookieFilter(admissionService));
+        //pages that use the API
+        registrationBean.addUrlPatterns
+        (
+            "/",
+            "/team/history"
+        );
+        return registrationBean;
+    }
+
     @Bean
     public FilterRegistrationBean<VersionFilter> versionFilter()
     {
@@ -0,0 +1,55 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.filter;
+
+import com.nephest.battlenet.sc2.web.service.ApiAdmissionService;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+
+/**
+ * Issues the interactive cookie when the site's pages are loaded, API requests of the page
+ * are then interactive, see {@link ApiAdmissionFilter}. The cookie is signed by the server
+ * and bound to the client's remote address. The cookie is sent only to the API, page requests
+ * don't carry it, so it's renewed on every page load.
+ */
+public class InteractiveCookieFilter
+implements Filter
+{
+
+    public static final String COOKIE_NAME = "interactive";
+    public static final String COOKIE_PATH = "/api/";
+
+    private final ApiAdmissionService admissionService;
+
+    public InteractiveCookieFilter(ApiAdmissionService admissionService)
+    {
+        this.admissionService = admissionService;
+    }
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse resp, FilterChain chain)
+    throws IOException, ServletException
+    {
+        HttpServletRequest hreq = (HttpServletRequest) req;
+        ResponseCookie cookie = ResponseCookie
+            .from(COOKIE_NAME, admissionService.createInteractiveToken(hreq.getRemoteAddr()))
+            .path(hreq.getContextPath() + COOKIE_PATH)
+            .maxAge(admissionService.getInteractiveTtl())
+            .httpOnly(true)
+            .secure(true)
+            .sameSite("Strict")
+            .build();
+        ((HttpServletResponse) resp).addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        chain.doFilter(req, resp);
+    }
+
+}
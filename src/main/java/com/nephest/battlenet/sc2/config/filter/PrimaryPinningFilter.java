@@ -0,0 +1,74 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.filter;
+
+import com.nephest.battlenet.sc2.config.data.ReplicaRoutingDataSource;
+import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Pins requests to the primary data source when they can write, or when their session has
+ * written something recently. Sessions see their own writes this way, even if the replica
+ * lags behind.
+ */
+public class PrimaryPinningFilter
+implements Filter
+{
+
+    public static final String LAST_WRITE_ATTRIBUTE = "primaryLastWrite";
+    public static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    public PrimaryPinningFilter(ReplicaRoutingDataSource replicaRoutingDataSource)
+    {
+        this.replicaRoutingDataSource = replicaRoutingDataSource;
+    }
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse resp, FilterChain chain)
+    throws IOException, ServletException
+    {
+        HttpServletRequest hreq = (HttpServletRequest) req;
+        boolean write = !SAFE_METHODS.contains(hreq.getMethod());
+        if(!write && !isRecentWriter(hreq.getSession(false)))
+        {
+            chain.doFilter(req, resp);
+            return;
+        }
+
+        ReplicaRoutingDataSource.pin();
+        try
+        {
+            chain.doFilter(req, resp);
+        }
+        finally
+        {
+            ReplicaRoutingDataSource.unpin();
+            if(write)
+            {
+                HttpSession session = hreq.getSession(false);
+                if(session != null) session.setAttribute(LAST_WRITE_ATTRIBUTE, SC2Pulse.instant());
+            }
+        }
+    }
+
+    private boolean isRecentWriter(HttpSession session)
+    {
+        if(session == null) return false;
+
+        return session.getAttribute(LAST_WRITE_ATTRIBUTE) instanceof Instant lastWrite
+            && lastWrite.plus(replicaRoutingDataSource.getPinDuration()).isAfter(SC2Pulse.instant());
+    }
+
+}
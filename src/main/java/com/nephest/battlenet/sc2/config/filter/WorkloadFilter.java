@@ -0,0 +1,59 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.filter;
+
+import com.nephest.battlenet.sc2.config.data.Workload;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Binds request threads to the {@link Workload#WEB} workload, so web requests take connections
+ * from the web pool. Long-running requests(exports, admin maintenance operations) are bound to
+ * the {@link Workload#MAINTENANCE} workload instead, the web pool statement timeout would
+ * cancel them.
+ */
+public class WorkloadFilter
+implements Filter
+{
+
+    public static final List<String> MAINTENANCE_PATHS = List.of("/api/export", "/admin");
+
+    public static Workload getWorkload(String path)
+    {
+        for(String maintenancePath : MAINTENANCE_PATHS)
+            if
+            (
+                path.startsWith(maintenancePath)
+                && (path.length() == maintenancePath.length() || path.charAt(maintenancePath.length()) == '/')
+            )
+                return Workload.MAINTENANCE;
+        return Workload.WEB;
+    }
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse resp, FilterChain chain)
+    throws IOException, ServletException
+    {
+        HttpServletRequest hreq = (HttpServletRequest) req;
+        Workload previous = Workload.bind
+        (
+            getWorkload(hreq.getRequestURI().substring(hreq.getContextPath().length()))
+        );
+        try
+        {
+            chain.doFilter(req, resp);
+        }
+        finally
+        {
+            Workload.restore(previous);
+        }
+    }
+
+}
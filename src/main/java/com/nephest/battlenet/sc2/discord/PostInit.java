@@ -8,25 +8,48 @@ import com.nephest.battlenet.sc2.discord.connection.PulseConnectionParameters;
 import com.nephest.battlenet.sc2.discord.event.AutoComplete;
 import com.nephest.battlenet.sc2.discord.event.SlashCommand;
 import com.nephest.battlenet.sc2.discord.event.UserCommand;
+import com.nephest.battlenet.sc2.model.util.SC2Pulse;
 import com.nephest.battlenet.sc2.web.service.DiscordAPI;
+import com.nephest.battlenet.sc2.web.service.WebServiceUtil;
 import discord4j.core.event.domain.guild.GuildCreateEvent;
 import discord4j.core.event.domain.guild.GuildDeleteEvent;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 /**
  * This component allows initialization of stuff that needs {@link DiscordAPI}. This workaround
  * is needed because DiscordAPI uses {@link SpringDiscordClient} for some operations, which makes
  * it unavailable in earlier stages of bean lifecycle due to circular dependencies.
+ * <p>
+ *     Discord is not critical, so the gateway login and command registration are done in the
+ *     background when the application is ready. The web server doesn't wait for them.
+ * </p>
  */
 @Discord @Component
 public class PostInit
 {
 
+    private static final Logger LOG = LoggerFactory.getLogger(PostInit.class);
+
+    private final List<SlashCommand> handlers;
+    private final List<UserCommand> userInteractionHandlers;
+    private final List<AutoComplete> autoCompleteHandlers;
+    private final GuildEmojiStore guildEmojiStore;
+    private final GuildRoleStore guildRoleStore;
+    private final Long guild;
+    private final DiscordAPI discordAPI;
+    private final PulseConnectionParameters connectionParameters;
+
     @Autowired
     public PostInit
     (
@@ -40,6 +63,26 @@ public class PostInit
         PulseConnectionParameters connectionParameters
     )
     {
+        this.handlers = handlers;
+        this.userInteractionHandlers = userInteractionHandlers;
+        this.autoCompleteHandlers = autoCompleteHandlers;
+        this.guildEmojiStore = guildEmojiStore;
+        this.guildRoleStore = guildRoleStore;
+        this.guild = guild;
+        this.discordAPI = discordAPI;
+        this.connectionParameters = connectionParameters;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady()
+    {
+        WebServiceUtil.getOnErrorLogAndSkipMono(WebServiceUtil.blockingRunnable(this::bootstrap))
+            .subscribe();
+    }
+
+    private void bootstrap()
+    {
+        Instant begin = SC2Pulse.instant();
         DiscordBootstrap.load
         (
             handlers,
@@ -47,10 +90,11 @@ public class PostInit
             autoCompleteHandlers,
             guildEmojiStore,
             guildRoleStore,
-            discordAPI.getDiscordClient().getClient(),
+            discordAPI.getDiscordClient().login().block(),
             guild
         );
         init(discordAPI, connectionParameters);
+        LOG.info("Initialized Discord in {}", Duration.between(begin, SC2Pulse.instant()));
     }
 
     private void init(DiscordAPI discordAPI, PulseConnectionParameters connectionParameters)
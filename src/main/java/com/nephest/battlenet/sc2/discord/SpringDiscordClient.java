@@ -9,39 +9,82 @@ import discord4j.rest.request.BucketGlobalRateLimiter;
 import discord4j.rest.request.GlobalRateLimiter;
 import jakarta.annotation.PreDestroy;
 import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 @Service
 @Discord
 public class SpringDiscordClient
 {
 
+    private static final Logger LOG = LoggerFactory.getLogger(SpringDiscordClient.class);
+
     public static final Duration TIMEOUT = Duration.ofSeconds(3);
+    public static final Duration LOGIN_MIN_BACKOFF = Duration.ofSeconds(5);
+    public static final Duration LOGIN_MAX_BACKOFF = Duration.ofMinutes(10);
 
-    private final GatewayDiscordClient client;
     private final GlobalRateLimiter globalRateLimiter = BucketGlobalRateLimiter.create();
+    private final Mono<GatewayDiscordClient> login;
+    private volatile GatewayDiscordClient client;
 
+    /*
+        The gateway login is lazy, it's done by the first login/getClient call. The application
+        doesn't have to wait for it at startup. Failed logins are retried with a backoff, and
+        errors are never cached, so a Discord outage doesn't disable the bot until restart.
+     */
     @Autowired
     public SpringDiscordClient(@Value("${discord.token:}") String token)
     {
-        this.client = DiscordClientBuilder.create(token)
+        this.login = DiscordClientBuilder.create(token)
             .setGlobalRateLimiter(globalRateLimiter)
             .build()
             .login()
-            .block();
+            .doOnError(t->LOG.warn("Discord login failed: {}", t.getMessage()))
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, LOGIN_MIN_BACKOFF).maxBackoff(LOGIN_MAX_BACKOFF))
+            .doOnNext(c->client = c)
+            //errors and empty completions are not cached, the next subscriber logs in again
+            .cacheInvalidateIf(c->false);
     }
 
     @PreDestroy
     public void destroy()
     {
-        client.logout().block(TIMEOUT);
+        if(client != null) client.logout().block(TIMEOUT);
+    }
+
+    /**
+     * @return shared login, completes when the client is logged in
+     */
+    public Mono<GatewayDiscordClient> login()
+    {
+        GatewayDiscordClient loggedIn = client;
+        return loggedIn != null ? Mono.just(loggedIn) : login;
     }
 
+    public boolean isLoggedIn()
+    {
+        return client != null;
+    }
+
+    /**
+     * Doesn't block. Starts the login in the background if it wasn't started yet. Use
+     * {@link #login()} to wait for the client.
+     *
+     * @return logged in client
+     * @throws IllegalStateException if the client is not logged in yet
+     */
     public GatewayDiscordClient getClient()
     {
-        return client;
+        GatewayDiscordClient loggedIn = client;
+        if(loggedIn != null) return loggedIn;
+
+        login.subscribe(c->{}, t->{});
+        throw new IllegalStateException("Discord client is not logged in yet");
     }
 
     public GlobalRateLimiter getGlobalRateLimiter()
@@ -5,6 +5,9 @@ package com.nephest.battlenet.sc2.model.local;
 
 import com.nephest.battlenet.sc2.model.local.dao.VarDAO;
 import jakarta.validation.constraints.NotNull;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +37,7 @@ public class Var<T>
         this.key = key;
         this.deserializer = deserializer;
         this.serializer = serializer;
+        if(varDAO != null) varDAO.register(this);
         if(load) load();
     }
 
@@ -49,6 +53,20 @@ public class Var<T>
         return this.value;
     }
 
+    /**
+     * Reloads the var from bulk-loaded values, see {@link VarDAO#reloadAll()}. The current value
+     * is kept if there is no such key, so unsaved defaults survive the reload.
+     *
+     * @param values all vars
+     */
+    public void reload(Map<String, String> values)
+    {
+        if(!values.containsKey(key)) return;
+
+        this.value = deserializer.apply(values.get(key));
+        LOG.debug("Reloaded var {}: {}", key, value);
+    }
+
     /**
      * Try to load the var. Exceptions are logged and ignored.
      *
@@ -86,7 +104,25 @@ public class Var<T>
 
     public void save()
     {
-        varDAO.merge(key, serializer.apply(value));
+        varDAO.merge(key, serialize());
+    }
+
+    private String serialize()
+    {
+        return serializer.apply(value);
+    }
+
+    /**
+     * Saves vars in one statement, see {@link VarDAO#merge(Map)}. All vars must use the same
+     * {@link VarDAO}.
+     */
+    public static void saveAll(Collection<? extends Var<?>> vars)
+    {
+        if(vars.isEmpty()) return;
+
+        Map<String, String> values = new LinkedHashMap<>(vars.size());
+        for(Var<?> var : vars) values.put(var.getKey(), var.serialize());
+        vars.iterator().next().getVarDAO().merge(values);
     }
 
     public VarDAO getVarDAO()
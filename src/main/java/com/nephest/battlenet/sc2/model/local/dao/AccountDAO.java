@@ -170,6 +170,12 @@ public class AccountDAO
     private final NamedParameterJdbcTemplate template;
     private final ConversionService conversionService;
 
+    private static final ColumnIndex STD_COLUMNS = new ColumnIndex();
+    private static final int ID = STD_COLUMNS.add("account.id");
+    private static final int PARTITION = STD_COLUMNS.add("account.partition");
+    private static final int BATTLE_TAG = STD_COLUMNS.add("account.battle_tag");
+    private static final int HIDDEN = STD_COLUMNS.add("account.hidden");
+
     private static RowMapper<Account> STD_ROW_MAPPER;
     private static ResultSetExtractor<Account> STD_EXTRACTOR;
 
@@ -187,13 +193,17 @@ public class AccountDAO
 
     private void initMappers(ConversionService conversionService)
     {
-        if(STD_ROW_MAPPER == null) STD_ROW_MAPPER = (rs, num)-> new Account
-        (
-            rs.getLong("account.id"),
-            conversionService.convert(rs.getInt("account.partition"), Partition.class),
-            rs.getString("account.battle_tag"),
-            DAOUtils.getBoolean(rs, "account.hidden")
-        );
+        if(STD_ROW_MAPPER == null) STD_ROW_MAPPER = (rs, num)->
+        {
+            int[] c = STD_COLUMNS.resolve(rs);
+            return new Account
+            (
+                rs.getLong(c[ID]),
+                conversionService.convert(rs.getInt(c[PARTITION]), Partition.class),
+                rs.getString(c[BATTLE_TAG]),
+                DAOUtils.getBoolean(rs, c[HIDDEN])
+            );
+        };
 
         if(STD_EXTRACTOR == null) STD_EXTRACTOR = DAOUtils.getResultSetExtractor(STD_ROW_MAPPER);
     }
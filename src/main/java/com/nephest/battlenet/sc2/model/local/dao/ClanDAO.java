@@ -277,6 +277,17 @@ public class ClanDAO
         + "WHERE clan.id = clan_filter.clan_id "
         + "AND members IS NOT NULL";
 
+    private static final ColumnIndex STD_COLUMNS = new ColumnIndex();
+    private static final int ID = STD_COLUMNS.add("clan.id");
+    private static final int TAG = STD_COLUMNS.add("clan.tag");
+    private static final int REGION = STD_COLUMNS.add("clan.region");
+    private static final int NAME = STD_COLUMNS.add("clan.name");
+    private static final int MEMBERS = STD_COLUMNS.add("clan.members");
+    private static final int ACTIVE_MEMBERS = STD_COLUMNS.add("clan.active_members");
+    private static final int AVG_RATING = STD_COLUMNS.add("clan.avg_rating");
+    private static final int AVG_LEAGUE_TYPE = STD_COLUMNS.add("clan.avg_league_type");
+    private static final int GAMES = STD_COLUMNS.add("clan.games");
+
     private static RowMapper<Clan> STD_ROW_MAPPER;
     private static ResultSetExtractor<Clan> STD_EXTRACTOR;
     private static Integer[] DEFAULT_STATS_RACES;
@@ -421,18 +432,21 @@ public class ClanDAO
     private static void initMappers(ConversionService conversionService)
     {
         if(STD_ROW_MAPPER == null) STD_ROW_MAPPER = (rs, i)->
-            new Clan
+        {
+            int[] c = STD_COLUMNS.resolve(rs);
+            return new Clan
             (
-                rs.getInt("clan.id"),
-                rs.getString("clan.tag"),
-                conversionService.convert(rs.getInt("clan.region"), Region.class),
-                rs.getString("clan.name"),
-                DAOUtils.getInteger(rs, "clan.members"),
-                DAOUtils.getInteger(rs, "clan.active_members"),
-                DAOUtils.getInteger(rs, "clan.avg_rating"),
-                DAOUtils.getConvertedObjectFromInteger(rs, "clan.avg_league_type", conversionService, BaseLeague.LeagueType.class),
-                DAOUtils.getInteger(rs, "clan.games")
+                rs.getInt(c[ID]),
+                rs.getString(c[TAG]),
+                conversionService.convert(rs.getInt(c[REGION]), Region.class),
+                rs.getString(c[NAME]),
+                DAOUtils.getInteger(rs, c[MEMBERS]),
+                DAOUtils.getInteger(rs, c[ACTIVE_MEMBERS]),
+                DAOUtils.getInteger(rs, c[AVG_RATING]),
+                DAOUtils.getConvertedObjectFromInteger(rs, c[AVG_LEAGUE_TYPE], conversionService, BaseLeague.LeagueType.class),
+                DAOUtils.getInteger(rs, c[GAMES])
             );
+        };
         if(STD_EXTRACTOR == null) STD_EXTRACTOR = DAOUtils.getResultSetExtractor(STD_ROW_MAPPER);
     }
 
@@ -0,0 +1,82 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.model.local.dao;
+
+import java.lang.ref.WeakReference;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    # Column index
+
+    Row mappers read columns by label, every read is a label lookup in the driver. Wide rows
+    (ladder search, team histories) do dozens of lookups per row. This class resolves the
+    labels of a mapper into column indexes once per result set, mappers read columns by index.
+
+    Labels are registered once in static initializers, registration returns the position of the
+    resolved index.
+
+    ```java
+    private static final ColumnIndex COLUMNS = new ColumnIndex();
+    private static final int ID = COLUMNS.add("team.id");
+
+    int[] c = COLUMNS.resolve(rs);
+    rs.getLong(c[ID]);
+    ```
+
+    * The last resolved result set is cached per thread, so static mappers can be shared by
+      concurrent queries. The result set is weakly referenced, cached indexes don't keep closed
+      result sets and their rows in memory.
+    * Labels are resolved by ResultSet.findColumn, duplicate labels resolve into the first
+      column, exactly like label reads.
+ */
+public class ColumnIndex
+{
+
+    private record Resolved(WeakReference<ResultSet> resultSet, int[] indexes) {}
+
+    private final List<String> labels = new ArrayList<>();
+    private final ThreadLocal<Resolved> resolved = new ThreadLocal<>();
+
+    /**
+     * Registers a column label. Must be called before the first {@link #resolve(ResultSet)}
+     * call, typically in a static initializer.
+     *
+     * @param label column label
+     * @return position of the column index in the resolved array
+     */
+    public synchronized int add(String label)
+    {
+        labels.add(label);
+        return labels.size() - 1;
+    }
+
+    public List<String> getLabels()
+    {
+        return List.copyOf(labels);
+    }
+
+    /**
+     * Returns column indexes of registered labels, the indexes are resolved only once per
+     * result set.
+     *
+     * @param rs result set
+     * @return column indexes, index positions are returned by {@link #add(String)}
+     * @throws SQLException if a label is not found
+     */
+    public int[] resolve(ResultSet rs)
+    throws SQLException
+    {
+        Resolved current = resolved.get();
+        if(current != null && current.resultSet().get() == rs) return current.indexes();
+
+        int[] indexes = new int[labels.size()];
+        for(int i = 0; i < indexes.length; i++) indexes[i] = rs.findColumn(labels.get(i));
+        resolved.set(new Resolved(new WeakReference<>(rs), indexes));
+        return indexes;
+    }
+
+}
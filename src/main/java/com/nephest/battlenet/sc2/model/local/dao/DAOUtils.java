@@ -209,6 +209,35 @@ public final class DAOUtils
         return rs.wasNull() ? null : conversionService.convert(i, clazz);
     }
 
+    public static Integer getInteger(ResultSet rs, int column)
+    throws SQLException
+    {
+        int i = rs.getInt(column);
+        return rs.wasNull() ? null : i;
+    }
+
+    public static Long getLong(ResultSet rs, int column)
+    throws SQLException
+    {
+        long i = rs.getLong(column);
+        return rs.wasNull() ? null : i;
+    }
+
+    public static Boolean getBoolean(ResultSet rs, int column)
+    throws SQLException
+    {
+        boolean i = rs.getBoolean(column);
+        return rs.wasNull() ? null : i;
+    }
+
+    public static <T> T getConvertedObjectFromInteger
+    (ResultSet rs, int column, ConversionService conversionService, Class<T> clazz)
+    throws SQLException
+    {
+        int i = rs.getInt(column);
+        return rs.wasNull() ? null : conversionService.convert(i, clazz);
+    }
+
     /**
      * This method is useful when converting arbitrary collections to {@link java.util.Set}
      * before passing it to DAO layer. It covers a typical scenario where collisions are
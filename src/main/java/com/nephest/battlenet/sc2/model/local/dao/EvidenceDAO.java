@@ -3,6 +3,7 @@
 
 package com.nephest.battlenet.sc2.model.local.dao;
 
+import com.nephest.battlenet.sc2.config.data.NotTimed;
 import com.nephest.battlenet.sc2.model.local.Evidence;
 import com.nephest.battlenet.sc2.model.util.SC2Pulse;
 import java.time.OffsetDateTime;
@@ -250,6 +251,7 @@ public class EvidenceDAO
         return Math.max((getActiveModCount() / 2) + 1, 2);
     }
 
+    @NotTimed
     @CacheEvict(cacheNames="evidence-required-votes", allEntries=true)
     public void evictRequiredVotesCache(){}
 
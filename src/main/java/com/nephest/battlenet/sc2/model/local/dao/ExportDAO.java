@@ -0,0 +1,215 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.model.local.dao;
+
+import com.nephest.battlenet.sc2.model.BaseLeague;
+import com.nephest.battlenet.sc2.model.BaseLeagueTier;
+import com.nephest.battlenet.sc2.model.QueueType;
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.TeamType;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/*
+    # Bulk export
+
+    Streams whole ladders and team state days row by row. The streaming template has a bounded
+    fetch size, rows are read from a server-side cursor only inside a transaction, so callers
+    must be transactional, otherwise the driver buffers the whole result set.
+
+    Rows are passed as value arrays in the order of the corresponding column list, enums are
+    converted, so writers don't need to know the schema.
+ */
+@Repository
+public class ExportDAO
+{
+
+    public static final List<String> LADDER_COLUMNS = List.of
+    (
+        "id",
+        "legacy_id",
+        "season",
+        "region",
+        "queue_type",
+        "team_type",
+        "league_type",
+        "tier_type",
+        "rating",
+        "wins",
+        "losses",
+        "ties",
+        "points",
+        "global_rank",
+        "region_rank",
+        "league_rank",
+        "last_played",
+        "joined",
+        "character_ids"
+    );
+
+    public static final List<String> TEAM_STATE_COLUMNS = List.of
+    (
+        "team_id",
+        "timestamp",
+        "division_id",
+        "wins",
+        "games",
+        "rating",
+        "global_rank",
+        "region_rank",
+        "league_rank",
+        "region_team_count",
+        "secondary"
+    );
+
+    //ix_team_ladder_search_full
+    private static final String EXPORT_LADDER =
+        "SELECT team.id, team.legacy_id, team.season, team.region, team.queue_type, "
+        + "team.team_type, team.league_type, team.tier_type, team.rating, "
+        + "team.wins, team.losses, team.ties, team.points, "
+        + "team.global_rank, team.region_rank, team.league_rank, team.last_played, team.joined, "
+        + "ARRAY"
+        + "("
+            + "SELECT team_member.player_character_id "
+            + "FROM team_member "
+            + "WHERE team_member.team_id = team.id "
+            + "ORDER BY team_member.player_character_id"
+        + ") AS character_ids "
+        + "FROM team "
+        + "WHERE team.season = :season "
+        + "AND team.queue_type = :queueType "
+        + "AND team.team_type = :teamType "
+        + "ORDER BY team.rating DESC, team.id DESC";
+
+    //ix_team_state_timestamp
+    private static final String EXPORT_TEAM_STATES =
+        "SELECT team_id, timestamp, division_id, wins, games, rating, "
+        + "global_rank, region_rank, league_rank, region_team_count, secondary "
+        + "FROM team_state "
+        + "WHERE timestamp >= :from "
+        + "AND timestamp < :to "
+        + "ORDER BY timestamp, team_id";
+
+    private final NamedParameterJdbcTemplate template;
+    private final ConversionService conversionService;
+
+    @Autowired
+    public ExportDAO
+    (
+        @Qualifier("sc2StatsStreamingNamedTemplate") NamedParameterJdbcTemplate template,
+        @Qualifier("sc2StatsConversionService") ConversionService conversionService
+    )
+    {
+        this.template = template;
+        this.conversionService = conversionService;
+    }
+
+    /**
+     * Streams all teams of a ladder ordered by rating desc. Must be called in a transaction.
+     *
+     * @param season season
+     * @param queueType queue type
+     * @param teamType team type
+     * @param consumer row consumer, values are in {@link #LADDER_COLUMNS} order
+     */
+    public void exportLadder
+    (
+        int season,
+        QueueType queueType,
+        TeamType teamType,
+        Consumer<Object[]> consumer
+    )
+    {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("season", season)
+            .addValue("queueType", conversionService.convert(queueType, Integer.class))
+            .addValue("teamType", conversionService.convert(teamType, Integer.class));
+        RowCallbackHandler handler = rs->consumer.accept(new Object[]{
+            rs.getLong("id"),
+            rs.getString("legacy_id"),
+            rs.getInt("season"),
+            conversionService.convert(rs.getInt("region"), Region.class),
+            conversionService.convert(rs.getInt("queue_type"), QueueType.class),
+            conversionService.convert(rs.getInt("team_type"), TeamType.class),
+            conversionService.convert(rs.getInt("league_type"), BaseLeague.LeagueType.class),
+            DAOUtils.getConvertedObjectFromInteger
+            (
+                rs, "tier_type", conversionService, BaseLeagueTier.LeagueTierType.class
+            ),
+            rs.getInt("rating"),
+            rs.getInt("wins"),
+            rs.getInt("losses"),
+            rs.getInt("ties"),
+            rs.getInt("points"),
+            DAOUtils.getInteger(rs, "global_rank"),
+            DAOUtils.getInteger(rs, "region_rank"),
+            DAOUtils.getInteger(rs, "league_rank"),
+            rs.getObject("last_played", OffsetDateTime.class),
+            rs.getObject("joined", OffsetDateTime.class),
+            getArray(rs, "character_ids")
+        });
+        template.query(EXPORT_LADDER, params, handler);
+    }
+
+    /**
+     * Streams team states ordered by timestamp. Must be called in a transaction.
+     *
+     * @param from min timestamp, inclusive
+     * @param to max timestamp, exclusive
+     * @param consumer row consumer, values are in {@link #TEAM_STATE_COLUMNS} order
+     */
+    public void exportTeamStates
+    (
+        OffsetDateTime from,
+        OffsetDateTime to,
+        Consumer<Object[]> consumer
+    )
+    {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("from", from)
+            .addValue("to", to);
+        RowCallbackHandler handler = rs->consumer.accept(new Object[]{
+            rs.getLong("team_id"),
+            rs.getObject("timestamp", OffsetDateTime.class),
+            rs.getInt("division_id"),
+            DAOUtils.getInteger(rs, "wins"),
+            rs.getInt("games"),
+            rs.getInt("rating"),
+            DAOUtils.getInteger(rs, "global_rank"),
+            DAOUtils.getInteger(rs, "region_rank"),
+            DAOUtils.getInteger(rs, "league_rank"),
+            DAOUtils.getInteger(rs, "region_team_count"),
+            DAOUtils.getBoolean(rs, "secondary")
+        });
+        template.query(EXPORT_TEAM_STATES, params, handler);
+    }
+
+    private static Object[] getArray(ResultSet rs, String column)
+    throws SQLException
+    {
+        Array array = rs.getArray(column);
+        if(array == null) return null;
+
+        try
+        {
+            return (Object[]) array.getArray();
+        }
+        finally
+        {
+            array.free();
+        }
+    }
+
+}
@@ -0,0 +1,213 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.model.local.dao;
+
+import com.nephest.battlenet.sc2.model.BaseLeague;
+import com.nephest.battlenet.sc2.model.QueueType;
+import com.nephest.battlenet.sc2.model.Race;
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.TeamType;
+import com.nephest.battlenet.sc2.model.local.LeagueStats;
+import com.nephest.battlenet.sc2.model.local.Team;
+import com.nephest.battlenet.sc2.model.local.inner.TeamLegacyIdEntry;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+/**
+ * In-memory league stats that are calculated from the {@link FastTeamDAO} working set. Counters
+ * are reset when teams are loaded into {@link FastTeamDAO} and updated when teams are merged,
+ * {@link #merge(int)} writes them in one batch instead of recalculating the whole season.
+ * <p>
+ *     Only the data that is available in {@link Team} is calculated: team count for all leagues,
+ *     race team count and race games for {@link QueueType#LOTV_1V1} leagues. Race games of
+ *     team queues depend on team members, use {@link LeagueStatsDAO#mergeCalculateForSeason(int)}
+ *     to update them.
+ * </p>
+ */
+@Repository
+public class FastLeagueStatsDAO
+{
+
+    private static final Logger LOG = LoggerFactory.getLogger(FastLeagueStatsDAO.class);
+
+    public record LeagueKey(QueueType queueType, TeamType teamType, BaseLeague.LeagueType leagueType)
+    {
+
+        public static LeagueKey of(Team team)
+        {
+            return new LeagueKey(team.getQueueType(), team.getTeamType(), team.getLeagueType());
+        }
+
+    }
+
+    private static final int TEAM_COUNT = 0;
+    private static final int GAMES_OFFSET = 1;
+    private static final int RACE_TEAM_COUNT_OFFSET = GAMES_OFFSET + Race.values().length;
+    private static final int COUNTER_COUNT = RACE_TEAM_COUNT_OFFSET + Race.values().length;
+
+    private static final class RegionStats
+    {
+
+        private Integer season;
+        private final Map<LeagueKey, int[]> counters = new HashMap<>();
+        private boolean dirty;
+
+    }
+
+    private final LeagueStatsDAO leagueStatsDAO;
+    private final Map<Region, RegionStats> stats = new EnumMap<>(Region.class);
+    private final Set<Integer> incompleteSeasons = new HashSet<>();
+
+    @Autowired
+    public FastLeagueStatsDAO(LeagueStatsDAO leagueStatsDAO)
+    {
+        this.leagueStatsDAO = leagueStatsDAO;
+        for(Region region : Region.values()) stats.put(region, new RegionStats());
+    }
+
+    public synchronized void reset(Region region, int season, Collection<Team> teams)
+    {
+        RegionStats regionStats = stats.get(region);
+        //unsaved changes of the previous season are lost, the season must be recalculated
+        if(regionStats.dirty && regionStats.season != null) incompleteSeasons.add(regionStats.season);
+        regionStats.counters.clear();
+        regionStats.season = season;
+        regionStats.dirty = true;
+        for(Team team : teams) add(regionStats, team, 1);
+        LOG.trace("Reset league stats: {} s{}, {} teams", region, season, teams.size());
+    }
+
+    public synchronized void clear(Region region)
+    {
+        RegionStats regionStats = stats.get(region);
+        if(regionStats.dirty && regionStats.season != null) incompleteSeasons.add(regionStats.season);
+        regionStats.counters.clear();
+        regionStats.season = null;
+        regionStats.dirty = false;
+    }
+
+    /**
+     * Moves the team from the previous state to the current state.
+     *
+     * @param previous previous team state, null for new teams
+     * @param current current team state
+     */
+    public synchronized void update(Team previous, Team current)
+    {
+        RegionStats regionStats = stats.get(current.getRegion());
+        if(regionStats.season == null || !regionStats.season.equals(current.getSeason()))
+        {
+            incompleteSeasons.add(current.getSeason());
+            return;
+        }
+
+        if(previous != null) add(regionStats, previous, -1);
+        add(regionStats, current, 1);
+        regionStats.dirty = true;
+    }
+
+    private static void add(RegionStats regionStats, Team team, int sign)
+    {
+        int[] counters = regionStats.counters
+            .computeIfAbsent(LeagueKey.of(team), k->new int[COUNTER_COUNT]);
+        counters[TEAM_COUNT] += sign;
+        if(team.getQueueType() != QueueType.LOTV_1V1) return;
+
+        Race race = getRace(team);
+        if(race == null) return;
+
+        counters[GAMES_OFFSET + race.ordinal()] += sign * getGames(team);
+        counters[RACE_TEAM_COUNT_OFFSET + race.ordinal()] += sign;
+    }
+
+    private static int getGames(Team team)
+    {
+        return (team.getWins() != null ? team.getWins() : 0)
+            + (team.getLosses() != null ? team.getLosses() : 0)
+            + (team.getTies() != null ? team.getTies() : 0);
+    }
+
+    private static Race getRace(Team team)
+    {
+        if(team.getLegacyId() == null || team.getLegacyId().getEntries().isEmpty()) return null;
+
+        TeamLegacyIdEntry entry = team.getLegacyId().getEntries().get(0);
+        return entry.race();
+    }
+
+    /**
+     * Writes league stats of all regions that have the season loaded.
+     *
+     * @param season target season
+     * @return false if in-memory stats are incomplete for this season and it must be recalculated
+     * by other means, true otherwise
+     */
+    public synchronized boolean merge(int season)
+    {
+        if(incompleteSeasons.remove(season)) return false;
+
+        boolean loaded = false;
+        for(Map.Entry<Region, RegionStats> entry : stats.entrySet())
+        {
+            RegionStats regionStats = entry.getValue();
+            if(regionStats.season == null || regionStats.season != season) continue;
+
+            loaded = true;
+            if(!regionStats.dirty) continue;
+
+            Map<LeagueKey, LeagueStats> leagueStats = new HashMap<>(regionStats.counters.size());
+            regionStats.counters.forEach((key, counters)->leagueStats.put(key, toLeagueStats(key, counters)));
+            leagueStatsDAO.merge(entry.getKey(), season, leagueStats);
+            regionStats.dirty = false;
+        }
+        return loaded;
+    }
+
+    private static LeagueStats toLeagueStats(LeagueKey key, int[] counters)
+    {
+        boolean raceStats = key.queueType() == QueueType.LOTV_1V1;
+        return new LeagueStats
+        (
+            null,
+            counters[TEAM_COUNT],
+            counters[GAMES_OFFSET + Race.TERRAN.ordinal()],
+            counters[GAMES_OFFSET + Race.PROTOSS.ordinal()],
+            counters[GAMES_OFFSET + Race.ZERG.ordinal()],
+            counters[GAMES_OFFSET + Race.RANDOM.ordinal()],
+            raceStats ? getRaceTeamCount(counters, Race.TERRAN) : null,
+            raceStats ? getRaceTeamCount(counters, Race.PROTOSS) : null,
+            raceStats ? getRaceTeamCount(counters, Race.ZERG) : null,
+            raceStats ? getRaceTeamCount(counters, Race.RANDOM) : null
+        );
+    }
+
+    /*
+        The original SQL query produces null race team count when there are no teams of the
+        race in the league, keep it that way.
+     */
+    private static Integer getRaceTeamCount(int[] counters, Race race)
+    {
+        int count = counters[RACE_TEAM_COUNT_OFFSET + race.ordinal()];
+        return count == 0 ? null : count;
+    }
+
+    public synchronized Map<LeagueKey, LeagueStats> find(Region region, int season)
+    {
+        RegionStats regionStats = stats.get(region);
+        if(regionStats.season == null || regionStats.season != season) return Map.of();
+
+        Map<LeagueKey, LeagueStats> result = new HashMap<>(regionStats.counters.size());
+        regionStats.counters.forEach((key, counters)->result.put(key, toLeagueStats(key, counters)));
+        return result;
+    }
+
+}
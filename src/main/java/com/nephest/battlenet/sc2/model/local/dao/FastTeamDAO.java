@@ -10,10 +10,12 @@ import com.nephest.battlenet.sc2.model.local.StatefulBasicEntityOperations;
 import com.nephest.battlenet.sc2.model.local.Team;
 import com.nephest.battlenet.sc2.model.local.inner.TeamLegacyId;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -41,15 +43,34 @@ implements StatefulBasicEntityOperations<Team>
 
     private static final Logger LOG = LoggerFactory.getLogger(FastTeamDAO.class);
 
+    /**
+     * Regional working set. It can be persisted and restored later to skip {@link #load(Region, int)}.
+     *
+     * @param region region
+     * @param season loaded season
+     * @param minLastPlayed teams that were played before this point are ignored
+     * @param teams loaded teams
+     */
+    public record Snapshot
+    (
+        Region region,
+        int season,
+        OffsetDateTime minLastPlayed,
+        Collection<Team> teams
+    )
+    {}
+
     private final Map<Region, Map<Team, Team>> teams = new EnumMap<>(Region.class);
     private final Map<Region, OffsetDateTime> minLastPlayed = new EnumMap<>(Region.class);
     private final TeamDAO teamDAO;
+    private final FastLeagueStatsDAO fastLeagueStatsDAO;
     private final Map<Region, Integer> loadedSeasons = new EnumMap<>(Region.class);
 
     @Autowired
-    public FastTeamDAO(TeamDAO teamDAO)
+    public FastTeamDAO(TeamDAO teamDAO, FastLeagueStatsDAO fastLeagueStatsDAO)
     {
         this.teamDAO = teamDAO;
+        this.fastLeagueStatsDAO = fastLeagueStatsDAO;
         for(Region region : Region.values()) teams.put(region, new HashMap<>());
     }
 
@@ -63,6 +84,7 @@ implements StatefulBasicEntityOperations<Team>
         {
             teams.put(region, teamStream.collect(Collectors.toMap(Function.identity(), Function.identity())));
         }
+        fastLeagueStatsDAO.reset(region, season, teams.get(region).values());
         try(Stream<Team> teamStream = teamDAO.find(region, season - 1))
         {
             minLastPlayed.put
@@ -80,10 +102,44 @@ implements StatefulBasicEntityOperations<Team>
         return true;
     }
 
+    public Optional<Snapshot> getSnapshot(Region region)
+    {
+        Integer loadedSeason = loadedSeasons.get(region);
+        if(loadedSeason == null) return Optional.empty();
+
+        return Optional.of(new Snapshot
+        (
+            region,
+            loadedSeason,
+            minLastPlayed.get(region),
+            List.copyOf(teams.get(region).values())
+        ));
+    }
+
+    /**
+     * Replaces the regional working set with the snapshot. The snapshot must reflect the current
+     * DB state, the DB is not checked.
+     *
+     * @param snapshot working set snapshot
+     */
+    public void restore(Snapshot snapshot)
+    {
+        teams.put
+        (
+            snapshot.region(),
+            snapshot.teams().stream().collect(Collectors.toMap(Function.identity(), Function.identity()))
+        );
+        fastLeagueStatsDAO.reset(snapshot.region(), snapshot.season(), teams.get(snapshot.region()).values());
+        minLastPlayed.put(snapshot.region(), snapshot.minLastPlayed());
+        loadedSeasons.put(snapshot.region(), snapshot.season());
+        LOG.trace("Restored teams in fast DAO: {} s{}", snapshot.region(), snapshot.season());
+    }
+
     @Override
     public void clear(Region region)
     {
         teams.get(region).clear();
+        fastLeagueStatsDAO.clear(region);
         minLastPlayed.remove(region);
         loadedSeasons.remove(region);
     }
@@ -121,6 +177,7 @@ implements StatefulBasicEntityOperations<Team>
             if(mustInsert(existingTeam) || mustUpdate(existingTeam, team))
             {
                 regionTeams.put(team, team);
+                fastLeagueStatsDAO.update(existingTeam, team);
                 merged.add(team);
             }
         }
@@ -5,7 +5,12 @@ package com.nephest.battlenet.sc2.model.local.dao;
 
 import com.nephest.battlenet.sc2.model.QueueType;
 import com.nephest.battlenet.sc2.model.Race;
+import com.nephest.battlenet.sc2.model.Region;
 import com.nephest.battlenet.sc2.model.local.LeagueStats;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -112,6 +117,40 @@ public class LeagueStatsDAO
             + "ON mandatory_stats.league_id = random_team_count.league_id "
             + "AND random_team_count.race = %5$s ";
 
+    private static final String MERGE_TEMPLATE =
+        "INSERT INTO league_stats "
+        + "("
+            + "league_id, team_count, "
+            + "terran_games_played, protoss_games_played, zerg_games_played, random_games_played,"
+            + "terran_team_count, protoss_team_count, zerg_team_count, random_team_count"
+        + ") "
+        + "SELECT league.id, :teamCount, "
+        + ":terranGamesPlayed, :protossGamesPlayed, :zergGamesPlayed, :randomGamesPlayed, "
+        + ":terranTeamCount, :protossTeamCount, :zergTeamCount, :randomTeamCount "
+        + "FROM league "
+        + "INNER JOIN season ON league.season_id = season.id "
+        + "WHERE season.region = :region "
+        + "AND season.battlenet_id = :season "
+        + "AND league.queue_type = :queueType "
+        + "AND league.team_type = :teamType "
+        + "AND league.type = :leagueType "
+        + "ON CONFLICT(league_id) DO UPDATE SET "
+        + "team_count=excluded.team_count, "
+        + "%1$s"
+        + "terran_team_count=excluded.terran_team_count, "
+        + "protoss_team_count=excluded.protoss_team_count, "
+        + "zerg_team_count=excluded.zerg_team_count, "
+        + "random_team_count=excluded.random_team_count";
+    private static final String MERGE_QUERY = String.format
+    (
+        MERGE_TEMPLATE,
+        "terran_games_played=excluded.terran_games_played, "
+        + "protoss_games_played=excluded.protoss_games_played, "
+        + "zerg_games_played=excluded.zerg_games_played, "
+        + "random_games_played=excluded.random_games_played, "
+    );
+    private static final String MERGE_TEAM_COUNT_QUERY = String.format(MERGE_TEMPLATE, "");
+
     private static String CALCULATE_SEASON_STATS_QUERY;
     private static String CALCULATE_SEASON_STATS_MERGE_QUERY;
 
@@ -133,6 +172,7 @@ public class LeagueStatsDAO
 
 
     private final NamedParameterJdbcTemplate template;
+    private final ConversionService conversionService;
 
     @Autowired
     public LeagueStatsDAO
@@ -142,6 +182,7 @@ public class LeagueStatsDAO
     )
     {
         this.template = template;
+        this.conversionService = conversionService;
         if(CALCULATE_SEASON_STATS_QUERY == null) initQueries(conversionService);
     }
     
@@ -188,6 +229,61 @@ public class LeagueStatsDAO
         LOG.debug("Calculated (merged) league stats for {} season", season);
     }
 
-}
+    /**
+     * Merges precalculated league stats. Race games are updated for
+     * {@link QueueType#LOTV_1V1} leagues only, other leagues get only team counts updated
+     * because their race games depend on team members.
+     *
+     * @param region region
+     * @param season season
+     * @param stats stats, league id is ignored, league key is used instead
+     * @return number of merged leagues
+     */
+    public int merge
+    (
+        Region region,
+        int season,
+        Map<FastLeagueStatsDAO.LeagueKey, LeagueStats> stats
+    )
+    {
+        if(stats.isEmpty()) return 0;
 
+        List<MapSqlParameterSource> params = new ArrayList<>(stats.size());
+        List<MapSqlParameterSource> teamCountParams = new ArrayList<>(stats.size());
+        for(Map.Entry<FastLeagueStatsDAO.LeagueKey, LeagueStats> entry : stats.entrySet())
+        {
+            FastLeagueStatsDAO.LeagueKey key = entry.getKey();
+            LeagueStats leagueStats = entry.getValue();
+            MapSqlParameterSource param = new MapSqlParameterSource()
+                .addValue("region", conversionService.convert(region, Integer.class))
+                .addValue("season", season)
+                .addValue("queueType", conversionService.convert(key.queueType(), Integer.class))
+                .addValue("teamType", conversionService.convert(key.teamType(), Integer.class))
+                .addValue("leagueType", conversionService.convert(key.leagueType(), Integer.class))
+                .addValue("teamCount", leagueStats.getTeamCount())
+                .addValue("terranGamesPlayed", leagueStats.getTerranGamesPlayed())
+                .addValue("protossGamesPlayed", leagueStats.getProtossGamesPlayed())
+                .addValue("zergGamesPlayed", leagueStats.getZergGamesPlayed())
+                .addValue("randomGamesPlayed", leagueStats.getRandomGamesPlayed())
+                .addValue("terranTeamCount", leagueStats.getTerranTeamCount(), Types.INTEGER)
+                .addValue("protossTeamCount", leagueStats.getProtossTeamCount(), Types.INTEGER)
+                .addValue("zergTeamCount", leagueStats.getZergTeamCount(), Types.INTEGER)
+                .addValue("randomTeamCount", leagueStats.getRandomTeamCount(), Types.INTEGER);
+            if(key.queueType() == QueueType.LOTV_1V1)
+            {
+                params.add(param);
+            }
+            else
+            {
+                teamCountParams.add(param);
+            }
+        }
+        if(!params.isEmpty())
+            template.batchUpdate(MERGE_QUERY, params.toArray(MapSqlParameterSource[]::new));
+        if(!teamCountParams.isEmpty())
+            template.batchUpdate(MERGE_TEAM_COUNT_QUERY, teamCountParams.toArray(MapSqlParameterSource[]::new));
+        LOG.debug("Merged {} league stats: {} s{}", stats.size(), region, season);
+        return stats.size();
+    }
 
+}
@@ -5,13 +5,18 @@ package com.nephest.battlenet.sc2.model.local.dao;
 
 import static com.nephest.battlenet.sc2.model.local.MapStatsFilmSpec.FRAME_DURATION_UNIT;
 
+import com.nephest.battlenet.sc2.model.BaseLeague;
+import com.nephest.battlenet.sc2.model.BaseLeagueTier;
 import com.nephest.battlenet.sc2.model.BaseMatch;
 import com.nephest.battlenet.sc2.model.QueueType;
+import com.nephest.battlenet.sc2.model.Race;
+import com.nephest.battlenet.sc2.model.Region;
 import com.nephest.battlenet.sc2.model.TeamType;
 import com.nephest.battlenet.sc2.model.local.MapStatsFrame;
 import java.sql.Types;
 import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,6 +35,51 @@ public class MapStatsFilmFrameDAO
     public static final QueueType QUEUE = QueueType.LOTV_1V1;
     public static final TeamType TEAM_TYPE = TeamType.ARRANGED;
 
+    /**
+     * Identified match with a normalized matchup. League tiers are not tied to races, this is
+     * consistent with the way films are calculated.
+     *
+     * @param win true if {@code race} won the match
+     */
+    public record FilmMatch
+    (
+        int mapId,
+        Region region,
+        int season,
+        Race race,
+        Race versusRace,
+        BaseLeague.LeagueType league1,
+        BaseLeagueTier.LeagueTierType tier1,
+        BaseLeague.LeagueType league2,
+        BaseLeagueTier.LeagueTierType tier2,
+        Integer number,
+        boolean win
+    )
+    {
+
+        public boolean isCrossTier()
+        {
+            return league1 != league2 || tier1 != tier2;
+        }
+
+    }
+
+    public record FrameKey
+    (
+        int season,
+        Region region,
+        BaseLeague.LeagueType league,
+        BaseLeagueTier.LeagueTierType tier,
+        int mapId,
+        Race race,
+        Race versusRace,
+        boolean crossTier,
+        Integer number
+    )
+    {}
+
+    public record FrameDelta(FrameKey key, int games, int wins)
+    {}
 
     public static final String STD_SELECT =
         "map_stats_film_frame.map_stats_film_id AS \"map_stats_film_frame.map_stats_film_id\", "
@@ -37,7 +87,7 @@ public class MapStatsFilmFrameDAO
         + "map_stats_film_frame.wins AS \"map_stats_film_frame.wins\", "
         + "map_stats_film_frame.games AS \"map_stats_film_frame.games\" ";
 
-    private static final String ADD =
+    private static final String MATCH_GROUP_FILTER =
         "WITH match_group AS\n"
         + "(\n"
             + "SELECT MAX(map_id) AS map_id,\n"
@@ -83,7 +133,11 @@ public class MapStatsFilmFrameDAO
             + "decision\n"
             + "FROM match_group\n"
             + "WHERE matchup[1] != matchup[2]\n"
-        + "),\n"
+        + ")\n";
+
+    private static final String ADD =
+        MATCH_GROUP_FILTER
+        + ",\n"
         + "stats_group_union AS\n"
         + "(\n"
             + "SELECT map_id, matchup, region, season,\n"
@@ -229,6 +283,83 @@ public class MapStatsFilmFrameDAO
             + "AND updated_frame.number IS NOT DISTINCT FROM all_film_group.duration_ix\n"
         + ")";
 
+    private static final String FIND_MATCHES =
+        MATCH_GROUP_FILTER
+        + "SELECT map_id, region, season,\n"
+        + "matchup[1] AS race, matchup[2] AS versus_race,\n"
+        + "(league_tier[1]).league AS league_1, (league_tier[1]).tier AS tier_1,\n"
+        + "(league_tier[2]).league AS league_2, (league_tier[2]).tier AS tier_2,\n"
+        + "duration_ix,\n"
+        + "decision[1] = matchup[1] AS win\n"
+        + "FROM match_group_filter";
+
+    private static final String MERGE =
+        "WITH vals AS (VALUES :frames),\n"
+        + "film_group AS\n"
+        + "(\n"
+            + "SELECT v.map_id,\n"
+            + "map_stats_film_spec.id AS map_stats_film_spec_id,\n"
+            + "league_tier.id AS league_tier_id,\n"
+            + "v.cross_tier,\n"
+            + "v.number::integer AS number,\n"
+            + "v.games,\n"
+            + "v.wins\n"
+            + "FROM vals v"
+            + "("
+                + "map_id, region, season, league, tier, race, versus_race, "
+                + "cross_tier, number, games, wins"
+            + ")\n"
+            + "INNER JOIN season ON v.region = season.region\n"
+                + "AND v.season = season.battlenet_id\n"
+            + "INNER JOIN league ON league.season_id = season.id\n"
+                + "AND v.league = league.type\n"
+                + "AND league.queue_type = :queueType\n"
+                + "AND league.team_type = :teamType\n"
+            + "INNER JOIN league_tier ON league.id = league_tier.league_id\n"
+                + "AND league_tier.type = v.tier\n"
+            + "INNER JOIN map_stats_film_spec ON v.race = map_stats_film_spec.race\n"
+                + "AND v.versus_race = map_stats_film_spec.versus_race\n"
+                + "AND map_stats_film_spec.frame_duration = :frameDuration\n"
+        + "),\n"
+        + "new_film AS\n"
+        + "(\n"
+            + "INSERT INTO map_stats_film"
+            + "("
+                + "map_id, "
+                + "league_tier_id, "
+                + "map_stats_film_spec_id, "
+                + "cross_tier "
+            + ")\n"
+            + "SELECT DISTINCT map_id, league_tier_id, map_stats_film_spec_id, cross_tier\n"
+            + "FROM film_group\n"
+            + "ON CONFLICT(league_tier_id, map_id, map_stats_film_spec_id, cross_tier) DO NOTHING\n"
+            + "RETURNING *\n"
+        + "),\n"
+        /*
+            Existing films are read from the statement snapshot, they never intersect with the
+            films that were inserted by this statement.
+         */
+        + "all_film_group AS\n"
+        + "(\n"
+            + "SELECT map_stats_film.id AS map_stats_film_id, film_group.*\n"
+            + "FROM film_group\n"
+            + "INNER JOIN map_stats_film USING"
+            + "(map_id, league_tier_id, map_stats_film_spec_id, cross_tier)\n"
+
+            + "UNION ALL\n"
+
+            + "SELECT new_film.id AS map_stats_film_id, film_group.*\n"
+            + "FROM film_group\n"
+            + "INNER JOIN new_film USING"
+            + "(map_id, league_tier_id, map_stats_film_spec_id, cross_tier)\n"
+        + ")\n"
+        + "INSERT INTO map_stats_film_frame(map_stats_film_id, number, wins, games)\n"
+        + "SELECT map_stats_film_id, number, wins, games\n"
+        + "FROM all_film_group\n"
+        + "ON CONFLICT(map_stats_film_id, COALESCE(number, -1)) DO UPDATE SET\n"
+        + "games = map_stats_film_frame.games + excluded.games,\n"
+        + "wins = map_stats_film_frame.wins + excluded.wins";
+
     private static final String FIND_BY_FILM_IDS =
         "SELECT " + STD_SELECT
         + "FROM map_stats_film_frame "
@@ -249,6 +380,8 @@ public class MapStatsFilmFrameDAO
     public static final ResultSetExtractor<MapStatsFrame> STD_EXTRACTOR
         = DAOUtils.getResultSetExtractor(STD_MAPPER);
 
+    private static RowMapper<FilmMatch> FILM_MATCH_MAPPER;
+
     private final int decisionSum;
 
     private final NamedParameterJdbcTemplate template;
@@ -265,11 +398,35 @@ public class MapStatsFilmFrameDAO
         this.conversionService = conversionService;
         decisionSum = conversionService.convert(BaseMatch.Decision.WIN, Integer.class)
             + conversionService.convert(BaseMatch.Decision.LOSS, Integer.class);
+        initMappers(conversionService);
     }
 
-    public int add(OffsetDateTime from, OffsetDateTime to, Duration frameDuration)
+    private static void initMappers(ConversionService conversionService)
     {
-        MapSqlParameterSource params = new MapSqlParameterSource()
+        if(FILM_MATCH_MAPPER == null) FILM_MATCH_MAPPER = (rs, i)->new FilmMatch
+        (
+            rs.getInt("map_id"),
+            conversionService.convert(rs.getInt("region"), Region.class),
+            rs.getInt("season"),
+            conversionService.convert(rs.getInt("race"), Race.class),
+            conversionService.convert(rs.getInt("versus_race"), Race.class),
+            conversionService.convert(rs.getInt("league_1"), BaseLeague.LeagueType.class),
+            conversionService.convert(rs.getInt("tier_1"), BaseLeagueTier.LeagueTierType.class),
+            conversionService.convert(rs.getInt("league_2"), BaseLeague.LeagueType.class),
+            conversionService.convert(rs.getInt("tier_2"), BaseLeagueTier.LeagueTierType.class),
+            DAOUtils.getInteger(rs, "duration_ix"),
+            rs.getBoolean("win")
+        );
+    }
+
+    private MapSqlParameterSource createMatchParameters
+    (
+        OffsetDateTime from,
+        OffsetDateTime to,
+        Duration frameDuration
+    )
+    {
+        return new MapSqlParameterSource()
             .addValue("matchType", conversionService
                 .convert(BaseMatch.MatchType._1V1, Integer.class))
             .addValue("matchParticipantCount", QUEUE.getTeamFormat().getMemberCount(TEAM_TYPE) * 2)
@@ -280,7 +437,60 @@ public class MapStatsFilmFrameDAO
             .addValue("frameDuration", frameDuration.get(FRAME_DURATION_UNIT))
             .addValue("from", from)
             .addValue("to", to);
-        return template.update(ADD, params);
+    }
+
+    public int add(OffsetDateTime from, OffsetDateTime to, Duration frameDuration)
+    {
+        return template.update(ADD, createMatchParameters(from, to, frameDuration));
+    }
+
+    /**
+     * Finds identified matches that can be used to calculate film frames. This is the raw input
+     * of {@link #add(OffsetDateTime, OffsetDateTime, Duration)}, use it to aggregate frames
+     * outside the DB and {@link #merge(Collection, Duration)} them later.
+     */
+    public List<FilmMatch> findMatches(OffsetDateTime from, OffsetDateTime to, Duration frameDuration)
+    {
+        return template.query
+        (
+            FIND_MATCHES,
+            createMatchParameters(from, to, frameDuration),
+            FILM_MATCH_MAPPER
+        );
+    }
+
+    /**
+     * Adds frame deltas to existing frames, missing films and frames are created.
+     *
+     * @param deltas frame deltas, keys must be unique
+     * @param frameDuration film frame duration
+     * @return number of updated or inserted frames
+     */
+    public int merge(Collection<FrameDelta> deltas, Duration frameDuration)
+    {
+        if(deltas.isEmpty()) return 0;
+
+        List<Object[]> data = deltas.stream()
+            .map(d->new Object[]{
+                d.key().mapId(),
+                conversionService.convert(d.key().region(), Integer.class),
+                d.key().season(),
+                conversionService.convert(d.key().league(), Integer.class),
+                conversionService.convert(d.key().tier(), Integer.class),
+                conversionService.convert(d.key().race(), Integer.class),
+                conversionService.convert(d.key().versusRace(), Integer.class),
+                d.key().crossTier(),
+                d.key().number(),
+                d.games(),
+                d.wins()
+            })
+            .toList();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("frames", data)
+            .addValue("queueType", conversionService.convert(QUEUE, Integer.class))
+            .addValue("teamType", conversionService.convert(TEAM_TYPE, Integer.class))
+            .addValue("frameDuration", frameDuration.get(FRAME_DURATION_UNIT));
+        return template.update(MERGE, params);
     }
 
     public List<MapStatsFrame> find(Set<Integer> mapStatsFilmIds, Integer numberMax)
@@ -0,0 +1,190 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.model.local.dao;
+
+import com.nephest.battlenet.sc2.config.data.NotTimed;
+import com.nephest.battlenet.sc2.model.BaseMatch;
+import com.nephest.battlenet.sc2.model.local.InstantVar;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/*
+    # Versus index
+
+    One row per versus-eligible match participant(valid decision, non-coop match) with the
+    clan and team legacy uid of the participant. Clan and team indexes are ordered by the match
+    cursor, so versus queries are intersections of sorted posting lists instead of joins over
+    match, match_participant, player_character and clan_member.
+
+    * Clan is captured when the participant is indexed for the first time, it's the clan at
+      match time, later clan changes don't affect old matches.
+    * Team is linked later by MatchParticipantDAO.identify, index the same frame after
+      identification.
+    * Old matches are backfilled in chunks by MatchService. The INDEXED_FROM_VAR var holds the
+      min date of the indexed range, matches before it must be read from the legacy tables.
+      INDEX_COMPLETE means that all matches are indexed.
+ */
+@Repository
+public class MatchVersusDAO
+{
+
+    public static final String INDEXED_FROM_VAR = "match.versus.indexed.from";
+    public static final OffsetDateTime INDEX_COMPLETE =
+        OffsetDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC);
+
+    private static final String INDEX_TEMPLATE =
+        "INSERT INTO match_versus"
+        + "("
+            + "match_id, player_character_id, date, type, map_id, region, decision, "
+            + "clan_id, queue_type, team_type, team_region, legacy_id"
+        + ") "
+        + "SELECT match.id, match_participant.player_character_id, "
+        + "match.date, match.type, match.map_id, match.region, match_participant.decision, "
+        + "clan_member.clan_id, team.queue_type, team.team_type, team.region, team.legacy_id "
+        + "FROM match "
+        + "INNER JOIN match_participant ON match.id = match_participant.match_id "
+        + "LEFT JOIN clan_member "
+            + "ON match_participant.player_character_id = clan_member.player_character_id "
+        + "LEFT JOIN team ON match_participant.team_id = team.id "
+        + "WHERE match.date >= :from "
+        + "%1$s "
+        + "AND match.type NOT IN (:excludeTypes) "
+        + "AND match_participant.decision IN (:validDecisions) "
+        + "AND (clan_member.clan_id IS NOT NULL OR team.id IS NOT NULL) "
+        + "ON CONFLICT(match_id, player_character_id) DO UPDATE SET "
+        + "decision = excluded.decision, "
+        + "clan_id = COALESCE(match_versus.clan_id, excluded.clan_id), "
+        + "queue_type = COALESCE(excluded.queue_type, match_versus.queue_type), "
+        + "team_type = COALESCE(excluded.team_type, match_versus.team_type), "
+        + "team_region = COALESCE(excluded.team_region, match_versus.team_region), "
+        + "legacy_id = COALESCE(excluded.legacy_id, match_versus.legacy_id) "
+        + "WHERE match_versus.decision != excluded.decision "
+        + "OR (match_versus.clan_id IS NULL AND excluded.clan_id IS NOT NULL) "
+        + "OR "
+        + "("
+            + "excluded.legacy_id IS NOT NULL "
+            + "AND (match_versus.queue_type, match_versus.team_type, "
+                + "match_versus.team_region, match_versus.legacy_id) "
+            + "IS DISTINCT FROM "
+            + "(excluded.queue_type, excluded.team_type, excluded.team_region, excluded.legacy_id)"
+        + ")";
+    private static final String INDEX = String.format(INDEX_TEMPLATE, "");
+    private static final String INDEX_RANGE = String.format(INDEX_TEMPLATE, "AND match.date < :to");
+
+    private static final String FIND_MIN_MATCH_DATE = "SELECT MIN(date) FROM match";
+
+    private final NamedParameterJdbcTemplate template;
+    private final VarDAO varDAO;
+    private final InstantVar indexedFrom;
+    private final List<Integer> validDecisions;
+    private final List<Integer> excludeTypes;
+
+    @Autowired
+    public MatchVersusDAO
+    (
+        @Qualifier("sc2StatsNamedTemplate") NamedParameterJdbcTemplate template,
+        @Qualifier("sc2StatsConversionService") ConversionService conversionService,
+        VarDAO varDAO
+    )
+    {
+        this.template = template;
+        this.varDAO = varDAO;
+        //used only as a codec, the value is read from the DB because it's changed by the leader
+        indexedFrom = new InstantVar(varDAO, INDEXED_FROM_VAR, false);
+        validDecisions = Stream.of(BaseMatch.Decision.WIN, BaseMatch.Decision.LOSS)
+            .map(d->conversionService.convert(d, Integer.class))
+            .collect(Collectors.toList());
+        excludeTypes = Stream.of(BaseMatch.MatchType.COOP)
+            .map(t->conversionService.convert(t, Integer.class))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Adds or updates index entries of matches that happened since {@code from}. Use
+     * the same frame as the match participant identification.
+     *
+     * @param from min match date
+     * @return number of indexed participants
+     */
+    public int index(OffsetDateTime from)
+    {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("from", from)
+            .addValue("validDecisions", validDecisions)
+            .addValue("excludeTypes", excludeTypes);
+        return template.update(INDEX, params);
+    }
+
+    /**
+     * Adds or updates index entries of matches that happened in the [{@code from}, {@code to})
+     * range. Use it to backfill old matches in chunks.
+     *
+     * @param from min match date, inclusive
+     * @param to max match date, exclusive
+     * @return number of indexed participants
+     */
+    public int index(OffsetDateTime from, OffsetDateTime to)
+    {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("from", from)
+            .addValue("to", to)
+            .addValue("validDecisions", validDecisions)
+            .addValue("excludeTypes", excludeTypes);
+        return template.update(INDEX_RANGE, params);
+    }
+
+    public OffsetDateTime findMinMatchDate()
+    {
+        return template.query
+        (
+            FIND_MIN_MATCH_DATE,
+            DAOUtils.OFFSET_DATE_TIME_RESULT_SET_EXTRACTOR
+        );
+    }
+
+    /**
+     * @return min date of the indexed range, {@link #INDEX_COMPLETE} if all matches are
+     * indexed, null if nothing is indexed yet
+     */
+    public OffsetDateTime getIndexedFrom()
+    {
+        return varDAO.find(INDEXED_FROM_VAR)
+            .map(indexedFrom.getDeserializer())
+            .map(instant->OffsetDateTime.ofInstant(instant, ZoneOffset.UTC))
+            .orElse(null);
+    }
+
+    public void setIndexedFrom(OffsetDateTime indexedFrom)
+    {
+        varDAO.merge(INDEXED_FROM_VAR, this.indexedFrom.getSerializer().apply(indexedFrom.toInstant()));
+    }
+
+    public static boolean isIndexComplete(OffsetDateTime indexedFrom)
+    {
+        return !indexedFrom.isAfter(INDEX_COMPLETE);
+    }
+
+    @NotTimed
+    public List<Integer> getValidDecisions()
+    {
+        return validDecisions;
+    }
+
+    @NotTimed
+    public List<Integer> getExcludeTypes()
+    {
+        return excludeTypes;
+    }
+
+}
@@ -18,7 +18,10 @@ import java.sql.Types;
 import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -347,6 +350,13 @@ public class PlayerCharacterDAO
         + "INNER JOIN pro_player_account ON account.id = pro_player_account.account_id "
         + "WHERE pro_player_account.pro_player_id IN (:proPlayerIds)";
 
+    private static final String FIND_PLAYER_CHARACTER_IDS_GROUPED_BY_PRO_PLAYER_IDS =
+        "SELECT pro_player_account.pro_player_id AS \"group_id\", player_character.id "
+        + "FROM player_character "
+        + "INNER JOIN account ON player_character.account_id = account.id "
+        + "INNER JOIN pro_player_account ON account.id = pro_player_account.account_id "
+        + "WHERE pro_player_account.pro_player_id IN (:proPlayerIds)";
+
     private static final String FIND_PRO_PLAYER_CHARACTERS =
         "SELECT " + PlayerCharacterDAO.STD_SELECT + " FROM player_character "
         + "INNER JOIN account ON player_character.account_id = account.id "
@@ -429,6 +439,13 @@ public class PlayerCharacterDAO
         WHERE(region, realm, battlenet_id) IN(:ids)
         """;
 
+    private static final String FIND_NATURAL_IDS_AND_IDS_BY_NATURAL_IDS =
+        """
+        SELECT region, realm, battlenet_id, id
+        FROM player_character
+        WHERE(region, realm, battlenet_id) IN(:ids)
+        """;
+
     private static final String FIND_IDS_BY_NAME_AND_REGION =
         "SELECT id "
         + "FROM player_character "
@@ -494,6 +511,33 @@ public class PlayerCharacterDAO
         + "FROM player_character "
         + "WHERE account_id IN(:accountIds)";
 
+    private static final String FIND_IDS_GROUPED_BY_ACCOUNT_IDS =
+        "SELECT account_id AS \"group_id\", id "
+        + "FROM player_character "
+        + "WHERE account_id IN(:accountIds)";
+
+    private static final ResultSetExtractor<Map<Long, Set<Long>>> GROUPED_IDS_EXTRACTOR = rs->
+    {
+        Map<Long, Set<Long>> result = new HashMap<>();
+        while(rs.next())
+            result.computeIfAbsent(rs.getLong("group_id"), id->new HashSet<>()).add(rs.getLong("id"));
+        return result;
+    };
+
+
+    private static final ColumnIndex STD_COLUMNS = new ColumnIndex();
+    private static final int ID = STD_COLUMNS.add("player_character.id");
+    private static final int ACCOUNT_ID = STD_COLUMNS.add("player_character.account_id");
+    private static final int REGION = STD_COLUMNS.add("player_character.region");
+    private static final int BATTLENET_ID = STD_COLUMNS.add("player_character.battlenet_id");
+    private static final int REALM = STD_COLUMNS.add("player_character.realm");
+    private static final int NAME = STD_COLUMNS.add("player_character.name");
+
+    private static final ColumnIndex ID_COLUMNS = new ColumnIndex();
+    private static final int ID_ID = ID_COLUMNS.add("player_character.id");
+    private static final int ID_REGION = ID_COLUMNS.add("player_character.region");
+    private static final int ID_BATTLENET_ID = ID_COLUMNS.add("player_character.battlenet_id");
+    private static final int ID_REALM = ID_COLUMNS.add("player_character.realm");
 
     private static RowMapper<PlayerCharacter> STD_ROW_MAPPER;
     private static ResultSetExtractor<PlayerCharacter> STD_EXTRACTOR;
@@ -518,24 +562,32 @@ public class PlayerCharacterDAO
 
     private static void initMappers(ConversionService conversionService)
     {
-        if(STD_ROW_MAPPER == null) STD_ROW_MAPPER = (rs, i)-> new PlayerCharacter
-        (
-            rs.getLong("player_character.id"),
-            rs.getLong("player_character.account_id"),
-            conversionService.convert(rs.getInt("player_character.region"), Region.class),
-            rs.getLong("player_character.battlenet_id"),
-            rs.getInt("player_character.realm"),
-            rs.getString("player_character.name")
-        );
-        if(ID_ROW_MAPPER == null) ID_ROW_MAPPER = (rs, i)-> new PlayerCharacter
-        (
-            rs.getLong("player_character.id"),
-            null,
-            conversionService.convert(rs.getInt("player_character.region"), Region.class),
-            rs.getLong("player_character.battlenet_id"),
-            rs.getInt("player_character.realm"),
-            null
-        );
+        if(STD_ROW_MAPPER == null) STD_ROW_MAPPER = (rs, i)->
+        {
+            int[] c = STD_COLUMNS.resolve(rs);
+            return new PlayerCharacter
+            (
+                rs.getLong(c[ID]),
+                rs.getLong(c[ACCOUNT_ID]),
+                conversionService.convert(rs.getInt(c[REGION]), Region.class),
+                rs.getLong(c[BATTLENET_ID]),
+                rs.getInt(c[REALM]),
+                rs.getString(c[NAME])
+            );
+        };
+        if(ID_ROW_MAPPER == null) ID_ROW_MAPPER = (rs, i)->
+        {
+            int[] c = ID_COLUMNS.resolve(rs);
+            return new PlayerCharacter
+            (
+                rs.getLong(c[ID_ID]),
+                null,
+                conversionService.convert(rs.getInt(c[ID_REGION]), Region.class),
+                rs.getLong(c[ID_BATTLENET_ID]),
+                rs.getInt(c[ID_REALM]),
+                null
+            );
+        };
 
         if(STD_EXTRACTOR == null) STD_EXTRACTOR = DAOUtils.getResultSetExtractor(STD_ROW_MAPPER);
         if(ID_EXTRACTOR == null) ID_EXTRACTOR = DAOUtils.getResultSetExtractor(ID_ROW_MAPPER);
@@ -696,6 +748,19 @@ public class PlayerCharacterDAO
         return template.query(FIND_PRO_PLAYER_CHARACTER_IDS, DAOUtils.LONG_MAPPER);
     }
 
+    public Map<Long, Set<Long>> findCharacterIdsGroupedByProPlayerIds(Set<Long> proPlayerIds)
+    {
+        if(proPlayerIds.isEmpty()) return Map.of();
+
+        MapSqlParameterSource params = new MapSqlParameterSource("proPlayerIds", proPlayerIds);
+        return template.query
+        (
+            FIND_PLAYER_CHARACTER_IDS_GROUPED_BY_PRO_PLAYER_IDS,
+            params,
+            GROUPED_IDS_EXTRACTOR
+        );
+    }
+
     public List<Long> findCharacterIdsByProPlayerIds(Set<Long> proPlayerIds)
     {
         if(proPlayerIds.isEmpty()) return List.of();
@@ -814,6 +879,38 @@ public class PlayerCharacterDAO
         return template.queryForList(FIND_IDS_BY_NATURAL_IDS, params, Long.class);
     }
 
+    public Map<PlayerCharacterNaturalId, Long> findIdsGroupedByNaturalIds
+    (
+        Set<PlayerCharacterNaturalId> naturalIds
+    )
+    {
+        if(naturalIds.isEmpty()) return Map.of();
+
+        List<Object[]> sqlNaturalIds = naturalIds.stream()
+            .map(id->new Object[]{
+                conversionService.convert(id.getRegion(), Integer.class),
+                id.getRealm(),
+                id.getBattlenetId()
+            })
+            .toList();
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", sqlNaturalIds);
+        return template.query(FIND_NATURAL_IDS_AND_IDS_BY_NATURAL_IDS, params, rs->
+        {
+            Map<PlayerCharacterNaturalId, Long> result = new HashMap<>();
+            while(rs.next()) result.put
+            (
+                PlayerCharacterNaturalId.of
+                (
+                    conversionService.convert(rs.getInt("region"), Region.class),
+                    rs.getInt("realm"),
+                    rs.getLong("battlenet_id")
+                ),
+                rs.getLong("id")
+            );
+            return result;
+        });
+    }
+
     public List<Long> findIds
     (
         String name,
@@ -911,4 +1008,13 @@ public class PlayerCharacterDAO
         return template.queryForList(FIND_IDS_BY_ACCOUNT_IDS, params, Long.class);
     }
 
+    public Map<Long, Set<Long>> findIdsGroupedByAccountIds(Set<Long> accountIds)
+    {
+        if(accountIds.isEmpty()) return Map.of();
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("accountIds", accountIds);
+        return template.query(FIND_IDS_GROUPED_BY_ACCOUNT_IDS, params, GROUPED_IDS_EXTRACTOR);
+    }
+
 }
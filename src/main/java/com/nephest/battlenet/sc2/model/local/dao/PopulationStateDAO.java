@@ -114,21 +114,44 @@ public class PopulationStateDAO
         + "FROM population_state "
         + "WHERE id IN(:ids)";
 
-    public static final RowMapper<PopulationState> STD_ROW_MAPPER = (rs, i)->new PopulationState
-    (
-        rs.getInt("population_state.id"),
-        rs.getInt("population_state.league_id"),
-        rs.getInt("population_state.global_team_count"),
-        rs.getInt("population_state.region_team_count"),
-        DAOUtils.getInteger(rs, "population_state.league_team_count")
-    );
-
-    public static final RowMapper<PopulationState> TEAM_DATA_ROW_MAPPER = (rs, i)->PopulationState.teamDataOnly
-    (
-        DAOUtils.getInteger(rs, "population_state.global_team_count"),
-        DAOUtils.getInteger(rs, "population_state.region_team_count"),
-        DAOUtils.getInteger(rs, "population_state.league_team_count")
-    );
+    private static final ColumnIndex STD_COLUMNS = new ColumnIndex();
+    private static final int ID = STD_COLUMNS.add("population_state.id");
+    private static final int LEAGUE_ID = STD_COLUMNS.add("population_state.league_id");
+    private static final int GLOBAL_TEAM_COUNT = STD_COLUMNS.add("population_state.global_team_count");
+    private static final int REGION_TEAM_COUNT = STD_COLUMNS.add("population_state.region_team_count");
+    private static final int LEAGUE_TEAM_COUNT = STD_COLUMNS.add("population_state.league_team_count");
+
+    private static final ColumnIndex TEAM_DATA_COLUMNS = new ColumnIndex();
+    private static final int TEAM_DATA_GLOBAL_TEAM_COUNT
+        = TEAM_DATA_COLUMNS.add("population_state.global_team_count");
+    private static final int TEAM_DATA_REGION_TEAM_COUNT
+        = TEAM_DATA_COLUMNS.add("population_state.region_team_count");
+    private static final int TEAM_DATA_LEAGUE_TEAM_COUNT
+        = TEAM_DATA_COLUMNS.add("population_state.league_team_count");
+
+    public static final RowMapper<PopulationState> STD_ROW_MAPPER = (rs, i)->
+    {
+        int[] c = STD_COLUMNS.resolve(rs);
+        return new PopulationState
+        (
+            rs.getInt(c[ID]),
+            rs.getInt(c[LEAGUE_ID]),
+            rs.getInt(c[GLOBAL_TEAM_COUNT]),
+            rs.getInt(c[REGION_TEAM_COUNT]),
+            DAOUtils.getInteger(rs, c[LEAGUE_TEAM_COUNT])
+        );
+    };
+
+    public static final RowMapper<PopulationState> TEAM_DATA_ROW_MAPPER = (rs, i)->
+    {
+        int[] c = TEAM_DATA_COLUMNS.resolve(rs);
+        return PopulationState.teamDataOnly
+        (
+            DAOUtils.getInteger(rs, c[TEAM_DATA_GLOBAL_TEAM_COUNT]),
+            DAOUtils.getInteger(rs, c[TEAM_DATA_REGION_TEAM_COUNT]),
+            DAOUtils.getInteger(rs, c[TEAM_DATA_LEAGUE_TEAM_COUNT])
+        );
+    };
 
     private final NamedParameterJdbcTemplate template;
     private final ConversionService conversionService;
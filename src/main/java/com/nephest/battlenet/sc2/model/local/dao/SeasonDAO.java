@@ -3,6 +3,7 @@
 
 package com.nephest.battlenet.sc2.model.local.dao;
 
+import com.nephest.battlenet.sc2.config.data.NotTimed;
 import com.nephest.battlenet.sc2.model.Region;
 import com.nephest.battlenet.sc2.model.local.Season;
 import java.sql.Types;
@@ -270,6 +271,7 @@ public class SeasonDAO
         return template.query(FIND_MAX_BATTLENET_ID_BY_REGION_QUERY, params, DAOUtils.INT_EXTRACTOR);
     }
 
+    @NotTimed
     public RowMapper<Season> getStandardRowMapper()
     {
         return STD_ROW_MAPPER;
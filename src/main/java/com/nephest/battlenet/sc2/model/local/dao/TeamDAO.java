@@ -3,6 +3,7 @@
 
 package com.nephest.battlenet.sc2.model.local.dao;
 
+import com.nephest.battlenet.sc2.config.data.NotTimed;
 import com.nephest.battlenet.sc2.model.BaseLeague;
 import com.nephest.battlenet.sc2.model.QueueType;
 import com.nephest.battlenet.sc2.model.Race;
@@ -368,6 +369,28 @@ implements BasicEntityOperations<Team>
 
     private static final Map<Race, String> FIND_1V1_TEAM_BY_FAVOURITE_RACE_QUERIES = new EnumMap<>(Race.class);
 
+    private static final ColumnIndex STD_COLUMNS = new ColumnIndex();
+    private static final int ID = STD_COLUMNS.add("team.id");
+    private static final int SEASON = STD_COLUMNS.add("team.season");
+    private static final int REGION = STD_COLUMNS.add("team.region");
+    private static final int LEAGUE_TYPE = STD_COLUMNS.add("team.league_type");
+    private static final int QUEUE_TYPE = STD_COLUMNS.add("team.queue_type");
+    private static final int TEAM_TYPE = STD_COLUMNS.add("team.team_type");
+    private static final int TIER_TYPE = STD_COLUMNS.add("team.tier_type");
+    private static final int LEGACY_ID = STD_COLUMNS.add("team.legacy_id");
+    private static final int DIVISION_ID = STD_COLUMNS.add("team.division_id");
+    private static final int RATING = STD_COLUMNS.add("team.rating");
+    private static final int WINS = STD_COLUMNS.add("team.wins");
+    private static final int LOSSES = STD_COLUMNS.add("team.losses");
+    private static final int TIES = STD_COLUMNS.add("team.ties");
+    private static final int POINTS = STD_COLUMNS.add("team.points");
+    private static final int LAST_PLAYED = STD_COLUMNS.add("team.last_played");
+    private static final int JOINED = STD_COLUMNS.add("team.joined");
+    private static final int PRIMARY_DATA_UPDATED = STD_COLUMNS.add("team.primary_data_updated");
+    private static final int GLOBAL_RANK = STD_COLUMNS.add("team.global_rank");
+    private static final int REGION_RANK = STD_COLUMNS.add("team.region_rank");
+    private static final int LEAGUE_RANK = STD_COLUMNS.add("team.league_rank");
+
     private static RowMapper<Team> STD_ROW_MAPPER;
     private static ResultSetExtractor<Team> STD_EXTRACTOR;
 
@@ -412,25 +435,29 @@ implements BasicEntityOperations<Team>
         this.teamDAO = teamDAO;
     }
 
+    @NotTimed
     public TeamLegacyId legacyIdOf(BaseLeague league, BlizzardTeam bTeam)
     {
-        return TeamLegacyId.standard
-        (
-            league.getQueueType() == QueueType.LOTV_1V1
-                ? Arrays.stream(bTeam.getMembers())
-                    .map(m->new TeamLegacyIdEntry(
-                        m.getCharacter().getRealm(),
-                        m.getCharacter().getId(),
-                        getFavoriteRace(m)))
-                    .collect(Collectors.toSet())
-                : Arrays.stream(bTeam.getMembers())
-                    .map(m->new TeamLegacyIdEntry(
-                        m.getCharacter().getRealm(),
-                        m.getCharacter().getId()))
-                    .collect(Collectors.toSet())
-        );
+        //hot path, used for every team of every ladder update
+        boolean favoriteRace = league.getQueueType() == QueueType.LOTV_1V1;
+        BlizzardTeamMember[] members = bTeam.getMembers();
+        TeamLegacyIdEntry[] entries = new TeamLegacyIdEntry[members.length];
+        for(int i = 0; i < members.length; i++)
+        {
+            BlizzardTeamMember m = members[i];
+            entries[i] = favoriteRace
+                ? new TeamLegacyIdEntry
+                (
+                    m.getCharacter().getRealm(),
+                    m.getCharacter().getId(),
+                    getFavoriteRace(m)
+                )
+                : new TeamLegacyIdEntry(m.getCharacter().getRealm(), m.getCharacter().getId());
+        }
+        return TeamLegacyId.standard(entries);
     }
 
+    @NotTimed
     public TeamLegacyId legacyIdOf(BaseLeague league, BlizzardProfileTeam bTeam)
     {
         return TeamLegacyId.standard
@@ -457,30 +484,31 @@ implements BasicEntityOperations<Team>
     {
         if(STD_ROW_MAPPER == null) STD_ROW_MAPPER = (rs, i)->
         {
+            int[] c = STD_COLUMNS.resolve(rs);
             Team team = new Team
             (
-                rs.getLong("team.id"),
-                rs.getInt("team.season"),
-                conversionService.convert(rs.getInt("team.region"), Region.class),
+                rs.getLong(c[ID]),
+                rs.getInt(c[SEASON]),
+                conversionService.convert(rs.getInt(c[REGION]), Region.class),
                 new BaseLeague
                     (
-                        conversionService.convert(rs.getInt("team.league_type"), League.LeagueType.class),
-                        conversionService.convert(rs.getInt("team.queue_type"), QueueType.class),
-                        conversionService.convert(rs.getInt("team.team_type"), TeamType.class)
+                        conversionService.convert(rs.getInt(c[LEAGUE_TYPE]), League.LeagueType.class),
+                        conversionService.convert(rs.getInt(c[QUEUE_TYPE]), QueueType.class),
+                        conversionService.convert(rs.getInt(c[TEAM_TYPE]), TeamType.class)
                     ),
-                conversionService.convert(DAOUtils.getInteger(rs, "team.tier_type"), LeagueTier.LeagueTierType.class),
-                TeamLegacyId.trusted(rs.getString("team.legacy_id")),
-                rs.getInt("team.division_id"),
-                rs.getLong("team.rating"),
-                rs.getInt("team.wins"), rs.getInt("team.losses"), rs.getInt("team.ties"),
-                rs.getInt("team.points"),
-                rs.getObject("team.last_played", OffsetDateTime.class),
-                rs.getObject("team.joined", OffsetDateTime.class),
-                rs.getObject("team.primary_data_updated", OffsetDateTime.class)
+                conversionService.convert(DAOUtils.getInteger(rs, c[TIER_TYPE]), LeagueTier.LeagueTierType.class),
+                TeamLegacyId.trusted(rs.getString(c[LEGACY_ID])),
+                rs.getInt(c[DIVISION_ID]),
+                rs.getLong(c[RATING]),
+                rs.getInt(c[WINS]), rs.getInt(c[LOSSES]), rs.getInt(c[TIES]),
+                rs.getInt(c[POINTS]),
+                rs.getObject(c[LAST_PLAYED], OffsetDateTime.class),
+                rs.getObject(c[JOINED], OffsetDateTime.class),
+                rs.getObject(c[PRIMARY_DATA_UPDATED], OffsetDateTime.class)
             );
-            team.setGlobalRank(DAOUtils.getInteger(rs, "team.global_rank"));
-            team.setRegionRank(DAOUtils.getInteger(rs, "team.region_rank"));
-            team.setLeagueRank(DAOUtils.getInteger(rs, "team.league_rank"));
+            team.setGlobalRank(DAOUtils.getInteger(rs, c[GLOBAL_RANK]));
+            team.setRegionRank(DAOUtils.getInteger(rs, c[REGION_RANK]));
+            team.setLeagueRank(DAOUtils.getInteger(rs, c[LEAGUE_RANK]));
             return team;
         };
         if(STD_EXTRACTOR == null) STD_EXTRACTOR = DAOUtils.getResultSetExtractor(STD_ROW_MAPPER);
@@ -567,10 +595,11 @@ implements BasicEntityOperations<Team>
                 t.getLegacyId().getId(),
                 t.getDivisionId(),
                 t.getSeason(),
-                conversionService.convert(t.getRegion(), Integer.class),
-                conversionService.convert(t.getLeagueType(), Integer.class),
-                conversionService.convert(t.getQueueType(), Integer.class),
-                conversionService.convert(t.getTeamType(), Integer.class),
+                //enum ids are used directly, this is a hot path
+                t.getRegion().getId(),
+                t.getLeagueType().getId(),
+                t.getQueueType().getId(),
+                t.getTeamType().getId(),
                 t.getRating(),
                 t.getPoints(),
                 t.getWins(),
@@ -579,7 +608,7 @@ implements BasicEntityOperations<Team>
                 t.getPrimaryDataUpdated(),
                 t.getJoined(),
                 t.getLastPlayed(),
-                conversionService.convert(t.getTierType(), Integer.class)
+                t.getTierType() != null ? t.getTierType().getId() : null
             })
             .collect(Collectors.toList());
         if(data.isEmpty()) return Set.of();
@@ -725,6 +754,7 @@ implements BasicEntityOperations<Team>
         ));
     }
 
+    @NotTimed
     @Caching
     (
         evict =
@@ -48,15 +48,27 @@ public class TeamMemberDAO
 
     private final NamedParameterJdbcTemplate template;
 
-    public static final RowMapper<TeamMember> STD_ROW_MAPPER = (rs, i)-> new TeamMember
-    (
-        rs.getLong("team_member.team_id"),
-        rs.getLong("team_member.player_character_id"),
-        rs.getInt("team_member.terran_games_played"),
-        rs.getInt("team_member.protoss_games_played"),
-        rs.getInt("team_member.zerg_games_played"),
-        rs.getInt("team_member.random_games_played")
-    );
+    private static final ColumnIndex STD_COLUMNS = new ColumnIndex();
+    private static final int TEAM_ID = STD_COLUMNS.add("team_member.team_id");
+    private static final int PLAYER_CHARACTER_ID = STD_COLUMNS.add("team_member.player_character_id");
+    private static final int TERRAN_GAMES_PLAYED = STD_COLUMNS.add("team_member.terran_games_played");
+    private static final int PROTOSS_GAMES_PLAYED = STD_COLUMNS.add("team_member.protoss_games_played");
+    private static final int ZERG_GAMES_PLAYED = STD_COLUMNS.add("team_member.zerg_games_played");
+    private static final int RANDOM_GAMES_PLAYED = STD_COLUMNS.add("team_member.random_games_played");
+
+    public static final RowMapper<TeamMember> STD_ROW_MAPPER = (rs, i)->
+    {
+        int[] c = STD_COLUMNS.resolve(rs);
+        return new TeamMember
+        (
+            rs.getLong(c[TEAM_ID]),
+            rs.getLong(c[PLAYER_CHARACTER_ID]),
+            rs.getInt(c[TERRAN_GAMES_PLAYED]),
+            rs.getInt(c[PROTOSS_GAMES_PLAYED]),
+            rs.getInt(c[ZERG_GAMES_PLAYED]),
+            rs.getInt(c[RANDOM_GAMES_PLAYED])
+        );
+    };
 
     @Autowired
     public TeamMemberDAO
@@ -1,28 +1,75 @@
-// Copyright (C) 2020-2021 Oleksandr Masniuk
+// Copyright (C) 2020-2025 Oleksandr Masniuk
 // SPDX-License-Identifier: AGPL-3.0-or-later
 
 package com.nephest.battlenet.sc2.model.local.dao;
 
+import com.nephest.battlenet.sc2.config.data.NotTimed;
+import com.nephest.battlenet.sc2.model.local.Var;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.Optional;
+/*
+    # Var registry
 
+    * All vars are bulk-loaded in one query on the first read. Every key is served from the
+      snapshot only once, subsequent reads go to the DB, so values changed by other instances are
+      still visible. The snapshot is meant for startup and is ignored when it's older than
+      SNAPSHOT_TTL.
+    * Writes inside a transaction are not executed immediately, values are written in one batch
+      before the commit, so they are still atomic with the data they describe(cursors, etc.).
+      Only the latest value of a key is written, rolled back values are discarded. Pending
+      values are visible to reads of the same transaction.
+    * Writes outside of a transaction are executed immediately. Callers save cursors before
+      the side effects they guard(see MapService), so a crash must not lose a saved value.
+    * Var objects register themselves, so they can be reloaded in one query when values could
+      have been changed by another node(see LeaderElectionService). Registered vars are weakly
+      referenced.
+ */
 @Repository
 public class VarDAO
 {
 
+    private static final Logger LOG = LoggerFactory.getLogger(VarDAO.class);
+
+    public static final Duration SNAPSHOT_TTL = Duration.ofMinutes(5);
+
     private static final String MERGE_QUERY =
         "INSERT INTO \"var\" (\"key\", \"value\") "
         + "VALUES (:key, :value) "
         + "ON CONFLICT(\"key\") DO UPDATE SET "
         + "value=excluded.value";
 
+    private static final String MERGE_ALL_QUERY =
+        "INSERT INTO \"var\" (\"key\", \"value\") "
+        + "VALUES :data "
+        + "ON CONFLICT(\"key\") DO UPDATE SET "
+        + "value=excluded.value";
+
     private static final String FIND_QUERY = "SELECT \"value\" FROM \"var\" WHERE \"key\"=:key";
+    private static final String FIND_ALL_QUERY = "SELECT \"key\", \"value\" FROM \"var\"";
+    private static final String DELETE_QUERY = "DELETE FROM \"var\" WHERE \"key\" IN(:keys)";
 
     private final NamedParameterJdbcTemplate template;
+    private final Set<String> snapshotReadKeys = ConcurrentHashMap.newKeySet();
+    private final Set<Var<?>> vars = Collections.newSetFromMap(new WeakHashMap<>());
+    private Map<String, String> snapshot;
+    private long snapshotLoaded;
 
     public VarDAO(@Qualifier("sc2StatsNamedTemplate") NamedParameterJdbcTemplate template) {
         this.template = template;
@@ -30,17 +77,175 @@ public class VarDAO
 
     public int merge(String key, String val)
     {
+        //the snapshot value is stale now
+        snapshotReadKeys.add(key);
+        if(TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            getTransactionValues().put(key, val);
+            return 1;
+        }
+
         MapSqlParameterSource params = new MapSqlParameterSource()
             .addValue("key", key)
             .addValue("value", val);
         return template.update(MERGE_QUERY, params);
     }
 
+    /**
+     * Writes several vars in one statement, so they are consistent with each other even outside
+     * of a transaction.
+     *
+     * @param values values by key
+     * @return number of written vars
+     */
+    public int merge(Map<String, String> values)
+    {
+        if(values.isEmpty()) return 0;
+
+        snapshotReadKeys.addAll(values.keySet());
+        if(TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            getTransactionValues().putAll(values);
+            return values.size();
+        }
+
+        List<Object[]> data = values.entrySet().stream()
+            .map(e->new Object[]{e.getKey(), e.getValue()})
+            .toList();
+        return template.update(MERGE_ALL_QUERY, new MapSqlParameterSource("data", data));
+    }
+
+    /**
+     * Removes obsolete vars. Deletes are executed immediately, even inside a transaction.
+     *
+     * @param keys var keys
+     * @return number of removed vars
+     */
+    public int delete(Set<String> keys)
+    {
+        if(keys.isEmpty()) return 0;
+
+        snapshotReadKeys.addAll(keys);
+        return template.update(DELETE_QUERY, new MapSqlParameterSource("keys", keys));
+    }
+
     public Optional<String> find(String key)
     {
+        Map<String, String> transactionValues = getCurrentTransactionValues();
+        if(transactionValues != null && transactionValues.containsKey(key))
+            return Optional.ofNullable(transactionValues.get(key));
+
+        Map<String, String> snapshot = getSnapshot();
+        if(snapshot != null && snapshotReadKeys.add(key)) return Optional.ofNullable(snapshot.get(key));
+
         MapSqlParameterSource params = new MapSqlParameterSource()
             .addValue("key", key);
         return Optional.ofNullable(template.query(FIND_QUERY, params, DAOUtils.STRING_EXTRACTOR));
     }
 
+    private Map<String, String> findAll()
+    {
+        Map<String, String> values = new HashMap<>();
+        template.query(FIND_ALL_QUERY, rs->{values.put(rs.getString("key"), rs.getString("value"));});
+        return values;
+    }
+
+    private synchronized void setSnapshot(Map<String, String> values)
+    {
+        snapshot = values;
+        snapshotLoaded = System.nanoTime();
+        snapshotReadKeys.clear();
+        LOG.debug("Loaded {} vars", values.size());
+    }
+
+    @NotTimed
+    public void register(Var<?> var)
+    {
+        synchronized(vars)
+        {
+            vars.add(var);
+        }
+    }
+
+    /**
+     * Reloads all registered vars in one query. The snapshot is replaced too, so vars that are
+     * not registered are fresh on the next read.
+     *
+     * @return number of registered vars
+     */
+    public int reloadAll()
+    {
+        Map<String, String> values = findAll();
+        setSnapshot(values);
+        List<Var<?>> registered;
+        synchronized(vars)
+        {
+            registered = new ArrayList<>(vars);
+        }
+        for(Var<?> var : registered) var.reload(values);
+        LOG.info("Reloaded {} vars", registered.size());
+        return registered.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, String> getCurrentTransactionValues()
+    {
+        return TransactionSynchronizationManager.isSynchronizationActive()
+            ? (Map<String, String>) TransactionSynchronizationManager.getResource(this)
+            : null;
+    }
+
+    private synchronized Map<String, String> getSnapshot()
+    {
+        if(snapshot != null)
+            return System.nanoTime() - snapshotLoaded < SNAPSHOT_TTL.toNanos() ? snapshot : null;
+
+        try
+        {
+            setSnapshot(findAll());
+        }
+        catch(RuntimeException ex)
+        {
+            //will try again next time, single reads are fine in the meantime
+            LOG.warn("Failed to load vars: {}", ex.getMessage());
+        }
+        return snapshot;
+    }
+
+    private Map<String, String> getTransactionValues()
+    {
+        Map<String, String> transactionValues = getCurrentTransactionValues();
+        if(transactionValues != null) return transactionValues;
+
+        Map<String, String> newTransactionValues = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(this, newTransactionValues);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+        {
+            @Override
+            public void beforeCommit(boolean readOnly)
+            {
+                write(newTransactionValues);
+            }
+
+            @Override
+            public void afterCompletion(int status)
+            {
+                TransactionSynchronizationManager.unbindResourceIfPossible(VarDAO.this);
+            }
+        });
+        return newTransactionValues;
+    }
+
+    private void write(Map<String, String> values)
+    {
+        if(values.isEmpty()) return;
+
+        MapSqlParameterSource[] params = values.entrySet().stream()
+            .map(e->new MapSqlParameterSource()
+                .addValue("key", e.getKey())
+                .addValue("value", e.getValue()))
+            .toArray(MapSqlParameterSource[]::new);
+        template.batchUpdate(MERGE_QUERY, params);
+    }
+
 }
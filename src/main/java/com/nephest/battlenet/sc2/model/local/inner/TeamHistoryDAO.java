@@ -26,13 +26,13 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -42,8 +42,10 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
+@Transactional(readOnly = true)
 public class TeamHistoryDAO
 {
 
@@ -615,20 +617,38 @@ public class TeamHistoryDAO
         initMappers(sc2StatsConversionService, minConversionService);
     }
 
+    /**
+     * Columns of a result set with their indexes, resolved once per result set from its
+     * metadata, so rows are read by index instead of label.
+     */
+    private record IndexedColumns<T>(List<T> columns, int[] indexes)
+    {
+
+        public static <T> IndexedColumns<T> of(List<T> columns, List<Integer> indexes)
+        {
+            return new IndexedColumns<>
+            (
+                columns,
+                indexes.stream().mapToInt(Integer::intValue).toArray()
+            );
+        }
+
+    }
+
     private static <T extends Enum<T>> Map<T, ?>  mapGenericColumns
     (
         ResultSet rs,
-        List<T> columns,
+        IndexedColumns<T> columns,
         ConversionService minConversionService,
-        Function<T, String> columnNameMapper,
         Class<T> clazz
     )
     {
         try
         {
             Map<T, Object> result = new EnumMap<>(clazz);
-            for(T column : columns) result.put(column, minConversionService
-                .convert(rs.getObject(columnNameMapper.apply(column)), Object.class));
+            for(int i = 0; i < columns.indexes().length; i++)
+                result.put(columns.columns().get(i), minConversionService
+                    .convert(rs.getObject(columns.indexes()[i]), Object.class));
             return result;
         }
         catch (SQLException e)
@@ -640,7 +660,7 @@ public class TeamHistoryDAO
     private static RawTeamHistoryStaticData mapTeamColumns
     (
         ResultSet rs,
-        List<StaticColumn> staticColumns,
+        IndexedColumns<StaticColumn> staticColumns,
         ConversionService minConversionService
     )
     {
@@ -648,7 +668,6 @@ public class TeamHistoryDAO
             rs,
             staticColumns,
             minConversionService,
-            StaticColumn::getAlias,
             StaticColumn.class
         ));
     }
@@ -656,44 +675,42 @@ public class TeamHistoryDAO
     private static RawTeamHistoryHistoryData mapColumns
     (
         ResultSet rs,
-        List<HistoryColumn> historyColumns,
+        IndexedColumns<HistoryColumn> historyColumns,
         ConversionService sc2StatsConversionService,
         ConversionService minConversionService
     )
     {
-        return new RawTeamHistoryHistoryData(historyColumns.stream()
-            .collect(Collectors.toMap(
-                Function.identity(),
-                historyColumn ->
-                {
-                    try
-                    {
-                        Array dbArray = rs.getArray(historyColumn.getName());
-                        Object array = !historyColumn.getTypeMapping().isEmpty()
-                            ? dbArray.getArray(historyColumn.getTypeMapping())
-                            : dbArray.getArray();
-                        return historyColumn.getValueConversionClass() != null
-                            ? Arrays.stream((Number[]) array)
-                                .map(number -> number != null ? number.intValue() : null)
-                                .map(id->sc2StatsConversionService.convert(id, historyColumn.getValueConversionClass()))
-                                .toList()
-                            : Arrays.asList(minConversionService.convert(array, Object[].class));
-
-                    }
-                    catch (SQLException e)
-                    {
-                        throw new RuntimeException(e);
-                    }
-                }
-            )));
+        try
+        {
+            Map<HistoryColumn, List<?>> result = new HashMap<>(historyColumns.indexes().length * 2);
+            for(int i = 0; i < historyColumns.indexes().length; i++)
+            {
+                HistoryColumn historyColumn = historyColumns.columns().get(i);
+                Array dbArray = rs.getArray(historyColumns.indexes()[i]);
+                Object array = !historyColumn.getTypeMapping().isEmpty()
+                    ? dbArray.getArray(historyColumn.getTypeMapping())
+                    : dbArray.getArray();
+                result.put(historyColumn, historyColumn.getValueConversionClass() != null
+                    ? Arrays.stream((Number[]) array)
+                        .map(number -> number != null ? number.intValue() : null)
+                        .map(id->sc2StatsConversionService.convert(id, historyColumn.getValueConversionClass()))
+                        .toList()
+                    : Arrays.asList(minConversionService.convert(array, Object[].class)));
+            }
+            return new RawTeamHistoryHistoryData(result);
+        }
+        catch (SQLException e)
+        {
+            throw new RuntimeException(e);
+        }
     }
 
 
     private static TeamHistory<RawTeamHistoryStaticData, RawTeamHistoryHistoryData> map
     (
         ResultSet rs,
-        List<StaticColumn> staticColumns,
-        List<HistoryColumn> historyColumns,
+        IndexedColumns<StaticColumn> staticColumns,
+        IndexedColumns<HistoryColumn> historyColumns,
         ConversionService sc2StatsConversionService,
         ConversionService minConversionService
     )
@@ -708,8 +725,8 @@ public class TeamHistoryDAO
     private static TeamHistorySummary<RawTeamHistoryStaticData, RawTeamHistorySummaryData> mapSummary
     (
         ResultSet rs,
-        List<StaticColumn> staticColumns,
-        List<SummaryColumn> summaryColumns,
+        IndexedColumns<StaticColumn> staticColumns,
+        IndexedColumns<SummaryColumn> summaryColumns,
         ConversionService minConversionService
     )
     {
@@ -720,7 +737,6 @@ public class TeamHistoryDAO
                 rs,
                 summaryColumns,
                 minConversionService,
-                SummaryColumn::getAggregationName,
                 SummaryColumn.class
             ))
         );
@@ -737,35 +753,33 @@ public class TeamHistoryDAO
             if(!rs.isBeforeFirst()) return List.of();
 
             ResultSetMetaData meta  = rs.getMetaData();
-            List<StaticColumn> staticColumns = new ArrayList<>();
-            List<HistoryColumn> historyColumns = new ArrayList<>();
-            IntStream.rangeClosed(1, meta.getColumnCount())
-                .boxed()
-                .map(i->
+            int columnCount = meta.getColumnCount();
+            List<StaticColumn> staticColumns = new ArrayList<>(columnCount);
+            List<Integer> staticIndexes = new ArrayList<>(columnCount);
+            List<HistoryColumn> historyColumns = new ArrayList<>(columnCount);
+            List<Integer> historyIndexes = new ArrayList<>(columnCount);
+            for(int i = 1; i <= columnCount; i++)
+            {
+                String columnName = meta.getColumnLabel(i);
+                if(columnName.startsWith(StaticColumn.COLUMN_NAME_PREFIX))
                 {
-                    try
-                    {
-                        return meta.getColumnLabel(i);
-                    }
-                    catch (SQLException e)
-                    {
-                        throw new RuntimeException(e);
-                    }
-                })
-                .forEach(columnName->{
-                    if(columnName.startsWith(StaticColumn.COLUMN_NAME_PREFIX))
-                    {
-                        staticColumns.add(StaticColumn.fromAlias(columnName));
-                    }
-                    else
-                    {
-                        historyColumns.add(HistoryColumn.fromName(columnName));
-                    }
-                });
+                    staticColumns.add(StaticColumn.fromAlias(columnName));
+                    staticIndexes.add(i);
+                }
+                else
+                {
+                    historyColumns.add(HistoryColumn.fromName(columnName));
+                    historyIndexes.add(i);
+                }
+            }
+            IndexedColumns<StaticColumn> indexedStaticColumns
+                = IndexedColumns.of(staticColumns, staticIndexes);
+            IndexedColumns<HistoryColumn> indexedHistoryColumns
+                = IndexedColumns.of(historyColumns, historyIndexes);
             List<TeamHistory<RawTeamHistoryStaticData, RawTeamHistoryHistoryData>> result
                 = new ArrayList<>();
             while(rs.next())
-                result.add(map(rs, staticColumns, historyColumns,
+                result.add(map(rs, indexedStaticColumns, indexedHistoryColumns,
                     sc2StatsConversionService, minConversionService));
 
             return result;
@@ -786,35 +800,32 @@ public class TeamHistoryDAO
             ResultSetMetaData meta  = rs.getMetaData();
             int columnCount = meta.getColumnCount();
             List<StaticColumn> staticColumns = new ArrayList<>(columnCount);
+            List<Integer> staticIndexes = new ArrayList<>(columnCount);
             List<SummaryColumn> summaryColumns = new ArrayList<>(columnCount);
-            IntStream.rangeClosed(1, columnCount)
-                .boxed()
-                .map(i->
+            List<Integer> summaryIndexes = new ArrayList<>(columnCount);
+            for(int i = 1; i <= columnCount; i++)
+            {
+                String columnName = meta.getColumnLabel(i);
+                if(columnName.startsWith(StaticColumn.COLUMN_NAME_PREFIX))
                 {
-                    try
-                    {
-                        return meta.getColumnLabel(i);
-                    }
-                    catch (SQLException e)
-                    {
-                        throw new RuntimeException(e);
-                    }
-                })
-                .forEach(columnName->{
-                    if(columnName.startsWith(StaticColumn.COLUMN_NAME_PREFIX))
-                    {
-                        staticColumns.add(StaticColumn.fromAlias(columnName));
-                    }
-                    else
-                    {
-                        summaryColumns.add(SummaryColumn.fromAggregationName(columnName));
-                    }
-                });
+                    staticColumns.add(StaticColumn.fromAlias(columnName));
+                    staticIndexes.add(i);
+                }
+                else
+                {
+                    summaryColumns.add(SummaryColumn.fromAggregationName(columnName));
+                    summaryIndexes.add(i);
+                }
+            }
+            IndexedColumns<StaticColumn> indexedStaticColumns
+                = IndexedColumns.of(staticColumns, staticIndexes);
+            IndexedColumns<SummaryColumn> indexedSummaryColumns
+                = IndexedColumns.of(summaryColumns, summaryIndexes);
 
             List<TeamHistorySummary<RawTeamHistoryStaticData, RawTeamHistorySummaryData>> result
                 = new ArrayList<>();
             while(rs.next())
-                result.add(mapSummary(rs, staticColumns, summaryColumns, minConversionService));
+                result.add(mapSummary(rs, indexedStaticColumns, indexedSummaryColumns, minConversionService));
             return result;
         };
     }
@@ -10,9 +10,9 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 public class TeamLegacyId
 implements Comparable<TeamLegacyId>, Serializable
@@ -22,6 +22,8 @@ implements Comparable<TeamLegacyId>, Serializable
     private static final long serialVersionUID = 1L;
 
     public static final String DELIMITER = "~";
+    //realm.id.race
+    private static final int ESTIMATED_ENTRY_LENGTH = 16;
 
     @NotEmpty
     private List<TeamLegacyIdEntry> entries;
@@ -41,6 +43,26 @@ implements Comparable<TeamLegacyId>, Serializable
         return new TeamLegacyId(createId(sortedEntries), sortedEntries);
     }
 
+    /**
+     * Allocation-light alternative of {@link #standard(Collection)} for hot paths. The
+     * {@code entries} array is sorted in place and must not be reused by the caller.
+     */
+    public static TeamLegacyId standard(@NotEmpty TeamLegacyIdEntry[] entries)
+    {
+        Arrays.sort(entries);
+        int count = 0;
+        for(TeamLegacyIdEntry entry : entries)
+            if(count == 0 || !entry.equals(entries[count - 1])) entries[count++] = entry;
+        List<TeamLegacyIdEntry> sortedEntries = count == entries.length
+            ? Arrays.asList(entries)
+            : Arrays.asList(Arrays.copyOf(entries, count));
+        return new TeamLegacyId
+        (
+            createId(sortedEntries),
+            Collections.unmodifiableList(sortedEntries)
+        );
+    }
+
     public static TeamLegacyId trusted(String id)
     {
         return new TeamLegacyId(id, null);
@@ -53,9 +75,15 @@ implements Comparable<TeamLegacyId>, Serializable
 
     private static String createId(List<TeamLegacyIdEntry> entries)
     {
-        return entries.stream()
-            .map(TeamLegacyIdEntry::toLegacyIdSectionString)
-            .collect(Collectors.joining(TeamLegacyId.DELIMITER));
+        if(entries.size() == 1) return entries.get(0).toLegacyIdSectionString();
+
+        StringBuilder sb = new StringBuilder(entries.size() * ESTIMATED_ENTRY_LENGTH);
+        for(int i = 0; i < entries.size(); i++)
+        {
+            if(i > 0) sb.append(DELIMITER);
+            entries.get(i).appendLegacyIdSectionStringTo(sb);
+        }
+        return sb.toString();
     }
 
     private static List<TeamLegacyIdEntry> createEntries(String id)
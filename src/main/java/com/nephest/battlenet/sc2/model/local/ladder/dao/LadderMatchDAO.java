@@ -3,6 +3,7 @@
 
 package com.nephest.battlenet.sc2.model.local.ladder.dao;
 
+import com.nephest.battlenet.sc2.config.data.NotTimed;
 import com.nephest.battlenet.sc2.model.BaseMatch;
 import com.nephest.battlenet.sc2.model.Race;
 import com.nephest.battlenet.sc2.model.Region;
@@ -15,6 +16,7 @@ import com.nephest.battlenet.sc2.model.local.dao.DAOUtils;
 import com.nephest.battlenet.sc2.model.local.dao.LeagueDAO;
 import com.nephest.battlenet.sc2.model.local.dao.MatchDAO;
 import com.nephest.battlenet.sc2.model.local.dao.MatchParticipantDAO;
+import com.nephest.battlenet.sc2.model.local.dao.MatchVersusDAO;
 import com.nephest.battlenet.sc2.model.local.dao.PlayerCharacterDAO;
 import com.nephest.battlenet.sc2.model.local.dao.PopulationStateDAO;
 import com.nephest.battlenet.sc2.model.local.dao.SC2MapDAO;
@@ -39,8 +41,10 @@ import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -52,10 +56,12 @@ import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 @Validated
 @Repository
+@Transactional(readOnly = true)
 public class LadderMatchDAO
 {
 
@@ -181,118 +187,129 @@ public class LadderMatchDAO
             + "LIMIT :limit "
         + ") " + FIND_MATCHES_TEMPLATE;
 
+    /*
+        match_versus rows are posting lists ordered by the match cursor. Both sides are read from
+        the clan/team indexes, participants of each side must share the same decision, and the
+        decisions of the sides must differ. The same match can be stored in several regions,
+        it's grouped by date, type, and map.
+
+        The index is backfilled in the background, see MatchService. Matches that are older than
+        the indexed range are read by the legacy joins over match_participant, clan_member, and
+        team. The legacy source is dropped when the backfill is complete.
+     */
+    private static final String VERSUS_INDEX_SOURCE_TEMPLATE =
+        "SELECT match_id, date, type, map_id, region, decision "
+        + "FROM match_versus "
+        + "WHERE "
+        + "("
+            + "clan_id = ANY (:clans%1$s) "
+            + "OR (queue_type, team_type, team_region, legacy_id) IN (:teams%1$s)"
+        + ") "
+        + "%2$s ";
+
+    private static final String VERSUS_LEGACY_SOURCE_TEMPLATE =
+        "SELECT match.id AS match_id, match.date, match.type, match.map_id, match.region, "
+        + "match_participant.decision "
+        + "FROM match "
+        + "INNER JOIN match_participant ON match.id = match_participant.match_id "
+        + "%1$s "
+        + "AND match_participant.decision IN (:validDecisions) "
+        + "AND match.type NOT IN (:excludeTypes) "
+        + "%2$s ";
+
+    private static final String VERSUS_LEGACY_CLAN_SOURCE_TEMPLATE = String.format
+    (
+        VERSUS_LEGACY_SOURCE_TEMPLATE,
+        "INNER JOIN clan_member "
+            + "ON match_participant.player_character_id = clan_member.player_character_id "
+        + "WHERE clan_member.clan_id = ANY (:clans%1$s)",
+        "%2$s"
+    );
+
+    private static final String VERSUS_LEGACY_TEAM_SOURCE_TEMPLATE = String.format
+    (
+        VERSUS_LEGACY_SOURCE_TEMPLATE,
+        "INNER JOIN team ON match_participant.team_id = team.id "
+        + "WHERE (team.queue_type, team.team_type, team.region, team.legacy_id) IN (:teams%1$s)",
+        "%2$s"
+    );
+
+    private static final String VERSUS_SIDE_TEMPLATE =
+        "SELECT match_id, date, type, map_id, MIN(decision) AS decision "
+        + "FROM (%1$s) vs_source "
+        + "WHERE %2$s "
+        + "GROUP BY match_id, date, type, map_id "
+        + "HAVING MIN(decision) = MAX(decision) ";
+
     private static final String VERSUS_FILTER_TEMPLATE =
         "WITH "
-        + "vs_match_filter AS "
-        + "( "
-            + "SELECT DISTINCT(id) FROM "
-            + "( "
-                + "SELECT match.id, match_participant.player_character_id "
-                + "FROM match "
-                + "INNER JOIN match_participant ON match.id = match_participant.match_id "
-                + "INNER JOIN player_character ON match_participant.player_character_id = player_character.id "
-                + "INNER JOIN clan_member ON player_character.id = clan_member.player_character_id "
-                + "WHERE "
-                + "clan_member.clan_id = ANY (:clans) "
-                + "AND match_participant.decision IN (:validDecisions) "
-                + "AND match.type NOT IN (:excludeTypes) "
-                + "%1$s "
-
-                + "UNION "
-
-                + "SELECT match.id, player_character_id "
-                + "FROM match "
-                + "INNER JOIN match_participant ON match.id = match_participant.match_id "
-                + "INNER JOIN player_character ON match_participant.player_character_id = player_character.id "
-                + "LEFT JOIN team ON match_participant.team_id = team.id "
-                + "WHERE "
-                + "(team.queue_type, team.team_type, team.region, team.legacy_id) IN (:teams) "
-                + "AND match_participant.decision IN (:validDecisions) "
-                + "AND match.type NOT IN (:excludeTypes) "
-                + "%1$s "
-            + ") c "
-            + "GROUP BY c.id "
-            + "HAVING COUNT(*) > 1 "
-        + "),"
-        + "match_filter_g1 AS "
-        + "("
-            + "SELECT id, MAX(decision) AS decision "
-            + "FROM "
-            + "("
-                + "SELECT vs_match_filter.id, MAX(match_participant.decision) AS decision "
-                + "FROM vs_match_filter "
-                + "INNER JOIN match_participant ON vs_match_filter.id = match_participant.match_id "
-                + "INNER JOIN player_character ON match_participant.player_character_id = player_character.id "
-                + "INNER JOIN clan_member ON player_character.id = clan_member.player_character_id "
-                + "WHERE "
-                + "clan_member.clan_id = ANY (:clans1) "
-                + "GROUP BY vs_match_filter.id "
-                + "HAVING MAX(match_participant.decision) = MIN(match_participant.decision) "
-
-                + "UNION "
-
-                + "SELECT vs_match_filter.id, MAX(match_participant.decision) AS decision "
-                + "FROM vs_match_filter "
-                + "INNER JOIN match_participant ON vs_match_filter.id = match_participant.match_id "
-                + "LEFT JOIN team ON match_participant.team_id = team.id "
-                + "WHERE "
-                + "(team.queue_type, team.team_type, team.region, team.legacy_id) IN (:teams1) "
-                + "GROUP BY vs_match_filter.id "
-                + "HAVING MAX(match_participant.decision) = MIN(match_participant.decision) "
-            + ") g1 "
-            + "GROUP BY id "
-            + "HAVING MAX(decision) = MIN(decision) "
-        + "), "
+        + "vs1 AS (%1$s), "
+        + "vs2 AS (%2$s), "
         + "match_filter AS "
         + "( "
-            + "SELECT MAX(match.id) AS id, MAX(match_participant.decision) AS decision "
-            + "FROM match_filter_g1 "
-            + "INNER JOIN match USING (id) "
-            + "INNER JOIN match_participant ON match.id = match_participant.match_id "
-            + "INNER JOIN player_character ON match_participant.player_character_id = player_character.id "
-            + "LEFT JOIN clan_member ON player_character.id = clan_member.player_character_id "
-            + "LEFT JOIN team ON match_participant.team_id = team.id "
-            + "WHERE "
-            + "("
-                + "clan_member.clan_id = ANY (:clans2) "
-                + "OR (team.queue_type, team.team_type, team.region, team.legacy_id) IN (:teams2) "
-            + ") "
-            + "GROUP BY date, type, map_id "
-            + "HAVING MAX(match_participant.decision) = MIN(match_participant.decision) "
-            + "AND MAX(match_participant.decision) != MAX(match_filter_g1.decision) "
-            + "ORDER BY date %2$s, type %2$s, map_id %2$s "
-            + "%3$s"
+            + "SELECT MAX(vs2.match_id) AS id, MAX(vs2.decision) AS decision "
+            + "FROM vs1 "
+            + "INNER JOIN vs2 USING(match_id) "
+            + "WHERE vs1.decision != vs2.decision "
+            + "GROUP BY vs2.date, vs2.type, vs2.map_id "
+            + "HAVING MAX(vs2.decision) = MIN(vs2.decision) "
+            + "ORDER BY vs2.date %3$s, vs2.type %3$s, vs2.map_id %3$s "
+            + "%4$s"
         + ") ";
 
-    private static final String VERSUS_SUMMARY =
-        String.format
-        (
-            VERSUS_FILTER_TEMPLATE,
-            "AND (array_length(:types::smallint[], 1) IS NULL OR match.type = ANY(:types)) ",
-            "DESC", ""
-        )
+    private static final String VERSUS_TYPE_FILTER =
+        "(array_length(:types::smallint[], 1) IS NULL OR type = ANY(:types))";
+    private static final String VERSUS_CURSOR_FILTER_TEMPLATE =
+        "(date, type, map_id, region) %1$s (:dateCursor, :typeCursor, :mapIdCursor, :regionCursor) "
+        + "AND " + VERSUS_TYPE_FILTER;
+
+    private static final String VERSUS_SUMMARY_TEMPLATE =
+        "%1$s"
         + ", wins AS (SELECT COUNT(DISTINCT(match_filter.id)) AS wins FROM match_filter WHERE decision = :loss) "
         + "SELECT COUNT(DISTINCT(match_filter.id)) AS matches, "
         + "MAX(wins.wins) AS wins "
         + "FROM match_filter, wins";
 
-    private static final String FIND_VERSUS_MATCHES_TEMPLATE =
-        String.format
-        (
-            VERSUS_FILTER_TEMPLATE,
-            "AND (date, type, map_id, match.region) %1$s (:dateCursor, :typeCursor, :mapIdCursor, :regionCursor) "
-            + "AND (array_length(:types::smallint[], 1) IS NULL OR match.type = ANY(:types)) ",
-            "%2$s",
-            "LIMIT :limit"
-        )
-        + FIND_MATCHES_TEMPLATE;
-    private static final String FIND_VERSUS_MATCHES =
-        String.format(FIND_VERSUS_MATCHES_TEMPLATE, "<", "DESC");
-    private static final String FIND_VERSUS_MATCHES_REVERSED =
-        String.format(FIND_VERSUS_MATCHES_TEMPLATE, ">", "ASC");
+    /**
+     * Progress of the versus index backfill.
+     */
+    private enum VersusIndexState
+    {
+        /** Nothing is indexed yet, only the legacy source is used */
+        NONE,
+        /** Matches since the indexed date are indexed, older matches are read from the legacy source */
+        PARTIAL,
+        /** All matches are indexed */
+        COMPLETE
+    }
+
+    private record VersusQueries(String summary, String find, String findReversed)
+    {
+
+        private static VersusQueries of(VersusIndexState state)
+        {
+            return new VersusQueries
+            (
+                String.format
+                (
+                    VERSUS_SUMMARY_TEMPLATE,
+                    getVersusFilter(state, VERSUS_TYPE_FILTER, "DESC", "")
+                ),
+                getFindVersusMatches(state, "<", "DESC"),
+                getFindVersusMatches(state, ">", "ASC")
+            );
+        }
+
+    }
+
+    private static final Map<VersusIndexState, VersusQueries> VERSUS_QUERIES =
+        new EnumMap<>(VersusIndexState.class);
 
-    private static List<Integer> DEFAULT_VERSUS_DECISIONS;
-    private static List<Integer> DEFAULT_VERSUS_EXCLUDE_TYPES;
+    static
+    {
+        for(VersusIndexState state : VersusIndexState.values())
+            VERSUS_QUERIES.put(state, VersusQueries.of(state));
+    }
 
     private static final ResultSetExtractor<VersusSummary> VERSUS_SUMMARY_EXTRACTOR = rs->
     {
@@ -310,6 +327,7 @@ public class LadderMatchDAO
 
     private final NamedParameterJdbcTemplate template;
     private final ConversionService conversionService;
+    private final MatchVersusDAO matchVersusDAO;
 
     private int resultsPerPage = 10;
 
@@ -317,13 +335,14 @@ public class LadderMatchDAO
     public LadderMatchDAO
     (
         @Qualifier("sc2StatsNamedTemplate") NamedParameterJdbcTemplate template,
-        @Qualifier("sc2StatsConversionService") ConversionService conversionService
+        @Qualifier("sc2StatsConversionService") ConversionService conversionService,
+        MatchVersusDAO matchVersusDAO
     )
     {
         this.template = template;
         this.conversionService = conversionService;
+        this.matchVersusDAO = matchVersusDAO;
         initMappers();
-        initMisc();
     }
 
     private void initMappers()
@@ -389,33 +408,25 @@ public class LadderMatchDAO
         };
     }
 
-    private void initMisc()
-    {
-        if(DEFAULT_VERSUS_DECISIONS == null) DEFAULT_VERSUS_DECISIONS = Stream
-            .of(BaseMatch.Decision.WIN, BaseMatch.Decision.LOSS)
-            .map(d->conversionService.convert(d, Integer.class))
-            .collect(Collectors.toList());
-        if(DEFAULT_VERSUS_EXCLUDE_TYPES == null) DEFAULT_VERSUS_EXCLUDE_TYPES = Stream
-            .of(BaseMatch.MatchType.COOP)
-            .map(t->conversionService.convert(t, Integer.class))
-            .collect(Collectors.toList());
-    }
-
+    @NotTimed
     public ResultSetExtractor<LadderMatchParticipant> getParticipantExtractor()
     {
         return PARTICIPANT_EXTRACTOR;
     }
 
+    @NotTimed
     public ResultSetExtractor<List<LadderMatch>> getMatchesExtractor()
     {
         return MATCHES_EXTRACTOR;
     }
 
+    @NotTimed
     public int getResultsPerPage()
     {
         return resultsPerPage;
     }
 
+    @NotTimed
     public void setResultsPerPage(int resultsPerPage)
     {
         this.resultsPerPage = resultsPerPage;
@@ -735,8 +746,8 @@ public class LadderMatchDAO
             .addValue("types", Arrays.stream(types)
                 .map(t->conversionService.convert(t, Integer.class))
                 .toArray(Integer[]::new));
-        addVersusParams(clans1, teams1, clans2, teams2, params);
-        return template.query(VERSUS_SUMMARY, params, VERSUS_SUMMARY_EXTRACTOR);
+        VersusIndexState state = addVersusParams(clans1, teams1, clans2, teams2, params);
+        return template.query(VERSUS_QUERIES.get(state).summary(), params, VERSUS_SUMMARY_EXTRACTOR);
     }
 
     public PagedSearchResult<List<LadderMatch>> findVersusMatches
@@ -763,14 +774,85 @@ public class LadderMatchDAO
 
         MapSqlParameterSource params = new MapSqlParameterSource()
             .addValue("limit", getResultsPerPage());
-        addVersusParams(clans1, teams1, clans2, teams2, params);
+        VersusQueries queries = VERSUS_QUERIES
+            .get(addVersusParams(clans1, teams1, clans2, teams2, params));
         addMatchCursorParams(dateCursor, typeCursor, mapCursor, regionCursor, types, params);
-        String q = forward ? FIND_VERSUS_MATCHES : FIND_VERSUS_MATCHES_REVERSED;
+        String q = forward ? queries.find() : queries.findReversed();
         List<LadderMatch> matches = template.query(q, params, MATCHES_EXTRACTOR);
         return new PagedSearchResult<>(null, (long) getResultsPerPage(), finalPage, matches);
     }
 
-    private MapSqlParameterSource addVersusParams
+    private static String getVersusSource(int side, VersusIndexState state)
+    {
+        List<String> sources = new ArrayList<>(3);
+        if(state != VersusIndexState.NONE) sources.add(String.format
+        (
+            VERSUS_INDEX_SOURCE_TEMPLATE,
+            side,
+            state == VersusIndexState.PARTIAL ? "AND date >= :versusIndexedFrom" : ""
+        ));
+        if(state != VersusIndexState.COMPLETE)
+        {
+            String bound = state == VersusIndexState.PARTIAL
+                ? "AND match.date < :versusIndexedFrom"
+                : "";
+            sources.add(String.format(VERSUS_LEGACY_CLAN_SOURCE_TEMPLATE, side, bound));
+            sources.add(String.format(VERSUS_LEGACY_TEAM_SOURCE_TEMPLATE, side, bound));
+        }
+        return String.join("UNION ALL ", sources);
+    }
+
+    private static String getVersusFilter
+    (
+        VersusIndexState state,
+        String filter,
+        String order,
+        String limit
+    )
+    {
+        return String.format
+        (
+            VERSUS_FILTER_TEMPLATE,
+            String.format(VERSUS_SIDE_TEMPLATE, getVersusSource(1, state), filter),
+            String.format(VERSUS_SIDE_TEMPLATE, getVersusSource(2, state), filter),
+            order,
+            limit
+        );
+    }
+
+    private static String getFindVersusMatches
+    (
+        VersusIndexState state,
+        String comparator,
+        String order
+    )
+    {
+        return getVersusFilter
+        (
+            state,
+            String.format(VERSUS_CURSOR_FILTER_TEMPLATE, comparator),
+            order,
+            "LIMIT :limit"
+        )
+            + String.format(FIND_MATCHES_TEMPLATE, comparator, order);
+    }
+
+    private VersusIndexState addVersusIndexParams(MapSqlParameterSource params)
+    {
+        OffsetDateTime indexedFrom = matchVersusDAO.getIndexedFrom();
+        if(indexedFrom != null && MatchVersusDAO.isIndexComplete(indexedFrom))
+            return VersusIndexState.COMPLETE;
+
+        params
+            .addValue("validDecisions", matchVersusDAO.getValidDecisions())
+            .addValue("excludeTypes", matchVersusDAO.getExcludeTypes());
+        if(indexedFrom == null) return VersusIndexState.NONE;
+
+        params.addValue("versusIndexedFrom", indexedFrom);
+        return VersusIndexState.PARTIAL;
+    }
+
+    private VersusIndexState addVersusParams
     (
         Integer[] clans1,
         Set<TeamLegacyUid> teams1,
@@ -795,21 +877,12 @@ public class LadderMatchDAO
                 id.getId().getId()
             })
             .collect(Collectors.toList());
-        Integer[] clanIds = Stream.of(clans1, clans2)
-            .flatMap(Stream::of)
-            .toArray(Integer[]::new);
-        List<Object[]> teamIds = Stream.of(teamIds1, teamIds2)
-            .flatMap(List::stream)
-            .collect(Collectors.toList());
-        return params
-            .addValue("clans", clanIds)
-            .addValue("teams", teamIds.isEmpty() ? null : teamIds)
+        params
             .addValue("clans1", clans1)
             .addValue("teams1", teamIds1.isEmpty() ? null : teamIds1)
             .addValue("clans2", clans2)
-            .addValue("teams2", teamIds2.isEmpty() ? null : teamIds2)
-            .addValue("validDecisions", DEFAULT_VERSUS_DECISIONS)
-            .addValue("excludeTypes", DEFAULT_VERSUS_EXCLUDE_TYPES);
+            .addValue("teams2", teamIds2.isEmpty() ? null : teamIds2);
+        return addVersusIndexParams(params);
     }
 
 }
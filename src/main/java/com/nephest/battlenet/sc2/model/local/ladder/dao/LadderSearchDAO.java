@@ -3,6 +3,7 @@
 
 package com.nephest.battlenet.sc2.model.local.ladder.dao;
 
+import com.nephest.battlenet.sc2.config.data.NotTimed;
 import com.nephest.battlenet.sc2.model.BaseLeague;
 import com.nephest.battlenet.sc2.model.QueueType;
 import com.nephest.battlenet.sc2.model.Race;
@@ -15,6 +16,7 @@ import com.nephest.battlenet.sc2.model.local.PlayerCharacterReport;
 import com.nephest.battlenet.sc2.model.local.Season;
 import com.nephest.battlenet.sc2.model.local.dao.AccountDAO;
 import com.nephest.battlenet.sc2.model.local.dao.ClanDAO;
+import com.nephest.battlenet.sc2.model.local.dao.ColumnIndex;
 import com.nephest.battlenet.sc2.model.local.dao.DAOUtils;
 import com.nephest.battlenet.sc2.model.local.dao.PlayerCharacterDAO;
 import com.nephest.battlenet.sc2.model.local.dao.PopulationStateDAO;
@@ -57,9 +59,11 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 @Repository
+@Transactional(readOnly = true)
 @Validated
 public class LadderSearchDAO
 {
@@ -301,6 +305,38 @@ public class LadderSearchDAO
     private ConversionService conversionService;
     private SeasonDAO seasonDAO;
 
+    private static final ColumnIndex LADDER_TEAM_COLUMNS = new ColumnIndex();
+    private static final int TEAM_ID = LADDER_TEAM_COLUMNS.add("team.id");
+    private static final int TEAM_SEASON = LADDER_TEAM_COLUMNS.add("team.season");
+    private static final int TEAM_REGION = LADDER_TEAM_COLUMNS.add("team.region");
+    private static final int TEAM_LEAGUE_TYPE = LADDER_TEAM_COLUMNS.add("team.league_type");
+    private static final int TEAM_QUEUE_TYPE = LADDER_TEAM_COLUMNS.add("team.queue_type");
+    private static final int TEAM_TEAM_TYPE = LADDER_TEAM_COLUMNS.add("team.team_type");
+    private static final int TEAM_TIER_TYPE = LADDER_TEAM_COLUMNS.add("team.tier_type");
+    private static final int TEAM_LEGACY_ID = LADDER_TEAM_COLUMNS.add("team.legacy_id");
+    private static final int TEAM_DIVISION_ID = LADDER_TEAM_COLUMNS.add("team.division_id");
+    private static final int TEAM_RATING = LADDER_TEAM_COLUMNS.add("team.rating");
+    private static final int TEAM_WINS = LADDER_TEAM_COLUMNS.add("team.wins");
+    private static final int TEAM_LOSSES = LADDER_TEAM_COLUMNS.add("team.losses");
+    private static final int TEAM_TIES = LADDER_TEAM_COLUMNS.add("team.ties");
+    private static final int TEAM_LAST_PLAYED = LADDER_TEAM_COLUMNS.add("team.last_played");
+    private static final int TEAM_JOINED = LADDER_TEAM_COLUMNS.add("team.joined");
+    private static final int TEAM_PRIMARY_DATA_UPDATED = LADDER_TEAM_COLUMNS.add("team.primary_data_updated");
+    private static final int TEAM_GLOBAL_RANK = LADDER_TEAM_COLUMNS.add("team.global_rank");
+    private static final int TEAM_REGION_RANK = LADDER_TEAM_COLUMNS.add("team.region_rank");
+    private static final int TEAM_LEAGUE_RANK = LADDER_TEAM_COLUMNS.add("team.league_rank");
+
+    private static final ColumnIndex LADDER_TEAM_MEMBER_COLUMNS = new ColumnIndex();
+    private static final int MEMBER_CLAN_ID = LADDER_TEAM_MEMBER_COLUMNS.add("clan.id");
+    private static final int MEMBER_PRO_PLAYER_ID = LADDER_TEAM_MEMBER_COLUMNS.add("pro_player.id");
+    private static final int MEMBER_PRO_PLAYER_NICKNAME = LADDER_TEAM_MEMBER_COLUMNS.add("pro_player.nickname");
+    private static final int MEMBER_PRO_PLAYER_TEAM = LADDER_TEAM_MEMBER_COLUMNS.add("pro_player.team");
+    private static final int MEMBER_RESTRICTIONS = LADDER_TEAM_MEMBER_COLUMNS.add("confirmed_cheater_report.restrictions");
+    private static final int MEMBER_TERRAN_GAMES_PLAYED = LADDER_TEAM_MEMBER_COLUMNS.add("terran_games_played");
+    private static final int MEMBER_PROTOSS_GAMES_PLAYED = LADDER_TEAM_MEMBER_COLUMNS.add("protoss_games_played");
+    private static final int MEMBER_ZERG_GAMES_PLAYED = LADDER_TEAM_MEMBER_COLUMNS.add("zerg_games_played");
+    private static final int MEMBER_RANDOM_GAMES_PLAYED = LADDER_TEAM_MEMBER_COLUMNS.add("random_games_played");
+
     private static RowMapper<LadderTeamMember> LADDER_TEAM_MEMBER_MAPPER;
     private static RowMapper<LadderTeam> LADDER_TEAM_MAPPER;
     private static ResultSetExtractor<LadderTeam> LADDER_TEAM_EXTRACTOR;
@@ -340,7 +376,8 @@ public class LadderSearchDAO
     {
         if(LADDER_TEAM_MEMBER_MAPPER == null) LADDER_TEAM_MEMBER_MAPPER = (rs, i)->
         {
-            Clan clan = DAOUtils.getInteger(rs, "clan.id") == null
+            int[] c = LADDER_TEAM_MEMBER_COLUMNS.resolve(rs);
+            Clan clan = DAOUtils.getInteger(rs, c[MEMBER_CLAN_ID]) == null
                 ? null
                 : ClanDAO.getStdRowMapper().mapRow(rs, i);
             return new LadderTeamMember
@@ -348,14 +385,14 @@ public class LadderSearchDAO
                 AccountDAO.getStdRowMapper().mapRow(rs, 0),
                 PlayerCharacterDAO.getStdRowMapper().mapRow(rs, 0),
                 clan,
-                DAOUtils.getLong(rs, "pro_player.id"),
-                rs.getString("pro_player.nickname"),
-                rs.getString("pro_player.team"),
-                DAOUtils.getBoolean(rs, "confirmed_cheater_report.restrictions"),
-                (Integer) rs.getObject("terran_games_played"),
-                (Integer) rs.getObject("protoss_games_played"),
-                (Integer) rs.getObject("zerg_games_played"),
-                (Integer) rs.getObject("random_games_played")
+                DAOUtils.getLong(rs, c[MEMBER_PRO_PLAYER_ID]),
+                rs.getString(c[MEMBER_PRO_PLAYER_NICKNAME]),
+                rs.getString(c[MEMBER_PRO_PLAYER_TEAM]),
+                DAOUtils.getBoolean(rs, c[MEMBER_RESTRICTIONS]),
+                DAOUtils.getInteger(rs, c[MEMBER_TERRAN_GAMES_PLAYED]),
+                DAOUtils.getInteger(rs, c[MEMBER_PROTOSS_GAMES_PLAYED]),
+                DAOUtils.getInteger(rs, c[MEMBER_ZERG_GAMES_PLAYED]),
+                DAOUtils.getInteger(rs, c[MEMBER_RANDOM_GAMES_PLAYED])
             );
         };
     }
@@ -364,32 +401,33 @@ public class LadderSearchDAO
     {
         if(LADDER_TEAM_MAPPER == null) LADDER_TEAM_MAPPER = (rs, i)->
         {
+            int[] c = LADDER_TEAM_COLUMNS.resolve(rs);
             LadderTeam team = new LadderTeam(
-                rs.getLong("team.id"),
-                rs.getInt("team.season"),
-                conversionService.convert(rs.getInt("team.region"), Region.class),
+                rs.getLong(c[TEAM_ID]),
+                rs.getInt(c[TEAM_SEASON]),
+                conversionService.convert(rs.getInt(c[TEAM_REGION]), Region.class),
                 new BaseLeague(
-                    conversionService.convert(rs.getInt("team.league_type"), League.LeagueType.class),
-                    conversionService.convert(rs.getInt("team.queue_type"), QueueType.class),
-                    conversionService.convert(rs.getInt("team.team_type"), TeamType.class)
+                    conversionService.convert(rs.getInt(c[TEAM_LEAGUE_TYPE]), League.LeagueType.class),
+                    conversionService.convert(rs.getInt(c[TEAM_QUEUE_TYPE]), QueueType.class),
+                    conversionService.convert(rs.getInt(c[TEAM_TEAM_TYPE]), TeamType.class)
                 ),
-                conversionService.convert(DAOUtils.getInteger(rs, "team.tier_type"), LeagueTier.LeagueTierType.class),
-                TeamLegacyId.trusted(rs.getString("team.legacy_id")),
-                rs.getInt("team.division_id"),
-                rs.getLong("team.rating"),
-                rs.getInt("team.wins"),
-                rs.getInt("team.losses"),
-                rs.getInt("team.ties"),
+                conversionService.convert(DAOUtils.getInteger(rs, c[TEAM_TIER_TYPE]), LeagueTier.LeagueTierType.class),
+                TeamLegacyId.trusted(rs.getString(c[TEAM_LEGACY_ID])),
+                rs.getInt(c[TEAM_DIVISION_ID]),
+                rs.getLong(c[TEAM_RATING]),
+                rs.getInt(c[TEAM_WINS]),
+                rs.getInt(c[TEAM_LOSSES]),
+                rs.getInt(c[TEAM_TIES]),
                 null,
-                rs.getObject("team.last_played", OffsetDateTime.class),
-                rs.getObject("team.joined", OffsetDateTime.class),
-                rs.getObject("team.primary_data_updated", OffsetDateTime.class),
+                rs.getObject(c[TEAM_LAST_PLAYED], OffsetDateTime.class),
+                rs.getObject(c[TEAM_JOINED], OffsetDateTime.class),
+                rs.getObject(c[TEAM_PRIMARY_DATA_UPDATED], OffsetDateTime.class),
                 new ArrayList<>(),
                 PopulationStateDAO.TEAM_DATA_ROW_MAPPER.mapRow(rs, 1)
             );
-            team.setGlobalRank(rs.getInt("team.global_rank"));
-            team.setRegionRank(rs.getInt("team.region_rank"));
-            team.setLeagueRank(rs.getInt("team.league_rank"));
+            team.setGlobalRank(rs.getInt(c[TEAM_GLOBAL_RANK]));
+            team.setRegionRank(rs.getInt(c[TEAM_REGION_RANK]));
+            team.setLeagueRank(rs.getInt(c[TEAM_LEAGUE_RANK]));
             return team;
         };
     }
@@ -401,8 +439,9 @@ public class LadderSearchDAO
             if(rs.isAfterLast()) return null;
 
             LadderTeam team = getLadderTeamMapper().mapRow(rs, 0);
+            int teamIdColumn = LADDER_TEAM_COLUMNS.resolve(rs)[TEAM_ID];
             do {
-                if (rs.getLong("team.id") != team.getId()) break;
+                if (rs.getLong(teamIdColumn) != team.getId()) break;
                 team.getMembers().add(getLadderTeamMemberMapper().mapRow(rs, 0));
             } while (rs.next());
 
@@ -424,16 +463,19 @@ public class LadderSearchDAO
         return LADDER_TEAM_EXTRACTOR;
     }
 
+    @NotTimed
     public void setResultsPerPage(int resultsPerPage)
     {
         this.resultsPerPage = resultsPerPage;
     }
     
+    @NotTimed
     public int getResultsPerPage()
     {
         return resultsPerPage;
     }
 
+    @NotTimed
     public LadderSearchDAO getLadderSearchDAO()
     {
         return ladderSearchDAO;
@@ -444,6 +486,7 @@ public class LadderSearchDAO
         this.ladderSearchDAO = ladderSearchDAO;
     }
 
+    @NotTimed
     public SeasonDAO getSeasonDAO()
     {
         return seasonDAO;
@@ -0,0 +1,96 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.model.validation;
+
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardAccount;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardAccountKey;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardPlayerCharacter;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardTeam;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardTeamMember;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardTeamMemberRace;
+
+/*
+    # Blizzard team validator
+
+    Hand-written equivalent of the bean validation constraints of BlizzardTeam and its cascaded
+    members. Ladder updates validate every team of every ladder, reflective bean validation
+    was one of the most expensive parts of team conversion.
+
+    * Constraints must be kept in sync with the annotations, BlizzardTeamValidatorTest compares
+      the results with the bean validator and fails if the constraint metadata changes.
+    * Null array elements are not validated, this matches the cascading behavior of bean
+      validation.
+    * Clans are not cascaded, so they are not validated.
+ */
+public final class BlizzardTeamValidator
+{
+
+    private BlizzardTeamValidator(){}
+
+    public static boolean isValid(BlizzardTeam team)
+    {
+        if
+        (
+            team.getId() == null
+            || team.getMembers() == null
+            || team.getLastPlayedTimeStamp() == null
+            || team.getJoined() == null
+            || team.getRating() == null
+            || team.getWins() == null
+            || team.getLosses() == null
+            || team.getTies() == null
+            || team.getPoints() == null
+            //@Games
+            || team.getWins() + team.getLosses() + team.getTies() > Short.MAX_VALUE
+        )
+            return false;
+
+        for(BlizzardTeamMember member : team.getMembers())
+            if(member != null && !isValid(member)) return false;
+        return true;
+    }
+
+    private static boolean isValid(BlizzardTeamMember member)
+    {
+        if(!isValid(member.getCharacter()) || !isValid(member.getAccount())) return false;
+
+        if(member.getRaces() != null)
+            for(BlizzardTeamMemberRace race : member.getRaces())
+                if(race != null && !isValid(race)) return false;
+        return true;
+    }
+
+    private static boolean isValid(BlizzardPlayerCharacter character)
+    {
+        return character != null
+            && character.getId() != null
+            && character.getRealm() != null
+            && character.getName() != null;
+    }
+
+    private static boolean isValid(BlizzardTeamMemberRace race)
+    {
+        return race.getRace() != null
+            && race.getGamesPlayed() != null
+            && race.getGamesPlayed() <= Short.MAX_VALUE;
+    }
+
+    private static boolean isValid(BlizzardAccount account)
+    {
+        if
+        (
+            account == null
+            || account.getId() == null
+            || account.getOriginalBattleTag() == null
+            || account.getKey() == null
+            || account.getKey().getHref() == null
+        )
+            return false;
+
+        //@ValidOriginalOrKeyBattleTag
+        return account.isOriginalBattleTagValid()
+            || BlizzardAccountKey.HREF_BATTLE_TAG_PATTERN.matcher(account.getKey().getHref()).matches();
+    }
+
+}
@@ -0,0 +1,329 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.util.EventBus;
+import com.nephest.battlenet.sc2.web.service.LadderUpdateData;
+import com.nephest.battlenet.sc2.web.service.PendingLadderData;
+import com.nephest.battlenet.sc2.web.service.WebServiceUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+/*
+    # Cluster events
+
+    Events are broadcast to all nodes of a cluster via PostgreSQL LISTEN/NOTIFY. It's used to
+    invalidate local state of followers when the leader changes the data, see
+    {@link LeaderElectionService}.
+
+    * Events are JSON objects, nodes ignore their own events.
+    * NOTIFY payload is limited, an event with a payload that is too big is sent without a
+      payload. Subscribers must treat an empty payload as "everything has changed".
+    * Notifications that are sent while the listener is disconnected are lost. A
+      {@link #RESYNC} event is emitted locally after each reconnect, subscribers must treat it
+      as "everything has changed" too.
+    * The listener holds a pooled connection while clustering is enabled. Events are not
+      published or received when clustering is disabled.
+ */
+@Service
+public class ClusterEventService
+{
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterEventService.class);
+
+    public static final String CHANNEL = "sc2pulse_cluster";
+    public static final int MAX_PAYLOAD_SIZE = 7900;
+    public static final int BUFFER_SIZE = 1000;
+    public static final int POLL_TIMEOUT_MILLIS = 1000;
+    public static final int RECONNECT_DELAY_MILLIS = 5000;
+    public static final String RESYNC = "resync";
+    public static final String LADDER_UPDATE = "ladder-update";
+    public static final String LADDER_SCAN_CACHE_NAME = "fqdn-ladder-scan";
+
+    public record ClusterEvent(String node, String type, JsonNode payload)
+    {}
+
+    public record LadderUpdateSummary
+    (
+        boolean allStats,
+        Set<Region> regions,
+        Set<Integer> seasons,
+        int teams
+    )
+    {
+
+        public static LadderUpdateSummary of(LadderUpdateData data)
+        {
+            return new LadderUpdateSummary
+            (
+                data.isAllStats(),
+                data.getContexts().stream()
+                    .map(Map::keySet)
+                    .flatMap(Set::stream)
+                    .collect(Collectors.toSet()),
+                data.getData().stream()
+                    .map(PendingLadderData::getStatsUpdates)
+                    .flatMap(Set::stream)
+                    .collect(Collectors.toSet()),
+                data.getData().stream()
+                    .mapToInt(d->d.getTeams().size())
+                    .sum()
+            );
+        }
+
+    }
+
+    private final String node = UUID.randomUUID().toString();
+    private final EventBus<ClusterEvent> event = new EventBus<>("cluster");
+    private final DataSource dataSource;
+    private final NamedParameterJdbcTemplate template;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+    private final boolean enabled;
+    private final Disposable ladderUpdateSub;
+    private final Disposable ladderScanSub;
+    private volatile boolean listening;
+    private Thread listener;
+
+    @Autowired
+    public ClusterEventService
+    (
+        DataSource dataSource,
+        @Qualifier("sc2StatsNamedTemplate") NamedParameterJdbcTemplate template,
+        ObjectMapper objectMapper,
+        CacheManager cacheManager,
+        EventService eventService,
+        @Value("${com.nephest.battlenet.sc2.cluster.enabled:#{'false'}}") boolean enabled
+    )
+    {
+        this.dataSource = dataSource;
+        this.template = template;
+        this.objectMapper = objectMapper;
+        this.cacheManager = cacheManager;
+        this.enabled = enabled;
+        if(enabled)
+        {
+            ladderUpdateSub = eventService.getLadderUpdateEvent(ClusterEventService.class.getSimpleName())
+                .flatMap(data->WebServiceUtil.getOnErrorLogAndSkipMono(WebServiceUtil.blockingRunnable(
+                    ()->publish(LADDER_UPDATE, LadderUpdateSummary.of(data)))))
+                .subscribe();
+            ladderScanSub = getEvent(ClusterEventService.class.getSimpleName(), LADDER_UPDATE, LadderUpdateSummary.class)
+                .subscribe(summary->clearCache(LADDER_SCAN_CACHE_NAME));
+        }
+        else
+        {
+            ladderUpdateSub = null;
+            ladderScanSub = null;
+        }
+    }
+
+    @PostConstruct
+    public void init()
+    {
+        if(!enabled) return;
+
+        listening = true;
+        listener = new Thread(this::listen, "cluster-event-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void close()
+    throws InterruptedException
+    {
+        if(ladderUpdateSub != null) ladderUpdateSub.dispose();
+        if(ladderScanSub != null) ladderScanSub.dispose();
+        listening = false;
+        if(listener != null) listener.join(POLL_TIMEOUT_MILLIS * 2L);
+    }
+
+    /*
+        Local caches are cleared because the leader clears them on each ladder update. Ladder
+        scan keys are not tied to regions or seasons, so they can't be evicted selectively.
+     */
+    private void clearCache(String name)
+    {
+        Cache cache = cacheManager.getCache(name);
+        if(cache != null) cache.clear();
+    }
+
+    private void listen()
+    {
+        boolean reconnect = false;
+        while(listening)
+        {
+            try(Connection connection = dataSource.getConnection())
+            {
+                try(Statement statement = connection.createStatement())
+                {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                LOG.info("Listening to cluster events");
+                if(reconnect) receive(new ClusterEvent(null, RESYNC, null));
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try
+                {
+                    while(listening)
+                    {
+                        PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                        if(notifications == null) continue;
+
+                        for(PGNotification notification : notifications)
+                            receive(notification.getParameter());
+                    }
+                }
+                finally
+                {
+                    //the connection is returned to the pool
+                    try(Statement statement = connection.createStatement())
+                    {
+                        statement.execute("UNLISTEN *");
+                    }
+                }
+            }
+            catch (SQLException | RuntimeException ex)
+            {
+                LOG.error(ex.getMessage(), ex);
+                reconnect = true;
+                try
+                {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    protected void receive(String payload)
+    {
+        try
+        {
+            ClusterEvent clusterEvent = objectMapper.readValue(payload, ClusterEvent.class);
+            if(!node.equals(clusterEvent.node())) receive(clusterEvent);
+        }
+        catch (JsonProcessingException | RuntimeException ex)
+        {
+            LOG.error("Invalid cluster event: " + payload, ex);
+        }
+    }
+
+    private void receive(ClusterEvent clusterEvent)
+    {
+        LOG.trace("Received cluster event {}", clusterEvent);
+        event.emit(clusterEvent);
+    }
+
+    /**
+     * Broadcasts the event to other nodes. Payload is sent only if it fits into the NOTIFY
+     * payload.
+     *
+     * @param type event type
+     * @param payload event payload, it must be serializable by the application ObjectMapper
+     * @return true if the payload was sent, false if the event was sent without payload.
+     */
+    public boolean publish(String type, Object payload)
+    {
+        if(!enabled) return false;
+
+        try
+        {
+            JsonNode payloadNode = payload != null ? objectMapper.valueToTree(payload) : null;
+            String json = objectMapper.writeValueAsString(new ClusterEvent(node, type, payloadNode));
+            boolean fits = json.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_SIZE;
+            if(!fits)
+            {
+                LOG.debug("Cluster event {} payload is too big, sending it without payload", type);
+                json = objectMapper.writeValueAsString(new ClusterEvent(node, type, null));
+            }
+            template.query
+            (
+                "SELECT pg_notify(:channel, :payload)",
+                new MapSqlParameterSource()
+                    .addValue("channel", CHANNEL)
+                    .addValue("payload", json),
+                rs->null
+            );
+            return fits && payloadNode != null;
+        }
+        catch (JsonProcessingException ex)
+        {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
+    /**
+     * @param subscriber subscriber name
+     * @param type event type
+     * @param payloadClass payload class
+     * @return endless {@link Flux} of events of the given type that are received from other
+     * nodes. Empty value means that everything has changed: the payload was too big or
+     * some events could be lost. The oldest events are dropped if a subscriber is too slow.
+     */
+    public <T> Flux<Optional<T>> getEvent(String subscriber, String type, Class<T> payloadClass)
+    {
+        return event.subscribe(subscriber, BUFFER_SIZE, EventBus.OverflowPolicy.DROP_OLDEST)
+            .filter(e->e.type().equals(type) || e.type().equals(RESYNC))
+            .map(e->readPayload(e, payloadClass));
+    }
+
+    private <T> Optional<T> readPayload(ClusterEvent clusterEvent, Class<T> payloadClass)
+    {
+        if(clusterEvent.payload() == null || clusterEvent.payload().isNull()) return Optional.empty();
+
+        try
+        {
+            return Optional.of(objectMapper.convertValue(clusterEvent.payload(), payloadClass));
+        }
+        catch (IllegalArgumentException ex)
+        {
+            //the safest option is to invalidate everything
+            LOG.error("Invalid cluster event payload: " + clusterEvent, ex);
+            return Optional.empty();
+        }
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public String getNode()
+    {
+        return node;
+    }
+
+}
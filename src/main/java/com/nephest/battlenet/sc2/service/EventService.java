@@ -1,11 +1,15 @@
-// Copyright (C) 2020-2024 Oleksandr Masniuk
+// Copyright (C) 2020-2025 Oleksandr Masniuk
 // SPDX-License-Identifier: AGPL-3.0-or-later
 
 package com.nephest.battlenet.sc2.service;
 
 import com.nephest.battlenet.sc2.model.local.PlayerCharacter;
+import com.nephest.battlenet.sc2.util.EventBus;
 import com.nephest.battlenet.sc2.web.service.LadderUpdateData;
 import com.nephest.battlenet.sc2.web.service.MatchUpdateContext;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -17,14 +21,22 @@ public class EventService
 {
 
     public static final int BUFFER_SIZE_LADDER_UPDATE = 300;
+    public static final int CHARACTER_ACTIVITY_BATCH_SIZE = 1000;
 
     public static final Sinks.EmitFailureHandler DEFAULT_FAILURE_HANDLER =
         Sinks.EmitFailureHandler.FAIL_FAST;
 
-    private final Sinks.Many<PlayerCharacter> ladderCharacterActivityEvent;
-    private final Sinks.Many<LadderUpdateData> ladderUpdateEvent;
-    private final Sinks.Many<MatchUpdateContext> matchUpdateEvent;
+    private final EventBus<List<PlayerCharacter>> ladderCharacterActivityEvent
+        = new EventBus<>("ladderCharacterActivity");
+    private final EventBus<LadderUpdateData> ladderUpdateEvent = new EventBus<>("ladderUpdate");
+    private final EventBus<MatchUpdateContext> matchUpdateEvent = new EventBus<>("matchUpdate");
+    private final int ladderCharacterActivityBuffer;
+    private final int matchUpdateBuffer;
 
+    /**
+     * @param buffer ladder character activity buffer size in characters
+     * @param smallBuffer match update buffer size
+     */
     @Autowired
     public EventService
     (
@@ -32,63 +44,93 @@ public class EventService
         @Value("${com.nephest.battlenet.sc2.event.buffer.small:#{'10'}}") int smallBuffer
     )
     {
-        ladderCharacterActivityEvent = Sinks.unsafe()
-            .many().multicast().onBackpressureBuffer(buffer);
-        ladderUpdateEvent = Sinks.unsafe()
-            .many().multicast().onBackpressureBuffer(BUFFER_SIZE_LADDER_UPDATE);
-        matchUpdateEvent = Sinks.unsafe()
-            .many().multicast().onBackpressureBuffer(smallBuffer);
+        ladderCharacterActivityBuffer = Math.max(buffer / CHARACTER_ACTIVITY_BATCH_SIZE, 1);
+        matchUpdateBuffer = smallBuffer;
     }
 
-    public synchronized void createLadderCharacterActivityEvent(PlayerCharacter... playerCharacters)
+    /**
+     * Emits characters in batches of {@link #CHARACTER_ACTIVITY_BATCH_SIZE}.
+     *
+     * @param playerCharacters active characters
+     */
+    public void createLadderCharacterActivityEvent(PlayerCharacter... playerCharacters)
     {
-        for(PlayerCharacter playerCharacter : playerCharacters)
-            ladderCharacterActivityEvent.emitNext(playerCharacter, DEFAULT_FAILURE_HANDLER);
+        for(int i = 0; i < playerCharacters.length; i += CHARACTER_ACTIVITY_BATCH_SIZE)
+            ladderCharacterActivityEvent.emit(List.of(Arrays.copyOfRange(
+                playerCharacters,
+                i,
+                Math.min(i + CHARACTER_ACTIVITY_BATCH_SIZE, playerCharacters.length)
+            )));
     }
 
     /**
-     * An event is emitted each time a {@link PlayerCharacter} is seen active on the ladder.
+     * An event is emitted each time a batch of {@link PlayerCharacter PlayerCharacters} is seen
+     * active on the ladder. Slow subscribers lose the oldest batches.
      *
-     * @return endless {@link Flux} of active characters. Consumers are expected to
+     * @param subscriber subscriber name
+     * @return endless {@link Flux} of active character batches. Consumers are expected to
      * {@link Flux#subscribe()}.
      */
-    public Flux<PlayerCharacter> getLadderCharacterActivityEvent()
+    public Flux<List<PlayerCharacter>> getLadderCharacterActivityEvent(String subscriber)
     {
-        return ladderCharacterActivityEvent.asFlux();
+        return ladderCharacterActivityEvent.subscribe
+        (
+            subscriber,
+            ladderCharacterActivityBuffer,
+            EventBus.OverflowPolicy.DROP_OLDEST
+        );
     }
 
-    public synchronized void createLadderUpdateEvent(LadderUpdateData data)
+    public void createLadderUpdateEvent(LadderUpdateData data)
     {
-        ladderUpdateEvent.emitNext(data, DEFAULT_FAILURE_HANDLER);
+        ladderUpdateEvent.emit(data);
     }
 
     /**
-     * An event is emitted after every ladder update. Emits {@code allStats} flag.
+     * An event is emitted after every ladder update. Emits {@code allStats} flag. The producer
+     * fails if a subscriber is too slow.
      *
+     * @param subscriber subscriber name
      * @return endless {@link Flux} of ladder updates. Consumers are expected to
      * {@link Flux#subscribe()}.
      */
-    public Flux<LadderUpdateData> getLadderUpdateEvent()
+    public Flux<LadderUpdateData> getLadderUpdateEvent(String subscriber)
     {
-        return ladderUpdateEvent.asFlux();
+        return ladderUpdateEvent.subscribe
+        (
+            subscriber,
+            BUFFER_SIZE_LADDER_UPDATE,
+            EventBus.OverflowPolicy.FAIL
+        );
     }
 
-    public synchronized void createMatchUpdateEvent(MatchUpdateContext uc)
+    public void createMatchUpdateEvent(MatchUpdateContext uc)
     {
-        matchUpdateEvent.emitNext(uc, DEFAULT_FAILURE_HANDLER);
+        matchUpdateEvent.emit(uc);
     }
 
     /**
      * An event is emitted when processing of new matches is complete. Emits
-     * {@code updateContext} that was used to process matches.
+     * {@code updateContext} that was used to process matches. The producer fails if a subscriber
+     * is too slow.
      *
+     * @param subscriber subscriber name
      * @return endless {@link Flux} of match updates. Consumers are expected to
      * {@link Flux#subscribe()}.
      */
-    public Flux<MatchUpdateContext> getMatchUpdateEvent()
+    public Flux<MatchUpdateContext> getMatchUpdateEvent(String subscriber)
     {
-        return matchUpdateEvent.asFlux();
+        return matchUpdateEvent.subscribe(subscriber, matchUpdateBuffer, EventBus.OverflowPolicy.FAIL);
     }
 
+    /**
+     * @return lag and drop counters of all subscribers
+     */
+    public List<EventBus.SubscriberStats> getSubscriberStats()
+    {
+        return Stream.of(ladderCharacterActivityEvent, ladderUpdateEvent, matchUpdateEvent)
+            .flatMap(bus->bus.getSubscriberStats().stream())
+            .toList();
+    }
 
 }
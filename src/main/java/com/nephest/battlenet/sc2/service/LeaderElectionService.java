@@ -0,0 +1,202 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.service;
+
+import com.nephest.battlenet.sc2.model.local.dao.VarDAO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/*
+    # Leader election
+
+    Only one node of a cluster runs ingestion and maintenance tasks, other nodes serve reads.
+
+    * The leader holds a session level PostgreSQL advisory lock. The lock is released by the DB
+      when the leader's session ends, so a crashed leader is replaced on the next check of any
+      follower.
+    * The lock connection is taken from the pool and is held while the node is a leader or a
+      candidate. Pooled connections are not closed physically, so the lock is released
+      explicitly before the connection is returned.
+    * The node is always a leader when clustering is disabled, this is the single node mode.
+    * Leadership is checked periodically. Tasks should check {@link #isLeader()} before each run,
+      a running task is not interrupted when leadership is lost.
+    * Followers don't write, so their in-memory state(cursors, contexts, working sets) is stale.
+      All vars are reloaded and leadership listeners are called before the node becomes a
+      leader. The lock is released if that fails, the next check tries again.
+ */
+@Service
+public class LeaderElectionService
+{
+
+    private static final Logger LOG = LoggerFactory.getLogger(LeaderElectionService.class);
+
+    public static final long DEFAULT_LOCK_ID = 2020L;
+    public static final int CONNECTION_VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final DataSource dataSource;
+    private final VarDAO varDAO;
+    private final boolean enabled;
+    private final long lockId;
+    private Connection connection;
+    private volatile boolean leader;
+    private final List<Runnable> leadershipListeners = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public LeaderElectionService
+    (
+        DataSource dataSource,
+        VarDAO varDAO,
+        @Value("${com.nephest.battlenet.sc2.cluster.enabled:#{'false'}}") boolean enabled,
+        @Value("${com.nephest.battlenet.sc2.cluster.leader.lock:#{'" + DEFAULT_LOCK_ID + "'}}") long lockId
+    )
+    {
+        this.dataSource = dataSource;
+        this.varDAO = varDAO;
+        this.enabled = enabled;
+        this.lockId = lockId;
+        this.leader = !enabled;
+    }
+
+    @PostConstruct
+    public void init()
+    {
+        if(enabled) check();
+    }
+
+    @PreDestroy
+    public synchronized void close()
+    {
+        closeConnection();
+        if(enabled) leader = false;
+    }
+
+    @Scheduled(fixedDelay = 10_000)
+    public synchronized void check()
+    {
+        if(!enabled) return;
+
+        try
+        {
+            if(connection == null) connection = dataSource.getConnection();
+            if(leader)
+            {
+                if(!connection.isValid(CONNECTION_VALIDATION_TIMEOUT_SECONDS))
+                    throw new SQLException("Leader connection is not valid");
+                return;
+            }
+
+            if(tryLock())
+            {
+                if(!initLeaderState()) return;
+
+                leader = true;
+                LOG.info("Acquired cluster leadership");
+            }
+        }
+        catch (SQLException ex)
+        {
+            if(leader)
+            {
+                LOG.error("Lost cluster leadership", ex);
+            }
+            else
+            {
+                LOG.warn(ex.getMessage(), ex);
+            }
+            leader = false;
+            closeConnection();
+        }
+    }
+
+    private boolean initLeaderState()
+    {
+        try
+        {
+            varDAO.reloadAll();
+            for(Runnable listener : leadershipListeners) listener.run();
+            return true;
+        }
+        catch (RuntimeException ex)
+        {
+            LOG.error("Failed to initialize leader state, releasing the lock", ex);
+            closeConnection();
+            return false;
+        }
+    }
+
+    /**
+     * Listeners are called in the election thread after the lock is acquired and vars are
+     * reloaded, but before the node becomes a leader. They must reset leader-only state, so the
+     * first leader run doesn't use stale state. Listeners are not called in the single node mode
+     * or when the node becomes a leader before they are added(startup).
+     *
+     * @param listener leadership listener
+     */
+    public void onLeadershipAcquired(Runnable listener)
+    {
+        leadershipListeners.add(listener);
+    }
+
+    private boolean tryLock()
+    throws SQLException
+    {
+        try(PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)"))
+        {
+            statement.setLong(1, lockId);
+            try(ResultSet rs = statement.executeQuery())
+            {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void closeConnection()
+    {
+        if(connection == null) return;
+
+        try(Statement statement = connection.createStatement())
+        {
+            //the session can be alive when the validation times out
+            statement.execute("SELECT pg_advisory_unlock_all()");
+        }
+        catch (SQLException ex)
+        {
+            LOG.debug(ex.getMessage(), ex);
+        }
+        try
+        {
+            connection.close();
+        }
+        catch (SQLException ex)
+        {
+            LOG.warn(ex.getMessage(), ex);
+        }
+        connection = null;
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public boolean isLeader()
+    {
+        return leader;
+    }
+
+}
@@ -0,0 +1,131 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.util;
+
+import java.time.Duration;
+
+/*
+    # Adaptive concurrency limit
+
+    Gradient-style concurrency limit. Latency of completed operations is tracked by two moving
+    averages:
+
+    * short: reacts to recent samples, it's the current latency;
+    * long: reacts slowly, it's the latency the system has when it's not overloaded.
+
+    The limit is multiplied by long/short(clamped to [0.5, 1], with some tolerance), so it
+    shrinks when the current latency grows above the usual one, and it grows by sqrt(limit)
+    per sample while the latency is fine. Samples that were taken while less than a half of the
+    limit was used don't change the limit, the latency says nothing about the limit then.
+
+    Callers can also report congestion explicitly(connection pool waits, etc.), the limit is
+    reduced immediately in this case.
+
+    Acquirers can use only a share of the limit, so low priority operations are rejected first
+    and high priority operations always have some headroom.
+ */
+public class AdaptiveConcurrencyLimit
+{
+
+    public record Stats(int limit, int inFlight, Duration shortRtt, Duration longRtt)
+    {}
+
+    public static final double SHORT_ALPHA = 0.1;
+    public static final double LONG_ALPHA = 2D / (600 + 1);
+    public static final double TOLERANCE = 1.5;
+    public static final double SMOOTHING = 0.2;
+    public static final double CONGESTION_DECREASE = 0.9;
+    public static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    private int inFlight;
+    private double shortRtt;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit)
+    {
+        if(minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit)
+            throw new IllegalArgumentException("Invalid limits: " + initialLimit + " ["
+                + minLimit + ", " + maxLimit + "]");
+
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * @param share share of the limit available to the caller, (0, 1]
+     * @return true if acquired, {@link #release(long, boolean)} must be called then
+     */
+    public synchronized boolean tryAcquire(double share)
+    {
+        if(inFlight >= Math.max(1, (int) (limit * share))) return false;
+
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * @param rttNanos duration of the operation
+     * @param congested true if congestion was observed while the operation was in flight
+     */
+    public synchronized void release(long rttNanos, boolean congested)
+    {
+        int sampleInFlight = inFlight;
+        inFlight--;
+        update(Math.max(1, rttNanos), sampleInFlight, congested);
+    }
+
+    /**
+     * Releases the permit of an operation that wasn't executed, or whose latency is not
+     * representative(streaming, etc.), the limit is not updated.
+     */
+    public synchronized void cancel()
+    {
+        inFlight--;
+    }
+
+    private void update(long rtt, int sampleInFlight, boolean congested)
+    {
+        shortRtt = shortRtt == 0 ? rtt : shortRtt + (rtt - shortRtt) * SHORT_ALPHA;
+        longRtt = longRtt == 0 ? rtt : longRtt + (rtt - longRtt) * LONG_ALPHA;
+        if(congested)
+        {
+            limit = Math.max(minLimit, limit * CONGESTION_DECREASE);
+            return;
+        }
+
+        //latency dropped for good, the long rtt must catch up or the limit will grow too much
+        if(longRtt / shortRtt > 2) longRtt *= 0.95;
+        if(sampleInFlight < limit / 2) return;
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1, TOLERANCE * longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+    }
+
+    public synchronized int getLimit()
+    {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight()
+    {
+        return inFlight;
+    }
+
+    public synchronized Stats getStats()
+    {
+        return new Stats
+        (
+            (int) limit,
+            inFlight,
+            Duration.ofNanos((long) shortRtt),
+            Duration.ofNanos((long) longRtt)
+        );
+    }
+
+}
@@ -0,0 +1,221 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.util;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Operators;
+
+/*
+    # Multi-producer, multi-subscriber event bus
+
+    * Every subscriber has its own bounded queue, slow subscribers don't block the producers or
+      other subscribers.
+    * The emit path is lock-free, it can be called concurrently by any number of producers.
+    * Queue overflow is resolved by the subscriber's overflow policy:
+        * DROP_OLDEST: the oldest queued event is dropped;
+        * DROP_LATEST: the new event is dropped;
+        * FAIL: the new event is dropped and the producer gets an exception.
+    * Events that are emitted when there are no subscribers are discarded.
+    * Lag(queued events) and drop counters are exposed for each subscriber.
+ */
+public class EventBus<T>
+{
+
+    public enum OverflowPolicy
+    {
+        DROP_OLDEST, DROP_LATEST, FAIL
+    }
+
+    public record SubscriberStats
+    (
+        String bus,
+        String subscriber,
+        OverflowPolicy overflowPolicy,
+        int capacity,
+        int lag,
+        long delivered,
+        long dropped
+    )
+    {}
+
+    public static class OverflowException
+    extends IllegalStateException
+    {
+
+        public OverflowException(String message)
+        {
+            super(message);
+        }
+
+    }
+
+    private final String name;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    public EventBus(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * Emits the event to all current subscribers.
+     *
+     * @param event event
+     * @throws OverflowException if the queue of a subscriber with {@link OverflowPolicy#FAIL}
+     * policy is full. Other subscribers receive the event anyway.
+     */
+    public void emit(T event)
+    {
+        String overflow = null;
+        for(Subscriber subscriber : subscribers)
+            if(!subscriber.offer(event)) overflow = subscriber.name;
+        if(overflow != null)
+            throw new OverflowException(name + " event bus overflow, subscriber: " + overflow);
+    }
+
+    /**
+     * @param subscriber subscriber name, it's used in stats only and doesn't have to be unique
+     * @param capacity max number of queued events
+     * @param overflowPolicy what to do when the queue is full
+     * @return endless {@link Flux} of events that are emitted after subscription
+     */
+    public Flux<T> subscribe(String subscriber, int capacity, OverflowPolicy overflowPolicy)
+    {
+        if(capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+
+        return Flux.create(sink->
+        {
+            Subscriber sub = new Subscriber(subscriber, capacity, overflowPolicy, sink);
+            sink.onRequest(sub::request);
+            sink.onDispose(()->
+            {
+                subscribers.remove(sub);
+                sub.clear();
+            });
+            subscribers.add(sub);
+        });
+    }
+
+    public List<SubscriberStats> getSubscriberStats()
+    {
+        return subscribers.stream()
+            .map(s->new SubscriberStats
+            (
+                name,
+                s.name,
+                s.overflowPolicy,
+                s.capacity,
+                s.size.get(),
+                s.delivered.get(),
+                s.dropped.get()
+            ))
+            .toList();
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    private final class Subscriber
+    {
+
+        private final String name;
+        private final int capacity;
+        private final OverflowPolicy overflowPolicy;
+        private final FluxSink<T> sink;
+        private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        private Subscriber(String name, int capacity, OverflowPolicy overflowPolicy, FluxSink<T> sink)
+        {
+            this.name = name;
+            this.capacity = capacity;
+            this.overflowPolicy = overflowPolicy;
+            this.sink = sink;
+        }
+
+        /**
+         * @return false if the event was dropped and the producer should be notified
+         */
+        private boolean offer(T event)
+        {
+            if(size.incrementAndGet() > capacity)
+            {
+                switch(overflowPolicy)
+                {
+                    case DROP_OLDEST ->
+                    {
+                        //the queue could be drained concurrently, size is adjusted only if something was removed
+                        if(queue.poll() != null) size.decrementAndGet();
+                        dropped.incrementAndGet();
+                    }
+                    case DROP_LATEST, FAIL ->
+                    {
+                        size.decrementAndGet();
+                        dropped.incrementAndGet();
+                        drain();
+                        return overflowPolicy != OverflowPolicy.FAIL;
+                    }
+                }
+            }
+            queue.offer(event);
+            drain();
+            return true;
+        }
+
+        private void request(long n)
+        {
+            requested.accumulateAndGet(n, Operators::addCap);
+            drain();
+        }
+
+        private void clear()
+        {
+            queue.clear();
+            size.set(0);
+        }
+
+        private void drain()
+        {
+            if(wip.getAndIncrement() != 0) return;
+
+            int missed = 1;
+            do
+            {
+                long r = requested.get();
+                long emitted = 0;
+                while(emitted != r && !sink.isCancelled())
+                {
+                    T event = queue.poll();
+                    if(event == null) break;
+
+                    size.decrementAndGet();
+                    sink.next(event);
+                    emitted++;
+                }
+                if(emitted > 0)
+                {
+                    delivered.addAndGet(emitted);
+                    if(r != Long.MAX_VALUE) requested.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+            }
+            while(missed != 0);
+        }
+
+    }
+
+}
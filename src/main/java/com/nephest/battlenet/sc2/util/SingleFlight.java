@@ -0,0 +1,87 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+    # Single flight
+
+    Concurrent calls with equal keys share one computation. The first caller computes the value,
+    callers that arrive while it's in flight wait for it and get the same value(or exception).
+    Nothing is retained after the computation is complete, so it's not a cache and values are
+    never stale.
+
+    * Shared values must not be modified by callers.
+    * Keys must have proper equals/hashCode.
+ */
+public class SingleFlight<K, V>
+{
+
+    public record Stats(long calls, long coalesced, int inFlight)
+    {
+
+        public double getCoalescedRate()
+        {
+            return calls == 0 ? 0 : (double) coalesced / calls;
+        }
+
+    }
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public V execute(K key, Supplier<V> supplier)
+    {
+        calls.increment();
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if(existing != null)
+        {
+            coalesced.increment();
+            return join(existing);
+        }
+
+        try
+        {
+            V value = supplier.get();
+            future.complete(value);
+            return value;
+        }
+        catch(RuntimeException | Error ex)
+        {
+            future.completeExceptionally(ex);
+            throw ex;
+        }
+        finally
+        {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> future)
+    {
+        try
+        {
+            return future.join();
+        }
+        catch(CompletionException ex)
+        {
+            if(ex.getCause() instanceof RuntimeException re) throw re;
+            if(ex.getCause() instanceof Error e) throw e;
+            throw ex;
+        }
+    }
+
+    public Stats getStats()
+    {
+        return new Stats(calls.sum(), coalesced.sum(), inFlight.size());
+    }
+
+}
@@ -0,0 +1,90 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.util;
+
+/*
+    # Token bucket
+
+    Holds up to capacity tokens and refills at a fixed rate. Callers spend tokens, expensive
+    operations spend more. A full bucket allows a burst of capacity tokens, the sustained rate
+    is the refill rate.
+
+    Time is passed by the caller(System.nanoTime()), so buckets are cheap and easy to test.
+ */
+public class TokenBucket
+{
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * @param capacity max tokens, the bucket is full initially
+     * @param tokensPerSecond refill rate
+     * @param nowNanos current time
+     */
+    public TokenBucket(double capacity, double tokensPerSecond, long nowNanos)
+    {
+        if(capacity <= 0 || tokensPerSecond <= 0)
+            throw new IllegalArgumentException("Capacity and rate must be positive");
+
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000D;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    private void refill(long nowNanos)
+    {
+        long elapsed = nowNanos - lastRefillNanos;
+        if(elapsed <= 0) return;
+
+        tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+        lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Spends tokens if there are enough of them, nothing is spent otherwise.
+     *
+     * @param cost tokens to spend
+     * @param nowNanos current time
+     * @return 0 if tokens were spent, nanos until there will be enough tokens otherwise
+     */
+    public synchronized long tryConsume(double cost, long nowNanos)
+    {
+        refill(nowNanos);
+        if(tokens >= cost)
+        {
+            tokens -= cost;
+            return 0;
+        }
+        //costs above capacity are never satisfied, report the time to fill the bucket
+        double missing = Math.min(cost, capacity) - tokens;
+        return Math.max(1, (long) Math.ceil(missing / tokensPerNano));
+    }
+
+    /**
+     * @param nowNanos current time
+     * @return true if the bucket is full, full buckets are equal to new buckets and can be
+     * dropped
+     */
+    public synchronized boolean isFull(long nowNanos)
+    {
+        refill(nowNanos);
+        return tokens >= capacity;
+    }
+
+    public synchronized double getTokens(long nowNanos)
+    {
+        refill(nowNanos);
+        return tokens;
+    }
+
+    public double getCapacity()
+    {
+        return capacity;
+    }
+
+}
@@ -0,0 +1,97 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/*
+    # Token signer
+
+    Signs tokens that bind a subject to an expiration time with HMAC-SHA256. Tokens are
+    stateless, any instance that has the same key can verify them, and clients can't forge
+    them without the key. The subject is not included in the token, the verifier must know it.
+
+    Token format: {expiresAtEpochSecond}.{base64url(hmac(subject.expiresAtEpochSecond))}
+ */
+public class TokenSigner
+{
+
+    public static final String ALGORITHM = "HmacSHA256";
+    public static final int RANDOM_KEY_LENGTH = 32;
+    private static final char SEPARATOR = '.';
+
+    private final SecretKeySpec key;
+
+    public TokenSigner(byte[] key)
+    {
+        if(key.length == 0) throw new IllegalArgumentException("Empty key");
+
+        this.key = new SecretKeySpec(key, ALGORITHM);
+    }
+
+    /**
+     * @return signer with a random key, its tokens are valid only within this process
+     */
+    public static TokenSigner random()
+    {
+        byte[] key = new byte[RANDOM_KEY_LENGTH];
+        new SecureRandom().nextBytes(key);
+        return new TokenSigner(key);
+    }
+
+    private byte[] mac(String subject, long expiresAt)
+    {
+        try
+        {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal((subject + SEPARATOR + expiresAt).getBytes(StandardCharsets.UTF_8));
+        }
+        catch(GeneralSecurityException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String sign(String subject, long expiresAtEpochSecond)
+    {
+        return String.valueOf(expiresAtEpochSecond) + SEPARATOR
+            + Base64.getUrlEncoder().withoutPadding().encodeToString(mac(subject, expiresAtEpochSecond));
+    }
+
+    /**
+     * @param token token, can be null
+     * @param subject expected subject
+     * @param nowEpochSecond current time
+     * @return true if the token was signed for the subject and is not expired
+     */
+    public boolean verify(String token, String subject, long nowEpochSecond)
+    {
+        if(token == null) return false;
+
+        int separator = token.indexOf(SEPARATOR);
+        if(separator < 1) return false;
+
+        long expiresAt;
+        byte[] signature;
+        try
+        {
+            expiresAt = Long.parseLong(token, 0, separator, 10);
+            signature = Base64.getUrlDecoder().decode(token.substring(separator + 1));
+        }
+        catch(IllegalArgumentException e)
+        {
+            return false;
+        }
+        return expiresAt > nowEpochSecond
+            && MessageDigest.isEqual(mac(subject, expiresAt), signature);
+    }
+
+}
@@ -4,10 +4,18 @@
 package com.nephest.battlenet.sc2.web.controller;
 
 import com.nephest.battlenet.sc2.config.Cron;
+import com.nephest.battlenet.sc2.config.data.PoolMetrics;
+import com.nephest.battlenet.sc2.config.data.QueryTimings;
+import com.nephest.battlenet.sc2.config.data.ReplicaRoutingDataSource;
 import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.service.EventService;
+import com.nephest.battlenet.sc2.util.EventBus;
+import com.nephest.battlenet.sc2.util.SingleFlight;
 import com.nephest.battlenet.sc2.web.service.AlternativeLadderService;
+import com.nephest.battlenet.sc2.web.service.ApiAdmissionService;
 import com.nephest.battlenet.sc2.web.service.BlizzardSC2API;
 import com.nephest.battlenet.sc2.web.service.MatchService;
+import com.nephest.battlenet.sc2.web.service.SingleFlightService;
 import com.nephest.battlenet.sc2.web.service.StatsService;
 import com.nephest.battlenet.sc2.web.service.SupporterService;
 import io.swagger.v3.oas.annotations.Hidden;
@@ -15,10 +23,16 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -46,10 +60,31 @@ public class AdminController
     @Autowired
     private SupporterService supporterService;
 
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private SingleFlightService singleFlightService;
+
+    @Autowired
+    private QueryTimings queryTimings;
+
+    //available only when bulkheaded pools are enabled
+    @Autowired(required = false)
+    private PoolMetrics poolMetrics;
+
+    //available only when API admission is enabled
+    @Autowired(required = false)
+    private ApiAdmissionService apiAdmissionService;
+
     //lazy for tests
     @Autowired @Lazy
     private Cron cron;
 
+    //available only when a replica is configured
+    @Autowired(required = false)
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
     @RequestMapping
     (
         value = "/update/partial/{region}",
@@ -70,6 +105,60 @@ public class AdminController
         statsService.setPartialUpdate2(region, request.getMethod().equals("POST"));
     }
 
+    @GetMapping("/event/subscribers")
+    public List<EventBus.SubscriberStats> getEventSubscriberStats()
+    {
+        return eventService.getSubscriberStats();
+    }
+
+    @GetMapping("/datasource/replica")
+    public ResponseEntity<ReplicaRoutingDataSource.Stats> getReplicaStats()
+    {
+        return replicaRoutingDataSource != null
+            ? ResponseEntity.ok(replicaRoutingDataSource.getStats())
+            : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/datasource/pools")
+    public ResponseEntity<Map<String, PoolMetrics.Stats>> getPoolStats()
+    {
+        return poolMetrics != null
+            ? ResponseEntity.ok(poolMetrics.getStats())
+            : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/api/admission")
+    public ResponseEntity<ApiAdmissionService.Stats> getApiAdmissionStats()
+    {
+        return apiAdmissionService != null
+            ? ResponseEntity.ok(apiAdmissionService.getStats())
+            : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/single-flight")
+    public Map<String, SingleFlight.Stats> getSingleFlightStats()
+    {
+        return singleFlightService.getStats();
+    }
+
+    @GetMapping("/dao/timings")
+    public Map<String, QueryTimings.Stats> getQueryTimings()
+    {
+        return queryTimings.getStats();
+    }
+
+    @GetMapping("/dao/slow")
+    public List<QueryTimings.SlowQuery> getSlowQueries()
+    {
+        return queryTimings.getSlowQueries();
+    }
+
+    @DeleteMapping("/dao/timings")
+    public void resetQueryTimings()
+    {
+        queryTimings.reset();
+    }
+
     @PostMapping("/update/match/frame/{durationMillis}")
     public ResponseEntity<Object> setMatchUpdateTimeFrame(@PathVariable("durationMillis") long durationMillis)
     {
@@ -80,6 +169,15 @@ public class AdminController
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/match/versus/reindex/{beforeEpochMillis}")
+    public OffsetDateTime reindexVersus(@PathVariable("beforeEpochMillis") long beforeEpochMillis)
+    {
+        return matchService.reindexVersus
+        (
+            OffsetDateTime.ofInstant(Instant.ofEpochMilli(beforeEpochMillis), ZoneOffset.UTC)
+        );
+    }
+
     @PostMapping("/alternative/forced/{region}")
     public void addForcedAlternativeRegion(@PathVariable("region") Region region)
     {
@@ -27,6 +27,7 @@ import com.nephest.battlenet.sc2.model.validation.NotFakeSc2Name;
 import com.nephest.battlenet.sc2.model.validation.Version;
 import com.nephest.battlenet.sc2.web.controller.group.CharacterGroup;
 import com.nephest.battlenet.sc2.web.service.SearchService;
+import com.nephest.battlenet.sc2.web.service.SingleFlightService;
 import com.nephest.battlenet.sc2.web.service.WebServiceUtil;
 import com.nephest.battlenet.sc2.web.service.external.ExternalLinkResolveResult;
 import com.nephest.battlenet.sc2.web.service.external.ExternalPlayerCharacterLinkService;
@@ -77,6 +78,9 @@ public class CharacterController
     @Autowired
     private SearchService searchService;
 
+    @Autowired
+    private SingleFlightService singleFlightService;
+
     @Autowired
     private ExternalPlayerCharacterLinkService externalPlayerCharacterLinkService;
 
@@ -200,8 +204,12 @@ public class CharacterController
                 "1 season and 1 queue are required for multi-character request"
             );
 
-        return ladderSearchDAO
-            .findCharacterTeams(characterIds, seasons, queues, races, limit);
+        return singleFlightService.execute
+        (
+            "character-teams",
+            ()->ladderSearchDAO.findCharacterTeams(characterIds, seasons, queues, races, limit),
+            characterIds, seasons, queues, races, limit
+        );
     }
 
 }
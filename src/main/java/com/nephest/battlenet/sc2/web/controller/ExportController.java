@@ -0,0 +1,116 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.controller;
+
+import com.nephest.battlenet.sc2.model.QueueType;
+import com.nephest.battlenet.sc2.model.TeamType;
+import com.nephest.battlenet.sc2.web.service.ExportFormat;
+import com.nephest.battlenet.sc2.web.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Min;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/export")
+public class ExportController
+{
+
+    public static final String CONTENT_TYPE = "application/gzip";
+
+    @Autowired
+    private ExportService exportService;
+
+    @GetMapping("/ladder")
+    @Operation
+    (
+        summary = "Full ladder",
+        description = "Gzipped ladder ordered by rating desc. Columns: `"
+            + "id, legacy_id, season, region, queue_type, team_type, league_type, tier_type, "
+            + "rating, wins, losses, ties, points, global_rank, region_rank, league_rank, "
+            + "last_played, joined, character_ids`. **" + ExportService.EXPORTS_MAX
+            + " concurrent exports max, 503 is returned when the limit is reached**"
+    )
+    public void getLadder
+    (
+        @RequestParam("season") @Min(0) int season,
+        @RequestParam("queue") QueueType queue,
+        @RequestParam("teamType") TeamType teamType,
+        @RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format,
+        HttpServletResponse response
+    )
+    throws IOException
+    {
+        String fileName = ExportService.getLadderFileName(season, queue, teamType, format);
+        Optional<Path> file = exportService.getLadderFile(season, queue, teamType, format);
+        if(file.isPresent())
+        {
+            sendFile(response, file.get(), fileName);
+        }
+        else
+        {
+            prepare(response, fileName);
+            exportService.writeLadder(season, queue, teamType, format, response.getOutputStream());
+        }
+    }
+
+    @GetMapping("/team-states")
+    @Operation
+    (
+        summary = "Team states of a UTC day",
+        description = "Gzipped team states ordered by timestamp. Columns: `"
+            + "team_id, timestamp, division_id, wins, games, rating, global_rank, region_rank, "
+            + "league_rank, region_team_count, secondary`. **" + ExportService.EXPORTS_MAX
+            + " concurrent exports max, 503 is returned when the limit is reached**"
+    )
+    public void getTeamStates
+    (
+        @RequestParam("day") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day,
+        @RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format,
+        HttpServletResponse response
+    )
+    throws IOException
+    {
+        String fileName = ExportService.getTeamStatesFileName(day, format);
+        Optional<Path> file = exportService.getTeamStatesFile(day, format);
+        if(file.isPresent())
+        {
+            sendFile(response, file.get(), fileName);
+        }
+        else
+        {
+            prepare(response, fileName);
+            exportService.writeTeamStates(day, format, response.getOutputStream());
+        }
+    }
+
+    private static void sendFile(HttpServletResponse response, Path file, String fileName)
+    throws IOException
+    {
+        prepare(response, fileName);
+        response.setContentLengthLong(Files.size(file));
+        Files.copy(file, response.getOutputStream());
+    }
+
+    private static void prepare(HttpServletResponse response, String fileName)
+    {
+        response.setContentType(CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename="
+            + URLEncoder.encode(fileName, StandardCharsets.UTF_8));
+    }
+
+}
@@ -29,6 +29,8 @@ import com.nephest.battlenet.sc2.model.validation.CursorNavigableResult;
 import com.nephest.battlenet.sc2.model.validation.Version;
 import com.nephest.battlenet.sc2.model.web.SortParameter;
 import com.nephest.battlenet.sc2.web.controller.group.TeamGroup;
+import com.nephest.battlenet.sc2.web.service.RecentTeamIndex;
+import com.nephest.battlenet.sc2.web.service.SingleFlightService;
 import com.nephest.battlenet.sc2.web.service.WebServiceUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
@@ -37,9 +39,14 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
 import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
@@ -67,6 +74,12 @@ public class TeamController
     @Autowired
     private TeamHistoryDAO teamHistoryDAO;
 
+    @Autowired
+    private RecentTeamIndex recentTeamIndex;
+
+    @Autowired
+    private SingleFlightService singleFlightService;
+
     private static Optional<ResponseEntity<?>> getHistoryParametersError
     (
         Set<TeamHistoryDAO.StaticColumn> staticColumns,
@@ -104,17 +117,40 @@ public class TeamController
         @RequestParam(value = "limit", defaultValue = RECENT_TEAMS_LIMIT + "") @Valid @Min(1) @Max(RECENT_TEAMS_LIMIT) int limit
     )
     {
-        return ladderSearchDAO.findRecentlyActiveTeams
+        OffsetDateTime lastPlayedMin = SC2Pulse.offsetDateTime().minus(RECENT_TEAMS_OFFSET);
+        return recentTeamIndex.findIds
         (
             queueType,
             league,
-            SC2Pulse.offsetDateTime().minus(RECENT_TEAMS_OFFSET),
+            lastPlayedMin,
             winsMin, winsMax,
             ratingMin, ratingMax,
             race,
             region,
             limit
-        );
+        )
+            .map(this::findTeamsByIdsOrdered)
+            .orElseGet(()->ladderSearchDAO.findRecentlyActiveTeams
+            (
+                queueType,
+                league,
+                lastPlayedMin,
+                winsMin, winsMax,
+                ratingMin, ratingMax,
+                race,
+                region,
+                limit
+            ));
+    }
+
+    private List<LadderTeam> findTeamsByIdsOrdered(List<Long> ids)
+    {
+        Map<Long, LadderTeam> teams = ladderSearchDAO.findTeamsByIds(new HashSet<>(ids)).stream()
+            .collect(Collectors.toMap(LadderTeam::getId, Function.identity()));
+        return ids.stream()
+            .map(teams::get)
+            .filter(Objects::nonNull)
+            .toList();
     }
 
     @Operation(description = "**" + TEAMS_LIMIT + " complete(non-id) teams max**")
@@ -164,15 +200,20 @@ public class TeamController
         @Version(CURSOR_POSITION_VERSION) Cursor cursor
     )
     {
-        return ladderSearchDAO.find
+        return singleFlightService.execute
         (
-            season,
-            regions,
-            leagues,
-            queue,
-            teamType,
-            sort,
-            cursor
+            "ladder",
+            ()->ladderSearchDAO.find
+            (
+                season,
+                regions,
+                leagues,
+                queue,
+                teamType,
+                sort,
+                cursor
+            ),
+            season, regions, leagues, queue, teamType, sort, cursor
         );
     }
 
@@ -193,7 +234,12 @@ public class TeamController
             getHistoryParametersError(staticColumns, groupMode, from , to)
                 .orElse(null)
         );
-        return teamHistoryDAO.find(teamIds, from, to, staticColumns, historyColumns, groupMode);
+        return singleFlightService.execute
+        (
+            "team-histories",
+            ()->teamHistoryDAO.find(teamIds, from, to, staticColumns, historyColumns, groupMode),
+            teamIds, from, to, staticColumns, historyColumns, groupMode
+        );
     }
 
     @GetMapping("/team-history-summaries") @TeamGroup
@@ -213,14 +259,19 @@ public class TeamController
             getHistoryParametersError(staticColumns, groupMode, from , to)
                 .orElse(null)
         );
-        return teamHistoryDAO.findSummary
+        return singleFlightService.execute
         (
-            teamIds,
-            from,
-            to,
-            staticColumns,
-            summaryColumns,
-            groupMode
+            "team-history-summaries",
+            ()->teamHistoryDAO.findSummary
+            (
+                teamIds,
+                from,
+                to,
+                staticColumns,
+                summaryColumns,
+                groupMode
+            ),
+            teamIds, from, to, staticColumns, summaryColumns, groupMode
         );
     }
 
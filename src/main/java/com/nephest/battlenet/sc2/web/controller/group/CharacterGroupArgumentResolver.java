@@ -4,12 +4,10 @@
 package com.nephest.battlenet.sc2.web.controller.group;
 
 import com.nephest.battlenet.sc2.model.PlayerCharacterNaturalId;
-import com.nephest.battlenet.sc2.model.local.ClanMember;
-import com.nephest.battlenet.sc2.model.local.dao.ClanMemberDAO;
-import com.nephest.battlenet.sc2.model.local.dao.PlayerCharacterDAO;
+import com.nephest.battlenet.sc2.web.service.GroupMembershipIndex;
+import com.nephest.battlenet.sc2.web.service.SingleFlightService;
 import java.lang.reflect.Method;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -67,18 +65,18 @@ implements HandlerMethodArgumentResolver
 
     private final RequestParamMethodArgumentResolver paramResolver
         = new RequestParamMethodArgumentResolver(true);
-    private final PlayerCharacterDAO playerCharacterDAO;
-    private final ClanMemberDAO clanMemberDAO;
+    private final GroupMembershipIndex groupMembershipIndex;
+    private final SingleFlightService singleFlightService;
 
     @Autowired
     public CharacterGroupArgumentResolver
     (
-        PlayerCharacterDAO playerCharacterDAO,
-        ClanMemberDAO clanMemberDAO
+        GroupMembershipIndex groupMembershipIndex,
+        SingleFlightService singleFlightService
     )
     {
-        this.playerCharacterDAO = playerCharacterDAO;
-        this.clanMemberDAO = clanMemberDAO;
+        this.groupMembershipIndex = groupMembershipIndex;
+        this.singleFlightService = singleFlightService;
     }
 
     public static Optional<String> checkIds
@@ -166,7 +164,12 @@ implements HandlerMethodArgumentResolver
             .orElse(null);
         if(error != null) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, error);
 
-        Set<Long> result = resolve(characterIds, clanIds, proPlayerIds, accountIds, toonHandles);
+        Set<Long> result = singleFlightService.execute
+        (
+            "character-group",
+            ()->resolve(characterIds, clanIds, proPlayerIds, accountIds, toonHandles),
+            characterIds, clanIds, proPlayerIds, accountIds, toonHandles
+        );
         CharacterGroup annotation = parameter.getParameterAnnotation(CharacterGroup.class);
         if(annotation.flatRequired() && result.isEmpty())
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Flattened character group is empty");
@@ -191,44 +194,15 @@ implements HandlerMethodArgumentResolver
         return Stream.of
         (
             characterIds,
-            resolveClans(clanIds),
-            resolveProPlayers(proPlayerIds),
-            resolveAccounts(accountIds),
-            resolveToonHandles(toonHandles)
+            groupMembershipIndex.getClanCharacterIds(clanIds),
+            groupMembershipIndex.getProPlayerCharacterIds(proPlayerIds),
+            groupMembershipIndex.getAccountCharacterIds(accountIds),
+            groupMembershipIndex.getToonHandleCharacterIds(toonHandles)
         )
             .flatMap(Collection::stream)
             .collect(Collectors.toSet());
     }
 
-    private Set<Long> resolveClans(Set<Integer> clanIds)
-    {
-        if(clanIds.isEmpty()) return Set.of();
-
-        return clanMemberDAO.findByClanIds(clanIds).stream()
-            .map(ClanMember::getPlayerCharacterId)
-            .collect(Collectors.toSet());
-    }
-
-    private Set<Long> resolveProPlayers(Set<Long> proPlayerIds)
-    {
-        if(proPlayerIds.isEmpty()) return Set.of();
-
-        return new HashSet<>(playerCharacterDAO
-            .findCharacterIdsByProPlayerIds(proPlayerIds));
-    }
-
-    private Set<Long> resolveAccounts(Set<Long> accountIds)
-    {
-        if(accountIds.isEmpty()) return Set.of();
-
-        return new HashSet<>(playerCharacterDAO.findIdsByAccountIds(accountIds));
-    }
-
-    private Set<Long> resolveToonHandles(Set<PlayerCharacterNaturalId> toonHandles)
-    {
-        return new HashSet<>(playerCharacterDAO.findIdsByNaturalIds(toonHandles));
-    }
-
     private void getCharacterIdsDescriptor
     (
         @RequestParam(name = "characterId", required = false, defaultValue = "") Set<Long> characterIds,
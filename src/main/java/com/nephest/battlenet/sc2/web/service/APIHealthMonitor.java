@@ -4,10 +4,12 @@
 package com.nephest.battlenet.sc2.web.service;
 
 import com.nephest.battlenet.sc2.model.local.LongVar;
+import com.nephest.battlenet.sc2.model.local.Var;
 import com.nephest.battlenet.sc2.model.local.dao.VarDAO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class APIHealthMonitor
@@ -28,16 +30,9 @@ public class APIHealthMonitor
         //catch exceptions so that tests could be run in any environment, even without vars
         try
         {
-            Long requestsLoaded = requestsVar.load();
-            Long errorsLoaded = errorsVar.load();
-            if(requestsLoaded != null && errorsLoaded != null)
-            {
-                requests.set(requestsLoaded);
-                errors.set(errorsLoaded);
-                errorRate = requestsLoaded == 0
-                    ? 0.0
-                    : (errorsLoaded / (double) requestsLoaded) * 100;
-            }
+            requestsVar.load();
+            errorsVar.load();
+            initCounters();
         }
         catch (Exception ex)
         {
@@ -45,6 +40,23 @@ public class APIHealthMonitor
         }
     }
 
+    /**
+     * Sets counters to var values. Must be called when vars were reloaded.
+     */
+    public void initCounters()
+    {
+        Long requestsLoaded = requestsVar.getValue();
+        Long errorsLoaded = errorsVar.getValue();
+        if(requestsLoaded != null && errorsLoaded != null)
+        {
+            requests.set(requestsLoaded);
+            errors.set(errorsLoaded);
+            errorRate = requestsLoaded == 0
+                ? 0.0
+                : (errorsLoaded / (double) requestsLoaded) * 100;
+        }
+    }
+
     public void addRequest()
     {
         requests.incrementAndGet();
@@ -88,8 +100,17 @@ public class APIHealthMonitor
 
     public void save()
     {
-        requestsVar.setValueAndSave(requests.get());
-        errorsVar.setValueAndSave(errors.get());
+        Var.saveAll(getVars());
+    }
+
+    /**
+     * @return counter vars with current values, they are saved by the caller
+     */
+    public List<LongVar> getVars()
+    {
+        requestsVar.setValue(requests.get());
+        errorsVar.setValue(errors.get());
+        return List.of(requestsVar, errorsVar);
     }
 
 }
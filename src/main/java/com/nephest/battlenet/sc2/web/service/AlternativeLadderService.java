@@ -40,6 +40,7 @@ import com.nephest.battlenet.sc2.model.local.dao.VarDAO;
 import com.nephest.battlenet.sc2.model.local.inner.AlternativeTeamData;
 import com.nephest.battlenet.sc2.model.local.inner.ClanMemberEventData;
 import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import com.nephest.battlenet.sc2.web.util.AimdConcurrencyLimiter;
 import jakarta.annotation.PostConstruct;
 import java.time.Duration;
 import java.time.Instant;
@@ -58,6 +59,7 @@ import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -127,6 +129,8 @@ public class AlternativeLadderService
     private final ConversionService conversionService;
     private final ExecutorService dbExecutorService;
     private final ClanService clanService;
+    private final RecentTeamIndex recentTeamIndex;
+    private final LadderUpdateScheduler ladderUpdateScheduler;
     private final Predicate<BlizzardProfileTeam> teamValidationPredicate;
 
     @Value("${com.nephest.battlenet.sc2.ladder.alternative.web.auto:#{'false'}}")
@@ -151,7 +155,9 @@ public class AlternativeLadderService
         @Qualifier("sc2StatsConversionService") ConversionService conversionService,
         Validator validator,
         @Qualifier("dbExecutorService") ExecutorService dbExecutorService,
-        ClanService clanService
+        ClanService clanService,
+        RecentTeamIndex recentTeamIndex,
+        LadderUpdateScheduler ladderUpdateScheduler
     )
     {
         this.api = api;
@@ -170,12 +176,16 @@ public class AlternativeLadderService
         this.teamValidationPredicate = DAOUtils.beanValidationPredicate(validator);
         this.dbExecutorService = dbExecutorService;
         this.clanService = clanService;
+        this.recentTeamIndex = recentTeamIndex;
+        this.ladderUpdateScheduler = ladderUpdateScheduler;
     }
 
     public static final int ALTERNATIVE_LADDER_ERROR_THRESHOLD = 100;
     public static final int LEGACY_LADDER_BATCH_SIZE = 500;
     public static final int ALTERNATIVE_LADDER_WEB_ERROR_THRESHOLD = 50;
     public static final int LEGACY_LADDER_WEB_BATCH_SIZE = 200;
+    public static final double DISCOVERY_BATCH_SCALE_MIN = 0.25;
+    public static final double DISCOVERY_BATCH_SCALE_MAX = 2.0;
     public static final int CONTINUE_SEASON_DISCOVERY_BATCH_SIZE = 25;
     public static final int CONTINUE_SEASON_DISCOVERY_LADDER_OFFSET = 3;
     public static final BaseLeagueTier.LeagueTierType ALTERNATIVE_TIER = null;
@@ -484,14 +494,18 @@ public class AlternativeLadderService
     {
         boolean webDiscovery = isDiscoveryWebRegion(season.getRegion());
         if(webDiscovery) LOG.warn("Using web API for ladder discovery for {}", season);
-        int errorThreshold = webDiscovery ? ALTERNATIVE_LADDER_WEB_ERROR_THRESHOLD : ALTERNATIVE_LADDER_ERROR_THRESHOLD;
-        batchSize = batchSize != null
-            ? batchSize
-            : webDiscovery ? LEGACY_LADDER_WEB_BATCH_SIZE : LEGACY_LADDER_BATCH_SIZE;
+        boolean adaptiveBatchSize = batchSize == null;
         List<Tuple3<Region, BlizzardPlayerCharacter[], Long>> profileLadderIds = new ArrayList<>();
         AtomicInteger discovered = new AtomicInteger(1);
         while(discovered.get() > 0)
         {
+            double batchScale = adaptiveBatchSize ? getDiscoveryBatchScale(season.getRegion(), webDiscovery) : 1.0;
+            int errorThreshold = (int) Math.round(batchScale * (webDiscovery
+                ? ALTERNATIVE_LADDER_WEB_ERROR_THRESHOLD
+                : ALTERNATIVE_LADDER_ERROR_THRESHOLD));
+            if(adaptiveBatchSize) batchSize = (int) Math.round(batchScale * (webDiscovery
+                ? LEGACY_LADDER_WEB_BATCH_SIZE
+                : LEGACY_LADDER_BATCH_SIZE));
             discovered.set(0);
             api.getProfileLadderIds
             (
@@ -516,6 +530,27 @@ public class AlternativeLadderService
         return profileLadderIds;
     }
 
+    /*
+        Scale discovery batches with the current profile ladder concurrency limit, so discovery runs
+        as fast as the API tolerates. The error threshold is scaled too, it's the ratio of missing
+        ladders that matters.
+     */
+    private double getDiscoveryBatchScale(Region region, boolean web)
+    {
+        AimdConcurrencyLimiter limiter = api.getProfileLadderConcurrencyLimiter(region, web);
+        if(limiter == null) return 1.0;
+
+        return Math.min
+        (
+            DISCOVERY_BATCH_SCALE_MAX,
+            Math.max
+            (
+                DISCOVERY_BATCH_SCALE_MIN,
+                limiter.getLimit() / (double) limiter.getInitialLimit()
+            )
+        );
+    }
+
     @Transactional
     public void saveProfileLadders
     (Season season, List<Tuple2<BlizzardProfileLadder, Tuple3<Region, BlizzardPlayerCharacter[], Long>>> ids)
@@ -559,9 +594,13 @@ public class AlternativeLadderService
                 }
             )
             .collect(Collectors.toList());
+        Map<Team, Integer> previousGames = new HashMap<>(validTeams.size(), 1.0F);
+        for(Tuple2<Team, BlizzardProfileTeam> validTeam : validTeams)
+            fastTeamDAO.find(validTeam.getT1())
+                .ifPresent(t->previousGames.put(t, CharacterActivity.getGames(t)));
         Set<Team> changedTeams = fastTeamDAO
             .merge(validTeams.stream().map(Tuple2::getT1).collect(Collectors.toSet()));
-        teamDao.merge(changedTeams);
+        recentTeamIndex.add(teamDao.merge(changedTeams));
         validTeams.stream()
             .filter(t->t.getT1().getId() != null)
             .forEach(t->extractTeamData(
@@ -577,6 +616,14 @@ public class AlternativeLadderService
                 .map(AlternativeTeamData::getCharacter)
                 .collect(Collectors.toList())
         );
+        addCharacterActivity(members, changedTeams, previousGames);
+        ladderUpdateScheduler.addLadder
+        (
+            season.getRegion(),
+            baseLeague.getQueueType(),
+            baseLeague.getType(),
+            changedTeams.size()
+        );
         LOG.debug
         (
             "Ladder saved: {} {} {}({}/{} teams)",
@@ -585,6 +632,30 @@ public class AlternativeLadderService
         );
     }
 
+    private void addCharacterActivity
+    (
+        Set<TeamMember> members,
+        Set<Team> teams,
+        Map<Team, Integer> previousGames
+    )
+    {
+        Map<Long, Team> teamsById = teams.stream()
+            .filter(t->t.getId() != null)
+            .collect(Collectors.toMap(Team::getId, Function.identity(), (l, r)->l));
+        for(TeamMember member : members)
+        {
+            Team team = teamsById.get(member.getTeamId());
+            if(team == null || member.getCharacterId() == null) continue;
+
+            pendingLadderData.addCharacterActivity
+            (
+                member.getCharacterId(),
+                CharacterActivity.getGames(team) - previousGames.getOrDefault(team, 0),
+                team.getLastPlayed()
+            );
+        }
+    }
+
     private void extractTeamData
     (
         Season season,
@@ -0,0 +1,324 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import com.nephest.battlenet.sc2.config.data.PoolMetrics;
+import com.nephest.battlenet.sc2.config.data.ReplicaRoutingDataSource;
+import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import com.nephest.battlenet.sc2.util.AdaptiveConcurrencyLimit;
+import com.nephest.battlenet.sc2.util.TokenBucket;
+import com.nephest.battlenet.sc2.util.TokenSigner;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/*
+    # API admission
+
+    Sheds public API load before it reaches the DB. Enabled when
+    com.nephest.battlenet.sc2.web.admission.enabled is true, see ApiAdmissionFilter.
+
+    * Budgets. Each client(remote address) has a token bucket, requests spend tokens according to
+      the cost of their endpoint. Bursts of heavy requests run out of tokens quickly, regular
+      browsing doesn't.
+    * Concurrency. Admitted requests are limited by an AdaptiveConcurrencyLimit. The limit
+      shrinks when request latency grows or when requests wait for web pool connections(only
+      when bulkheaded pools are enabled, PoolMetrics is not available otherwise).
+      Non-interactive requests can use only a share of the limit, so interactive users keep
+      some headroom when scrapers saturate the rest.
+    * Interactivity. Requests are interactive when they carry a token that was signed by the
+      server for the client, see ApiAdmissionFilter. Request headers are controlled by the
+      client and can't be trusted.
+    * Streaming. Latency of streaming endpoints(exports) depends on the client's download speed,
+      it says nothing about the server load, so they hold permits but don't update the limit.
+
+    Rejections are cheap and carry the time after which the client should retry.
+ */
+@Service
+@ConditionalOnProperty(name = "com.nephest.battlenet.sc2.web.admission.enabled", havingValue = "true")
+public class ApiAdmissionService
+{
+
+    public enum Decision
+    {
+        ADMITTED, BUDGET_EXCEEDED, OVERLOADED
+    }
+
+    public record Admission(Decision decision, Duration retryAfter, long startNanos, boolean sampled)
+    {
+
+        public boolean isAdmitted()
+        {
+            return decision == Decision.ADMITTED;
+        }
+
+    }
+
+    public record EndpointCost(String path, int cost, boolean streaming)
+    {
+
+        public EndpointCost(String path, int cost)
+        {
+            this(path, cost, false);
+        }
+
+        public boolean matches(String path)
+        {
+            return path.startsWith(path())
+                && (path.length() == path().length() || path.charAt(path().length()) == '/');
+        }
+
+    }
+
+    public record Stats
+    (
+        long admitted,
+        long admittedInteractive,
+        long budgetExceeded,
+        long overloaded,
+        long overloadedInteractive,
+        long congested,
+        int clients,
+        AdaptiveConcurrencyLimit.Stats concurrency
+    )
+    {}
+
+    /**
+     * Endpoint costs, the first matching path prefix wins. Other endpoints cost 1 token.
+     */
+    public static final List<EndpointCost> COSTS = List.of
+    (
+        new EndpointCost("/api/export", 10, true),
+        new EndpointCost("/api/group", 5),
+        new EndpointCost("/api/character-matches", 5),
+        new EndpointCost("/api/ladder", 3)
+    );
+    public static final int DEFAULT_COST = 1;
+    public static final Duration OVERLOAD_RETRY_AFTER = Duration.ofSeconds(1);
+    public static final Duration DEFAULT_INTERACTIVE_TTL = Duration.ofHours(12);
+
+    private final Map<String, TokenBucket> budgets = new ConcurrentHashMap<>();
+    private final AdaptiveConcurrencyLimit limit;
+    private final double budgetCapacity;
+    private final double budgetRate;
+    private final double nonInteractiveShare;
+    private final BooleanSupplier congestion;
+    private final TokenSigner interactiveSigner;
+    private final Duration interactiveTtl;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder admittedInteractive = new LongAdder();
+    private final LongAdder budgetExceeded = new LongAdder();
+    private final LongAdder overloaded = new LongAdder();
+    private final LongAdder overloadedInteractive = new LongAdder();
+    private final LongAdder congested = new LongAdder();
+
+    public ApiAdmissionService
+    (
+        AdaptiveConcurrencyLimit limit,
+        double budgetCapacity,
+        double budgetRate,
+        double nonInteractiveShare,
+        BooleanSupplier congestion,
+        TokenSigner interactiveSigner,
+        Duration interactiveTtl
+    )
+    {
+        int maxCost = COSTS.stream().mapToInt(EndpointCost::cost).max().orElse(DEFAULT_COST);
+        if(budgetCapacity < maxCost)
+            throw new IllegalArgumentException("Budget capacity must be at least " + maxCost);
+        if(nonInteractiveShare <= 0 || nonInteractiveShare > 1)
+            throw new IllegalArgumentException("Non-interactive share must be in (0, 1]");
+
+        this.limit = limit;
+        this.budgetCapacity = budgetCapacity;
+        this.budgetRate = budgetRate;
+        this.nonInteractiveShare = nonInteractiveShare;
+        this.congestion = congestion;
+        this.interactiveSigner = interactiveSigner;
+        this.interactiveTtl = interactiveTtl;
+    }
+
+    public ApiAdmissionService
+    (
+        AdaptiveConcurrencyLimit limit,
+        double budgetCapacity,
+        double budgetRate,
+        double nonInteractiveShare,
+        BooleanSupplier congestion
+    )
+    {
+        this
+        (
+            limit,
+            budgetCapacity,
+            budgetRate,
+            nonInteractiveShare,
+            congestion,
+            TokenSigner.random(),
+            DEFAULT_INTERACTIVE_TTL
+        );
+    }
+
+    @Autowired
+    public ApiAdmissionService
+    (
+        @Value("${com.nephest.battlenet.sc2.web.admission.budget.capacity:#{'100'}}") double budgetCapacity,
+        @Value("${com.nephest.battlenet.sc2.web.admission.budget.rate:#{'5'}}") double budgetRate,
+        @Value("${com.nephest.battlenet.sc2.web.admission.concurrency.initial:#{'20'}}") int initialLimit,
+        @Value("${com.nephest.battlenet.sc2.web.admission.concurrency.min:#{'5'}}") int minLimit,
+        @Value("${com.nephest.battlenet.sc2.web.admission.concurrency.max:#{'100'}}") int maxLimit,
+        @Value("${com.nephest.battlenet.sc2.web.admission.non-interactive.share:#{'0.75'}}") double nonInteractiveShare,
+        //base64, must be shared by all instances of a cluster
+        @Value("${com.nephest.battlenet.sc2.web.admission.interactive.key:#{''}}") String interactiveKey,
+        @Value("${com.nephest.battlenet.sc2.web.admission.interactive.ttl:#{'PT12H'}}") Duration interactiveTtl,
+        //available only when bulkheaded pools are enabled
+        @Autowired(required = false) PoolMetrics poolMetrics
+    )
+    {
+        this
+        (
+            new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit),
+            budgetCapacity,
+            budgetRate,
+            nonInteractiveShare,
+            poolMetrics != null
+                ? ()->poolMetrics.getWaiting(ReplicaRoutingDataSource.PRIMARY) > 0
+                : ()->false,
+            interactiveKey.isBlank()
+                ? TokenSigner.random()
+                : new TokenSigner(Base64.getDecoder().decode(interactiveKey)),
+            interactiveTtl
+        );
+    }
+
+    public static int getCost(String path)
+    {
+        for(EndpointCost cost : COSTS)
+            if(cost.matches(path)) return cost.cost();
+        return DEFAULT_COST;
+    }
+
+    public static boolean isStreaming(String path)
+    {
+        for(EndpointCost cost : COSTS)
+            if(cost.matches(path)) return cost.streaming();
+        return false;
+    }
+
+    /**
+     * @param client client id
+     * @return token that makes requests of the client interactive until it expires
+     */
+    public String createInteractiveToken(String client)
+    {
+        return interactiveSigner.sign
+        (
+            client,
+            SC2Pulse.instant().plus(interactiveTtl).getEpochSecond()
+        );
+    }
+
+    /**
+     * @param token token, can be null
+     * @param client client id
+     * @return true if the token was created for the client and is not expired
+     */
+    public boolean isInteractiveToken(String token, String client)
+    {
+        return interactiveSigner.verify(token, client, SC2Pulse.instant().getEpochSecond());
+    }
+
+    public Duration getInteractiveTtl()
+    {
+        return interactiveTtl;
+    }
+
+    /**
+     * @param client client id
+     * @param path request path without the context path
+     * @param interactive true if it's an interactive request that must have low latency
+     * @return admission, {@link #complete(Admission)} must be called if it was admitted
+     */
+    public Admission admit(String client, String path, boolean interactive)
+    {
+        if(!limit.tryAcquire(interactive ? 1 : nonInteractiveShare))
+        {
+            overloaded.increment();
+            if(interactive) overloadedInteractive.increment();
+            return new Admission(Decision.OVERLOADED, OVERLOAD_RETRY_AFTER, 0, false);
+        }
+
+        long now = System.nanoTime();
+        long wait = budgets
+            .computeIfAbsent(client, c->new TokenBucket(budgetCapacity, budgetRate, now))
+            .tryConsume(getCost(path), now);
+        if(wait > 0)
+        {
+            limit.cancel();
+            budgetExceeded.increment();
+            return new Admission
+            (
+                Decision.BUDGET_EXCEEDED,
+                Duration.ofSeconds(TimeUnit.NANOSECONDS.toSeconds(wait - 1) + 1),
+                0,
+                false
+            );
+        }
+
+        admitted.increment();
+        if(interactive) admittedInteractive.increment();
+        return new Admission(Decision.ADMITTED, null, now, !isStreaming(path));
+    }
+
+    public void complete(Admission admission)
+    {
+        if(!admission.isAdmitted()) return;
+        if(!admission.sampled())
+        {
+            limit.cancel();
+            return;
+        }
+
+        boolean congested = congestion.getAsBoolean();
+        if(congested) this.congested.increment();
+        limit.release(System.nanoTime() - admission.startNanos(), congested);
+    }
+
+    /**
+     * Full buckets are equal to new buckets, drop them to keep the map small.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void removeIdleBudgets()
+    {
+        long now = System.nanoTime();
+        budgets.values().removeIf(bucket->bucket.isFull(now));
+    }
+
+    public Stats getStats()
+    {
+        return new Stats
+        (
+            admitted.sum(),
+            admittedInteractive.sum(),
+            budgetExceeded.sum(),
+            overloaded.sum(),
+            overloadedInteractive.sum(),
+            congested.sum(),
+            budgets.size(),
+            limit.getStats()
+        );
+    }
+
+}
@@ -3,6 +3,7 @@
 
 package com.nephest.battlenet.sc2.web.service;
 
+import com.nephest.battlenet.sc2.config.data.Workload;
 import com.nephest.battlenet.sc2.model.BaseLeague;
 import com.nephest.battlenet.sc2.model.PlayerCharacterNaturalId;
 import com.nephest.battlenet.sc2.model.QueueType;
@@ -23,6 +24,7 @@ import com.nephest.battlenet.sc2.model.local.LongVar;
 import com.nephest.battlenet.sc2.model.local.PlayerCharacter;
 import com.nephest.battlenet.sc2.model.local.Season;
 import com.nephest.battlenet.sc2.model.local.TimerVar;
+import com.nephest.battlenet.sc2.model.local.Var;
 import com.nephest.battlenet.sc2.model.local.dao.AccountDAO;
 import com.nephest.battlenet.sc2.model.local.dao.DAOUtils;
 import com.nephest.battlenet.sc2.model.local.dao.PlayerCharacterDAO;
@@ -53,7 +55,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.Validator;
 import reactor.core.publisher.Flux;
@@ -170,11 +171,11 @@ public class BlizzardPrivacyService
             "blizzard.privacy.anonymized.full",
             false,
             FULL_ANONYMIZATION_DATA_TIME_FRAME,
-            ()->
+            ()->Workload.run(Workload.MAINTENANCE, ()->
             {
                 int count = accountDAO.anonymizeExpiredAccounts(DEFAULT_ANONYMIZE_START);
                 LOG.info("Executed full account anonymization. Anonymized accounts: {}.", count);
-            }
+            })
         );
         lastUpdatedCharacterInstant = new InstantVar(varDAO, "blizzard.privacy.character.updated", false);
         try
@@ -243,7 +244,6 @@ public class BlizzardPrivacyService
         return characterUpdateTask;
     }
 
-    @Scheduled(cron="0 0 6 * * *", zone = "UTC")
     public void updateOldSeasons()
     {
         updateOldDataTask.tryRun();
@@ -504,14 +504,19 @@ public class BlizzardPrivacyService
                     LOG.info("Updated {} characters that are about to expire",
                         playerCharacterDAO.updateCharacters(Set.copyOf(l)).size())));
             });
-        lastUpdatedCharacterInstant.setValueAndSave(SC2Pulse.instant());
-        lastUpdatedCharacterId.setValueAndSave(batch.get(batch.size() - 1).getId());
+        saveCharacterUpdateVars(batch.get(batch.size() - 1).getId());
     }
 
     private void resetCharacterUpdateVars()
     {
-        lastUpdatedCharacterInstant.setValueAndSave(SC2Pulse.instant());
-        lastUpdatedCharacterId.setValueAndSave(Long.MAX_VALUE);
+        saveCharacterUpdateVars(Long.MAX_VALUE);
+    }
+
+    private void saveCharacterUpdateVars(Long characterId)
+    {
+        lastUpdatedCharacterInstant.setValue(SC2Pulse.instant());
+        lastUpdatedCharacterId.setValue(characterId);
+        Var.saveAll(List.of(lastUpdatedCharacterInstant, lastUpdatedCharacterId));
     }
 
 
@@ -46,9 +46,16 @@ import com.nephest.battlenet.sc2.model.local.dao.VarDAO;
 import com.nephest.battlenet.sc2.model.util.SC2Pulse;
 import com.nephest.battlenet.sc2.util.LogUtil;
 import com.nephest.battlenet.sc2.util.MiscUtil;
+import com.nephest.battlenet.sc2.web.util.AimdConcurrencyLimiter;
+import com.nephest.battlenet.sc2.web.util.ExchangeArchive;
 import com.nephest.battlenet.sc2.web.util.ReactorRateLimiter;
+import com.nephest.battlenet.sc2.web.util.RequestHedger;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.validation.ValidationException;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -76,6 +83,7 @@ import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.RemoveAuthorizedClientOAuth2AuthorizationFailureHandler;
 import org.springframework.security.oauth2.client.web.reactive.function.client.ServletOAuth2AuthorizedClientExchangeFilterFunction;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
@@ -114,6 +122,17 @@ extends BaseAPI
     public static final Duration SHORT_IO_TIMEOUT = Duration.ofSeconds(20);
     public static final String SYSTEM_REQUEST_LIMIT_PRIORITY_NAME = "system";
     public static final int SYSTEM_HOURLY_REQUEST_LIMIT_PRIORITY_SLOTS = 600;
+    public static final int PROFILE_LADDER_CONCURRENCY_MIN = 4;
+    public static final int PROFILE_LADDER_CONCURRENCY_INITIAL = 64;
+    public static final int PROFILE_LADDER_CONCURRENCY_MAX = 256;
+    public static final double PROFILE_LADDER_CONCURRENCY_DECREASE_FACTOR = 0.5;
+    public static final Duration PROFILE_LADDER_LATENCY_THRESHOLD = Duration.ofSeconds(10);
+    public static final Duration PROFILE_LADDER_CONCURRENCY_DECREASE_COOLDOWN = Duration.ofSeconds(1);
+    public static final int HEDGE_WINDOW_SIZE = 500;
+    public static final int HEDGE_MIN_SAMPLES = 100;
+    public static final double HEDGE_LATENCY_PERCENTILE = 0.95;
+    public static final Duration HEDGE_DELAY_MIN = Duration.ofMillis(500);
+    public static final double HEDGE_HOURLY_BUDGET_FRACTION = 0.05;
     /*
         This data is mainly used in ladder discovery process when starting with an empty DB. The values should be
         manually updated when a new season begins.
@@ -155,11 +174,25 @@ extends BaseAPI
     private final ReactorRateLimiter webRateLimiter = new ReactorRateLimiter();
     private final Map<Region, APIHealthMonitor> webHealthMonitors = new EnumMap<>(Region.class);
     private final Map<Region, APIHealthMonitor> matchHealthMonitors = new EnumMap<>(Region.class);
+    private final Map<Region, AimdConcurrencyLimiter> profileLadderConcurrencyLimiters
+        = new EnumMap<>(Region.class);
+    private final Map<Region, AimdConcurrencyLimiter> webProfileLadderConcurrencyLimiters
+        = new EnumMap<>(Region.class);
+    private final Map<Region, RequestHedger> requestHedgers = new EnumMap<>(Region.class);
     private final VarDAO varDAO;
     private final GlobalContext globalContext;
 
     @Value("${com.nephest.battlenet.sc2.api.force.region.auto:#{'false'}}")
     private boolean autoForceRegion = false;
+
+    @Value("${com.nephest.battlenet.sc2.api.archive.record:#{null}}")
+    private Path archiveRecordFile;
+
+    @Value("${com.nephest.battlenet.sc2.api.archive.replay:#{null}}")
+    private URI archiveReplayUri;
+
+    private ExchangeArchive exchangeArchive;
+
     private final boolean separateRequestLimits;
 
     @Autowired
@@ -188,12 +221,12 @@ extends BaseAPI
         init(globalContext.getActiveRegions());
         initErrorRates(varDAO, globalContext.getActiveRegions());
         initRequestLimiters(separateRequestLimits);
-        Flux.interval(HEALTH_SAVE_FRAME).doOnNext(i->saveHealth()).subscribe();
     }
 
     @PostConstruct
     public void postConstruct()
     {
+        initArchive();
         if(isAutoForceRegion())
         {
             LOG.warn("Auto force region is enabled");
@@ -201,6 +234,39 @@ extends BaseAPI
         }
     }
 
+    @PreDestroy
+    public void preDestroy()
+    throws IOException
+    {
+        if(exchangeArchive != null) exchangeArchive.close();
+    }
+
+    /*
+        Replay mode is used for offline benchmarks, clients are not authorized because archived
+        exchanges don't depend on credentials.
+     */
+    private void initArchive()
+    {
+        if(archiveReplayUri != null)
+        {
+            LOG.warn("Replaying Blizzard API exchanges from {}", archiveReplayUri);
+            ExchangeFilterFunction replayFilter = ExchangeArchive.replayFilter(archiveReplayUri);
+            clients.replaceAll((region, client)->
+                WebServiceUtil.getWebClientBuilder(objectMapper, 600 * 1024, ALL)
+                    .clientConnector(new ReactorClientHttpConnector(
+                        getHttpClient(getTimeout(region), false)))
+                    .filter(replayFilter)
+                    .build());
+            unauthorizedClient = unauthorizedClient.mutate().filter(replayFilter).build();
+        }
+        if(archiveRecordFile != null)
+        {
+            exchangeArchive = new ExchangeArchive(objectMapper, archiveRecordFile);
+            clients.replaceAll((region, client)->client.mutate().filter(exchangeArchive).build());
+            unauthorizedClient = unauthorizedClient.mutate().filter(exchangeArchive).build();
+        }
+    }
+
     private void initVars(VarDAO varDAO, Set<Region> activeRegions)
     {
         for(Region r : activeRegions)
@@ -268,6 +334,86 @@ extends BaseAPI
 
         hourlyRateLimiters.forEach((r, limiter)-> limiter.refreshSlots(
             (int) (getRequestsPerHourCap(r) - healthMonitors.get(r).getRequests())));
+        for(Region r : globalContext.getActiveRegions())
+        {
+            profileLadderConcurrencyLimiters.put(r, createProfileLadderConcurrencyLimiter(r + " profile ladder"));
+            webProfileLadderConcurrencyLimiters.put(r, createProfileLadderConcurrencyLimiter(r + " web profile ladder"));
+            requestHedgers.put(r, new RequestHedger
+            (
+                HEDGE_WINDOW_SIZE,
+                HEDGE_MIN_SAMPLES,
+                HEDGE_LATENCY_PERCENTILE,
+                HEDGE_DELAY_MIN,
+                ()->getRequestsPerHourCap(r) * HEDGE_HOURLY_BUDGET_FRACTION
+            ));
+        }
+    }
+
+    private static AimdConcurrencyLimiter createProfileLadderConcurrencyLimiter(String name)
+    {
+        return new AimdConcurrencyLimiter
+        (
+            name,
+            PROFILE_LADDER_CONCURRENCY_MIN,
+            PROFILE_LADDER_CONCURRENCY_INITIAL,
+            PROFILE_LADDER_CONCURRENCY_MAX,
+            PROFILE_LADDER_CONCURRENCY_DECREASE_FACTOR,
+            PROFILE_LADDER_LATENCY_THRESHOLD,
+            PROFILE_LADDER_CONCURRENCY_DECREASE_COOLDOWN
+        );
+    }
+
+    public AimdConcurrencyLimiter getProfileLadderConcurrencyLimiter(Region region, boolean web)
+    {
+        return web
+            ? webProfileLadderConcurrencyLimiters.get(region)
+            : profileLadderConcurrencyLimiters.get(region);
+    }
+
+    public RequestHedger getRequestHedger(Region region)
+    {
+        return requestHedgers.get(region);
+    }
+
+    /**
+     * Fire a duplicate request at the redirect host if the primary request is slower than the
+     * observed p95 latency of the region. The first response wins, the loser is cancelled. Only
+     * region agnostic endpoints(endpoints that contain the target region in the path) can be
+     * hedged. Web API requests are never hedged.
+     *
+     * @param region primary host region
+     * @param request request factory, the argument is the host region
+     */
+    private <T> Mono<T> hedge
+    (
+        Region region,
+        boolean web,
+        String priorityName,
+        Function<Region, Mono<T>> request
+    )
+    {
+        RequestHedger hedger = requestHedgers.get(region);
+        if(web || hedger == null) return request.apply(region);
+
+        return hedger.hedge(request.apply(region), ()->
+        {
+            Region hedgeRegion = getDefaultOrHealthyForceRegion(region);
+            if(hedgeRegion == region || !clients.containsKey(hedgeRegion)) return Mono.empty();
+
+            ApiContext hedgeContext = getContext(hedgeRegion, false);
+            LOG.trace("Hedging {} request via {}", region, hedgeRegion);
+            return request.apply(hedgeRegion)
+                .delaySubscription(Mono.defer(()->
+                    ReactorRateLimiter.requestSlot(hedgeContext.getRateLimiters(), priorityName)))
+                .doOnRequest(s->hedgeContext.getHealthMonitor().addRequest())
+                .doOnError(t->hedgeContext.getHealthMonitor().addError());
+        });
+    }
+
+    private <T> Mono<T> limitProfileLadderConcurrency(Mono<T> mono, Region region, boolean web)
+    {
+        AimdConcurrencyLimiter limiter = getProfileLadderConcurrencyLimiter(region, web);
+        return limiter != null ? limiter.limit(mono) : mono;
     }
 
     private void init(Set<Region> activeRegions)
@@ -668,7 +814,9 @@ extends BaseAPI
         refreshReactorSlots(hourlyRateLimiters, this::getRequestsPerHourCap);
     }
 
-    @Scheduled(cron="0 0 * * * *")
+    /**
+     * Updates and persists error rates, must be called hourly by the leader.
+     */
     public void processErrorRates()
     {
         calculateErrorRates();
@@ -682,11 +830,28 @@ extends BaseAPI
         matchHealthMonitors.forEach((region, monitor)->LOG.debug("{} match error rate: {}%", region, monitor.update()));
     }
 
-    private void saveHealth()
+    /**
+     * Persists health counters, must be called every {@link #HEALTH_SAVE_FRAME} by the leader.
+     */
+    public void saveHealth()
+    {
+        Var.saveAll
+        (
+            Stream.of(healthMonitors, webHealthMonitors, matchHealthMonitors)
+                .flatMap(monitors->monitors.values().stream())
+                .flatMap(monitor->monitor.getVars().stream())
+                .toList()
+        );
+    }
+
+    /**
+     * Resets health counters to var values, must be called when vars were reloaded.
+     */
+    public void initHealth()
     {
-        healthMonitors.values().forEach(APIHealthMonitor::save);
-        webHealthMonitors.values().forEach(APIHealthMonitor::save);
-        matchHealthMonitors.values().forEach(APIHealthMonitor::save);
+        healthMonitors.values().forEach(APIHealthMonitor::initCounters);
+        webHealthMonitors.values().forEach(APIHealthMonitor::initCounters);
+        matchHealthMonitors.values().forEach(APIHealthMonitor::initCounters);
     }
 
     private void autoTimeout()
@@ -1085,16 +1250,16 @@ extends BaseAPI
          */
         int profileRetries = getProfileLadderRetryCount(region, web);
         if(retry == WebServiceUtil.RETRY_NEVER && getErrorRate(region, web) < 100) retry = WebServiceUtil.RETRY;
-        return getWebClient(region)
+        return hedge(region, web, null, r->getWebClient(r)
             .get()
             .uri
             (
-                regionUri != null ? regionUri : (context.getBaseUrl() + "sc2/legacy/ladder/{0}/{1}"),
+                regionUri != null ? regionUri : (getContext(r, web).getBaseUrl() + "sc2/legacy/ladder/{0}/{1}"),
                 originalRegion.getId(), ladderId
             )
             .accept(APPLICATION_JSON)
             .retrieve()
-            .bodyToMono(String.class)
+            .bodyToMono(String.class))
             .map((s)->
             {
                 try
@@ -1120,6 +1285,7 @@ extends BaseAPI
                     throw new IllegalStateException("Invalid json structure", e);
                 }
             })
+            .transform(m->limitProfileLadderConcurrency(m, region, web))
             .retryWhen(ReactorRateLimiter.retryWhen(context.getRateLimiters(), retry))
             .delaySubscription(Mono.defer(()->
                 ReactorRateLimiter.requestSlot(context.getRateLimiters())))
@@ -1238,16 +1404,16 @@ extends BaseAPI
     {
         Region region = getRegion(originalRegion);
         ApiContext context = getContext(region, web);
-        return getWebClient(region)
+        return hedge(region, web, priorityName, r->getWebClient(r)
             .get()
             .uri
                 (
-                    regionUri != null ? regionUri : context.getBaseUrl() + "sc2/profile/{0}/{1}/{2}/ladder/{3}",
+                    regionUri != null ? regionUri : getContext(r, web).getBaseUrl() + "sc2/profile/{0}/{1}/{2}/ladder/{3}",
                     originalRegion.getId(), character.getRealm(), character.getId(), id
                 )
             .accept(APPLICATION_JSON)
             .retrieve()
-            .bodyToMono(String.class)
+            .bodyToMono(String.class))
             .flatMap((s)->
             {
                 try
@@ -1259,6 +1425,7 @@ extends BaseAPI
                     throw new IllegalStateException("Invalid json structure", e);
                 }
             })
+            .transform(m->limitProfileLadderConcurrency(m, region, web))
             .retryWhen(ReactorRateLimiter.retryWhen(
                 context.getRateLimiters(), getRetry(region, WebServiceUtil.RETRY_SKIP_NOT_FOUND, web), priorityName))
             .delaySubscription(Mono.defer(()->
@@ -1360,20 +1527,20 @@ extends BaseAPI
     {
         Region region = getProfileRegion(playerCharacter.getRegion());
         ApiContext context = getContext(region, web);
-        return getWebClient(region)
+        return hedge(region, web, priorityName, r->getWebClient(r)
             .get()
             .uri
             (
                 regionUri != null
                     ? regionUri
-                    : (context.getBaseUrl() + "sc2/legacy/profile/{0}/{1}/{2}/matches"),
+                    : (getContext(r, web).getBaseUrl() + "sc2/legacy/profile/{0}/{1}/{2}/matches"),
                 playerCharacter.getRegion().getId(),
                 playerCharacter.getRealm(),
                 playerCharacter.getBattlenetId()
             )
             .accept(web ? ALL : APPLICATION_JSON) //web API has invalid content type headers
             .retrieve()
-            .bodyToMono(BlizzardMatches.class)
+            .bodyToMono(BlizzardMatches.class))
             .zipWith(Mono.just(playerCharacter))
             .retryWhen(ReactorRateLimiter.retryWhen(
                 context.getRateLimiters(), getMatchRetry(region, web), priorityName))
@@ -1425,20 +1592,20 @@ extends BaseAPI
     {
         Region region = getProfileRegion(playerCharacter.getRegion());
         ApiContext context = getContext(region, web);
-        return getWebClient(region)
+        return hedge(region, web, null, r->getWebClient(r)
             .get()
             .uri
             (
                 regionUri != null
                     ? regionUri
-                    : (context.getBaseUrl() + "sc2/legacy/profile/{0}/{1}/{2}"),
+                    : (getContext(r, web).getBaseUrl() + "sc2/legacy/profile/{0}/{1}/{2}"),
                 playerCharacter.getRegion().getId(),
                 playerCharacter.getRealm(),
                 playerCharacter.getBattlenetId()
             )
             .accept(web ? ALL : APPLICATION_JSON) //web API has invalid content type headers
             .retrieve()
-            .bodyToMono(BlizzardLegacyProfile.class)
+            .bodyToMono(BlizzardLegacyProfile.class))
             .zipWith(Mono.just(playerCharacter))
             .retryWhen(ReactorRateLimiter.retryWhen(
                 context.getRateLimiters(), getRetry(region, WebServiceUtil.RETRY_NEVER, web)))
@@ -1460,20 +1627,20 @@ extends BaseAPI
     {
         Region region = getProfileRegion(playerCharacter.getRegion());
         ApiContext context = getContext(region, web);
-        return getWebClient(region)
+        return hedge(region, web, null, r->getWebClient(r)
             .get()
             .uri
             (
                 regionUri != null
                     ? regionUri
-                    : (context.getBaseUrl() + "sc2/profile/{0}/{1}/{2}"),
+                    : (getContext(r, web).getBaseUrl() + "sc2/profile/{0}/{1}/{2}"),
                 playerCharacter.getRegion().getId(),
                 playerCharacter.getRealm(),
                 playerCharacter.getBattlenetId()
             )
             .accept(web ? ALL : APPLICATION_JSON) //web API has invalid content type headers
             .retrieve()
-            .bodyToMono(BlizzardProfile.class)
+            .bodyToMono(BlizzardProfile.class))
             .zipWith(Mono.just(playerCharacter))
             .retryWhen(ReactorRateLimiter.retryWhen(
                 context.getRateLimiters(), getRetry(region, WebServiceUtil.RETRY_NEVER, web)))
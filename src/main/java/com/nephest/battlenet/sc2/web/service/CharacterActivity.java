@@ -0,0 +1,37 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import com.nephest.battlenet.sc2.model.BaseTeam;
+import java.time.OffsetDateTime;
+
+/**
+ * Ladder activity of a character that was observed in a ladder update cycle.
+ *
+ * @param games games played since the previous observation
+ * @param lastPlayed the most recent last played timestamp of the character's teams
+ */
+public record CharacterActivity(int games, OffsetDateTime lastPlayed)
+{
+
+    public static CharacterActivity merge(CharacterActivity left, CharacterActivity right)
+    {
+        return new CharacterActivity
+        (
+            left.games() + right.games(),
+            left.lastPlayed() == null
+                || (right.lastPlayed() != null && right.lastPlayed().isAfter(left.lastPlayed()))
+                    ? right.lastPlayed()
+                    : left.lastPlayed()
+        );
+    }
+
+    public static int getGames(BaseTeam team)
+    {
+        return (team.getWins() != null ? team.getWins() : 0)
+            + (team.getLosses() != null ? team.getLosses() : 0)
+            + (team.getTies() != null ? team.getTies() : 0);
+    }
+
+}
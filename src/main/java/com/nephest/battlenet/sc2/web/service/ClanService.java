@@ -3,6 +3,7 @@
 
 package com.nephest.battlenet.sc2.web.service;
 
+import com.nephest.battlenet.sc2.config.data.Workload;
 import com.nephest.battlenet.sc2.model.PlayerCharacterNaturalId;
 import com.nephest.battlenet.sc2.model.blizzard.BlizzardLegacyProfile;
 import com.nephest.battlenet.sc2.model.local.Clan;
@@ -26,9 +27,11 @@ import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -43,7 +46,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.retry.annotation.Retryable;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
@@ -69,6 +71,7 @@ public class ClanService
     private final ClanDAO clanDAO;
     private final ClanMemberDAO clanMemberDAO;
     private final ClanMemberEventDAO clanMemberEventDAO;
+    private final GroupMembershipIndex groupMembershipIndex;
     private final BlizzardSC2API api;
     private final AlternativeLadderService alternativeLadderService;
     private final ExecutorService dbExecutorService;
@@ -100,6 +103,7 @@ public class ClanService
         ClanDAO clanDAO,
         ClanMemberDAO clanMemberDAO,
         ClanMemberEventDAO clanMemberEventDAO,
+        GroupMembershipIndex groupMembershipIndex,
         VarDAO varDAO,
         BlizzardSC2API api,
         EventService eventService,
@@ -112,6 +116,7 @@ public class ClanService
         this.clanDAO = clanDAO;
         this.clanMemberDAO = clanMemberDAO;
         this.clanMemberEventDAO = clanMemberEventDAO;
+        this.groupMembershipIndex = groupMembershipIndex;
         this.api = api;
         this.alternativeLadderService = alternativeLadderService;
         this.dbExecutorService = dbExecutorService;
@@ -129,7 +134,7 @@ public class ClanService
             "clan.stats.nullified",
             false,
             STATS_UPDATE_FRAME,
-            this::nullifyStats
+            ()->Workload.run(Workload.MAINTENANCE, this::nullifyStats)
         );
         statsCursor = new LongVar(varDAO, "clan.stats.id", false);
 
@@ -156,7 +161,7 @@ public class ClanService
 
     private void subscribeToEvents(EventService eventService)
     {
-        eventService.getLadderUpdateEvent()
+        eventService.getLadderUpdateEvent(ClanService.class.getSimpleName())
             .flatMap(data->WebServiceUtil.getOnErrorLogAndSkipMono(Mono.fromRunnable(this::update)))
             .subscribe();
     }
@@ -191,7 +196,6 @@ public class ClanService
         this.clanService = clanService;
     }
 
-    @Scheduled(cron="0 0/10 * * * *")
     public boolean removeOldClanUpdates()
     {
         Instant min = SC2Pulse.instant().minus(CLAN_UPDATE_INSTANT_TTL);
@@ -380,6 +384,13 @@ public class ClanService
         LOG.debug("Saving clans {}/{}", clans.size(), clanData.size());
         if(clans.isEmpty()) return;
 
+        Map<Long, Integer> previousClans = clanMemberDAO.find(clans.stream()
+                .map(ClanMemberEventData::getCharacter)
+                .map(PlayerCharacter::getId)
+                .collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(ClanMember::getPlayerCharacterId, ClanMember::getClanId));
+
         List<ClanMemberEventData> nonNullClans = clans.stream()
             .filter(p->p.getClan() != null)
             .collect(Collectors.toList());
@@ -403,9 +414,36 @@ public class ClanService
             .map(PlayerCharacter::getId)
             .collect(Collectors.toSet());
         clanMemberDAO.remove(charactersWithNoClan);
+        invalidateChangedMemberships(clans, previousClans);
         createClanEvents(clans);
     }
 
+    /*
+        Most saved characters are still in the same clan, only invalidate clans that gained or
+        lost members, and characters that joined, left, or changed their clan.
+     */
+    private void invalidateChangedMemberships
+    (
+        Collection<ClanMemberEventData> clans,
+        Map<Long, Integer> previousClans
+    )
+    {
+        Set<Integer> changedClans = new HashSet<>();
+        Set<Long> changedCharacters = new HashSet<>();
+        for(ClanMemberEventData data : clans)
+        {
+            Long characterId = data.getCharacter().getId();
+            Integer previousClan = previousClans.get(characterId);
+            Integer clan = data.getClan() != null ? data.getClan().getId() : null;
+            if(Objects.equals(previousClan, clan)) continue;
+
+            changedCharacters.add(characterId);
+            if(previousClan != null) changedClans.add(previousClan);
+            if(clan != null) changedClans.add(clan);
+        }
+        groupMembershipIndex.invalidateClans(changedClans, changedCharacters);
+    }
+
     private void createClanEvents(Collection<ClanMemberEventData> clans)
     {
         if(clans.isEmpty()) return;
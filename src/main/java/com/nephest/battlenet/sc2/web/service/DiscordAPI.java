@@ -190,8 +190,7 @@ extends BaseAPI
 
     public Mono<DiscordUser> getUser(Snowflake id)
     {
-        return discordClient.getClient()
-            .getUserById(id)
+        return Mono.defer(()->discordClient.getClient().getUserById(id))
             .map(DiscordUser::from)
             .delaySubscription(Mono.defer(rateLimiter::requestSlot));
     }
@@ -219,7 +218,7 @@ extends BaseAPI
     public Flux<Message> sendDM(String dm, Snowflake... ids)
     {
         return Flux.fromArray(ids)
-            .flatMap(discordClient.getClient()::getUserById)
+            .flatMap(id->discordClient.getClient().getUserById(id))
             .flatMap(User::getPrivateChannel)
             .flatMap(c->c.createMessage(dm));
     }
@@ -267,9 +266,15 @@ extends BaseAPI
             .delaySubscription(Mono.defer(rateLimiter::requestSlot));
     }
 
-    @Cacheable(cacheNames = "discord-bot-guilds")
+    /**
+     * @return guilds of the bot, empty if the bot is not logged in yet. Empty results are not
+     * cached.
+     */
+    @Cacheable(cacheNames = "discord-bot-guilds", unless = "#result.isEmpty()")
     public Map<Snowflake, Guild> getBotGuilds()
     {
+        if(!discordClient.isLoggedIn()) return Map.of();
+
         return discordClient.getClient()
             .getGuilds()
             .toStream()
@@ -289,8 +294,7 @@ extends BaseAPI
     @Cacheable(cacheNames = "discord-bot-installation-data")
     public Mono<InstallationData> getInstallationData()
     {
-        return discordClient.getClient()
-            .getApplicationInfo()
+        return Mono.defer(()->discordClient.getClient().getApplicationInfo())
             .map(ApplicationInfo::getData)
             .map(InstallationData::new);
     }
@@ -37,6 +37,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -144,8 +145,9 @@ public class DiscordService
         this.oAuth2AuthorizedClientService = oAuth2AuthorizedClientService;
         this.dbExecutorService = dbExecutorService;
         this.conversionService = conversionService;
-        eventService.getLadderCharacterActivityEvent()
+        eventService.getLadderCharacterActivityEvent(DiscordService.class.getSimpleName())
             .publishOn(Schedulers.boundedElastic())
+            .flatMapIterable(Function.identity())
             .flatMap(c->WebServiceUtil.getOnErrorLogAndSkipMono(updateRoles(c.getAccountId()).then()))
             .subscribe();
     }
@@ -415,12 +417,17 @@ public class DiscordService
 
     public Flux<Guild> getManagedRoleGuilds(Flux<? extends IdentifiableEntity> guilds)
     {
-        return guilds
-            .map(IdentifiableEntity::getId)
-            .filter(discordAPI.getBotGuilds().keySet()::contains)
-            .flatMap(id->discordAPI.getDiscordClient().getClient().getGuildById(id))
-            .filterWhen(guild->DiscordBootstrap.haveSelfPermissions(guild, RolesSlashCommand.REQUIRED_PERMISSIONS))
-            .filterWhen(guild->guildRoleStore.getManagedRoleMappings(guild).map(mappings->!mappings.isEmpty()));
+        //the bot could be offline, fail inside the flux rather than when it's assembled
+        return Flux.defer(()->
+        {
+            Set<Snowflake> botGuilds = discordAPI.getBotGuilds().keySet();
+            return guilds
+                .map(IdentifiableEntity::getId)
+                .filter(botGuilds::contains)
+                .flatMap(id->discordAPI.getDiscordClient().getClient().getGuildById(id))
+                .filterWhen(guild->DiscordBootstrap.haveSelfPermissions(guild, RolesSlashCommand.REQUIRED_PERMISSIONS))
+                .filterWhen(guild->guildRoleStore.getManagedRoleMappings(guild).map(mappings->!mappings.isEmpty()));
+        });
     }
 
     private Mono<Tuple2<Member, PulseMappings<Role>>> getMemberMappings
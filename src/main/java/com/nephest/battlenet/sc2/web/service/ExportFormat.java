@@ -0,0 +1,199 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Row formats of bulk exports. Enums are written as names, timestamps as ISO-8601 strings,
+ * arrays as JSON arrays in NDJSON and as {@value #CSV_ARRAY_DELIMITER} delimited values in CSV.
+ */
+public enum ExportFormat
+{
+
+    NDJSON("ndjson")
+    {
+        @Override
+        public RowWriter createWriter(OutputStream out, List<String> columns)
+        throws IOException
+        {
+            JsonGenerator generator = JSON_FACTORY.createGenerator(out);
+            generator.setRootValueSeparator(null);
+            return new RowWriter()
+            {
+                @Override
+                public void write(Object[] row)
+                throws IOException
+                {
+                    generator.writeStartObject();
+                    for(int i = 0; i < row.length; i++)
+                    {
+                        generator.writeFieldName(columns.get(i));
+                        writeJsonValue(generator, row[i]);
+                    }
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                }
+
+                @Override
+                public void close()
+                throws IOException
+                {
+                    generator.close();
+                }
+            };
+        }
+    },
+    CSV("csv")
+    {
+        @Override
+        public RowWriter createWriter(OutputStream out, List<String> columns)
+        throws IOException
+        {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writeCsvRow(writer, columns.toArray());
+            return new RowWriter()
+            {
+                @Override
+                public void write(Object[] row)
+                throws IOException
+                {
+                    writeCsvRow(writer, row);
+                }
+
+                @Override
+                public void close()
+                throws IOException
+                {
+                    writer.close();
+                }
+            };
+        }
+    };
+
+    public interface RowWriter
+    extends Closeable
+    {
+
+        void write(Object[] row)
+        throws IOException;
+
+    }
+
+    public static final String CSV_ARRAY_DELIMITER = " ";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final String extension;
+
+    ExportFormat(String extension)
+    {
+        this.extension = extension;
+    }
+
+    /**
+     * Creates a row writer. Closing the writer closes the {@code out} stream.
+     *
+     * @param out target stream
+     * @param columns column names, rows must have the same length and order
+     * @return row writer
+     * @throws IOException if the header can't be written
+     */
+    public abstract RowWriter createWriter(OutputStream out, List<String> columns)
+    throws IOException;
+
+    public String getExtension()
+    {
+        return extension;
+    }
+
+    private static void writeJsonValue(JsonGenerator generator, Object value)
+    throws IOException
+    {
+        if(value == null)
+        {
+            generator.writeNull();
+        }
+        else if(value instanceof Integer i)
+        {
+            generator.writeNumber(i);
+        }
+        else if(value instanceof Long l)
+        {
+            generator.writeNumber(l);
+        }
+        else if(value instanceof Boolean b)
+        {
+            generator.writeBoolean(b);
+        }
+        else if(value instanceof Object[] array)
+        {
+            generator.writeStartArray();
+            for(Object element : array) writeJsonValue(generator, element);
+            generator.writeEndArray();
+        }
+        else
+        {
+            generator.writeString(toString(value));
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, Object[] row)
+    throws IOException
+    {
+        for(int i = 0; i < row.length; i++)
+        {
+            if(i > 0) writer.write(',');
+            writeCsvValue(writer, row[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    private static void writeCsvValue(Writer writer, Object value)
+    throws IOException
+    {
+        if(value == null) return;
+
+        String str;
+        if(value instanceof Object[] array)
+        {
+            StringBuilder sb = new StringBuilder();
+            for(int i = 0; i < array.length; i++)
+            {
+                if(i > 0) sb.append(CSV_ARRAY_DELIMITER);
+                sb.append(toString(array[i]));
+            }
+            str = sb.toString();
+        }
+        else
+        {
+            str = toString(value);
+        }
+        if(str.indexOf(',') < 0 && str.indexOf('"') < 0 && str.indexOf('\n') < 0
+            && str.indexOf('\r') < 0)
+        {
+            writer.write(str);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(str.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String toString(Object value)
+    {
+        return value instanceof Enum<?> e ? e.name() : String.valueOf(value);
+    }
+
+}
@@ -0,0 +1,367 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import com.nephest.battlenet.sc2.model.QueueType;
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.TeamType;
+import com.nephest.battlenet.sc2.model.local.Season;
+import com.nephest.battlenet.sc2.model.local.dao.ExportDAO;
+import com.nephest.battlenet.sc2.model.local.dao.SeasonDAO;
+import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import com.nephest.battlenet.sc2.util.SingleFlight;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+/*
+    # Bulk export
+
+    Ladders and team state days are streamed from a DB cursor into a gzipped spool file, memory
+    usage is bounded by the fetch size. The file is sent to the client after the transaction is
+    closed, so slow downloads don't hold DB connections or the xmin horizon.
+
+    * Each export is a full scan, so the number of concurrent exports is limited by
+      EXPORTS_MAX. Excess requests fail fast instead of queuing up and holding connections.
+    * Exports of immutable data(previous seasons, previous days) are written into the export
+      dir once and then served as files. Regions roll over at different times, so a season is
+      finished only when every active region started a newer season at least
+      FINISHED_SEASON_GRACE ago, final updates of the season are saved by then. Concurrent requests of the same missing file share
+      the same write. Files are written into a temp file first and moved atomically, so partial
+      files are never served.
+    * Caching is disabled if the export dir is not set. Spool files are written into the export
+      dir, or into the default temp dir if it's not set.
+ */
+@Service
+public class ExportService
+{
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExportService.class);
+
+    public static final int EXPORTS_MAX = 2;
+    public static final String FILE_EXTENSION = "gz";
+    public static final Duration FINISHED_SEASON_GRACE = Duration.ofDays(2);
+
+    private final ExportDAO exportDAO;
+    private final SeasonDAO seasonDAO;
+    private final GlobalContext globalContext;
+    private final Path dir;
+    private final Semaphore permits = new Semaphore(EXPORTS_MAX);
+    private final SingleFlight<Path, Path> fileFlight = new SingleFlight<>();
+
+    @Autowired @Lazy
+    private ExportService exportService;
+
+    @Autowired
+    public ExportService
+    (
+        ExportDAO exportDAO,
+        SeasonDAO seasonDAO,
+        GlobalContext globalContext,
+        @Value("${com.nephest.battlenet.sc2.export.dir:#{null}}") Path dir
+    )
+    throws IOException
+    {
+        this.exportDAO = exportDAO;
+        this.seasonDAO = seasonDAO;
+        this.globalContext = globalContext;
+        this.dir = dir;
+        if(dir != null) Files.createDirectories(dir);
+    }
+
+    public static String getLadderFileName
+    (
+        int season,
+        QueueType queueType,
+        TeamType teamType,
+        ExportFormat format
+    )
+    {
+        return String.join(".",
+            "ladder-" + season + "-" + queueType.name() + "-" + teamType.name(),
+            format.getExtension(),
+            FILE_EXTENSION);
+    }
+
+    public static String getTeamStatesFileName(LocalDate day, ExportFormat format)
+    {
+        return String.join(".", "team-states-" + day, format.getExtension(), FILE_EXTENSION);
+    }
+
+    /**
+     * Returns an export file of a finished season, writes the file if it doesn't exist yet.
+     *
+     * @return export file, empty if the season is not finished or caching is disabled
+     */
+    public Optional<Path> getLadderFile
+    (
+        int season,
+        QueueType queueType,
+        TeamType teamType,
+        ExportFormat format
+    )
+    {
+        if(dir == null) return Optional.empty();
+
+        String name = getLadderFileName(season, queueType, teamType, format);
+        //existing files were finished when they were written
+        if(!Files.exists(dir.resolve(name)) && !isSeasonFinished(season)) return Optional.empty();
+
+        return getFile
+        (
+            name,
+            out->write(out, format, ExportDAO.LADDER_COLUMNS, consumer->exportService
+                .exportLadder(season, queueType, teamType, consumer))
+        );
+    }
+
+    /**
+     * @param season battlenet season id
+     * @return true if all active regions started a newer season at least
+     * {@link #FINISHED_SEASON_GRACE} ago
+     */
+    public boolean isSeasonFinished(int season)
+    {
+        if(globalContext.getActiveRegions().isEmpty()) return false;
+
+        OffsetDateTime finishedBefore = SC2Pulse.offsetDateTime().minus(FINISHED_SEASON_GRACE);
+        for(Region region : globalContext.getActiveRegions())
+        {
+            Optional<OffsetDateTime> nextSeasonStart = seasonDAO.findListByRegion(region).stream()
+                .filter(s->s.getBattlenetId() > season)
+                .map(Season::getStart)
+                .min(Comparator.naturalOrder());
+            if(nextSeasonStart.isEmpty() || nextSeasonStart.get().isAfter(finishedBefore))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns an export file of a previous day, writes the file if it doesn't exist yet.
+     *
+     * @return export file, empty if the day is not finished or caching is disabled
+     */
+    public Optional<Path> getTeamStatesFile(LocalDate day, ExportFormat format)
+    {
+        if(!day.isBefore(LocalDate.now(ZoneOffset.UTC))) return Optional.empty();
+
+        return getFile
+        (
+            getTeamStatesFileName(day, format),
+            out->write(out, format, ExportDAO.TEAM_STATE_COLUMNS, consumer->exportService
+                .exportTeamStates(day, consumer))
+        );
+    }
+
+    private Optional<Path> getFile(String name, Consumer<OutputStream> writer)
+    {
+        if(dir == null) return Optional.empty();
+
+        Path file = dir.resolve(name);
+        if(Files.exists(file)) return Optional.of(file);
+
+        return Optional.of(fileFlight.execute(file, ()->writeFile(file, writer)));
+    }
+
+    private static Path writeFile(Path file, Consumer<OutputStream> writer)
+    {
+        if(Files.exists(file)) return file;
+
+        Path tmp = null;
+        try
+        {
+            tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try(OutputStream out = Files.newOutputStream(tmp))
+            {
+                writer.accept(out);
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+            LOG.info("Exported {}", file);
+            return file;
+        }
+        catch(IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        finally
+        {
+            deleteQuietly(tmp);
+        }
+    }
+
+    /**
+     * Writes a gzipped ladder export into {@code out}, {@code out} is closed afterward.
+     *
+     * @throws ResponseStatusException 503 if there are too many concurrent exports
+     */
+    public void writeLadder
+    (
+        int season,
+        QueueType queueType,
+        TeamType teamType,
+        ExportFormat format,
+        OutputStream out
+    )
+    {
+        spool(out, spoolOut->write(spoolOut, format, ExportDAO.LADDER_COLUMNS,
+            consumer->exportService.exportLadder(season, queueType, teamType, consumer)));
+    }
+
+    /**
+     * Writes gzipped team states of a UTC day into {@code out}, {@code out} is closed
+     * afterward.
+     *
+     * @throws ResponseStatusException 503 if there are too many concurrent exports
+     */
+    public void writeTeamStates(LocalDate day, ExportFormat format, OutputStream out)
+    {
+        spool(out, spoolOut->write(spoolOut, format, ExportDAO.TEAM_STATE_COLUMNS,
+            consumer->exportService.exportTeamStates(day, consumer)));
+    }
+
+    //cursors require a transaction
+    @Transactional(readOnly = true)
+    public void exportLadder
+    (
+        int season,
+        QueueType queueType,
+        TeamType teamType,
+        Consumer<Object[]> consumer
+    )
+    {
+        exportDAO.exportLadder(season, queueType, teamType, consumer);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportTeamStates(LocalDate day, Consumer<Object[]> consumer)
+    {
+        OffsetDateTime from = day.atStartOfDay().atOffset(ZoneOffset.UTC);
+        exportDAO.exportTeamStates(from, from.plusDays(1), consumer);
+    }
+
+    private void write
+    (
+        OutputStream out,
+        ExportFormat format,
+        List<String> columns,
+        Consumer<Consumer<Object[]>> exporter
+    )
+    {
+        if(!permits.tryAcquire())
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many exports");
+        try
+        {
+            writeGzip(out, format, columns, exporter);
+        }
+        finally
+        {
+            permits.release();
+        }
+    }
+
+    /**
+     * Writes the export into a spool file, then copies the file into {@code out}. The export
+     * permit and the DB transaction are released before the copy starts.
+     */
+    private void spool(OutputStream out, Consumer<OutputStream> writer)
+    {
+        Path spool = null;
+        try
+        {
+            spool = dir != null
+                ? Files.createTempFile(dir, "export-", ".spool")
+                : Files.createTempFile("export-", ".spool");
+            try(OutputStream spoolOut = Files.newOutputStream(spool))
+            {
+                writer.accept(spoolOut);
+            }
+            try(OutputStream target = out)
+            {
+                Files.copy(spool, target);
+            }
+        }
+        catch(IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        finally
+        {
+            deleteQuietly(spool);
+        }
+    }
+
+    private static void deleteQuietly(Path file)
+    {
+        if(file == null) return;
+
+        try
+        {
+            Files.deleteIfExists(file);
+        }
+        catch(IOException e)
+        {
+            LOG.warn(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes rows as a gzipped stream, {@code out} is closed afterward.
+     *
+     * @param out target stream
+     * @param format row format
+     * @param columns column names
+     * @param exporter row source, accepts a row consumer
+     */
+    public static void writeGzip
+    (
+        OutputStream out,
+        ExportFormat format,
+        List<String> columns,
+        Consumer<Consumer<Object[]>> exporter
+    )
+    {
+        try(ExportFormat.RowWriter writer = format.createWriter(new GZIPOutputStream(out), columns))
+        {
+            exporter.accept(row->
+            {
+                try
+                {
+                    writer.write(row);
+                }
+                catch(IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        catch(IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
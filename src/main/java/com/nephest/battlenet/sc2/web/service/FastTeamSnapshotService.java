@@ -0,0 +1,445 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import com.nephest.battlenet.sc2.model.BaseLeague;
+import com.nephest.battlenet.sc2.model.BaseLeagueTier;
+import com.nephest.battlenet.sc2.model.QueueType;
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.TeamType;
+import com.nephest.battlenet.sc2.model.local.InstantVar;
+import com.nephest.battlenet.sc2.model.local.Team;
+import com.nephest.battlenet.sc2.model.local.dao.FastTeamDAO;
+import com.nephest.battlenet.sc2.model.local.inner.TeamLegacyId;
+import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Persists the {@link FastTeamDAO} working set to memory-mapped snapshot files, one file per
+ * region. A snapshot is taken after every successful regional update and restored before the
+ * first update after a restart, so the working set doesn't have to be loaded from the DB.
+ * Snapshots are used only if their update instant matches the last regional update of
+ * {@link UpdateService}, stale snapshots are ignored and the DB is used instead. Snapshots are
+ * not throttled, a throttled snapshot would be stale after any update that followed it.
+ * <p>
+ *     Snapshots are disabled by default, set {@code com.nephest.battlenet.sc2.ladder.snapshot.dir}
+ *     to enable them.
+ * </p>
+ */
+@Service
+public class FastTeamSnapshotService
+{
+
+    private static final Logger LOG = LoggerFactory.getLogger(FastTeamSnapshotService.class);
+
+    public static final int MAGIC = 0x53433254;
+    public static final short VERSION = 1;
+
+    private static final long NULL_EPOCH_SECOND = Long.MIN_VALUE;
+    private static final int HEADER_SIZE = Integer.BYTES //magic
+        + Short.BYTES //version
+        + Byte.BYTES //region
+        + Integer.BYTES //season
+        + Long.BYTES + Integer.BYTES //updated
+        + Long.BYTES + Integer.BYTES //min last played
+        + Integer.BYTES; //team count
+    private static final int TEAM_SIZE = Short.BYTES //null mask
+        + Long.BYTES //id
+        + Integer.BYTES //season
+        + Byte.BYTES * 4 //queue, team type, league, tier
+        + Integer.BYTES //division
+        + Long.BYTES //rating
+        + Integer.BYTES * 4 //wins, losses, ties, points
+        + (Long.BYTES + Integer.BYTES) * 3 //last played, joined, primary data updated
+        + Short.BYTES; //legacy id length
+    private static final int CHECKSUM_SIZE = Long.BYTES;
+
+    private static final int NULL_ID = 1;
+    private static final int NULL_LEAGUE = 1 << 1;
+    private static final int NULL_TIER = 1 << 2;
+    private static final int NULL_DIVISION = 1 << 3;
+    private static final int NULL_RATING = 1 << 4;
+    private static final int NULL_WINS = 1 << 5;
+    private static final int NULL_LOSSES = 1 << 6;
+    private static final int NULL_TIES = 1 << 7;
+    private static final int NULL_POINTS = 1 << 8;
+
+    public record Header(short version, Region region, int season, Instant updated)
+    {}
+
+    private final FastTeamDAO fastTeamDAO;
+    private final UpdateService updateService;
+    private final Path dir;
+    private final Set<Region> restoreAttempts = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public FastTeamSnapshotService
+    (
+        FastTeamDAO fastTeamDAO,
+        UpdateService updateService,
+        @Value("${com.nephest.battlenet.sc2.ladder.snapshot.dir:#{null}}") Path dir
+    )
+    {
+        this.fastTeamDAO = fastTeamDAO;
+        this.updateService = updateService;
+        this.dir = dir;
+    }
+
+    public boolean isEnabled()
+    {
+        return dir != null;
+    }
+
+    public Path getPath(Region region)
+    {
+        return dir.resolve("fast-team-" + region.name().toLowerCase() + ".snapshot");
+    }
+
+    /**
+     * Persists the regional working set. Must be called right after a successful regional
+     * update, in the update thread.
+     *
+     * @param region target region
+     * @return true if the snapshot was written, false otherwise
+     */
+    public boolean checkpoint(Region region)
+    {
+        if(!isEnabled()) return false;
+
+        Optional<FastTeamDAO.Snapshot> snapshot = fastTeamDAO.getSnapshot(region);
+        Instant updated = updateService.getUpdateContext(region).getInternalUpdate();
+        if(snapshot.isEmpty() || updated == null) return false;
+
+        Instant begin = SC2Pulse.instant();
+        try
+        {
+            Files.createDirectories(dir);
+            write(getPath(region), snapshot.get(), updated);
+            LOG.debug
+            (
+                "Saved fast team snapshot: {} s{}, {} teams, {}",
+                region,
+                snapshot.get().season(),
+                snapshot.get().teams().size(),
+                Duration.between(begin, SC2Pulse.instant())
+            );
+            return true;
+        }
+        catch (IOException | RuntimeException ex)
+        {
+            LOG.error("Failed to save fast team snapshot for " + region, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Restores the regional working set if a valid snapshot exists. Only the first call for each
+     * region does something, subsequent calls are no-op.
+     *
+     * @param region target region
+     * @return true if the working set was restored, false otherwise
+     */
+    public boolean restore(Region region)
+    {
+        if(!isEnabled() || !restoreAttempts.add(region)) return false;
+
+        Path path = getPath(region);
+        if(!Files.exists(path)) return false;
+
+        Instant begin = SC2Pulse.instant();
+        try
+        {
+            Instant lastUpdate = updateService.getUpdateContext(region).getInternalUpdate();
+            Header header = readHeader(path);
+            if(header.region() != region || lastUpdate == null
+                || !header.updated().equals(lastUpdate.truncatedTo(InstantVar.CHRONO_UNIT_MIN)))
+            {
+                LOG.info
+                (
+                    "Fast team snapshot is stale, loading from the DB: {}, snapshot {}, last update {}",
+                    region, header.updated(), lastUpdate
+                );
+                return false;
+            }
+
+            FastTeamDAO.Snapshot snapshot = read(path);
+            fastTeamDAO.restore(snapshot);
+            LOG.info
+            (
+                "Restored fast team snapshot: {} s{}, {} teams, {}",
+                region,
+                snapshot.season(),
+                snapshot.teams().size(),
+                Duration.between(begin, SC2Pulse.instant())
+            );
+            return true;
+        }
+        catch (IOException | RuntimeException ex)
+        {
+            LOG.error("Failed to restore fast team snapshot for " + region, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Clears the working set of all regions and allows new restore attempts. Must be called when
+     * the working set can be behind the DB, e.g. when a node becomes a leader again.
+     */
+    public void reset()
+    {
+        for(Region region : Region.values()) fastTeamDAO.clear(region);
+        restoreAttempts.clear();
+    }
+
+    public static void write(Path path, FastTeamDAO.Snapshot snapshot, Instant updated)
+    throws IOException
+    {
+        List<byte[]> legacyIds = new ArrayList<>(snapshot.teams().size());
+        long size = HEADER_SIZE + CHECKSUM_SIZE;
+        for(Team team : snapshot.teams())
+        {
+            byte[] legacyId = team.getLegacyId().getId().getBytes(StandardCharsets.UTF_8);
+            legacyIds.add(legacyId);
+            size += TEAM_SIZE + legacyId.length;
+        }
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try
+        (
+            FileChannel channel = FileChannel.open
+            (
+                tmp,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+            )
+        )
+        {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC)
+                .putShort(VERSION)
+                .put((byte) snapshot.region().getId())
+                .putInt(snapshot.season());
+            putInstant(buffer, updated.truncatedTo(InstantVar.CHRONO_UNIT_MIN));
+            putOffsetDateTime
+            (
+                buffer,
+                OffsetDateTime.MIN.equals(snapshot.minLastPlayed()) ? null : snapshot.minLastPlayed()
+            );
+            buffer.putInt(snapshot.teams().size());
+            int i = 0;
+            for(Team team : snapshot.teams()) putTeam(buffer, team, legacyIds.get(i++));
+            buffer.putLong(checksum(buffer.duplicate().position(0).limit(buffer.position())));
+            buffer.force();
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static Header readHeader(Path path)
+    throws IOException
+    {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+            while(buffer.hasRemaining()) if(channel.read(buffer) < 0) break;
+            return readHeader(buffer.flip());
+        }
+        catch (BufferUnderflowException ex)
+        {
+            throw new IOException("Truncated snapshot " + path, ex);
+        }
+    }
+
+    private static Header readHeader(ByteBuffer buffer)
+    throws IOException
+    {
+        if(buffer.getInt() != MAGIC) throw new IOException("Invalid snapshot magic");
+        short version = buffer.getShort();
+        if(version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+
+        return new Header
+        (
+            version,
+            Region.from(Byte.toUnsignedInt(buffer.get())),
+            buffer.getInt(),
+            getInstant(buffer)
+        );
+    }
+
+    public static FastTeamDAO.Snapshot read(Path path)
+    throws IOException
+    {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(buffer.limit() < HEADER_SIZE + CHECKSUM_SIZE) throw new IOException("Truncated snapshot " + path);
+
+            int checksumPosition = buffer.limit() - CHECKSUM_SIZE;
+            if(buffer.getLong(checksumPosition) != checksum(buffer.duplicate().limit(checksumPosition)))
+                throw new IOException("Invalid snapshot checksum " + path);
+
+            Header header = readHeader(buffer);
+            Instant minLastPlayed = getInstant(buffer);
+            int count = buffer.getInt();
+            List<Team> teams = new ArrayList<>(count);
+            for(int i = 0; i < count; i++) teams.add(getTeam(buffer, header.region()));
+            return new FastTeamDAO.Snapshot
+            (
+                header.region(),
+                header.season(),
+                minLastPlayed != null ? minLastPlayed.atOffset(ZoneOffset.UTC) : OffsetDateTime.MIN,
+                teams
+            );
+        }
+        catch (BufferUnderflowException ex)
+        {
+            throw new IOException("Truncated snapshot " + path, ex);
+        }
+    }
+
+    private static long checksum(ByteBuffer buffer)
+    {
+        CRC32 crc = new CRC32();
+        crc.update(buffer);
+        return crc.getValue();
+    }
+
+    private static void putTeam(ByteBuffer buffer, Team team, byte[] legacyId)
+    {
+        BaseLeague.LeagueType league = team.getLeagueType();
+        BaseLeagueTier.LeagueTierType tier = team.getTierType();
+        int nulls = (team.getId() == null ? NULL_ID : 0)
+            | (league == null ? NULL_LEAGUE : 0)
+            | (tier == null ? NULL_TIER : 0)
+            | (team.getDivisionId() == null ? NULL_DIVISION : 0)
+            | (team.getRating() == null ? NULL_RATING : 0)
+            | (team.getWins() == null ? NULL_WINS : 0)
+            | (team.getLosses() == null ? NULL_LOSSES : 0)
+            | (team.getTies() == null ? NULL_TIES : 0)
+            | (team.getPoints() == null ? NULL_POINTS : 0);
+        buffer.putShort((short) nulls)
+            .putLong(Objects.requireNonNullElse(team.getId(), 0L))
+            .putInt(team.getSeason())
+            .put((byte) team.getQueueType().getId())
+            .put((byte) team.getTeamType().getId())
+            .put((byte) (league != null ? league.getId() : 0))
+            .put((byte) (tier != null ? tier.getId() : 0))
+            .putInt(Objects.requireNonNullElse(team.getDivisionId(), 0))
+            .putLong(Objects.requireNonNullElse(team.getRating(), 0L))
+            .putInt(Objects.requireNonNullElse(team.getWins(), 0))
+            .putInt(Objects.requireNonNullElse(team.getLosses(), 0))
+            .putInt(Objects.requireNonNullElse(team.getTies(), 0))
+            .putInt(Objects.requireNonNullElse(team.getPoints(), 0));
+        putOffsetDateTime(buffer, team.getLastPlayed());
+        putOffsetDateTime(buffer, team.getJoined());
+        putOffsetDateTime(buffer, team.getPrimaryDataUpdated());
+        buffer.putShort((short) legacyId.length).put(legacyId);
+    }
+
+    private static Team getTeam(ByteBuffer buffer, Region region)
+    {
+        int nulls = buffer.getShort();
+        long id = buffer.getLong();
+        int season = buffer.getInt();
+        QueueType queueType = QueueType.from(Byte.toUnsignedInt(buffer.get()));
+        TeamType teamType = TeamType.from(Byte.toUnsignedInt(buffer.get()));
+        int league = Byte.toUnsignedInt(buffer.get());
+        int tier = Byte.toUnsignedInt(buffer.get());
+        int division = buffer.getInt();
+        long rating = buffer.getLong();
+        int wins = buffer.getInt();
+        int losses = buffer.getInt();
+        int ties = buffer.getInt();
+        int points = buffer.getInt();
+        OffsetDateTime lastPlayed = getOffsetDateTime(buffer);
+        OffsetDateTime joined = getOffsetDateTime(buffer);
+        OffsetDateTime primaryDataUpdated = getOffsetDateTime(buffer);
+        byte[] legacyId = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(legacyId);
+        return new Team
+        (
+            (nulls & NULL_ID) != 0 ? null : id,
+            season,
+            region,
+            new BaseLeague
+            (
+                (nulls & NULL_LEAGUE) != 0 ? null : BaseLeague.LeagueType.from(league),
+                queueType,
+                teamType
+            ),
+            (nulls & NULL_TIER) != 0 ? null : BaseLeagueTier.LeagueTierType.from(tier),
+            TeamLegacyId.trusted(new String(legacyId, StandardCharsets.UTF_8)),
+            (nulls & NULL_DIVISION) != 0 ? null : division,
+            (nulls & NULL_RATING) != 0 ? null : rating,
+            (nulls & NULL_WINS) != 0 ? null : wins,
+            (nulls & NULL_LOSSES) != 0 ? null : losses,
+            (nulls & NULL_TIES) != 0 ? null : ties,
+            (nulls & NULL_POINTS) != 0 ? null : points,
+            lastPlayed,
+            joined,
+            primaryDataUpdated
+        );
+    }
+
+    private static void putInstant(ByteBuffer buffer, Instant instant)
+    {
+        if(instant == null)
+        {
+            buffer.putLong(NULL_EPOCH_SECOND).putInt(0);
+        }
+        else
+        {
+            buffer.putLong(instant.getEpochSecond()).putInt(instant.getNano());
+        }
+    }
+
+    private static Instant getInstant(ByteBuffer buffer)
+    {
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        return epochSecond == NULL_EPOCH_SECOND ? null : Instant.ofEpochSecond(epochSecond, nano);
+    }
+
+    private static void putOffsetDateTime(ByteBuffer buffer, OffsetDateTime odt)
+    {
+        putInstant(buffer, odt != null ? odt.toInstant() : null);
+    }
+
+    /*
+        The original offset is lost, it's irrelevant for the fast DAO because it compares
+        instants only. PostgreSQL JDBC driver uses UTC too.
+     */
+    private static OffsetDateTime getOffsetDateTime(ByteBuffer buffer)
+    {
+        Instant instant = getInstant(buffer);
+        return instant != null ? instant.atOffset(ZoneOffset.UTC) : null;
+    }
+
+}
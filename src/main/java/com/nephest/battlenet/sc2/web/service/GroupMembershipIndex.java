@@ -0,0 +1,285 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import com.nephest.battlenet.sc2.model.PlayerCharacterNaturalId;
+import com.nephest.battlenet.sc2.model.local.ClanMember;
+import com.nephest.battlenet.sc2.model.local.dao.ClanMemberDAO;
+import com.nephest.battlenet.sc2.model.local.dao.PlayerCharacterDAO;
+import com.nephest.battlenet.sc2.service.ClusterEventService;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+    # Group membership index
+
+    Character groups(clans, pro players, accounts, toon handles) are expanded into character ids
+    on every group request. Memberships are cached per group id, only missing group ids are
+    loaded from the DB.
+
+    * Clan and pro player memberships are invalidated by ClanService and ProPlayerService.
+      Invalidation increments the generation of the group type, loads that started before it
+      are not cached, so a concurrent load can't put stale members back. Invalidation is repeated
+      after commit because concurrent loads can't see uncommitted members.
+    * Invalidations are broadcast to other nodes via ClusterEventService. NOTIFY is
+      transactional, other nodes receive the event after commit. Empty payloads and resyncs
+      clear the whole cache.
+    * Account and pro player memberships also change when ladder updates create or rebind
+      characters, these caches expire after ACCOUNT_TTL, see CacheConfig.
+    * Character ids of toon handles never change, only found ids are cached. The cache is
+      bounded by TOON_HANDLE_CACHE_SIZE, entries expire after CLAN_TTL.
+ */
+@Component
+public class GroupMembershipIndex
+{
+
+    public static final String CLAN_CACHE_NAME = "group-clan-characters";
+    public static final String PRO_PLAYER_CACHE_NAME = "group-pro-player-characters";
+    public static final String ACCOUNT_CACHE_NAME = "group-account-characters";
+    public static final String TOON_HANDLE_CACHE_NAME = "group-toon-handle-characters";
+    public static final String CLAN_INVALIDATION_EVENT = "group-clan-invalidation";
+    public static final String PRO_PLAYER_INVALIDATION_EVENT = "group-pro-player-invalidation";
+    public static final Duration CLAN_TTL = Duration.ofDays(1);
+    public static final Duration ACCOUNT_TTL = Duration.ofMinutes(10);
+    public static final int CLAN_CACHE_SIZE = 5000;
+    public static final int ACCOUNT_CACHE_SIZE = 20000;
+    public static final int TOON_HANDLE_CACHE_SIZE = 20000;
+
+    public record ClanInvalidation(Set<Integer> clans, Set<Long> characters)
+    {}
+
+    /**
+     * @param proPlayers invalidated pro players, all pro players are invalidated if empty
+     */
+    public record ProPlayerInvalidation(Set<Long> proPlayers)
+    {}
+
+    private final ClanMemberDAO clanMemberDAO;
+    private final PlayerCharacterDAO playerCharacterDAO;
+    private final CacheManager cacheManager;
+    private final ClusterEventService clusterEventService;
+    private final AtomicLong clanGeneration = new AtomicLong();
+    private final AtomicLong proPlayerGeneration = new AtomicLong();
+
+    @Autowired
+    public GroupMembershipIndex
+    (
+        ClanMemberDAO clanMemberDAO,
+        PlayerCharacterDAO playerCharacterDAO,
+        CacheManager cacheManager,
+        ClusterEventService clusterEventService
+    )
+    {
+        this.clanMemberDAO = clanMemberDAO;
+        this.playerCharacterDAO = playerCharacterDAO;
+        this.cacheManager = cacheManager;
+        this.clusterEventService = clusterEventService;
+        subscribeToEvents();
+    }
+
+    private void subscribeToEvents()
+    {
+        String subscriber = GroupMembershipIndex.class.getSimpleName();
+        clusterEventService.getEvent(subscriber, CLAN_INVALIDATION_EVENT, ClanInvalidation.class)
+            .subscribe(invalidation->invalidation.ifPresentOrElse
+            (
+                i->invalidateClansLocally(i.clans(), i.characters()),
+                ()->clearLocally(CLAN_CACHE_NAME, clanGeneration)
+            ));
+        clusterEventService.getEvent(subscriber, PRO_PLAYER_INVALIDATION_EVENT, ProPlayerInvalidation.class)
+            .subscribe(invalidation->invalidateProPlayersLocally(invalidation
+                .map(ProPlayerInvalidation::proPlayers)
+                .orElse(Set.of())));
+    }
+
+    public Set<Long> getClanCharacterIds(Set<Integer> clanIds)
+    {
+        return get(CLAN_CACHE_NAME, clanGeneration, clanIds, true, ids->clanMemberDAO
+            .findByClanIds(ids).stream()
+            .collect(Collectors.groupingBy(
+                ClanMember::getClanId,
+                Collectors.mapping(ClanMember::getPlayerCharacterId, Collectors.toSet()))));
+    }
+
+    public Set<Long> getProPlayerCharacterIds(Set<Long> proPlayerIds)
+    {
+        return get
+        (
+            PRO_PLAYER_CACHE_NAME,
+            proPlayerGeneration,
+            proPlayerIds,
+            true,
+            playerCharacterDAO::findCharacterIdsGroupedByProPlayerIds
+        );
+    }
+
+    public Set<Long> getAccountCharacterIds(Set<Long> accountIds)
+    {
+        return get
+        (
+            ACCOUNT_CACHE_NAME,
+            null,
+            accountIds,
+            true,
+            playerCharacterDAO::findIdsGroupedByAccountIds
+        );
+    }
+
+    public Set<Long> getToonHandleCharacterIds(Set<PlayerCharacterNaturalId> toonHandles)
+    {
+        return get(TOON_HANDLE_CACHE_NAME, null, toonHandles, false, ids->
+            playerCharacterDAO.findIdsGroupedByNaturalIds(ids).entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e->Set.of(e.getValue()))));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K> Set<Long> get
+    (
+        String cacheName,
+        AtomicLong generation,
+        Set<K> groupIds,
+        boolean cacheEmpty,
+        Function<Set<K>, Map<K, Set<Long>>> loader
+    )
+    {
+        if(groupIds.isEmpty()) return Set.of();
+
+        Cache cache = cacheManager.getCache(cacheName);
+        Set<Long> result = new HashSet<>();
+        Set<K> missing = new HashSet<>();
+        for(K groupId : groupIds)
+        {
+            Set<Long> members = cache != null ? cache.get(groupId, Set.class) : null;
+            if(members != null)
+            {
+                result.addAll(members);
+            }
+            else
+            {
+                missing.add(groupId);
+            }
+        }
+        if(missing.isEmpty()) return result;
+
+        long loadGeneration = getGeneration(generation);
+        Map<K, Set<Long>> loaded = loader.apply(missing);
+        boolean cacheable = cache != null && getGeneration(generation) == loadGeneration;
+        for(K groupId : missing)
+        {
+            Set<Long> members = loaded.getOrDefault(groupId, Set.of());
+            result.addAll(members);
+            if(cacheable && (cacheEmpty || !members.isEmpty())) cache.put(groupId, Set.copyOf(members));
+        }
+        //invalidated while caching
+        if(cacheable && getGeneration(generation) != loadGeneration) missing.forEach(cache::evict);
+        return result;
+    }
+
+    //null generation means no invalidation, entries expire only
+    private static long getGeneration(AtomicLong generation)
+    {
+        return generation != null ? generation.get() : 0;
+    }
+
+    /**
+     * Invalidates clan memberships on all nodes
+     *
+     * @param clanIds clans that got new members
+     * @param characterIds characters whose clan membership changed or was removed
+     */
+    public void invalidateClans(Collection<Integer> clanIds, Collection<Long> characterIds)
+    {
+        Set<Integer> clans = Set.copyOf(clanIds);
+        Set<Long> characters = Set.copyOf(characterIds);
+        if(clans.isEmpty() && characters.isEmpty()) return;
+
+        nowAndAfterCommit(()->invalidateClansLocally(clans, characters));
+        clusterEventService.publish(CLAN_INVALIDATION_EVENT, new ClanInvalidation(clans, characters));
+    }
+
+    private void invalidateClansLocally(Set<Integer> clans, Set<Long> characters)
+    {
+        clanGeneration.incrementAndGet();
+        evict(CLAN_CACHE_NAME, clans, characters);
+    }
+
+    /**
+     * Invalidates pro player memberships on all nodes
+     *
+     * @param proPlayerIds pro players whose accounts changed, all pro players are invalidated
+     *                     if empty
+     */
+    public void invalidateProPlayers(Collection<Long> proPlayerIds)
+    {
+        Set<Long> proPlayers = Set.copyOf(proPlayerIds);
+        nowAndAfterCommit(()->invalidateProPlayersLocally(proPlayers));
+        clusterEventService.publish(PRO_PLAYER_INVALIDATION_EVENT, new ProPlayerInvalidation(proPlayers));
+    }
+
+    private void invalidateProPlayersLocally(Set<Long> proPlayers)
+    {
+        if(proPlayers.isEmpty())
+        {
+            clearLocally(PRO_PLAYER_CACHE_NAME, proPlayerGeneration);
+            return;
+        }
+
+        proPlayerGeneration.incrementAndGet();
+        Cache cache = cacheManager.getCache(PRO_PLAYER_CACHE_NAME);
+        if(cache != null) proPlayers.forEach(cache::evict);
+    }
+
+    private void clearLocally(String cacheName, AtomicLong generation)
+    {
+        generation.incrementAndGet();
+        Cache cache = cacheManager.getCache(cacheName);
+        if(cache != null) cache.clear();
+    }
+
+    private void evict(String cacheName, Set<?> groupIds, Set<Long> members)
+    {
+        Cache cache = cacheManager.getCache(cacheName);
+        if(cache == null) return;
+
+        groupIds.forEach(cache::evict);
+        if(members.isEmpty()) return;
+
+        if(!(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache))
+        {
+            cache.clear();
+            return;
+        }
+        nativeCache.asMap().values()
+            .removeIf(value->value instanceof Set<?> set && !Collections.disjoint(set, members));
+    }
+
+    private static void nowAndAfterCommit(Runnable runnable)
+    {
+        runnable.run();
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+        {
+            @Override
+            public void afterCommit()
+            {
+                runnable.run();
+            }
+        });
+    }
+
+}
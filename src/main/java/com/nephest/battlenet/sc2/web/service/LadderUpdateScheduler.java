@@ -0,0 +1,355 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import com.nephest.battlenet.sc2.model.BaseLeague;
+import com.nephest.battlenet.sc2.model.QueueType;
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.local.Var;
+import com.nephest.battlenet.sc2.model.local.dao.VarDAO;
+import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * <p>
+ * Decides which leagues should be updated when a region is partially updated. Every
+ * (queue, league) pair has a change rate, which is the number of changed teams per fetched ladder
+ * per hour, and a cost, which is the number of ladders fetched per update. Leagues with higher
+ * expected changes per ladder(rate * staleness) are updated first until the budget is exhausted.
+ * </p>
+ * <p>
+ * Prioritized leagues are always updated. Leagues that exceed their freshness SLO are updated
+ * regardless of the budget, so low churn leagues are never starved.
+ * </p>
+ * <p>
+ * Leagues without stats(new leagues, regions without persisted state) are updated first, but
+ * they are charged the average cost against the budget, so a partial update doesn't turn into
+ * a full update while stats are being accumulated.
+ * </p>
+ */
+@Service
+public class LadderUpdateScheduler
+{
+
+    private static final Logger LOG = LoggerFactory.getLogger(LadderUpdateScheduler.class);
+
+    public static final double RATE_ALPHA = 0.3;
+    public static final double COST_ALPHA = 0.3;
+    public static final double COST_DEFAULT = 1.0;
+    public static final Duration RATE_PERIOD_MIN = Duration.ofMinutes(1);
+    public static final Duration FRESHNESS_SLO = Duration.ofHours(3);
+    public static final Map<QueueType, Duration> QUEUE_FRESHNESS_SLO = Collections
+        .unmodifiableMap(new EnumMap<>(Map.of(QueueType.LOTV_1V1, Duration.ofHours(1))));
+
+    public record Key(QueueType queueType, BaseLeague.LeagueType leagueType)
+    {
+
+        public Duration getFreshnessSlo()
+        {
+            return QUEUE_FRESHNESS_SLO.getOrDefault(queueType, FRESHNESS_SLO);
+        }
+
+    }
+
+    public record Stats(double rate, double cost, Instant updated)
+    {
+
+        public double getExpectedChanges(Instant now)
+        {
+            return rate * Math.max(Duration.between(updated, now).toSeconds(), 0) / 3600.0;
+        }
+
+    }
+
+    private static final class Accumulator
+    {
+
+        private final AtomicInteger ladders = new AtomicInteger();
+        private final AtomicInteger changedTeams = new AtomicInteger();
+
+    }
+
+    private final VarDAO varDAO;
+    private final Map<Region, Var<Map<Key, Stats>>> stats = new EnumMap<>(Region.class);
+    private final Map<Region, Map<Key, Accumulator>> accumulators = new EnumMap<>(Region.class);
+
+    @Autowired
+    public LadderUpdateScheduler(VarDAO varDAO)
+    {
+        this.varDAO = varDAO;
+        for(Region region : Region.values())
+        {
+            stats.put(region, new Var<>
+            (
+                varDAO,
+                region.getId() + ".ladder.scheduler",
+                LadderUpdateScheduler::serialize,
+                LadderUpdateScheduler::deserialize,
+                false
+            ));
+            accumulators.put(region, new ConcurrentHashMap<>());
+        }
+    }
+
+    @PostConstruct
+    public void init()
+    {
+        stats.values().forEach(var->var.tryLoad(new ConcurrentHashMap<>()));
+        removeObsoleteVars();
+    }
+
+    public static Set<String> getObsoleteVarKeys()
+    {
+        return Arrays.stream(Region.values())
+            .flatMap(r->Stream.of(r.getId() + ".ladder.partial.ix", r.getId() + ".ladder.partial.ix.2"))
+            .collect(Collectors.toSet());
+    }
+
+    //partial update indexes were replaced by the scheduler
+    private void removeObsoleteVars()
+    {
+        try
+        {
+            int removed = varDAO.delete(getObsoleteVarKeys());
+            if(removed > 0) LOG.info("Removed {} obsolete partial update vars", removed);
+        }
+        catch(RuntimeException ex)
+        {
+            LOG.warn(ex.getMessage(), ex);
+        }
+    }
+
+    private static String serialize(Map<Key, Stats> stats)
+    {
+        if(stats == null) return null;
+
+        return stats.entrySet().stream()
+            .map(e->e.getKey().queueType().getId()
+                + "," + e.getKey().leagueType().getId()
+                + "," + e.getValue().rate()
+                + "," + e.getValue().cost()
+                + "," + e.getValue().updated().getEpochSecond())
+            .collect(Collectors.joining(";"));
+    }
+
+    private static Map<Key, Stats> deserialize(String str)
+    {
+        Map<Key, Stats> stats = new ConcurrentHashMap<>();
+        if(str == null || str.isEmpty()) return stats;
+
+        for(String entry : str.split(";"))
+        {
+            String[] fields = entry.split(",");
+            stats.put
+            (
+                new Key
+                (
+                    QueueType.from(Integer.parseInt(fields[0])),
+                    BaseLeague.LeagueType.from(Integer.parseInt(fields[1]))
+                ),
+                new Stats
+                (
+                    Double.parseDouble(fields[2]),
+                    Double.parseDouble(fields[3]),
+                    Instant.ofEpochSecond(Long.parseLong(fields[4]))
+                )
+            );
+        }
+        return stats;
+    }
+
+    /**
+     * Record a fetched ladder. Thread safe, can be called concurrently by ladder savers.
+     *
+     * @param changedTeams number of teams that were changed since the previous update
+     */
+    public void addLadder
+    (
+        Region region,
+        QueueType queueType,
+        BaseLeague.LeagueType leagueType,
+        int changedTeams
+    )
+    {
+        Accumulator accumulator = accumulators.get(region)
+            .computeIfAbsent(new Key(queueType, leagueType), k->new Accumulator());
+        accumulator.ladders.incrementAndGet();
+        accumulator.changedTeams.addAndGet(changedTeams);
+    }
+
+    /**
+     * Update change rates of leagues that were fetched since the previous invocation. Call it
+     * when all ladder tasks of an update cycle are complete.
+     */
+    public void complete()
+    {
+        complete(SC2Pulse.instant());
+    }
+
+    public void complete(Instant now)
+    {
+        for(Region region : Region.values())
+        {
+            Map<Key, Accumulator> regionAccumulators = accumulators.get(region);
+            if(regionAccumulators.isEmpty()) continue;
+
+            Map<Key, Stats> regionStats = getStats(region);
+            for(Key key : List.copyOf(regionAccumulators.keySet()))
+            {
+                Accumulator accumulator = regionAccumulators.remove(key);
+                int ladders = accumulator.ladders.get();
+                if(ladders == 0) continue;
+
+                regionStats.put(key, update(regionStats.get(key), accumulator, now));
+            }
+            stats.get(region).save();
+        }
+    }
+
+    private static Stats update(Stats previous, Accumulator accumulator, Instant now)
+    {
+        int ladders = accumulator.ladders.get();
+        if(previous == null) return new Stats(0, ladders, now);
+
+        double hours = Math.max
+        (
+            Duration.between(previous.updated(), now).toSeconds(),
+            RATE_PERIOD_MIN.toSeconds()
+        ) / 3600.0;
+        double rate = accumulator.changedTeams.get() / (double) ladders / hours;
+        return new Stats
+        (
+            (1 - RATE_ALPHA) * previous.rate() + RATE_ALPHA * rate,
+            (1 - COST_ALPHA) * previous.cost() + COST_ALPHA * ladders,
+            now
+        );
+    }
+
+    /**
+     * Select leagues for a partial update.
+     *
+     * @param region target region
+     * @param data all leagues that could be updated
+     * @param prioritized leagues that are always updated
+     * @param budget fraction of the full update ladder count that can be spent
+     * @return leagues that should be updated
+     */
+    public Map<QueueType, Set<BaseLeague.LeagueType>> schedule
+    (
+        Region region,
+        Map<QueueType, Set<BaseLeague.LeagueType>> data,
+        Map<QueueType, Set<BaseLeague.LeagueType>> prioritized,
+        double budget
+    )
+    {
+        return schedule(region, data, prioritized, budget, SC2Pulse.instant());
+    }
+
+    public Map<QueueType, Set<BaseLeague.LeagueType>> schedule
+    (
+        Region region,
+        Map<QueueType, Set<BaseLeague.LeagueType>> data,
+        Map<QueueType, Set<BaseLeague.LeagueType>> prioritized,
+        double budget,
+        Instant now
+    )
+    {
+        Map<Key, Stats> regionStats = getStats(region);
+        List<Key> keys = data.entrySet().stream()
+            .flatMap(e->e.getValue().stream().map(l->new Key(e.getKey(), l)))
+            .collect(Collectors.toList());
+        double costDefault = regionStats.values().stream()
+            .mapToDouble(Stats::cost)
+            .average()
+            .orElse(COST_DEFAULT);
+        double remaining = budget * keys.stream()
+            .mapToDouble(k->getCost(regionStats.get(k), costDefault))
+            .sum();
+
+        Map<QueueType, Set<BaseLeague.LeagueType>> result = new EnumMap<>(QueueType.class);
+        List<Key> candidates = new ArrayList<>(keys.size());
+        for(Key key : keys)
+        {
+            Stats keyStats = regionStats.get(key);
+            if(isPrioritized(key, prioritized) || isStale(key, keyStats, now))
+            {
+                add(result, key);
+                remaining -= getCost(keyStats, costDefault);
+            }
+            else
+            {
+                candidates.add(key);
+            }
+        }
+        //leagues without stats first, their expected changes are unknown
+        candidates.sort(Comparator.comparing(
+            (Key k)->getExpectedChanges(regionStats.get(k), now))
+            .reversed());
+        for(Key key : candidates)
+        {
+            double cost = getCost(regionStats.get(key), costDefault);
+            if(cost > remaining) continue;
+
+            add(result, key);
+            remaining -= cost;
+        }
+        LOG.debug("Scheduled {} ladder update: {}", region, result);
+        return result;
+    }
+
+    private static boolean isPrioritized(Key key, Map<QueueType, Set<BaseLeague.LeagueType>> prioritized)
+    {
+        Set<BaseLeague.LeagueType> leagues = prioritized.get(key.queueType());
+        return leagues != null && leagues.contains(key.leagueType());
+    }
+
+    private static boolean isStale(Key key, Stats stats, Instant now)
+    {
+        return stats != null
+            && Duration.between(stats.updated(), now).compareTo(key.getFreshnessSlo()) >= 0;
+    }
+
+    private static double getExpectedChanges(Stats stats, Instant now)
+    {
+        return stats == null ? Double.POSITIVE_INFINITY : stats.getExpectedChanges(now);
+    }
+
+    private static double getCost(Stats stats, double costDefault)
+    {
+        return stats == null ? costDefault : Math.max(stats.cost(), COST_DEFAULT);
+    }
+
+    private static void add(Map<QueueType, Set<BaseLeague.LeagueType>> data, Key key)
+    {
+        data.computeIfAbsent(key.queueType(), q->EnumSet.noneOf(BaseLeague.LeagueType.class))
+            .add(key.leagueType());
+    }
+
+    public Map<Key, Stats> getStats(Region region)
+    {
+        Var<Map<Key, Stats>> var = stats.get(region);
+        if(var.getValue() == null) var.setValue(new ConcurrentHashMap<>());
+        return var.getValue();
+    }
+
+}
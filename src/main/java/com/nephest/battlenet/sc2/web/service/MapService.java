@@ -8,6 +8,7 @@ import static com.nephest.battlenet.sc2.model.Race.RANDOM;
 import static com.nephest.battlenet.sc2.model.Race.TERRAN;
 import static com.nephest.battlenet.sc2.model.Race.ZERG;
 
+import com.nephest.battlenet.sc2.config.data.Workload;
 import com.nephest.battlenet.sc2.model.BaseLeague;
 import com.nephest.battlenet.sc2.model.BaseLeagueTier;
 import com.nephest.battlenet.sc2.model.QueueType;
@@ -26,16 +27,19 @@ import com.nephest.battlenet.sc2.model.local.dao.VarDAO;
 import com.nephest.battlenet.sc2.model.local.ladder.LadderMapStatsFilm;
 import com.nephest.battlenet.sc2.model.local.ladder.dao.LadderMapStatsFilmDAO;
 import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import com.nephest.battlenet.sc2.service.ClusterEventService;
 import com.nephest.battlenet.sc2.service.EventService;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
@@ -60,12 +64,48 @@ public class MapService
         new MatchUp(RANDOM, ZERG)
     );
     public static final Duration FILM_FRAME_DURATION = Duration.ofMinutes(1);
+    public static final String FILM_CACHE_NAME = "map-stats-film";
+    public static final String FILM_EVICTION_EVENT = "map-stats-film-eviction";
+
+    public record FilmCacheKey
+    (
+        Set<Race> races,
+        Duration frameDuration,
+        Integer frameNumberMax,
+        int season,
+        Set<Region> regions,
+        QueueType queue,
+        TeamType teamType,
+        BaseLeague.LeagueType league,
+        BaseLeagueTier.LeagueTierType tier,
+        Set<Boolean> crossTier
+    )
+    {
+
+        public boolean contains(MapStatsFilmFrameDAO.FrameKey frame)
+        {
+            return season == frame.season()
+                && league == frame.league()
+                && tier == frame.tier()
+                && regions.contains(frame.region())
+                && crossTier.contains(frame.crossTier())
+                && races.contains(frame.race())
+                && races.contains(frame.versusRace());
+        }
+
+    }
+
+    public record FilmEviction(Set<MapStatsFilmFrameDAO.FrameKey> frames)
+    {}
 
     private final SeasonDAO seasonDAO;
     private final MapStatsDAO mapStatsDAO;
     private final MapStatsFilmSpecDAO mapStatsFilmSpecDAO;
     private final MapStatsFilmFrameDAO mapStatsFilmFrameDAO;
     private final LadderMapStatsFilmDAO ladderMapStatsFilmDAO;
+    private final MapStatsFilmAccumulator mapStatsFilmAccumulator;
+    private final CacheManager cacheManager;
+    private final ClusterEventService clusterEventService;
     private final InstantVar mapStatsInstant;
     private final Sinks.Many<UpdateContext> updateEvent = Sinks.unsafe().many().multicast().onBackpressureBuffer(1);
     private boolean dbInitialized = false;
@@ -81,6 +121,9 @@ public class MapService
         MapStatsFilmSpecDAO mapStatsFilmSpecDAO,
         MapStatsFilmFrameDAO mapStatsFilmFrameDAO,
         LadderMapStatsFilmDAO ladderMapStatsFilmDAO,
+        MapStatsFilmAccumulator mapStatsFilmAccumulator,
+        CacheManager cacheManager,
+        ClusterEventService clusterEventService,
         VarDAO varDAO,
         EventService eventService
     )
@@ -90,6 +133,9 @@ public class MapService
         this.mapStatsFilmSpecDAO = mapStatsFilmSpecDAO;
         this.mapStatsFilmFrameDAO = mapStatsFilmFrameDAO;
         this.ladderMapStatsFilmDAO = ladderMapStatsFilmDAO;
+        this.mapStatsFilmAccumulator = mapStatsFilmAccumulator;
+        this.cacheManager = cacheManager;
+        this.clusterEventService = clusterEventService;
         mapStatsInstant = new InstantVar(varDAO, "ladder.stats.map.timestamp", false);
         Instant defaultMapStatsInstant = SC2Pulse.instant().minusSeconds
         (
@@ -97,16 +143,18 @@ public class MapService
             + MAP_STATS_DEFAULT_UPDATE_FRAME.toSeconds()
         );
         mapStatsInstant.tryLoad(defaultMapStatsInstant);
-        subscribeToEvents(eventService);
+        subscribeToEvents(eventService, clusterEventService);
     }
 
-    private void subscribeToEvents(EventService eventService)
+    private void subscribeToEvents(EventService eventService, ClusterEventService clusterEventService)
     {
-        eventService.getMatchUpdateEvent()
+        clusterEventService.getEvent(MapService.class.getSimpleName(), FILM_EVICTION_EVENT, FilmEviction.class)
+            .subscribe(eviction->eviction.ifPresentOrElse(e->evictFilms(e.frames()), this::clearFilms));
+        eventService.getMatchUpdateEvent(MapService.class.getSimpleName())
             .flatMap(muc->WebServiceUtil.getOnErrorLogAndSkipMono(
-                WebServiceUtil.blockingRunnable(this::initDb)).thenReturn(muc))
+                WebServiceUtil.blockingRunnable(Workload.MAINTENANCE, this::initDb)).thenReturn(muc))
             .flatMap(muc->WebServiceUtil.getOnErrorLogAndSkipMono(
-                WebServiceUtil.blockingCallable(()->mapService.update(muc))))
+                WebServiceUtil.blockingCallable(Workload.MAINTENANCE, ()->mapService.update(muc))))
             .doOnNext(uc->updateEvent.emitNext(uc, EventService.DEFAULT_FAILURE_HANDLER))
             .subscribe();
     }
@@ -148,13 +196,6 @@ public class MapService
             .plusDays(MAP_STATS_SKIP_NEW_SEASON_FRAME.toDays()).isAfter(SC2Pulse.offsetDateTime());
     }
 
-    @CacheEvict
-    (
-        value = "fqdn-map-stats",
-        keyGenerator = "fqdnSimpleKeyGenerator",
-        allEntries = true,
-        condition = "#result != null"
-    )
     public UpdateContext update(MatchUpdateContext updateContext)
     {
         OffsetDateTime to = getMapStatsEnd(updateContext.getUpdateContext());
@@ -174,10 +215,56 @@ public class MapService
          */
         mapStatsInstant.setValueAndSave(to.toInstant());
         mapStatsDAO.add(from, to);
-        mapStatsFilmFrameDAO.add(from, to, FILM_FRAME_DURATION);
+        mapStatsFilmAccumulator.add(mapStatsFilmFrameDAO.findMatches(from, to, FILM_FRAME_DURATION));
+        List<MapStatsFilmFrameDAO.FrameDelta> deltas = mapStatsFilmAccumulator
+            .flush(d->mapStatsFilmFrameDAO.merge(d, FILM_FRAME_DURATION));
+        if(!deltas.isEmpty())
+        {
+            Set<MapStatsFilmFrameDAO.FrameKey> frames = getFilmFrames(deltas);
+            evictFilms(frames);
+            clusterEventService.publish(FILM_EVICTION_EVENT, new FilmEviction(frames));
+        }
         return new UpdateContext(from.toInstant(), to.toInstant());
     }
 
+    /*
+        Films are evicted selectively because most of them are not affected by a single update.
+        Evicting cache entries while they are being loaded is not a problem, it's the same
+        behavior as in the allEntries eviction.
+     */
+    private void evictFilms(Set<MapStatsFilmFrameDAO.FrameKey> frames)
+    {
+        Cache cache = cacheManager.getCache(FILM_CACHE_NAME);
+        if(cache == null) return;
+
+        if(!(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache))
+        {
+            cache.clear();
+            return;
+        }
+        nativeCache.asMap().keySet().removeIf(key->key instanceof FilmCacheKey filmKey
+            && frames.stream().anyMatch(filmKey::contains));
+    }
+
+    private void clearFilms()
+    {
+        Cache cache = cacheManager.getCache(FILM_CACHE_NAME);
+        if(cache != null) cache.clear();
+    }
+
+    private static Set<MapStatsFilmFrameDAO.FrameKey> getFilmFrames
+    (
+        List<MapStatsFilmFrameDAO.FrameDelta> deltas
+    )
+    {
+        return deltas.stream()
+            .map(MapStatsFilmFrameDAO.FrameDelta::key)
+            //map and frame number don't affect cache keys
+            .map(k->new MapStatsFilmFrameDAO.FrameKey(k.season(), k.region(), k.league(),
+                k.tier(), 0, k.race(), k.versusRace(), k.crossTier(), null))
+            .collect(Collectors.toSet());
+    }
+
     private void initDb()
     {
         if(dbInitialized) return;
@@ -215,7 +302,12 @@ public class MapService
             .collect(Collectors.toSet());
     }
 
-    @Cacheable(value = "fqdn-map-stats", keyGenerator = "fqdnSimpleKeyGenerator")
+    @Cacheable
+    (
+        value = FILM_CACHE_NAME,
+        key = "new com.nephest.battlenet.sc2.web.service.MapService.FilmCacheKey"
+            + "(#p0, #p1, #p2, #p3, #p4, #p5, #p6, #p7, #p8, #p9)"
+    )
     public LadderMapStatsFilm findFilm
     (
         Set<Race> races,
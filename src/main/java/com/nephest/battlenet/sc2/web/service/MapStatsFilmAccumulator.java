@@ -0,0 +1,99 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import com.nephest.battlenet.sc2.model.BaseLeague;
+import com.nephest.battlenet.sc2.model.BaseLeagueTier;
+import com.nephest.battlenet.sc2.model.local.dao.MapStatsFilmFrameDAO;
+import com.nephest.battlenet.sc2.model.local.dao.MapStatsFilmFrameDAO.FilmMatch;
+import com.nephest.battlenet.sc2.model.local.dao.MapStatsFilmFrameDAO.FrameDelta;
+import com.nephest.battlenet.sc2.model.local.dao.MapStatsFilmFrameDAO.FrameKey;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.springframework.stereotype.Service;
+
+/**
+ * Accumulates map stats film frame deltas in memory. Matches are added as they are identified,
+ * and accumulated deltas are written in one batch by {@link #flush(Consumer)}. Cross tier
+ * matches are added to both league tiers, this is consistent with
+ * {@link MapStatsFilmFrameDAO#add}.
+ */
+@Service
+public class MapStatsFilmAccumulator
+{
+
+    private static final int GAMES = 0;
+    private static final int WINS = 1;
+
+    private final Map<FrameKey, int[]> counters = new HashMap<>();
+
+    public synchronized void add(Collection<FilmMatch> matches)
+    {
+        for(FilmMatch match : matches) add(match);
+    }
+
+    public synchronized void add(FilmMatch match)
+    {
+        boolean crossTier = match.isCrossTier();
+        add(createKey(match, match.league1(), match.tier1(), crossTier), match.win());
+        if(crossTier) add(createKey(match, match.league2(), match.tier2(), true), match.win());
+    }
+
+    private void add(FrameKey key, boolean win)
+    {
+        int[] frame = counters.computeIfAbsent(key, k->new int[2]);
+        frame[GAMES]++;
+        if(win) frame[WINS]++;
+    }
+
+    private static FrameKey createKey
+    (
+        FilmMatch match,
+        BaseLeague.LeagueType league,
+        BaseLeagueTier.LeagueTierType tier,
+        boolean crossTier
+    )
+    {
+        return new FrameKey
+        (
+            match.season(),
+            match.region(),
+            league,
+            tier,
+            match.mapId(),
+            match.race(),
+            match.versusRace(),
+            crossTier,
+            match.number()
+        );
+    }
+
+    /**
+     * Passes accumulated deltas to the writer and resets them. Deltas are kept if the writer
+     * fails, they will be written on the next flush.
+     *
+     * @param writer delta writer
+     * @return flushed deltas
+     */
+    public synchronized List<FrameDelta> flush(Consumer<? super List<FrameDelta>> writer)
+    {
+        if(counters.isEmpty()) return List.of();
+
+        List<FrameDelta> deltas = counters.entrySet().stream()
+            .map(e->new FrameDelta(e.getKey(), e.getValue()[GAMES], e.getValue()[WINS]))
+            .toList();
+        writer.accept(deltas);
+        counters.clear();
+        return deltas;
+    }
+
+    public synchronized int getSize()
+    {
+        return counters.size();
+    }
+
+}
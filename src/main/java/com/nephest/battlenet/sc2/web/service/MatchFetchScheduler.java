@@ -0,0 +1,241 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.local.PlayerCharacter;
+import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * Ranks pending match characters by expected new matches. The expectation is based on
+ * ladder activity(games played and last played timestamp) that was observed since the last
+ * fetch, and on the yield of previous fetches, i.e. the ratio of new matches to expected matches.
+ * </p>
+ * <p>
+ * Characters that don't fit into the request budget are deferred. Deferred characters get a
+ * score boost, so they are not starved by more active characters.
+ * </p>
+ */
+public class MatchFetchScheduler
+{
+
+    /*
+        Blizzard match history contains the last 25 matches, there is no reason to expect more
+        than that.
+     */
+    public static final int MATCH_HISTORY_SIZE = 25;
+    public static final double YIELD_DEFAULT = 1.0;
+    public static final double YIELD_MIN = 0.05;
+    public static final double YIELD_ALPHA = 0.3;
+    public static final Duration RECENCY_HALF_LIFE = Duration.ofHours(6);
+    public static final Duration STATS_TTL = Duration.ofDays(3);
+
+    public record Schedule
+    (
+        Map<Region, Set<PlayerCharacter>> selected,
+        Map<Region, Set<PlayerCharacter>> deferred
+    )
+    {
+
+        public int getSelectedCount()
+        {
+            return selected.values().stream().mapToInt(Set::size).sum();
+        }
+
+        public int getDeferredCount()
+        {
+            return deferred.values().stream().mapToInt(Set::size).sum();
+        }
+
+    }
+
+    private static class Stats
+    {
+
+        private int games;
+        private Instant lastPlayed;
+        private Instant updated;
+        private int deferred;
+        private double yield = YIELD_DEFAULT;
+        private double fetchExpected = -1;
+        private int fetchFound;
+
+    }
+
+    private final Map<Long, Stats> stats = new ConcurrentHashMap<>();
+
+    public void addActivity(Long characterId, CharacterActivity activity)
+    {
+        addActivity(characterId, activity, SC2Pulse.instant());
+    }
+
+    public void addActivity(Long characterId, CharacterActivity activity, Instant now)
+    {
+        stats.compute(characterId, (id, s)->{
+            if(s == null) s = new Stats();
+            s.games += Math.max(activity.games(), 0);
+            if(activity.lastPlayed() != null)
+            {
+                Instant lastPlayed = activity.lastPlayed().toInstant();
+                if(s.lastPlayed == null || lastPlayed.isAfter(s.lastPlayed)) s.lastPlayed = lastPlayed;
+            }
+            s.updated = now;
+            return s;
+        });
+    }
+
+    /**
+     * Record new matches that were found for a character. Call it after new matches were saved.
+     */
+    public void addFound(Long characterId, int count)
+    {
+        stats.computeIfPresent(characterId, (id, s)->{
+            if(s.fetchExpected >= 0) s.fetchFound += count;
+            return s;
+        });
+    }
+
+    public double getScore(Long characterId, Instant now)
+    {
+        Stats s = stats.get(characterId);
+        if(s == null) return getExpectedMatches(null);
+
+        double recency = s.lastPlayed == null || !s.lastPlayed.isBefore(now)
+            ? 1.0
+            : Math.pow
+            (
+                0.5,
+                Duration.between(s.lastPlayed, now).toSeconds()
+                    / (double) RECENCY_HALF_LIFE.toSeconds()
+            );
+        return getExpectedMatches(s) * s.yield * recency * (1 + s.deferred);
+    }
+
+    private static double getExpectedMatches(Stats s)
+    {
+        //small bias allows to fetch characters that changed division without playing
+        return s == null ? 1.5 : Math.min(s.games, MATCH_HISTORY_SIZE) + 0.5;
+    }
+
+    /**
+     * Rank and split characters into selected and deferred groups. Selected characters are
+     * ordered by their score, and their fetch is started.
+     *
+     * @param characters pending characters
+     * @param limit max number of selected characters per region
+     * @return schedule
+     */
+    public Schedule schedule(Map<Region, Set<PlayerCharacter>> characters, int limit)
+    {
+        return schedule(characters, limit, SC2Pulse.instant());
+    }
+
+    public Schedule schedule(Map<Region, Set<PlayerCharacter>> characters, int limit, Instant now)
+    {
+        removeExpired(characters, now);
+        Map<Region, Set<PlayerCharacter>> selected = new EnumMap<>(Region.class);
+        Map<Region, Set<PlayerCharacter>> deferred = new EnumMap<>(Region.class);
+        for(Map.Entry<Region, Set<PlayerCharacter>> entry : characters.entrySet())
+        {
+            List<PlayerCharacter> ranked = rank(entry.getValue(), now);
+            selected.put(entry.getKey(), new LinkedHashSet<>(ranked.subList(0, Math.min(limit, ranked.size()))));
+            deferred.put
+            (
+                entry.getKey(),
+                new LinkedHashSet<>(ranked.subList(Math.min(limit, ranked.size()), ranked.size()))
+            );
+        }
+        selected.values().forEach(chars->chars.forEach(c->startFetch(c.getId(), now)));
+        deferred.values().forEach(chars->chars.forEach(c->defer(c.getId(), now)));
+        return new Schedule(selected, deferred);
+    }
+
+    private List<PlayerCharacter> rank(Collection<PlayerCharacter> characters, Instant now)
+    {
+        Map<PlayerCharacter, Double> scores = characters.stream()
+            .collect(Collectors.toMap(c->c, c->getScore(c.getId(), now), (l, r)->l));
+        return characters.stream()
+            .sorted(Comparator.comparing(scores::get, Comparator.reverseOrder()))
+            .collect(Collectors.toList());
+    }
+
+    private void startFetch(Long characterId, Instant now)
+    {
+        stats.compute(characterId, (id, s)->{
+            if(s == null) s = new Stats();
+            s.fetchExpected = getExpectedMatches(s);
+            s.fetchFound = 0;
+            s.games = 0;
+            s.deferred = 0;
+            s.updated = now;
+            return s;
+        });
+    }
+
+    private void defer(Long characterId, Instant now)
+    {
+        stats.compute(characterId, (id, s)->{
+            if(s == null) s = new Stats();
+            s.deferred++;
+            s.updated = now;
+            return s;
+        });
+    }
+
+    /**
+     * Update yield of characters whose fetch is complete.
+     */
+    public void complete(Map<Region, Set<PlayerCharacter>> characters)
+    {
+        for(Set<PlayerCharacter> regionCharacters : characters.values())
+            for(PlayerCharacter character : regionCharacters)
+                stats.computeIfPresent(character.getId(), (id, s)->{
+                    if(s.fetchExpected < 0) return s;
+
+                    double currentYield = Math.min(s.fetchFound / s.fetchExpected, 1.0);
+                    s.yield = Math.max
+                    (
+                        YIELD_MIN,
+                        (1 - YIELD_ALPHA) * s.yield + YIELD_ALPHA * currentYield
+                    );
+                    s.fetchExpected = -1;
+                    s.fetchFound = 0;
+                    return s;
+                });
+    }
+
+    private void removeExpired(Map<Region, Set<PlayerCharacter>> characters, Instant now)
+    {
+        Instant from = now.minus(STATS_TTL);
+        Set<Long> pendingIds = characters.values().stream()
+            .flatMap(Collection::stream)
+            .map(PlayerCharacter::getId)
+            .collect(Collectors.toSet());
+        stats.entrySet().removeIf(e->e.getValue().updated.isBefore(from) && !pendingIds.contains(e.getKey()));
+    }
+
+    public double getYield(Long characterId)
+    {
+        Stats s = stats.get(characterId);
+        return s == null ? YIELD_DEFAULT : s.yield;
+    }
+
+    public int size()
+    {
+        return stats.size();
+    }
+
+}
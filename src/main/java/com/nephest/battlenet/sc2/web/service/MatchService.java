@@ -3,6 +3,7 @@
 
 package com.nephest.battlenet.sc2.web.service;
 
+import com.nephest.battlenet.sc2.config.data.Workload;
 import com.nephest.battlenet.sc2.model.BaseMatch;
 import com.nephest.battlenet.sc2.model.PlayerCharacterNaturalId;
 import com.nephest.battlenet.sc2.model.Region;
@@ -17,6 +18,7 @@ import com.nephest.battlenet.sc2.model.local.Var;
 import com.nephest.battlenet.sc2.model.local.dao.DAOUtils;
 import com.nephest.battlenet.sc2.model.local.dao.MatchDAO;
 import com.nephest.battlenet.sc2.model.local.dao.MatchParticipantDAO;
+import com.nephest.battlenet.sc2.model.local.dao.MatchVersusDAO;
 import com.nephest.battlenet.sc2.model.local.dao.PlayerCharacterDAO;
 import com.nephest.battlenet.sc2.model.local.dao.SC2MapDAO;
 import com.nephest.battlenet.sc2.model.local.dao.SeasonDAO;
@@ -65,11 +67,16 @@ public class MatchService
     public static final int BATCH_PREFETCH = 5;
     public static final int FAILED_MATCHES_MAX = 100;
     public static final Duration MATCH_UPDATE_FRAME = Duration.ofMinutes(50);
+    public static final Duration VERSUS_BACKFILL_CHUNK = Duration.ofDays(1);
     public static final String REQUEST_LIMIT_PRIORITY_NAME = "match";
+    public static final Duration SEEN_MATCH_FILTER_BUCKET_DURATION = Duration.ofMinutes(30);
+    public static final int SEEN_MATCH_FILTER_BUCKET_COUNT = 6;
+    public static final int SEEN_MATCH_FILTER_SIZE_MAX = 1_000_000;
 
     private final BlizzardSC2API api;
     private final MatchDAO matchDAO;
     private final MatchParticipantDAO matchParticipantDAO;
+    private final MatchVersusDAO matchVersusDAO;
     private final PlayerCharacterDAO playerCharacterDAO;
     private final SeasonDAO seasonDAO;
     private final SC2MapDAO mapDAO;
@@ -79,6 +86,13 @@ public class MatchService
     private final GlobalContext globalContext;
     private final Predicate<BlizzardMatch> validationPredicate;
     private final ConcurrentLinkedQueue<Set<PlayerCharacterNaturalId>> failedCharacters = new ConcurrentLinkedQueue<>();
+    private final SeenMatchFilter seenMatchFilter = new SeenMatchFilter
+    (
+        SEEN_MATCH_FILTER_BUCKET_DURATION,
+        SEEN_MATCH_FILTER_BUCKET_COUNT,
+        SEEN_MATCH_FILTER_SIZE_MAX
+    );
+    private final MatchFetchScheduler matchFetchScheduler = new MatchFetchScheduler();
     private CollectionVar<Set<Region>, Region> webRegions;
     private final Map<Region, Var<Set<PlayerCharacter>>> pendingCharacters = new EnumMap<>(Region.class);
     private TimerVar updateMatchesTask;
@@ -94,6 +108,7 @@ public class MatchService
         PlayerCharacterDAO playerCharacterDAO,
         MatchDAO matchDAO,
         MatchParticipantDAO matchParticipantDAO,
+        MatchVersusDAO matchVersusDAO,
         SeasonDAO seasonDAO,
         SC2MapDAO mapDAO,
         VarDAO varDAO,
@@ -108,6 +123,7 @@ public class MatchService
         this.playerCharacterDAO = playerCharacterDAO;
         this.matchDAO = matchDAO;
         this.matchParticipantDAO = matchParticipantDAO;
+        this.matchVersusDAO = matchVersusDAO;
         this.seasonDAO = seasonDAO;
         this.mapDAO = mapDAO;
         this.alternativeLadderService = alternativeLadderService;
@@ -173,7 +189,7 @@ public class MatchService
 
     private void subToEvents(EventService eventService)
     {
-        eventService.getLadderUpdateEvent()
+        eventService.getLadderUpdateEvent(MatchService.class.getSimpleName())
             .flatMap(data->WebServiceUtil.getOnErrorLogAndSkipMono(savePendingCharacters(data)))
             .doOnNext(characters->LOG.debug("Pending characters: {}", characters))
             .flatMap
@@ -241,13 +257,52 @@ public class MatchService
     private Mono<Void> update()
     {
         return copyAndClearPendingCharacters()
+            .flatMap(this::schedule)
             .flatMap(pendingCharacters->{
                 setRequestLimitPriority(pendingCharacters);
                 return update(pendingCharacters)
-                    .doOnSuccess(v->eventService.createMatchUpdateEvent(new MatchUpdateContext(pendingCharacters, getUpdateContext())));
+                    .doOnSuccess(v->{
+                        matchFetchScheduler.complete(pendingCharacters);
+                        eventService.createMatchUpdateEvent(new MatchUpdateContext(pendingCharacters, getUpdateContext()));
+                    });
             });
     }
 
+    /*
+        Fetch the characters with the most expected new matches first. Characters that don't
+        fit into the request budget of this update are returned to the pending set.
+     */
+    private Mono<Map<Region, Set<PlayerCharacter>>> schedule(Map<Region, Set<PlayerCharacter>> characters)
+    {
+        return WebServiceUtil.blockingCallable
+        (
+            Workload.INGEST,
+            ()->
+            {
+                MatchFetchScheduler.Schedule schedule = matchFetchScheduler
+                    .schedule(characters, calculateCharacterLimit());
+                if(schedule.getDeferredCount() > 0)
+                {
+                    for(Map.Entry<Region, Set<PlayerCharacter>> deferred : schedule.deferred().entrySet())
+                    {
+                        if(deferred.getValue().isEmpty()) continue;
+
+                        Var<Set<PlayerCharacter>> pending = pendingCharacters.get(deferred.getKey());
+                        pending.getValue().addAll(deferred.getValue());
+                        pending.save();
+                    }
+                    LOG.info
+                    (
+                        "Scheduled {} match characters, deferred {}",
+                        schedule.getSelectedCount(),
+                        schedule.getDeferredCount()
+                    );
+                }
+                return schedule.selected();
+            }
+        );
+    }
+
     private void setRequestLimitPriority(Map<Region, Set<PlayerCharacter>> characters)
     {
         int limit = calculateRequestLimit(characters);
@@ -264,12 +319,29 @@ public class MatchService
         (
             characterCount / (float) updateMatchesTask.getDurationBetweenRuns().toSeconds()
         );
-        return Math.min(Math.max(limit, 1),
-            (int) (api.getRequestsPerSecondCap(globalContext.getActiveRegions().iterator().next()) / 2));
+        return Math.min(Math.max(limit, 1), getRequestLimitMax());
+    }
+
+    private int getRequestLimitMax()
+    {
+        return (int) (api.getRequestsPerSecondCap(globalContext.getActiveRegions().iterator().next()) / 2);
+    }
+
+    /**
+     * @return max number of characters per region that can be fetched in one update frame
+     */
+    private int calculateCharacterLimit()
+    {
+        return (int) Math.min
+        (
+            Integer.MAX_VALUE,
+            Math.max(getRequestLimitMax(), 1) * updateMatchesTask.getDurationBetweenRuns().toSeconds()
+        );
     }
 
     private Mono<Integer> savePendingCharacters(LadderUpdateData data)
     {
+        data.getData().forEach(d->d.getCharacterActivity().forEach(matchFetchScheduler::addActivity));
         return Flux.fromIterable(data.getData())
             .flatMapIterable(PendingLadderData::getCharacters)
             .map(character->pendingCharacters.get(character.getRegion()).getValue().add(character))
@@ -284,6 +356,7 @@ public class MatchService
     {
         return WebServiceUtil.blockingCallable
         (
+            Workload.INGEST,
             ()->
             {
                 pendingCharacters.values().forEach(Var::save);
@@ -299,6 +372,7 @@ public class MatchService
     {
         return WebServiceUtil.blockingCallable
         (
+            Workload.INGEST,
             ()->
             {
                 Map<Region, Set<PlayerCharacter>> copy = pendingCharacters.entrySet().stream()
@@ -320,6 +394,14 @@ public class MatchService
         this.updateContext = updateContext;
     }
 
+    /**
+     * Drops the in-memory update context, the next update uses the update var instead.
+     */
+    public void resetUpdateContext()
+    {
+        this.updateContext = null;
+    }
+
     private UpdateContext getUpdateContext()
     {
         return updateContext != null
@@ -345,6 +427,7 @@ public class MatchService
     {
         return WebServiceUtil.blockingRunnable
         (
+            Workload.INGEST,
             ()->
             {
                 matchDAO.removeExpired();
@@ -400,7 +483,48 @@ public class MatchService
 
     private Mono<Integer> saveMatches(List<Tuple2<BlizzardMatch, PlayerCharacterNaturalId>> matches)
     {
-        return WebServiceUtil.blockingCallable(()->matchService.saveMatchesSync(matches));
+        return WebServiceUtil.blockingCallable(Workload.INGEST, ()->saveUnseenMatches(matches));
+    }
+
+    /*
+        Match history contains the last N matches of a character, most of them were already
+        saved in previous cycles. Skip such matches, and mark new matches as seen only after
+        they were committed. Seen matches are included in the result because they are valid
+        matches that were found, the auto force region feature depends on it.
+     */
+    private int saveUnseenMatches(List<Tuple2<BlizzardMatch, PlayerCharacterNaturalId>> matches)
+    {
+        List<SeenMatchFilter.Key> keys = new ArrayList<>(matches.size());
+        List<Tuple2<BlizzardMatch, PlayerCharacterNaturalId>> unseenMatches = new ArrayList<>(matches.size());
+        for(Tuple2<BlizzardMatch, PlayerCharacterNaturalId> match : matches)
+        {
+            SeenMatchFilter.Key key = SeenMatchFilter.Key.of(match.getT1(), match.getT2());
+            if(seenMatchFilter.contains(key)) continue;
+
+            keys.add(key);
+            unseenMatches.add(match);
+        }
+        int seen = matches.size() - unseenMatches.size();
+        if(seen > 0) LOG.debug("Skipped {} seen matches", seen);
+        if(unseenMatches.isEmpty()) return seen;
+
+        int saved = matchService.saveMatchesSync(unseenMatches);
+        for(SeenMatchFilter.Key key : keys)
+        {
+            seenMatchFilter.add(key);
+            matchFetchScheduler.addFound(key.characterId(), 1);
+        }
+        return seen + saved;
+    }
+
+    protected SeenMatchFilter getSeenMatchFilter()
+    {
+        return seenMatchFilter;
+    }
+
+    protected MatchFetchScheduler getMatchFetchScheduler()
+    {
+        return matchFetchScheduler;
     }
 
     //This method fails in a rare occasion due to unknown reason. Retry for now, should be properly fixed later.
@@ -460,6 +584,64 @@ public class MatchService
         }
     }
 
+    private void indexVersus(UpdateContext updateContext)
+    {
+        OffsetDateTime from = calculateRetroactiveDateTime(updateContext);
+        int indexed = matchVersusDAO.index(from);
+        LOG.debug("Indexed {} versus match participants", indexed);
+        backfillVersus(from);
+    }
+
+    /*
+        Old matches are indexed by small chunks, one chunk per update, so updates are not blocked
+        by a huge insert. The backfill cursor is a var, it's resumed after restarts and leader
+        changes. Versus queries read unindexed matches from the legacy tables until the
+        backfill is complete.
+     */
+    private void backfillVersus(OffsetDateTime recentFrom)
+    {
+        OffsetDateTime to = matchVersusDAO.getIndexedFrom();
+        if(to == null)
+        {
+            //the recent frame was just indexed, backfill everything before it
+            matchVersusDAO.setIndexedFrom(recentFrom);
+            to = recentFrom;
+        }
+        if(MatchVersusDAO.isIndexComplete(to)) return;
+
+        OffsetDateTime minDate = matchVersusDAO.findMinMatchDate();
+        if(minDate == null || !minDate.isBefore(to))
+        {
+            matchVersusDAO.setIndexedFrom(MatchVersusDAO.INDEX_COMPLETE);
+            LOG.info("Versus index backfill is complete");
+            return;
+        }
+
+        OffsetDateTime from = to.minus(VERSUS_BACKFILL_CHUNK);
+        if(from.isBefore(minDate)) from = minDate;
+        int indexed = matchVersusDAO.index(from, to);
+        matchVersusDAO.setIndexedFrom(from);
+        LOG.info("Backfilled {} versus match participants, {} - {}", indexed, from, to);
+    }
+
+    /**
+     * Moves the versus backfill cursor to {@code before}, so matches that happened before it
+     * are re-indexed in the background. The cursor is never moved back in time, matches
+     * between the old and the new cursor are read from the legacy tables until they are
+     * re-indexed.
+     *
+     * @param before max match date to re-index
+     * @return new backfill cursor, null if the backfill hasn't started yet
+     */
+    public OffsetDateTime reindexVersus(OffsetDateTime before)
+    {
+        OffsetDateTime indexedFrom = matchVersusDAO.getIndexedFrom();
+        if(indexedFrom == null || !before.isAfter(indexedFrom)) return indexedFrom;
+
+        matchVersusDAO.setIndexedFrom(before);
+        return before;
+    }
+
     private void calculateRatingDifference(UpdateContext updateContext)
     {
         int count = matchParticipantDAO
@@ -486,6 +668,7 @@ public class MatchService
     public void updateMeta(UpdateContext updateContext)
     {
         identify(updateContext);
+        indexVersus(updateContext);
         calculateRatingDifference(updateContext);
         calculateDuration(updateContext);
     }
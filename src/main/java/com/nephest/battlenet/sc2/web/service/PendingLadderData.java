@@ -4,6 +4,8 @@
 package com.nephest.battlenet.sc2.web.service;
 
 import com.nephest.battlenet.sc2.model.local.PlayerCharacter;
+import java.time.OffsetDateTime;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -13,17 +15,20 @@ public class PendingLadderData
     private final Set<Integer> statsUpdates;
     private final Set<Long> teams;
     private final Set<PlayerCharacter> characters;
+    private final Map<Long, CharacterActivity> characterActivity;
 
     private PendingLadderData
     (
         Set<Integer> statsUpdates,
         Set<Long> teams,
-        Set<PlayerCharacter> characters
+        Set<PlayerCharacter> characters,
+        Map<Long, CharacterActivity> characterActivity
     )
     {
         this.statsUpdates = statsUpdates;
         this.teams = teams;
         this.characters = characters;
+        this.characterActivity = characterActivity;
     }
 
 
@@ -33,7 +38,8 @@ public class PendingLadderData
         (
             ConcurrentHashMap.newKeySet(),
             ConcurrentHashMap.newKeySet(),
-            ConcurrentHashMap.newKeySet()
+            ConcurrentHashMap.newKeySet(),
+            new ConcurrentHashMap<>()
         );
     }
 
@@ -43,6 +49,7 @@ public class PendingLadderData
         this.getStatsUpdates().addAll(data.getStatsUpdates());
         this.getTeams().addAll(data.getTeams());
         this.getCharacters().addAll(data.getCharacters());
+        this.getCharacterActivity().putAll(data.getCharacterActivity());
     }
 
     public static PendingLadderData immutableCopy(PendingLadderData data)
@@ -51,7 +58,8 @@ public class PendingLadderData
         (
             Set.copyOf(data.statsUpdates),
             Set.copyOf(data.teams),
-            Set.copyOf(data.getCharacters())
+            Set.copyOf(data.getCharacters()),
+            Map.copyOf(data.getCharacterActivity())
         );
     }
 
@@ -60,6 +68,17 @@ public class PendingLadderData
         statsUpdates.clear();
         teams.clear();
         characters.clear();
+        characterActivity.clear();
+    }
+
+    public void addCharacterActivity(Long characterId, int games, OffsetDateTime lastPlayed)
+    {
+        characterActivity.merge
+        (
+            characterId,
+            new CharacterActivity(games, lastPlayed),
+            CharacterActivity::merge
+        );
     }
 
     public Set<Integer> getStatsUpdates()
@@ -77,4 +96,13 @@ public class PendingLadderData
         return characters;
     }
 
+    /**
+     * @return activity of {@link #getCharacters() characters} by character id. Some characters
+     * may have no activity data.
+     */
+    public Map<Long, CharacterActivity> getCharacterActivity()
+    {
+        return characterActivity;
+    }
+
 }
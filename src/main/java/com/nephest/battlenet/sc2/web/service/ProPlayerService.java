@@ -100,6 +100,7 @@ public class ProPlayerService
     private final ProPlayerAccountDAO proPlayerAccountDAO;
     private final LadderProPlayerDAO ladderProPlayerDAO;
     private final PersonalService personalService;
+    private final GroupMembershipIndex groupMembershipIndex;
 
     private final SC2RevealedAPI sc2RevealedAPI;
 
@@ -125,6 +126,7 @@ public class ProPlayerService
         ProPlayerAccountDAO proPlayerAccountDAO,
         LadderProPlayerDAO ladderProPlayerDAO,
         PersonalService personalService,
+        GroupMembershipIndex groupMembershipIndex,
         SC2RevealedAPI sc2RevealedAPI,
         AligulacAPI aligulacAPI,
         LiquipediaAPI liquipediaAPI,
@@ -139,6 +141,7 @@ public class ProPlayerService
         this.proPlayerAccountDAO = proPlayerAccountDAO;
         this.ladderProPlayerDAO = ladderProPlayerDAO;
         this.personalService = personalService;
+        this.groupMembershipIndex = groupMembershipIndex;
         this.sc2RevealedAPI = sc2RevealedAPI;
         this.aligulacAPI = aligulacAPI;
         this.liquipediaAPI = liquipediaAPI;
@@ -198,6 +201,7 @@ public class ProPlayerService
                     .block())
             );
             proPlayerAccountDAO.link(proPlayer.getId(), revealedProPlayer.getBnetTags());
+            groupMembershipIndex.invalidateProPlayers(Set.of(proPlayer.getId()));
         }
     }
 
@@ -301,6 +305,7 @@ public class ProPlayerService
             SC2Pulse.offsetDateTime(),
             false
         )));
+        groupMembershipIndex.invalidateProPlayers(Set.of(proPlayerId));
     }
 
     @Transactional
@@ -308,6 +313,7 @@ public class ProPlayerService
     {
         personalService.setDbTransactionUserId();
         proPlayerAccountDAO.unlink(proPlayerId, accountId);
+        groupMembershipIndex.invalidateProPlayers(Set.of(proPlayerId));
     }
 
     public Optional<ProPlayer> importProfile(String url)
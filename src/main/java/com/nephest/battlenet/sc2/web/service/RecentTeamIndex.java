@@ -0,0 +1,206 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import com.nephest.battlenet.sc2.model.BaseLeague;
+import com.nephest.battlenet.sc2.model.QueueType;
+import com.nephest.battlenet.sc2.model.Race;
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.local.Team;
+import com.nephest.battlenet.sc2.model.local.inner.TeamLegacyIdEntry;
+import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory index of recently active teams. Teams are fed by ladder updates and stored in
+ * per-(queue, league) ring buffers in the order of their activity, the oldest entries are
+ * overwritten when the buffer is full. The index can only answer queries that are fully covered
+ * by the buffers, i.e. the index must have been fed for the whole requested period and no entries
+ * of this period may have been evicted. Callers are expected to fall back to the DB otherwise.
+ */
+@Service
+public class RecentTeamIndex
+{
+
+    public static final int BUFFER_SIZE = 20_000;
+
+    public record Key(QueueType queueType, BaseLeague.LeagueType leagueType) {}
+
+    private record Entry
+    (
+        long teamId,
+        long sequence,
+        Region region,
+        Race race,
+        int wins,
+        long rating,
+        OffsetDateTime lastPlayed
+    )
+    {}
+
+    private final class Ring
+    {
+
+        private final Entry[] entries;
+        private int head = 0;
+        private int size = 0;
+        private OffsetDateTime evictedLastPlayedMax;
+
+        private Ring(int capacity)
+        {
+            entries = new Entry[capacity];
+        }
+
+        private synchronized void add(Entry entry)
+        {
+            Entry evicted = entries[head];
+            if(evicted != null)
+            {
+                if(evictedLastPlayedMax == null || evicted.lastPlayed().isAfter(evictedLastPlayedMax))
+                    evictedLastPlayedMax = evicted.lastPlayed();
+                latestSequences.remove(evicted.teamId(), evicted.sequence());
+            }
+            entries[head] = entry;
+            head = (head + 1) % entries.length;
+            if(size < entries.length) size++;
+        }
+
+        private synchronized boolean covers(OffsetDateTime from)
+        {
+            return evictedLastPlayedMax == null || evictedLastPlayedMax.isBefore(from);
+        }
+
+        private synchronized List<Entry> find(OffsetDateTime from)
+        {
+            List<Entry> result = new ArrayList<>();
+            for(int i = 0; i < size; i++)
+            {
+                Entry entry = entries[i];
+                if(!entry.lastPlayed().isBefore(from)) result.add(entry);
+            }
+            return result;
+        }
+
+    }
+
+    private final Map<Key, Ring> rings = new ConcurrentHashMap<>();
+    private final Map<Long, Long> latestSequences = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final int bufferSize;
+    private volatile Instant start;
+
+    public RecentTeamIndex()
+    {
+        this(BUFFER_SIZE);
+    }
+
+    public RecentTeamIndex(int bufferSize)
+    {
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Adds active teams. Teams must have ids.
+     *
+     * @param teams teams that have been updated
+     */
+    public void add(Collection<? extends Team> teams)
+    {
+        if(start == null) start = SC2Pulse.instant();
+        for(Team team : teams)
+        {
+            if(team.getId() == null || team.getLastPlayed() == null) continue;
+
+            Entry entry = new Entry
+            (
+                team.getId(),
+                sequence.incrementAndGet(),
+                team.getRegion(),
+                getRace(team),
+                team.getWins() != null ? team.getWins() : 0,
+                team.getRating() != null ? team.getRating() : 0,
+                team.getLastPlayed()
+            );
+            latestSequences.put(entry.teamId(), entry.sequence());
+            rings.computeIfAbsent(new Key(team.getQueueType(), team.getLeagueType()), k->new Ring(bufferSize))
+                .add(entry);
+        }
+    }
+
+    private static Race getRace(Team team)
+    {
+        if(team.getQueueType() != QueueType.LOTV_1V1
+            || team.getLegacyId() == null
+            || team.getLegacyId().getEntries().isEmpty())
+                return null;
+
+        TeamLegacyIdEntry entry = team.getLegacyId().getEntries().get(0);
+        return entry.race();
+    }
+
+    /**
+     * Finds ids of teams that were active since {@code lastPlayedMin}. Filters and order are the
+     * same as in
+     * {@link com.nephest.battlenet.sc2.model.local.ladder.dao.LadderSearchDAO#findRecentlyActiveTeams}
+     *
+     * @return team ids ordered by last played timestamp and id in descending order, or empty
+     * optional if this period isn't covered by the index
+     */
+    public Optional<List<Long>> findIds
+    (
+        @NonNull QueueType queueType,
+        @NonNull BaseLeague.LeagueType leagueType,
+        @NonNull OffsetDateTime lastPlayedMin,
+        @Nullable Integer winsMin,
+        @Nullable Integer winsMax,
+        @Nullable Integer ratingMin,
+        @Nullable Integer ratingMax,
+        @Nullable Race race,
+        @Nullable Region region,
+        int limit
+    )
+    {
+        if(winsMin != null && winsMax != null && winsMax < winsMin)
+            throw new IllegalArgumentException("Wins max is less than wins min");
+        if(ratingMin != null && ratingMax != null && ratingMax < ratingMin)
+            throw new IllegalArgumentException("Rating max is less than rating min");
+        if(limit < 0) throw new IllegalArgumentException("Limit must be positive");
+        if(race != null && queueType != QueueType.LOTV_1V1)
+            throw new IllegalArgumentException("Race can only be used with 1v1 queue");
+
+        //teams that were active before the first update are unknown
+        if(start == null || start.isAfter(lastPlayedMin.toInstant())) return Optional.empty();
+
+        Ring ring = rings.get(new Key(queueType, leagueType));
+        if(ring == null) return Optional.of(List.of());
+        if(!ring.covers(lastPlayedMin)) return Optional.empty();
+
+        return Optional.of(ring.find(lastPlayedMin).stream()
+            //stale entries, the team has a newer state, possibly in another league
+            .filter(e->latestSequences.getOrDefault(e.teamId(), -1L) == e.sequence())
+            .filter(e->winsMin == null || e.wins() >= winsMin)
+            .filter(e->winsMax == null || e.wins() <= winsMax)
+            .filter(e->ratingMin == null || e.rating() >= ratingMin)
+            .filter(e->ratingMax == null || e.rating() <= ratingMax)
+            .filter(e->race == null || e.race() == race)
+            .filter(e->region == null || e.region() == region)
+            .sorted(Comparator.comparing(Entry::lastPlayed).thenComparing(Entry::teamId).reversed())
+            .limit(limit)
+            .map(Entry::teamId)
+            .toList());
+    }
+
+}
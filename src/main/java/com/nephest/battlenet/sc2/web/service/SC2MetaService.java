@@ -28,7 +28,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
@@ -95,7 +94,6 @@ public class SC2MetaService
         return existingPatches.subList(0, ix);
     }
 
-    @Scheduled(cron="0 15 5 * * *")
     @CacheEvict(cacheNames = "meta-patch", allEntries = true)
     public List<LadderPatch> updatePatches()
     {
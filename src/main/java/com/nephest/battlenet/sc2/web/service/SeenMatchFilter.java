@@ -0,0 +1,167 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import com.nephest.battlenet.sc2.model.BaseMatch;
+import com.nephest.battlenet.sc2.model.PlayerCharacterNaturalId;
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardMatch;
+import com.nephest.battlenet.sc2.model.local.PlayerCharacter;
+import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * <p>
+ * Rolling, memory-bounded set of match participants that were recently persisted. Blizzard
+ * match history returns the last N matches of a character, so the same match/participant pair
+ * is fetched over and over again while it stays in the history. This filter allows to skip such
+ * pairs before they reach the DB.
+ * </p>
+ * <p>
+ * Keys are stored in time buckets. A bucket is dropped when it falls out of the
+ * {@code bucketDuration * bucketCount} window, or earlier if the total size exceeds
+ * {@code sizeMax}. The filter is exact, there are no false positives, so the worst case scenario
+ * is a redundant merge of an evicted key.
+ * </p>
+ */
+public class SeenMatchFilter
+{
+
+    public record Key
+    (
+        long characterId,
+        long date,
+        BaseMatch.MatchType type,
+        Region region,
+        String map,
+        BaseMatch.Decision decision
+    )
+    {
+
+        /**
+         * @return key or null if there are not enough fields to build it
+         */
+        public static Key of(BlizzardMatch match, PlayerCharacterNaturalId participant)
+        {
+            if(!(participant instanceof PlayerCharacter character)
+                || character.getId() == null
+                || participant.getRegion() == null
+                || match.getDate() == null
+                || match.getType() == null
+                || match.getMap() == null
+                || match.getDecision() == null)
+                    return null;
+
+            return new Key
+            (
+                character.getId(),
+                match.getDate().toEpochSecond(),
+                match.getType(),
+                participant.getRegion(),
+                match.getMap(),
+                match.getDecision()
+            );
+        }
+
+    }
+
+    private record Bucket(Instant start, Set<Key> keys) {}
+
+    private final Duration bucketDuration;
+    private final int bucketCount;
+    private final int sizeMax;
+    private final Deque<Bucket> buckets = new ArrayDeque<>();
+    private int size = 0;
+
+    public SeenMatchFilter(Duration bucketDuration, int bucketCount, int sizeMax)
+    {
+        if(bucketDuration.isNegative() || bucketDuration.isZero())
+            throw new IllegalArgumentException("Positive bucket duration expected");
+        if(bucketCount < 1) throw new IllegalArgumentException("At least one bucket expected");
+        if(sizeMax < 1) throw new IllegalArgumentException("Positive max size expected");
+
+        this.bucketDuration = bucketDuration;
+        this.bucketCount = bucketCount;
+        this.sizeMax = sizeMax;
+    }
+
+    public boolean contains(Key key)
+    {
+        return contains(key, SC2Pulse.instant());
+    }
+
+    public synchronized boolean contains(Key key, Instant now)
+    {
+        if(key == null) return false;
+
+        evict(now);
+        for(Bucket bucket : buckets)
+            if(bucket.keys().contains(key)) return true;
+        return false;
+    }
+
+    public void add(Key key)
+    {
+        add(key, SC2Pulse.instant());
+    }
+
+    public synchronized void add(Key key, Instant now)
+    {
+        if(key == null) return;
+
+        evict(now);
+        Bucket last = buckets.peekLast();
+        if(last == null || !now.isBefore(last.start().plus(bucketDuration)))
+        {
+            last = new Bucket(now, new HashSet<>());
+            buckets.addLast(last);
+        }
+        if(last.keys().add(key)) size++;
+        while(size > sizeMax && buckets.size() > 1) size -= buckets.removeFirst().keys().size();
+        if(size > sizeMax)
+        {
+            last.keys().remove(key);
+            size--;
+        }
+    }
+
+    private void evict(Instant now)
+    {
+        Instant from = now.minus(bucketDuration.multipliedBy(bucketCount));
+        while(!buckets.isEmpty() && !buckets.peekFirst().start().isAfter(from))
+            size -= buckets.removeFirst().keys().size();
+    }
+
+    public synchronized int size()
+    {
+        return size;
+    }
+
+    public synchronized void clear()
+    {
+        buckets.clear();
+        size = 0;
+    }
+
+    public Duration getBucketDuration()
+    {
+        return bucketDuration;
+    }
+
+    public int getBucketCount()
+    {
+        return bucketCount;
+    }
+
+    public int getSizeMax()
+    {
+        return sizeMax;
+    }
+
+}
@@ -0,0 +1,43 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import com.nephest.battlenet.sc2.config.data.ReplicaRoutingDataSource;
+import com.nephest.battlenet.sc2.util.SingleFlight;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Service;
+
+/**
+ * Coalesces identical concurrent read requests. Each named operation has its own
+ * {@link SingleFlight}, key parts must be normalized by the caller(resolved ids, sorted sets,
+ * etc.) to maximize hits. Primary-pinned requests are never coalesced with replica requests,
+ * they must see their own writes.
+ */
+@Service
+public class SingleFlightService
+{
+
+    private final Map<String, SingleFlight<List<Object>, Object>> flights = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, Supplier<T> supplier, Object... keyParts)
+    {
+        Object[] key = Arrays.copyOf(keyParts, keyParts.length + 1);
+        key[keyParts.length] = ReplicaRoutingDataSource.isPinned();
+        return (T) flights.computeIfAbsent(name, n->new SingleFlight<>())
+            .execute(Arrays.asList(key), (Supplier<Object>) supplier);
+    }
+
+    public Map<String, SingleFlight.Stats> getStats()
+    {
+        return flights.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, e->e.getValue().getStats()));
+    }
+
+}
@@ -31,8 +31,8 @@ import com.nephest.battlenet.sc2.model.local.Team;
 import com.nephest.battlenet.sc2.model.local.TeamMember;
 import com.nephest.battlenet.sc2.model.local.Var;
 import com.nephest.battlenet.sc2.model.local.dao.AccountDAO;
-import com.nephest.battlenet.sc2.model.local.dao.DAOUtils;
 import com.nephest.battlenet.sc2.model.local.dao.DivisionDAO;
+import com.nephest.battlenet.sc2.model.local.dao.FastLeagueStatsDAO;
 import com.nephest.battlenet.sc2.model.local.dao.FastTeamDAO;
 import com.nephest.battlenet.sc2.model.local.dao.LeagueDAO;
 import com.nephest.battlenet.sc2.model.local.dao.LeagueStatsDAO;
@@ -48,6 +48,7 @@ import com.nephest.battlenet.sc2.model.local.dao.TeamStateDAO;
 import com.nephest.battlenet.sc2.model.local.dao.VarDAO;
 import com.nephest.battlenet.sc2.model.local.inner.ClanMemberEventData;
 import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import com.nephest.battlenet.sc2.model.validation.BlizzardTeamValidator;
 import com.nephest.battlenet.sc2.service.EventService;
 import com.nephest.battlenet.sc2.util.LogUtil;
 import com.nephest.battlenet.sc2.web.SeasonService;
@@ -62,15 +63,16 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -84,7 +86,6 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.validation.Validator;
 import reactor.core.publisher.Flux;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuple3;
@@ -126,210 +127,11 @@ public class StatsService
         BaseLeague.LeagueType.MASTER,
         BaseLeague.LeagueType.GRANDMASTER
     ));
-    public static final Set<BaseLeague.LeagueType> PARTIAL_UPDATE_SECONDARY_LEAGUES_2 =
-    Collections.unmodifiableSet(EnumSet.of
-    (
-        BaseLeague.LeagueType.BRONZE,
-        BaseLeague.LeagueType.SILVER,
-        BaseLeague.LeagueType.GOLD,
-        BaseLeague.LeagueType.PLATINUM
-    ));
-    public static final Set<BaseLeague.LeagueType> PARTIAL_UPDATE_MAIN_TEAM_LEAGUES_2 =
-        Collections.unmodifiableSet(EnumSet.of
-        (
-            BaseLeague.LeagueType.PLATINUM,
-            BaseLeague.LeagueType.DIAMOND,
-            BaseLeague.LeagueType.MASTER,
-            BaseLeague.LeagueType.GRANDMASTER
-        ));
-    public static final Set<BaseLeague.LeagueType> PARTIAL_UPDATE_SECONDARY_TEAM_LEAGUES_2 =
-        Collections.unmodifiableSet(EnumSet.of
-        (
-            BaseLeague.LeagueType.BRONZE,
-            BaseLeague.LeagueType.SILVER,
-            BaseLeague.LeagueType.GOLD
-        ));
-    public static final Map<QueueType, Set<BaseLeague.LeagueType>> PARTIAL_UPDATE_SECONDARY_QUEUE =
-        Collections.unmodifiableMap(new EnumMap<>(Map.of
-        (
-            QueueType.LOTV_2V2,
-            Collections.unmodifiableSet(EnumSet.of(
-                BaseLeague.LeagueType.DIAMOND,
-                BaseLeague.LeagueType.MASTER,
-                BaseLeague.LeagueType.GRANDMASTER
-            )),
-            QueueType.LOTV_3V3, LadderUpdateContext.MGM_LEAGUES,
-            QueueType.LOTV_4V4, LadderUpdateContext.MGM_LEAGUES,
-            QueueType.LOTV_ARCHON, LadderUpdateContext.MGM_LEAGUES
-        )));
-    private static final Map<QueueType, Set<BaseLeague.LeagueType>> PARTIAL_UPDATE_COMPLETE_SECONDARY_QUEUE;
-    static
-    {
-        Map<QueueType, Set<BaseLeague.LeagueType>> map = new EnumMap<>(QueueType.class);
-        map.putAll(PARTIAL_UPDATE_SECONDARY_QUEUE);
-        map.put(QueueType.LOTV_1V1, PARTIAL_UPDATE_MAIN_LEAGUES);
-        PARTIAL_UPDATE_COMPLETE_SECONDARY_QUEUE = Collections.unmodifiableMap(map);
-    }
-    public static final List<Map<QueueType, Set<BaseLeague.LeagueType>>> PARTIAL_UPDATE_DATA =
-        List.of
-        (
-            Collections.unmodifiableMap(new EnumMap<>(Map.of(
-                QueueType.LOTV_1V1, LadderUpdateContext.ALL_LEAGUES
-            ))),
-            PARTIAL_UPDATE_COMPLETE_SECONDARY_QUEUE,
-            Collections.unmodifiableMap(new EnumMap<>(Map.of
-            (
-                QueueType.LOTV_1V1, PARTIAL_UPDATE_MAIN_LEAGUES,
-                QueueType.LOTV_2V2,
-                Set.of
-                (
-                    BaseLeague.LeagueType.BRONZE,
-                    BaseLeague.LeagueType.SILVER,
-                    BaseLeague.LeagueType.GOLD
-                )
-            ))),
-            Collections.unmodifiableMap(new EnumMap<>(Map.of
-            (
-                QueueType.LOTV_1V1, PARTIAL_UPDATE_MAIN_LEAGUES,
-                QueueType.LOTV_2V2,
-                Set.of
-                (
-                    BaseLeague.LeagueType.PLATINUM,
-                    BaseLeague.LeagueType.DIAMOND,
-                    BaseLeague.LeagueType.MASTER,
-                    BaseLeague.LeagueType.GRANDMASTER
-                )
-            ))),
-            Collections.unmodifiableMap(new EnumMap<>(Map.of
-            (
-                QueueType.LOTV_1V1, PARTIAL_UPDATE_MAIN_LEAGUES,
-                QueueType.LOTV_3V3, LadderUpdateContext.ALL_LEAGUES
-            ))),
-            PARTIAL_UPDATE_COMPLETE_SECONDARY_QUEUE,
-            Collections.unmodifiableMap(new EnumMap<>(Map.of
-            (
-                QueueType.LOTV_1V1, PARTIAL_UPDATE_MAIN_LEAGUES,
-                QueueType.LOTV_4V4, LadderUpdateContext.ALL_LEAGUES,
-                QueueType.LOTV_ARCHON, LadderUpdateContext.ALL_LEAGUES
-            )))
-        );
-    public static final List<Map<QueueType, Set<BaseLeague.LeagueType>>> PARTIAL_UPDATE_DATA_2 =
-    List.of
-    (
-        Collections.unmodifiableMap(new EnumMap<>(Map.of
-        (
-            QueueType.LOTV_1V1,
-            Set.of
-            (
-                BaseLeague.LeagueType.BRONZE,
-                BaseLeague.LeagueType.SILVER,
-                BaseLeague.LeagueType.DIAMOND,
-                BaseLeague.LeagueType.MASTER,
-                BaseLeague.LeagueType.GRANDMASTER
-            )
-        ))),
-        Collections.unmodifiableMap(new EnumMap<>(Map.of
-        (
-            QueueType.LOTV_1V1,
-            Set.of
-            (
-                BaseLeague.LeagueType.PLATINUM,
-                BaseLeague.LeagueType.DIAMOND,
-                BaseLeague.LeagueType.MASTER,
-                BaseLeague.LeagueType.GRANDMASTER
-            )
-        ))),
-        Collections.unmodifiableMap(new EnumMap<>(Map.of
-        (
-            QueueType.LOTV_1V1,
-            Set.of
-            (
-                BaseLeague.LeagueType.GOLD,
-                BaseLeague.LeagueType.DIAMOND,
-                BaseLeague.LeagueType.MASTER,
-                BaseLeague.LeagueType.GRANDMASTER
-            )
-        ))),
-        Collections.unmodifiableMap(new EnumMap<>(Map.of
-        (
-            QueueType.LOTV_1V1, PARTIAL_UPDATE_MAIN_LEAGUES_2,
-            QueueType.LOTV_2V2, Set.of
-            (
-                BaseLeague.LeagueType.BRONZE,
-                BaseLeague.LeagueType.SILVER
-            )
-        ))),
-        Collections.unmodifiableMap(new EnumMap<>(Map.of
-        (
-            QueueType.LOTV_1V1, PARTIAL_UPDATE_MAIN_LEAGUES_2,
-            QueueType.LOTV_2V2, Set.of
-            (
-                BaseLeague.LeagueType.GOLD,
-                BaseLeague.LeagueType.PLATINUM
-            )
-        ))),
-        Collections.unmodifiableMap(new EnumMap<>(Map.of
-        (
-            QueueType.LOTV_1V1,
-            Set.of
-            (
-                BaseLeague.LeagueType.PLATINUM,
-                BaseLeague.LeagueType.DIAMOND,
-                BaseLeague.LeagueType.MASTER,
-                BaseLeague.LeagueType.GRANDMASTER
-            )
-        ))),
-        Collections.unmodifiableMap(Stream.concat
-        (
-            Stream.of(Map.entry(QueueType.LOTV_1V1, PARTIAL_UPDATE_MAIN_LEAGUES_2)),
-            PARTIAL_UPDATE_SECONDARY_QUEUE.entrySet().stream()
-        )
-            .collect(Collectors.toMap(
-                Map.Entry::getKey,
-                Map.Entry::getValue,
-                (l, r)->l,
-                ()->new EnumMap<>(QueueType.class)))),
-        Collections.unmodifiableMap(new EnumMap<>(Map.of
-        (
-            QueueType.LOTV_1V1, PARTIAL_UPDATE_MAIN_LEAGUES_2,
-            QueueType.LOTV_3V3, PARTIAL_UPDATE_SECONDARY_TEAM_LEAGUES_2
-        ))),
-        Collections.unmodifiableMap(new EnumMap<>(Map.of
-        (
-            QueueType.LOTV_1V1, PARTIAL_UPDATE_MAIN_LEAGUES_2,
-            QueueType.LOTV_4V4, PARTIAL_UPDATE_SECONDARY_TEAM_LEAGUES_2,
-            QueueType.LOTV_ARCHON, PARTIAL_UPDATE_SECONDARY_TEAM_LEAGUES_2
-        ))),
-        Collections.unmodifiableMap(new EnumMap<>(Map.of
-        (
-            QueueType.LOTV_1V1,
-            Set.of
-            (
-                BaseLeague.LeagueType.PLATINUM,
-                BaseLeague.LeagueType.DIAMOND,
-                BaseLeague.LeagueType.MASTER,
-                BaseLeague.LeagueType.GRANDMASTER
-            )
-        ))),
-        Collections.unmodifiableMap(new EnumMap<>(Map.of
-        (
-            QueueType.LOTV_1V1, PARTIAL_UPDATE_MAIN_LEAGUES_2,
-            QueueType.LOTV_3V3, PARTIAL_UPDATE_MAIN_TEAM_LEAGUES_2
-        ))),
-        Collections.unmodifiableMap(new EnumMap<>(Map.of
-        (
-            QueueType.LOTV_1V1, PARTIAL_UPDATE_MAIN_LEAGUES_2,
-            QueueType.LOTV_4V4, PARTIAL_UPDATE_MAIN_TEAM_LEAGUES_2,
-            QueueType.LOTV_ARCHON, PARTIAL_UPDATE_MAIN_TEAM_LEAGUES_2
-        ))),
-        Collections.unmodifiableMap(new EnumMap<>(Map.of
-        (
-            QueueType.LOTV_1V1, PARTIAL_UPDATE_MAIN_LEAGUES_2,
-            QueueType.LOTV_2V2, PARTIAL_UPDATE_MAIN_LEAGUES_2
-        )))
-    );
+    public static final double PARTIAL_UPDATE_BUDGET = 0.5;
+    public static final double PARTIAL_UPDATE_BUDGET_2 = 0.3;
     public static final Duration STALE_DATA_TEAM_STATES_DEPTH = Duration.ofMinutes(45);
     public static final Duration FORCED_ALTERNATIVE_UPDATE_DURATION = Duration.ofHours(3);
+    public static final Duration LEAGUE_STATS_CALCULATION_FRAME = Duration.ofHours(1);
 
     @Autowired @Lazy
     private StatsService statsService;
@@ -343,11 +145,10 @@ public class StatsService
     private boolean forceUpdate;
 
     private final Map<Region, InstantVar> forcedUpdateInstants = new EnumMap<>(Region.class);
+    private final Map<Integer, Instant> leagueStatsCalculated = new ConcurrentHashMap<>();
     private final Map<Region, InstantVar> forcedAlternativeUpdateInstants = new EnumMap<>(Region.class);
     private final Map<Region, LongVar> partialUpdates = new EnumMap<>(Region.class);
     private final Map<Region, LongVar> partialUpdates2 = new EnumMap<>(Region.class);
-    private final Map<Region, LongVar> partialUpdateIndexes = new EnumMap<>(Region.class);
-    private final Map<Region, LongVar> partialUpdateIndexes2 = new EnumMap<>(Region.class);
     private final PendingLadderData pendingLadderData = new PendingLadderData();
     private final List<Map<Region, LadderUpdateTaskContext<Void>>> pendingContexts =
         new ArrayList<>();
@@ -366,6 +167,7 @@ public class StatsService
     private TeamMemberDAO teamMemberDao;
     private QueueStatsDAO queueStatsDAO;
     private LeagueStatsDAO leagueStatsDao;
+    private FastLeagueStatsDAO fastLeagueStatsDAO;
     private PlayerCharacterStatsDAO playerCharacterStatsDAO;
     private PopulationStateDAO populationStateDAO;
     private VarDAO varDAO;
@@ -375,7 +177,8 @@ public class StatsService
     private ExecutorService dbExecutorService;
     private ClanService clanService;
     private EventService eventService;
-    private Predicate<BlizzardTeam> teamValidationPredicate;
+    private RecentTeamIndex recentTeamIndex;
+    private LadderUpdateScheduler ladderUpdateScheduler;
 
     public StatsService(){}
 
@@ -396,16 +199,18 @@ public class StatsService
         TeamMemberDAO teamMemberDao,
         QueueStatsDAO queueStatsDAO,
         LeagueStatsDAO leagueStatsDao,
+        FastLeagueStatsDAO fastLeagueStatsDAO,
         PlayerCharacterStatsDAO playerCharacterStatsDAO,
         PopulationStateDAO populationStateDAO,
         VarDAO varDAO,
         SeasonService seasonService,
         SC2WebServiceUtil sc2WebServiceUtil,
         @Qualifier("sc2StatsConversionService") ConversionService conversionService,
-        Validator validator,
         @Qualifier("dbExecutorService") ExecutorService dbExecutorService,
         ClanService clanService,
-        EventService eventService
+        EventService eventService,
+        RecentTeamIndex recentTeamIndex,
+        LadderUpdateScheduler ladderUpdateScheduler
     )
     {
         this.alternativeLadderService = alternativeLadderService;
@@ -422,6 +227,7 @@ public class StatsService
         this.teamMemberDao = teamMemberDao;
         this.queueStatsDAO = queueStatsDAO;
         this.leagueStatsDao = leagueStatsDao;
+        this.fastLeagueStatsDAO = fastLeagueStatsDAO;
         this.playerCharacterStatsDAO = playerCharacterStatsDAO;
         this.populationStateDAO = populationStateDAO;
         this.varDAO = varDAO;
@@ -431,7 +237,8 @@ public class StatsService
         this.dbExecutorService = dbExecutorService;
         this.clanService = clanService;
         this.eventService = eventService;
-        this.teamValidationPredicate = DAOUtils.beanValidationPredicate(validator);
+        this.recentTeamIndex = recentTeamIndex;
+        this.ladderUpdateScheduler = ladderUpdateScheduler;
     }
 
     @PostConstruct
@@ -443,8 +250,6 @@ public class StatsService
             forcedAlternativeUpdateInstants.put(region, new InstantVar(varDAO, region.getId() + ".ladder.alternative.forced.timestamp", false));
             partialUpdates.put(region, new LongVar(varDAO, region.getId() + ".ladder.partial", false));
             partialUpdates2.put(region, new LongVar(varDAO, region.getId() + ".ladder.partial.2", false));
-            partialUpdateIndexes.put(region, new LongVar(varDAO, region.getId() + ".ladder.partial.ix", false));
-            partialUpdateIndexes2.put(region, new LongVar(varDAO, region.getId() + ".ladder.partial.ix.2", false));
         }
         //catch exceptions to allow service autowiring for tests
         try {
@@ -455,25 +260,28 @@ public class StatsService
                 forcedUpdateInstants.values().stream(),
                 forcedAlternativeUpdateInstants.values().stream(),
                 partialUpdates.values().stream(),
-                partialUpdates2.values().stream(),
-                partialUpdateIndexes.values().stream(),
-                partialUpdateIndexes2.values().stream()
+                partialUpdates2.values().stream()
             )
                 .flatMap(Function.identity())
                 .map(var->(Var<?>) var)
                 .forEach(Var::load);
-            partialUpdateIndexes.values().stream()
-                .filter(v->v.getValue() == null)
-                .forEach(v->v.setValueAndSave(0L));
-            partialUpdateIndexes2.values().stream()
-                .filter(v->v.getValue() == null)
-                .forEach(v->v.setValueAndSave(0L));
         }
         catch(RuntimeException ex) {
             LOG.warn(ex.getMessage(), ex);
         }
     }
 
+    /**
+     * Reloads alternative regions, they can be changed by another node.
+     */
+    public void reloadAlternativeRegions()
+    {
+        alternativeRegions.clear();
+        forcedAlternativeRegions.clear();
+        loadAlternativeRegions();
+        loadForcedAlternativeRegions();
+    }
+
     protected void setNestedService(StatsService statsService)
     {
         this.statsService = statsService;
@@ -581,6 +389,7 @@ public class StatsService
         PendingLadderData altPending = alternativeLadderService.copyAndClearPendingData();
         List<Map<Region, LadderUpdateTaskContext<Void>>> contexts = List.copyOf(pendingContexts);
         pendingContexts.clear();
+        ladderUpdateScheduler.complete();
         return dbExecutorService.submit(()->
             statsService.afterCurrentSeasonUpdate(allStats, pending, altPending, contexts), null);
     }
@@ -628,7 +437,19 @@ public class StatsService
     (int seasonId, boolean allStats)
     {
         if(allStats) queueStatsDAO.mergeCalculateForSeason(seasonId);
-        leagueStatsDao.mergeCalculateForSeason(seasonId);
+        /*
+            In-memory stats don't have race games of team queues, recalculate them from time to time.
+            Full recalculation is also used when in-memory stats are incomplete.
+         */
+        Instant calculated = leagueStatsCalculated.get(seasonId);
+        boolean calculate = allStats
+            || calculated == null
+            || calculated.isBefore(SC2Pulse.instant().minus(LEAGUE_STATS_CALCULATION_FRAME));
+        if(calculate || !fastLeagueStatsDAO.merge(seasonId))
+        {
+            leagueStatsDao.mergeCalculateForSeason(seasonId);
+            leagueStatsCalculated.put(seasonId, SC2Pulse.instant());
+        }
     }
 
     private void takePopulationSnapshot(Set<Integer> seasons)
@@ -722,42 +543,42 @@ public class StatsService
         Function<LadderUpdateContext, List<Future<Void>>> updater
     )
     {
-        List<Map<QueueType, Set<BaseLeague.LeagueType>>> queue = getPartialQueue(season.getRegion());
         boolean partialUpdate = alternative
             ? (isPartialUpdate(season.getRegion()) || isPartialUpdate2(season.getRegion()))
             : isPartialUpdateOrThreshold(season.getRegion());
-        LongVar partialUpdateIndex = getPartialUpdateIndex(season.getRegion());
         LadderUpdateContext context = new LadderUpdateContext
         (
             season,
             partialUpdate
-                ? queue.get(partialUpdateIndex.getValue().intValue())
+                ? getPartialUpdateData(season.getRegion(), data)
                 : data
         );
         if(partialUpdate) LOG.info("Partially updating {}({})", season, context.getData());
         List<Future<Void>> tasks = updater.apply(context);
-        if(partialUpdate)
-            partialUpdateIndex.setValueAndSave
-            (
-                partialUpdateIndex.getValue() == queue.size() - 1
-                    ? 0
-                    : partialUpdateIndex.getValue() + 1
-            );
         return new LadderUpdateTaskContext<>(season, context.getData(), tasks);
     }
 
-    public List<Map<QueueType, Set<BaseLeague.LeagueType>>> getPartialQueue(Region region)
-    {
-        return partialUpdates2.get(region).getValue() != null
-            ? PARTIAL_UPDATE_DATA_2
-            : PARTIAL_UPDATE_DATA;
-    }
-
-    public LongVar getPartialUpdateIndex(Region region)
+    public Map<QueueType, Set<BaseLeague.LeagueType>> getPartialUpdateData
+    (
+        Region region,
+        Map<QueueType, Set<BaseLeague.LeagueType>> data
+    )
     {
-        return partialUpdates2.get(region).getValue() != null
-            ? partialUpdateIndexes2.get(region)
-            : partialUpdateIndexes.get(region);
+        return isPartialUpdate2(region)
+            ? ladderUpdateScheduler.schedule
+            (
+                region,
+                data,
+                Map.of(QueueType.LOTV_1V1, PARTIAL_UPDATE_MAIN_LEAGUES_2),
+                PARTIAL_UPDATE_BUDGET_2
+            )
+            : ladderUpdateScheduler.schedule
+            (
+                region,
+                data,
+                Map.of(QueueType.LOTV_1V1, PARTIAL_UPDATE_MAIN_LEAGUES),
+                PARTIAL_UPDATE_BUDGET
+            );
     }
 
     public boolean isPartialUpdateOrThreshold(Region region)
@@ -824,6 +645,8 @@ public class StatsService
             LeagueTier tier = leagueTierDao.merge(LeagueTier.of(league, l.getT2().getT3()));
             Division division = saveDivision(season, league, tier, l.getT2().getT4());
             int teams = updateTeams(l.getT1(), season, league, tier, division);
+            ladderUpdateScheduler
+                .addLadder(season.getRegion(), league.getQueueType(), league.getType(), teams);
             LOG.debug
             (
                 "Ladder saved: {} {} {}({}/{} teams)",
@@ -871,14 +694,25 @@ public class StatsService
         List<ClanMemberEventData> clans = new ArrayList<>();
         Integer curSeason = seasonDao.getMaxBattlenetId(season.getRegion()) == null
             ? 0 : seasonDao.getMaxBattlenetId(season.getRegion());
-        List<Tuple2<Team, BlizzardTeam>> validTeams = Arrays.stream(bTeams)
-            .filter(teamValidationPredicate.and(t->isValidTeam(t, memberCount)))
-            .map(bTeam->Tuples.of(Team.of(season, league, tier, division, bTeam, teamDao), bTeam))
-            .collect(Collectors.toList());
+        List<Tuple2<Team, BlizzardTeam>> validTeams = new ArrayList<>(bTeams.length);
+        Set<Team> teams = new HashSet<>(bTeams.length * 2);
+        for(BlizzardTeam bTeam : bTeams)
+        {
+            if(!BlizzardTeamValidator.isValid(bTeam) || !isValidTeam(bTeam, memberCount)) continue;
+
+            Team team = Team.of(season, league, tier, division, bTeam, teamDao);
+            validTeams.add(Tuples.of(team, bTeam));
+            teams.add(team);
+        }
         if(validTeams.isEmpty()) return 0;
 
+        Map<Team, Integer> previousGames = new HashMap<>(validTeams.size(), 1.0F);
+        for(Tuple2<Team, BlizzardTeam> validTeam : validTeams)
+            fastTeamDAO.find(validTeam.getT1())
+                .ifPresent(t->previousGames.put(t, CharacterActivity.getGames(t)));
         Set<Team> mergedTeams = teamDao
-            .merge(fastTeamDAO.merge(validTeams.stream().map(Tuple2::getT1).collect(Collectors.toSet())));
+            .merge(fastTeamDAO.merge(teams));
+        recentTeamIndex.add(mergedTeams);
         validTeams.stream()
             .filter(t->t.getT1().getId() != null)
             .forEach(t->{
@@ -891,9 +725,34 @@ public class StatsService
         clanService.saveClans(clans);
         pendingLadderData.getCharacters()
             .addAll(members.stream().map(Tuple3::getT2).collect(Collectors.toList()));
+        addCharacterActivity(members, mergedTeams, previousGames);
         return mergedTeams.size();
     }
 
+    private void addCharacterActivity
+    (
+        List<Tuple3<Account, PlayerCharacter, TeamMember>> members,
+        Set<Team> teams,
+        Map<Team, Integer> previousGames
+    )
+    {
+        Map<Long, Team> teamsById = teams.stream()
+            .filter(t->t.getId() != null)
+            .collect(Collectors.toMap(Team::getId, Function.identity(), (l, r)->l));
+        for(Tuple3<Account, PlayerCharacter, TeamMember> member : members)
+        {
+            Team team = teamsById.get(member.getT3().getTeamId());
+            if(team == null || member.getT2().getId() == null) continue;
+
+            pendingLadderData.addCharacterActivity
+            (
+                member.getT2().getId(),
+                CharacterActivity.getGames(team) - previousGames.getOrDefault(team, 0),
+                team.getLastPlayed()
+            );
+        }
+    }
+
     //cross field validation
     private boolean isValidTeam(BlizzardTeam team, int expectedMemberCount)
     {
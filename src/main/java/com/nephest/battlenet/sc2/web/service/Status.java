@@ -27,24 +27,20 @@ public class Status
         (
             "prioritized",
             "1v1 " + StringUtils.join(PARTIAL_UPDATE_MAIN_LEAGUES) + " are prioritized.\n"
-            + StringUtils.join(StatsService.PARTIAL_UPDATE_SECONDARY_QUEUE) + " are updated "
-            + FormatUtil.DEFAULT_DECIMAL_FORMAT.format(StatsService.PARTIAL_UPDATE_DATA.size() / 3.0)
-            + " times slower.\n"
-            + "Other data is updated " + StatsService.PARTIAL_UPDATE_DATA.size()  + " times slower.",
+            + "Other data is updated based on its change rate, using "
+            + FormatUtil.DEFAULT_DECIMAL_FORMAT.format(StatsService.PARTIAL_UPDATE_BUDGET * 100)
+            + "% of the update budget. Each league is updated at least once per "
+            + LadderUpdateScheduler.FRESHNESS_SLO.toHours() + " hours.",
             Level.WARNING
         ),
         PRIORITIZED_2
         (
             "prioritized_x2",
             "1v1 " + StringUtils.join(PARTIAL_UPDATE_MAIN_LEAGUES_2) + " are prioritized.\n"
-            + "1v1 PLATINUM is updated "
-            + FormatUtil.DEFAULT_DECIMAL_FORMAT.format(StatsService.PARTIAL_UPDATE_DATA_2.size() / 3.0)
-            + " times slower.\n"
-            + StringUtils.join(StatsService.PARTIAL_UPDATE_SECONDARY_QUEUE) + " are updated "
-            + FormatUtil.DEFAULT_DECIMAL_FORMAT.format(StatsService.PARTIAL_UPDATE_DATA_2.size() / 2.0)
-            + " times slower.\n"
-            + "Other data is updated " + StatsService.PARTIAL_UPDATE_DATA_2.size()  + " times "
-            + "slower.",
+            + "Other data is updated based on its change rate, using "
+            + FormatUtil.DEFAULT_DECIMAL_FORMAT.format(StatsService.PARTIAL_UPDATE_BUDGET_2 * 100)
+            + "% of the update budget. Each league is updated at least once per "
+            + LadderUpdateScheduler.FRESHNESS_SLO.toHours() + " hours.",
             Level.WARNING
         ),
         WEB
@@ -3,6 +3,7 @@
 
 package com.nephest.battlenet.sc2.web.service;
 
+import com.nephest.battlenet.sc2.config.data.Workload;
 import com.nephest.battlenet.sc2.model.Region;
 import com.nephest.battlenet.sc2.model.local.InstantVar;
 import com.nephest.battlenet.sc2.model.local.LongVar;
@@ -144,7 +145,7 @@ public class TeamStateService
     protected void subToEvents(Scheduler scheduler)
     {
         if(eventSub != null) eventSub.dispose();
-        eventSub = eventService.getLadderUpdateEvent()
+        eventSub = eventService.getLadderUpdateEvent(TeamStateService.class.getSimpleName())
             .flatMap(data->WebServiceUtil.getOnErrorLogAndSkipMono(
                 Mono.fromRunnable(()->update(data)).subscribeOn(scheduler).then(Mono.just(data))), 1)
             .doOnNext(data->updateEvent.emitNext(data, EventService.DEFAULT_FAILURE_HANDLER))
@@ -292,7 +293,11 @@ public class TeamStateService
         (
             updates,
             r->lastArchiveSeason.get(r).getValue().intValue() + 1,
-            (region, season)->service.updateArchive(region, season)
+            (region, season)->Workload.run
+            (
+                Workload.MAINTENANCE,
+                ()->service.updateArchive(region, season)
+            )
         );
     }
 
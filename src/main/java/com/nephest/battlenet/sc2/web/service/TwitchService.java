@@ -75,7 +75,7 @@ public class TwitchService
 
     private void subToEvents(EventService eventService)
     {
-        eventService.getMatchUpdateEvent()
+        eventService.getMatchUpdateEvent(TwitchService.class.getSimpleName())
             .doOnNext(uc->LOG.trace("Received match update event, updating twitch data"))
             .flatMap(uc->WebServiceUtil.getOnErrorLogAndSkipMono(updateTwitchData(uc)))
             .subscribe();
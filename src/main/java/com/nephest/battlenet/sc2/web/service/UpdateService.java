@@ -27,7 +27,6 @@ import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -68,7 +67,7 @@ public class UpdateService
 
     private void subToEvents(EventService eventService)
     {
-        eventService.getLadderUpdateEvent()
+        eventService.getLadderUpdateEvent(UpdateService.class.getSimpleName())
             .flatMap(data->WebServiceUtil.getOnErrorLogAndSkipMono(Mono.fromCallable(()->
                 saveLadderUpdates(data))))
             .doOnNext(updates->updates.forEach(
@@ -94,7 +93,15 @@ public class UpdateService
         )
             .flatMap(Collection::stream)
             .forEach(Var::tryLoad);
+        initContexts();
+    }
 
+    /**
+     * Rebuilds update contexts from update vars. Must be called when vars were reloaded, see
+     * {@link com.nephest.battlenet.sc2.service.LeaderElectionService}.
+     */
+    public void initContexts()
+    {
         for(Region region : Region.values())
         {
             UpdateContext updateContext = new UpdateContext
@@ -124,7 +131,6 @@ public class UpdateService
         );
     }
 
-    @Scheduled(cron="0 0 6 * * *")
     public int removeExpiredLadderUpdates()
     {
         return ladderUpdateDAO.removeExpired();
@@ -4,6 +4,7 @@
 package com.nephest.battlenet.sc2.web.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nephest.battlenet.sc2.config.data.Workload;
 import com.nephest.battlenet.sc2.model.Region;
 import com.nephest.battlenet.sc2.model.local.CollectionVar;
 import com.nephest.battlenet.sc2.model.local.dao.VarDAO;
@@ -404,6 +405,35 @@ public class WebServiceUtil
         return Mono.fromCallable(callable).subscribeOn(Schedulers.boundedElastic());
     }
 
+    /**
+     * Scheduler threads are not bound to any workload, use these methods for tasks that must
+     * use the connection pool of a specific workload.
+     *
+     * @param workload workload of the task
+     * @param runnable task
+     * @return mono that runs the task on the blocking scheduler
+     */
+    public static Mono<Void> blockingRunnable(Workload workload, Runnable runnable)
+    {
+        return blockingRunnable(()->Workload.run(workload, runnable));
+    }
+
+    public static <T> Mono<T> blockingCallable(Workload workload, Callable<T> callable)
+    {
+        return blockingCallable(()->
+        {
+            Workload previous = Workload.bind(workload);
+            try
+            {
+                return callable.call();
+            }
+            finally
+            {
+                Workload.restore(previous);
+            }
+        });
+    }
+
     public static CollectionVar<Set<Region>, Region> loadRegionSetVar(VarDAO varDAO, String key, String error)
     {
         CollectionVar<Set<Region>, Region> setVar = new CollectionVar<>
@@ -0,0 +1,209 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.util;
+
+import io.netty.handler.timeout.TimeoutException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/*
+    # Additive-increase/multiplicative-decrease concurrency limiter for Reactor
+
+    * Decorate target monos:
+        * mono.transform(limiter::limit)
+    * Put it before retryWhen, so every attempt is measured and counted as in-flight request.
+    * The limit is increased by 1 per `limit` successful requests, i.e. by 1 per "window".
+    * The limit is multiplied by the decrease factor when there is a congestion signal:
+        * 429 or 5xx response;
+        * timeout;
+        * latency is above the threshold.
+    * Other errors(404, etc.) don't change the limit.
+ */
+public class AimdConcurrencyLimiter
+{
+
+    private static final Logger LOG = LoggerFactory.getLogger(AimdConcurrencyLimiter.class);
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int initialLimit;
+    private final double decreaseFactor;
+    private final Duration latencyThreshold;
+    private final Duration decreaseCooldown;
+    private final Queue<Sinks.One<Void>> requests = new ArrayDeque<>();
+
+    private double limit;
+    private int inFlight = 0;
+    private long lastDecrease = Long.MIN_VALUE;
+
+    public AimdConcurrencyLimiter
+    (
+        String name,
+        int minLimit,
+        int initialLimit,
+        int maxLimit,
+        double decreaseFactor,
+        Duration latencyThreshold,
+        Duration decreaseCooldown
+    )
+    {
+        if(minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit)
+            throw new IllegalArgumentException("Expected 1 <= min <= initial <= max");
+        if(decreaseFactor <= 0 || decreaseFactor >= 1)
+            throw new IllegalArgumentException("Decrease factor must be in (0, 1) range");
+
+        this.name = name;
+        this.minLimit = minLimit;
+        this.initialLimit = initialLimit;
+        this.maxLimit = maxLimit;
+        this.decreaseFactor = decreaseFactor;
+        this.latencyThreshold = latencyThreshold;
+        this.decreaseCooldown = decreaseCooldown;
+        this.limit = initialLimit;
+    }
+
+    public <T> Mono<T> limit(Mono<T> mono)
+    {
+        return Mono.defer(()->acquire().then(Mono.defer(()->
+        {
+            long start = System.nanoTime();
+            return mono
+                .doOnSuccess(r->onSuccess(Duration.ofNanos(System.nanoTime() - start)))
+                .doOnError(this::onError)
+                .doFinally(s->release());
+        })));
+    }
+
+    public Mono<Void> acquire()
+    {
+        Sinks.One<Void> one;
+        synchronized(this)
+        {
+            if(inFlight < getLimit())
+            {
+                inFlight++;
+                return Mono.empty();
+            }
+
+            one = Sinks.one();
+            requests.add(one);
+        }
+        return one.asMono().doOnCancel(()->cancel(one));
+    }
+
+    private void cancel(Sinks.One<Void> request)
+    {
+        boolean removed;
+        synchronized(this)
+        {
+            removed = requests.remove(request);
+        }
+        //the slot was granted concurrently, give it back
+        if(!removed) release();
+    }
+
+    public void release()
+    {
+        List<Sinks.One<Void>> granted = new ArrayList<>();
+        synchronized(this)
+        {
+            inFlight--;
+            //the limit might have been increased, grant all available slots
+            while(inFlight < getLimit() && !requests.isEmpty())
+            {
+                granted.add(requests.poll());
+                inFlight++;
+            }
+        }
+        for(Sinks.One<Void> request : granted) request.tryEmitEmpty();
+    }
+
+    public synchronized void onSuccess(Duration latency)
+    {
+        if(latencyThreshold != null && latency.compareTo(latencyThreshold) > 0)
+        {
+            decrease("latency " + latency.toMillis() + "ms");
+            return;
+        }
+        limit = Math.min(maxLimit, limit + 1.0 / limit);
+    }
+
+    public synchronized void onError(Throwable t)
+    {
+        if(isCongestion(t)) decrease(t.getClass().getSimpleName());
+    }
+
+    private void decrease(String reason)
+    {
+        long now = System.nanoTime();
+        if(lastDecrease != Long.MIN_VALUE && now - lastDecrease < decreaseCooldown.toNanos()) return;
+
+        double previous = limit;
+        limit = Math.max(minLimit, limit * decreaseFactor);
+        lastDecrease = now;
+        LOG.debug("{} concurrency limit decreased {}->{}: {}", name, (int) previous, getLimit(), reason);
+    }
+
+    public static boolean isCongestion(Throwable t)
+    {
+        if(ExceptionUtils.indexOfType(t, TimeoutException.class) > -1
+            || ExceptionUtils.indexOfType(t, java.util.concurrent.TimeoutException.class) > -1)
+                return true;
+
+        int ix = ExceptionUtils.indexOfType(t, WebClientResponseException.class);
+        if(ix < 0) return false;
+
+        WebClientResponseException wcre = (WebClientResponseException) ExceptionUtils
+            .getThrowableList(t).get(ix);
+        return wcre.getStatusCode().is5xxServerError()
+            || wcre.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public synchronized int getLimit()
+    {
+        return (int) limit;
+    }
+
+    public int getInitialLimit()
+    {
+        return initialLimit;
+    }
+
+    public int getMinLimit()
+    {
+        return minLimit;
+    }
+
+    public int getMaxLimit()
+    {
+        return maxLimit;
+    }
+
+    public synchronized int getInFlight()
+    {
+        return inFlight;
+    }
+
+    public synchronized int getQueueSize()
+    {
+        return requests.size();
+    }
+
+}
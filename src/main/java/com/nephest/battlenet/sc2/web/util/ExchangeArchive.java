@@ -0,0 +1,224 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/*
+    # WebClient exchange capture and replay
+
+    * Add the archive to a WebClient as a filter, it appends responses of matching requests to a
+      JSON Lines file. Request headers are not archived because they contain credentials.
+    * Archived exchanges are replayed by a local server. Use the replay filter to redirect
+      requests to that server, the original host is kept as the first path segment:
+      https://eu.api.blizzard.com/data/sc2/ladder/1
+      http://127.0.0.1:1234/eu.api.blizzard.com/data/sc2/ladder/1
+    * Response bodies are read into memory to be archived, this is a diagnostic tool and it's not
+      supposed to be enabled permanently.
+ */
+public class ExchangeArchive
+implements ExchangeFilterFunction, Closeable
+{
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExchangeArchive.class);
+
+    public record Exchange
+    (
+        Instant timestamp,
+        String method,
+        String uri,
+        int status,
+        String contentType,
+        long durationMillis,
+        String body
+    )
+    {
+
+        public String toReplayPath()
+        {
+            return ExchangeArchive.getReplayPath(URI.create(uri));
+        }
+
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final Predicate<URI> filter;
+    private final BufferedWriter writer;
+    private final AtomicLong count = new AtomicLong();
+
+    public ExchangeArchive(ObjectMapper objectMapper, Path file, Predicate<URI> filter)
+    {
+        this.objectMapper = objectMapper;
+        this.file = file;
+        this.filter = filter;
+        try
+        {
+            if(file.getParent() != null) Files.createDirectories(file.getParent());
+            writer = Files.newBufferedWriter
+            (
+                file,
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND
+            );
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        LOG.warn("Archiving web client exchanges to {}", file);
+    }
+
+    public ExchangeArchive(ObjectMapper objectMapper, Path file)
+    {
+        this(objectMapper, file, uri->true);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next)
+    {
+        if(!filter.test(request.url())) return next.exchange(request);
+
+        long start = System.nanoTime();
+        return next.exchange(request)
+            .flatMap(response->DataBufferUtils.join(response.body(BodyExtractors.toDataBuffers()))
+                .map(ExchangeArchive::toBytes)
+                .defaultIfEmpty(new byte[0])
+                .map(body->
+                {
+                    Exchange exchange = new Exchange
+                    (
+                        Instant.now(),
+                        request.method().name(),
+                        request.url().toString(),
+                        response.statusCode().value(),
+                        response.headers().asHttpHeaders().getFirst(HttpHeaders.CONTENT_TYPE),
+                        Duration.ofNanos(System.nanoTime() - start).toMillis(),
+                        new String(body, StandardCharsets.UTF_8)
+                    );
+                    Schedulers.boundedElastic().schedule(()->write(exchange));
+                    return response.mutate()
+                        .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)))
+                        .build();
+                }));
+    }
+
+    private static byte[] toBytes(DataBuffer buffer)
+    {
+        try
+        {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        }
+        finally
+        {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private synchronized void write(Exchange exchange)
+    {
+        try
+        {
+            writer.write(objectMapper.writeValueAsString(exchange));
+            writer.newLine();
+            count.incrementAndGet();
+        }
+        catch (IOException e)
+        {
+            LOG.error("Failed to archive exchange " + exchange.uri(), e);
+        }
+    }
+
+    public synchronized void flush()
+    throws IOException
+    {
+        writer.flush();
+    }
+
+    @Override
+    public synchronized void close()
+    throws IOException
+    {
+        writer.close();
+        LOG.info("Archived {} web client exchanges to {}", count.get(), file);
+    }
+
+    public long getCount()
+    {
+        return count.get();
+    }
+
+    public Path getFile()
+    {
+        return file;
+    }
+
+    public static List<Exchange> read(ObjectMapper objectMapper, Path file)
+    throws IOException
+    {
+        List<Exchange> exchanges = new ArrayList<>();
+        try(BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+        {
+            String line;
+            while((line = reader.readLine()) != null)
+                if(!line.isBlank()) exchanges.add(objectMapper.readValue(line, Exchange.class));
+        }
+        return exchanges;
+    }
+
+    public static String getReplayPath(URI uri)
+    {
+        return "/" + uri.getHost() + uri.getRawPath()
+            + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+    }
+
+    /**
+     * @param server replay server base URI
+     * @return filter that redirects all requests to the replay server
+     */
+    public static ExchangeFilterFunction replayFilter(URI server)
+    {
+        return (request, next)->next.exchange(ClientRequest.from(request)
+            .url(UriComponentsBuilder.fromUri(server)
+                .path("/" + request.url().getHost() + request.url().getRawPath())
+                .query(request.url().getRawQuery())
+                .build(true)
+                .toUri())
+            .build());
+    }
+
+}
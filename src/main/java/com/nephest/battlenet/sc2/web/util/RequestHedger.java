@@ -0,0 +1,147 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.util;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+
+/*
+    # Request hedging for Reactor
+
+    * Decorate target monos:
+        * hedger.hedge(primaryMono, ()->hedgeMono)
+    * Latency of successful primary requests is recorded into a fixed size window.
+    * If the primary request is slower than the latency percentile of the window, the hedge request
+      is fired. The first signal wins, the loser is cancelled.
+    * Hedge errors and empty hedge results are ignored, the primary request decides the outcome
+      in such cases.
+    * Hedge requests are limited by a token bucket which is refilled with
+      `hedgesPerHour` tokens per hour. The bucket size is 1% of the hourly budget.
+ */
+public class RequestHedger
+{
+
+    public static final double BUCKET_SIZE_FRACTION = 0.01;
+
+    private final long[] samples;
+    private final int minSamples;
+    private final double percentile;
+    private final Duration minDelay;
+    private final DoubleSupplier hedgesPerHour;
+
+    private int sampleIx = 0;
+    private int sampleCount = 0;
+    private int samplesSinceCalculation = 0;
+    private Duration delay;
+
+    private double tokens = 0;
+    private long lastRefill = System.nanoTime();
+
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    public RequestHedger
+    (
+        int windowSize,
+        int minSamples,
+        double percentile,
+        Duration minDelay,
+        DoubleSupplier hedgesPerHour
+    )
+    {
+        if(windowSize < 1 || minSamples < 1 || minSamples > windowSize)
+            throw new IllegalArgumentException("Expected 1 <= minSamples <= windowSize");
+        if(percentile <= 0 || percentile >= 1)
+            throw new IllegalArgumentException("Percentile must be in (0, 1) range");
+
+        this.samples = new long[windowSize];
+        this.minSamples = minSamples;
+        this.percentile = percentile;
+        this.minDelay = minDelay;
+        this.hedgesPerHour = hedgesPerHour;
+    }
+
+    public <T> Mono<T> hedge(Mono<T> primary, Supplier<Mono<T>> hedge)
+    {
+        return Mono.defer(()->
+        {
+            long start = System.nanoTime();
+            Mono<T> timedPrimary = primary
+                .doOnSuccess(r->addSample(Duration.ofNanos(System.nanoTime() - start)));
+            Duration hedgeDelay = getDelay();
+            if(hedgeDelay == null) return timedPrimary;
+
+            Mono<T> hedgeMono = Mono.delay(hedgeDelay)
+                .then(Mono.defer(()->
+                {
+                    if(!tryAcquire()) return Mono.<T>never();
+
+                    hedges.incrementAndGet();
+                    return hedge.get()
+                        .doOnSuccess(r->{if(r != null) hedgeWins.incrementAndGet();});
+                }))
+                .onErrorResume(t->Mono.never())
+                .switchIfEmpty(Mono.never());
+            return Mono.firstWithSignal(timedPrimary, hedgeMono);
+        });
+    }
+
+    public synchronized void addSample(Duration latency)
+    {
+        samples[sampleIx] = latency.toNanos();
+        sampleIx = (sampleIx + 1) % samples.length;
+        if(sampleCount < samples.length) sampleCount++;
+        samplesSinceCalculation++;
+    }
+
+    /**
+     * @return hedge delay, or null if there are not enough samples
+     */
+    public synchronized Duration getDelay()
+    {
+        if(sampleCount < minSamples) return null;
+
+        //recalculate the percentile once per window/10 samples, there is no need to sort every time
+        if(delay == null || samplesSinceCalculation >= Math.max(samples.length / 10, 1))
+        {
+            long[] sorted = Arrays.copyOf(samples, sampleCount);
+            Arrays.sort(sorted);
+            int ix = Math.min((int) Math.ceil(percentile * sorted.length) - 1, sorted.length - 1);
+            Duration percentileDelay = Duration.ofNanos(sorted[Math.max(ix, 0)]);
+            delay = minDelay != null && percentileDelay.compareTo(minDelay) < 0
+                ? minDelay
+                : percentileDelay;
+            samplesSinceCalculation = 0;
+        }
+        return delay;
+    }
+
+    public synchronized boolean tryAcquire()
+    {
+        double perHour = Math.max(hedgesPerHour.getAsDouble(), 0);
+        double max = Math.max(perHour * BUCKET_SIZE_FRACTION, 1);
+        long now = System.nanoTime();
+        tokens = Math.min(max, tokens + perHour * (now - lastRefill) / (double) Duration.ofHours(1).toNanos());
+        lastRefill = now;
+        if(tokens < 1) return false;
+
+        tokens--;
+        return true;
+    }
+
+    public long getHedges()
+    {
+        return hedges.get();
+    }
+
+    public long getHedgeWins()
+    {
+        return hedgeWins.get();
+    }
+
+}
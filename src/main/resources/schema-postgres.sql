@@ -1198,6 +1198,40 @@ CREATE INDEX "ix_match_participant_twitch_video_id"
     ON "match_participant"("twitch_video_id")
     WHERE "twitch_video_id" IS NOT NULL;
 
+CREATE TABLE "match_versus"
+(
+    "match_id" BIGINT NOT NULL,
+    "player_character_id" BIGINT NOT NULL,
+    "date" TIMESTAMP WITH TIME ZONE NOT NULL,
+    "type" SMALLINT NOT NULL,
+    "map_id" INTEGER NOT NULL,
+    "region" SMALLINT NOT NULL,
+    "decision" SMALLINT NOT NULL,
+    "clan_id" INTEGER,
+    "queue_type" SMALLINT,
+    "team_type" SMALLINT,
+    "team_region" SMALLINT,
+    "legacy_id" TEXT,
+
+    PRIMARY KEY ("match_id", "player_character_id"),
+
+    CONSTRAINT "fk_match_versus_match_participant"
+        FOREIGN KEY ("match_id", "player_character_id")
+        REFERENCES "match_participant"("match_id", "player_character_id")
+        ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+CREATE INDEX "ix_match_versus_clan_id_cursor"
+    ON "match_versus"("clan_id", "date" DESC, "type" DESC, "map_id" DESC, "region" DESC)
+    WHERE "clan_id" IS NOT NULL;
+CREATE INDEX "ix_match_versus_team_cursor"
+    ON "match_versus"
+    (
+        "queue_type", "team_type", "team_region", "legacy_id",
+        "date" DESC, "type" DESC, "map_id" DESC, "region" DESC
+    )
+    WHERE "legacy_id" IS NOT NULL;
+
 CREATE TABLE "var"
 (
     "key" TEXT NOT NULL,
@@ -0,0 +1,40 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.jfr.FlightRecorderApplicationStartup;
+
+public class StartupReportTest
+{
+
+    @Test
+    public void testCreateApplicationStartup()
+    {
+        assertSame(ApplicationStartup.DEFAULT, StartupReport.createApplicationStartup(null));
+        assertSame(ApplicationStartup.DEFAULT, StartupReport.createApplicationStartup(""));
+        assertInstanceOf
+        (
+            BufferingApplicationStartup.class,
+            StartupReport.createApplicationStartup("buffer")
+        );
+        assertInstanceOf
+        (
+            FlightRecorderApplicationStartup.class,
+            StartupReport.createApplicationStartup("jfr")
+        );
+        assertThrows
+        (
+            IllegalArgumentException.class,
+            ()->StartupReport.createApplicationStartup("unknown")
+        );
+    }
+
+}
@@ -4,6 +4,7 @@
 package com.nephest.battlenet.sc2.config.convert.jackson;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -20,11 +21,14 @@ import com.nephest.battlenet.sc2.model.local.PopulationState;
 import com.nephest.battlenet.sc2.model.local.TeamState;
 import com.nephest.battlenet.sc2.model.local.ladder.LadderTeamState;
 import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import java.io.IOException;
 import java.time.OffsetDateTime;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.test.context.TestPropertySource;
 
 @SpringBootTest(classes = {AllTestConfig.class})
@@ -36,6 +40,12 @@ public class JacksonSerializationIT
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
     @Test
     public void testLadderTeamStateArraySerialization()
     throws JsonProcessingException
@@ -55,6 +65,25 @@ public class JacksonSerializationIT
         verifyBase(dest.getHistory().get(1), 100, odtBase);
     }
 
+    @Test
+    public void testLadderTeamStateArrayBinarySerialization()
+    throws IOException
+    {
+        for(ObjectMapper mapper : List.of(cborConverter.getObjectMapper(), smileConverter.getObjectMapper()))
+        {
+            LadderTeamStateContainer src = new LadderTeamStateContainer();
+            OffsetDateTime odtBase = SC2Pulse.offsetDateTime();
+            src.setHistory(List.of(create(1, odtBase), create(100, odtBase)));
+
+            byte[] bytes = mapper.writeValueAsBytes(src);
+            //epoch timestamps
+            assertTrue(mapper.readTree(bytes).get("history").get("dateTime").get(0).isNumber());
+            LadderTeamStateContainer dest = mapper.readValue(bytes, LadderTeamStateContainer.class);
+            verifyBase(dest.getHistory().get(0), 1, odtBase);
+            verifyBase(dest.getHistory().get(1), 100, odtBase);
+        }
+    }
+
     public static LadderTeamState create(int base, OffsetDateTime odtBase)
     {
         return new LadderTeamState
@@ -0,0 +1,49 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+public class PoolMetricsTest
+{
+
+    @Test
+    public void testStats()
+    {
+        PoolStats poolStats = mock(PoolStats.class);
+        when(poolStats.getActiveConnections()).thenReturn(2);
+        when(poolStats.getIdleConnections()).thenReturn(3);
+        when(poolStats.getTotalConnections()).thenReturn(5);
+        when(poolStats.getMaxConnections()).thenReturn(10);
+        when(poolStats.getPendingThreads()).thenReturn(1);
+        PoolMetrics metrics = new PoolMetrics();
+        IMetricsTracker tracker = metrics.create("ingest", poolStats);
+
+        tracker.recordConnectionAcquiredNanos(Duration.ofMillis(10).toNanos());
+        tracker.recordConnectionAcquiredNanos(Duration.ofMillis(30).toNanos());
+        tracker.recordConnectionUsageMillis(100);
+        tracker.recordConnectionTimeout();
+
+        PoolMetrics.Stats stats = metrics.getStats().get("ingest");
+        assertEquals(2, stats.active());
+        assertEquals(3, stats.idle());
+        assertEquals(5, stats.total());
+        assertEquals(10, stats.max());
+        assertEquals(1, stats.waiting());
+        assertEquals(2, stats.acquired());
+        assertEquals(Duration.ofMillis(40), stats.waitTotal());
+        assertEquals(Duration.ofMillis(30), stats.waitMax());
+        assertEquals(Duration.ofMillis(20), stats.getWaitMean());
+        assertEquals(1, stats.timeouts());
+        assertEquals(Duration.ofMillis(100), stats.usageTotal());
+    }
+
+}
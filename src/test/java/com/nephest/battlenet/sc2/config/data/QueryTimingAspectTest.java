@@ -0,0 +1,130 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Repository;
+
+public class QueryTimingAspectTest
+{
+
+    @Repository
+    public static class TestDAO
+    {
+
+        public List<Long> find(Set<Long> ids, Integer season)
+        {
+            return List.copyOf(ids);
+        }
+
+        public int merge(Object[] data)
+        {
+            throw new IllegalStateException("test");
+        }
+
+        @NotTimed
+        public int getLimit()
+        {
+            return 1;
+        }
+
+    }
+
+    @Repository
+    public static class FastTestDAO
+    {
+
+        public List<Long> find(Set<Long> ids)
+        {
+            return List.copyOf(ids);
+        }
+
+    }
+
+    @Repository @NotTimed
+    public static class InMemoryTestDAO
+    {
+
+        public List<Long> find(Set<Long> ids)
+        {
+            return List.copyOf(ids);
+        }
+
+    }
+
+    private static <T> T proxy(T target, QueryTimings timings)
+    {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new QueryTimingAspect(timings));
+        return factory.getProxy();
+    }
+
+    @Test
+    public void testCountRows()
+    {
+        assertEquals(0, QueryTimingAspect.countRows(null));
+        assertEquals(5, QueryTimingAspect.countRows(5));
+        assertEquals(6, QueryTimingAspect.countRows(6L));
+        assertEquals(3, QueryTimingAspect.countRows(new int[]{1, 2, -2}));
+        assertEquals(0, QueryTimingAspect.countRows(Optional.empty()));
+        assertEquals(1, QueryTimingAspect.countRows(Optional.of(1)));
+        assertEquals(2, QueryTimingAspect.countRows(List.of(1, 2)));
+        assertEquals(1, QueryTimingAspect.countRows(Map.of(1, 2)));
+        assertEquals(1, QueryTimingAspect.countRows("value"));
+    }
+
+    @Test
+    public void testParameters()
+    {
+        Object[] args = new Object[]{Set.of(1L, 2L), null, 1, new Object[3], List.of(), Map.of(1, 1)};
+        assertEquals(2 + 1 + 1 + 3 + 0 + 1, QueryTimingAspect.countParameters(args));
+        assertEquals
+        (
+            "(Set[2], null, Integer, Object[3], List[0], Map[1])",
+            QueryTimingAspect.getShape(args)
+        );
+    }
+
+    @Test
+    public void testAspect()
+    {
+        QueryTimings timings = new QueryTimings(Duration.ZERO, 10);
+        TestDAO dao = proxy(new TestDAO(), timings);
+
+        assertEquals(2, dao.find(Set.of(1L, 2L), 1).size());
+        assertEquals(1, dao.find(Set.of(1L), 1).size());
+        assertThrows(IllegalStateException.class, ()->dao.merge(new Object[4]));
+        assertEquals(1, dao.getLimit());
+
+        Map<String, QueryTimings.Stats> stats = timings.getStats();
+        assertEquals(2, stats.get("TestDAO.find").calls());
+        assertEquals(3, stats.get("TestDAO.find").rows());
+        assertEquals(5, stats.get("TestDAO.find").parameters());
+        assertEquals(0, stats.get("TestDAO.find").errors());
+        assertEquals(1, stats.get("TestDAO.merge").errors());
+        assertEquals(4, stats.get("TestDAO.merge").parameters());
+        assertEquals(Set.of("TestDAO.find", "TestDAO.merge"), stats.keySet());
+        assertEquals(3, timings.getSlowQueries().size());
+    }
+
+    @Test
+    public void whenInMemoryRepository_thenDontTime()
+    {
+        QueryTimings timings = new QueryTimings(Duration.ZERO, 10);
+        assertEquals(1, proxy(new FastTestDAO(), timings).find(Set.of(1L)).size());
+        assertEquals(1, proxy(new InMemoryTestDAO(), timings).find(Set.of(1L)).size());
+        assertTrue(timings.getStats().isEmpty());
+    }
+
+}
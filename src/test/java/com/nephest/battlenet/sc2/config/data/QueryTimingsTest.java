@@ -0,0 +1,101 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class QueryTimingsTest
+{
+
+    private static long millis(long millis)
+    {
+        return Duration.ofMillis(millis).toNanos();
+    }
+
+    @Test
+    public void testBuckets()
+    {
+        assertEquals(0, QueryTimings.getBucket(millis(0)));
+        assertEquals(0, QueryTimings.getBucket(millis(1) - 1));
+        assertEquals(1, QueryTimings.getBucket(millis(1)));
+        assertEquals(2, QueryTimings.getBucket(millis(2)));
+        assertEquals(2, QueryTimings.getBucket(millis(3)));
+        assertEquals(3, QueryTimings.getBucket(millis(4)));
+        assertEquals(QueryTimings.BUCKET_COUNT - 1, QueryTimings.getBucket(Long.MAX_VALUE));
+        assertEquals(Duration.ofMillis(1), QueryTimings.getBucketUpperBound(0));
+        assertEquals(Duration.ofMillis(4), QueryTimings.getBucketUpperBound(2));
+    }
+
+    @Test
+    public void testStats()
+    {
+        QueryTimings timings = new QueryTimings(Duration.ofSeconds(10), 10);
+        for(int i = 0; i < 98; i++) timings.record("DAO.find", millis(1), 2, 3, false, ()->"");
+        timings.record("DAO.find", millis(5), 2, 3, false, ()->"");
+        timings.record("DAO.find", millis(20), 2, 3, true, ()->"");
+        timings.record("DAO.merge", millis(1), 1, 1, false, ()->"");
+
+        Map<String, QueryTimings.Stats> stats = timings.getStats();
+        assertEquals(2, stats.size());
+        QueryTimings.Stats find = stats.get("DAO.find");
+        assertEquals(100, find.calls());
+        assertEquals(1, find.errors());
+        assertEquals(200, find.rows());
+        assertEquals(300, find.parameters());
+        assertEquals(Duration.ofMillis(20), find.max());
+        assertEquals(Duration.ofMillis(98 + 5 + 20), find.total());
+        assertEquals(Duration.ofNanos(millis(123) / 100), find.getMean());
+        long[] histogram = new long[QueryTimings.BUCKET_COUNT];
+        histogram[1] = 98;
+        histogram[3] = 1;
+        histogram[5] = 1;
+        assertArrayEquals(histogram, find.histogram());
+        assertEquals(Duration.ofMillis(2), find.percentiles().get("p50"));
+        assertEquals(Duration.ofMillis(2), find.percentiles().get("p95"));
+        assertEquals(Duration.ofMillis(8), find.percentiles().get("p99"));
+        assertEquals(1, stats.get("DAO.merge").calls());
+    }
+
+    @Test
+    public void whenSlow_thenCapture()
+    {
+        QueryTimings timings = new QueryTimings(Duration.ofMillis(10), 2);
+        AtomicInteger shapeCalls = new AtomicInteger();
+        timings.record("DAO.fast", millis(9), 1, 1, false, ()->{
+            shapeCalls.incrementAndGet();
+            return "";
+        });
+        assertEquals(0, shapeCalls.get());
+        assertTrue(timings.getSlowQueries().isEmpty());
+
+        timings.record("DAO.slow1", millis(10), 1, 1, false, ()->"(Set[1])");
+        timings.record("DAO.slow2", millis(30), 2, 2, false, ()->"(Set[2])");
+        List<QueryTimings.SlowQuery> slow = timings.getSlowQueries();
+        assertEquals(2, slow.size());
+        assertEquals("DAO.slow2", slow.get(0).method());
+        assertEquals("(Set[2])", slow.get(0).shape());
+        assertEquals(Duration.ofMillis(30), slow.get(0).duration());
+        assertEquals("DAO.slow1", slow.get(1).method());
+
+        //ring buffer, the oldest call is overwritten
+        timings.record("DAO.slow3", millis(20), 3, 3, false, ()->"(Set[3])");
+        slow = timings.getSlowQueries();
+        assertEquals(2, slow.size());
+        assertEquals("DAO.slow2", slow.get(0).method());
+        assertEquals("DAO.slow3", slow.get(1).method());
+
+        timings.reset();
+        assertTrue(timings.getSlowQueries().isEmpty());
+        assertTrue(timings.getStats().isEmpty());
+    }
+
+}
@@ -0,0 +1,73 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nephest.battlenet.sc2.config.AllTestConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/*
+    Requires a second PostgreSQL instance, it doesn't have to be a real replica. Run it with
+    `-Dsc2.it.replica.url=jdbc:postgresql://127.0.0.1:5433/<db>`. Instances must listen on
+    different ports.
+ */
+@SpringBootTest(classes = {AllTestConfig.class})
+@TestPropertySource("classpath:application.properties")
+@TestPropertySource("classpath:application-private.properties")
+@EnabledIfSystemProperty(named = "sc2.it.replica.url", matches = ".+")
+public class ReplicaDataSourceIT
+{
+
+    @Autowired
+    private JdbcTemplate template;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @DynamicPropertySource
+    public static void replicaProperties(DynamicPropertyRegistry registry)
+    {
+        registry.add
+        (
+            "com.nephest.battlenet.sc2.datasource.replica.url",
+            ()->System.getProperty("sc2.it.replica.url")
+        );
+    }
+
+    private Integer getPort(boolean readOnly)
+    {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(s->template.queryForObject("SELECT inet_server_port()", Integer.class));
+    }
+
+    @Test
+    public void testRouting()
+    {
+        assertTrue(replicaRoutingDataSource.isReplicaAvailable());
+        Integer primaryPort = getPort(false);
+        Integer replicaPort = getPort(true);
+        assertNotEquals(primaryPort, replicaPort);
+        //non-transactional statements go to the primary
+        assertEquals(primaryPort, template.queryForObject("SELECT inet_server_port()", Integer.class));
+        //pinned sessions read from the primary
+        assertEquals(primaryPort, ReplicaRoutingDataSource.onPrimary(()->getPort(true)));
+    }
+
+}
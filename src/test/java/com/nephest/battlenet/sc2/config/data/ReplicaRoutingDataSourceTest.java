@@ -0,0 +1,128 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class ReplicaRoutingDataSourceTest
+{
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    public void beforeEach()
+    throws SQLException
+    {
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        dataSource = new ReplicaRoutingDataSource
+        (
+            primary,
+            replica,
+            Duration.ofSeconds(30),
+            Duration.ofSeconds(10)
+        );
+    }
+
+    private void stubLag(double millis)
+    throws SQLException
+    {
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaRoutingDataSource.LAG_QUERY)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(millis);
+    }
+
+    @Test
+    public void whenLagIsUnknown_thenRouteToPrimary()
+    throws SQLException
+    {
+        when(replicaConnection.createStatement()).thenThrow(new SQLException("test"));
+        dataSource.updateLag();
+        assertNull(dataSource.getLag());
+        assertFalse(dataSource.isReplicaAvailable());
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertEquals(1, dataSource.getStats().primary().routed());
+    }
+
+    @Test
+    public void whenLagIsSmall_thenRouteToReplica()
+    throws SQLException
+    {
+        stubLag(1000);
+        dataSource.updateLag();
+        assertTrue(dataSource.isReplicaAvailable());
+        assertSame(replicaConnection, dataSource.getConnection());
+        //configured pin duration is bigger than the lag
+        assertEquals(Duration.ofSeconds(10), dataSource.getPinDuration());
+
+        assertSame
+        (
+            primaryConnection,
+            ReplicaRoutingDataSource.onPrimary(()->
+            {
+                try
+                {
+                    return dataSource.getConnection();
+                }
+                catch (SQLException e)
+                {
+                    throw new RuntimeException(e);
+                }
+            })
+        );
+        assertFalse(ReplicaRoutingDataSource.isPinned());
+        assertEquals(1, dataSource.getStats().replica().routed());
+        assertEquals(1, dataSource.getStats().primary().routed());
+    }
+
+    @Test
+    public void whenLagIsTooBig_thenRouteToPrimary()
+    throws SQLException
+    {
+        stubLag(31_000);
+        dataSource.updateLag();
+        assertFalse(dataSource.isReplicaAvailable());
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertEquals(Duration.ofSeconds(31), dataSource.getPinDuration());
+    }
+
+}
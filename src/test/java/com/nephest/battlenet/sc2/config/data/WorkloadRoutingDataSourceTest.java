@@ -0,0 +1,117 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class WorkloadRoutingDataSourceTest
+{
+
+    private DataSource web;
+    private DataSource ingest;
+    private WorkloadRoutingDataSource dataSource;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        web = mock(DataSource.class);
+        ingest = mock(DataSource.class);
+        dataSource = new WorkloadRoutingDataSource(web, Map.of(Workload.INGEST, ingest));
+    }
+
+    @Test
+    public void whenUnbound_thenUseDefaultWorkload()
+    {
+        assertEquals(Workload.DEFAULT, Workload.current());
+        assertSame(web, dataSource.determineDataSource());
+    }
+
+    @Test
+    public void whenBound_thenUseWorkloadPool()
+    throws SQLException
+    {
+        Connection connection = mock(Connection.class);
+        when(ingest.getConnection()).thenReturn(connection);
+        assertSame(connection, Workload.call(Workload.INGEST, ()->{
+            try
+            {
+                return dataSource.getConnection();
+            }
+            catch(SQLException e)
+            {
+                throw new RuntimeException(e);
+            }
+        }));
+        verify(ingest).getConnection();
+        verifyNoInteractions(web);
+        assertEquals(Workload.DEFAULT, Workload.current());
+    }
+
+    @Test
+    public void whenWorkloadHasNoPool_thenUseDefaultPool()
+    {
+        Workload.run
+        (
+            Workload.MAINTENANCE,
+            ()->assertSame(web, dataSource.determineDataSource())
+        );
+    }
+
+    @Test
+    public void testNestedWorkloads()
+    {
+        Workload previous = Workload.bind(Workload.WEB);
+        try
+        {
+            assertNull(previous);
+            Workload.run(Workload.INGEST, ()->assertEquals(Workload.INGEST, Workload.current()));
+            assertEquals(Workload.WEB, Workload.current());
+        }
+        finally
+        {
+            Workload.restore(previous);
+        }
+        assertEquals(Workload.DEFAULT, Workload.current());
+    }
+
+    @Test
+    public void testThreadFactory()
+    throws Exception
+    {
+        ExecutorService executor = Executors.newSingleThreadExecutor
+        (
+            Workload.threadFactory(Workload.MAINTENANCE, Executors.defaultThreadFactory())
+        );
+        try
+        {
+            assertEquals(Workload.MAINTENANCE, executor.submit(Workload::current).get());
+            assertEquals
+            (
+                Workload.INGEST,
+                executor.submit(()->Workload.call(Workload.INGEST, Workload::current)).get()
+            );
+            assertEquals(Workload.MAINTENANCE, executor.submit(Workload::current).get());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,238 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nephest.battlenet.sc2.util.AdaptiveConcurrencyLimit;
+import com.nephest.battlenet.sc2.web.service.ApiAdmissionService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class ApiAdmissionFilterTest
+{
+
+    private AdaptiveConcurrencyLimit limit;
+    private AtomicBoolean congested;
+    private ApiAdmissionService service;
+    private ApiAdmissionFilter filter;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        limit = new AdaptiveConcurrencyLimit(4, 1, 4);
+        congested = new AtomicBoolean(false);
+        service = new ApiAdmissionService(limit, 10, 0.1, 0.5, congested::get);
+        filter = new ApiAdmissionFilter(service);
+    }
+
+    private MockHttpServletRequest request(String uri, String remoteAddr, boolean interactive)
+    {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr(remoteAddr);
+        if(interactive) request.setCookies(new Cookie
+        (
+            InteractiveCookieFilter.COOKIE_NAME,
+            service.createInteractiveToken(remoteAddr)
+        ));
+        return request;
+    }
+
+    private MockHttpServletResponse doFilter(MockHttpServletRequest request, FilterChain chain)
+    throws ServletException, IOException
+    {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    public void testCost()
+    {
+        assertEquals(5, ApiAdmissionService.getCost("/api/group/team"));
+        assertEquals(5, ApiAdmissionService.getCost("/api/group"));
+        assertEquals(5, ApiAdmissionService.getCost("/api/character-matches"));
+        assertEquals(3, ApiAdmissionService.getCost("/api/ladder/stats/bundle"));
+        assertEquals(10, ApiAdmissionService.getCost("/api/export/ladder"));
+        assertTrue(ApiAdmissionService.isStreaming("/api/export/ladder"));
+        assertFalse(ApiAdmissionService.isStreaming("/api/exports"));
+        assertFalse(ApiAdmissionService.isStreaming("/api/group/team"));
+        assertEquals(1, ApiAdmissionService.getCost("/api/groups"));
+        assertEquals(1, ApiAdmissionService.getCost("/api/character/1"));
+    }
+
+    @Test
+    public void whenBudgetIsExceeded_thenRejectClient()
+    throws ServletException, IOException
+    {
+        AtomicInteger executed = new AtomicInteger();
+        FilterChain chain = (req, resp)->executed.incrementAndGet();
+
+        assertEquals(200, doFilter(request("/api/group/team", "1", false), chain).getStatus());
+        assertEquals(200, doFilter(request("/api/group/team", "1", false), chain).getStatus());
+        MockHttpServletResponse rejected = doFilter(request("/api/group/team", "1", false), chain);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+        //5 tokens at 0.1 tokens per second
+        String retryAfter = rejected.getHeader(HttpHeaders.RETRY_AFTER);
+        assertEquals(50, Integer.parseInt(retryAfter), 1);
+        //other clients have their own budgets
+        assertEquals(200, doFilter(request("/api/group/team", "2", false), chain).getStatus());
+        assertEquals(3, executed.get());
+
+        ApiAdmissionService.Stats stats = service.getStats();
+        assertEquals(3, stats.admitted());
+        assertEquals(1, stats.budgetExceeded());
+        assertEquals(2, stats.clients());
+        //rejected requests don't hold permits
+        assertEquals(0, stats.concurrency().inFlight());
+    }
+
+    @Test
+    public void whenOverloaded_thenRejectNonInteractiveFirst()
+    throws ServletException, IOException
+    {
+        //occupy permits from within the chain, like slow concurrent requests would
+        AtomicInteger depth = new AtomicInteger();
+        MockHttpServletResponse[] responses = new MockHttpServletResponse[2];
+        FilterChain chain = new FilterChain()
+        {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse resp)
+            throws IOException, ServletException
+            {
+                int d = depth.incrementAndGet();
+                if(d == 1)
+                {
+                    ApiAdmissionFilterTest.this.doFilter(request("/api/season/list", "2", false), this);
+                }
+                else if(d == 2)
+                {
+                    //2 of 4 permits are used, the non-interactive share is exhausted
+                    responses[0] = ApiAdmissionFilterTest.this
+                        .doFilter(request("/api/season/list", "3", false), this);
+                    responses[1] = ApiAdmissionFilterTest.this
+                        .doFilter(request("/api/season/list", "3", true), this);
+                }
+            }
+        };
+        doFilter(request("/api/season/list", "1", false), chain);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), responses[0].getStatus());
+        assertEquals
+        (
+            String.valueOf(ApiAdmissionService.OVERLOAD_RETRY_AFTER.toSeconds()),
+            responses[0].getHeader(HttpHeaders.RETRY_AFTER)
+        );
+        assertEquals(200, responses[1].getStatus());
+        assertNull(responses[1].getHeader(HttpHeaders.RETRY_AFTER));
+
+        ApiAdmissionService.Stats stats = service.getStats();
+        assertEquals(3, stats.admitted());
+        assertEquals(1, stats.admittedInteractive());
+        assertEquals(1, stats.overloaded());
+        assertEquals(0, stats.overloadedInteractive());
+        assertEquals(0, stats.concurrency().inFlight());
+    }
+
+    @Test
+    public void whenPageIsLoaded_thenIssueInteractiveCookie()
+    throws ServletException, IOException
+    {
+        MockHttpServletRequest page = new MockHttpServletRequest("GET", "/");
+        page.setRemoteAddr("1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new InteractiveCookieFilter(service).doFilter(page, response, (req, resp)->{});
+
+        Cookie cookie = response.getCookie(InteractiveCookieFilter.COOKIE_NAME);
+        assertNotNull(cookie);
+        assertEquals(InteractiveCookieFilter.COOKIE_PATH, cookie.getPath());
+        assertTrue(cookie.isHttpOnly());
+        assertTrue(cookie.getSecure());
+        assertEquals(ApiAdmissionService.DEFAULT_INTERACTIVE_TTL.toSeconds(), cookie.getMaxAge());
+
+        MockHttpServletRequest api = request("/api/season/list", "1", false);
+        api.setCookies(cookie);
+        assertTrue(ApiAdmissionFilter.isInteractive(api, service));
+    }
+
+    @Test
+    public void whenCookieIsInvalid_thenNonInteractive()
+    {
+        //fetch metadata headers are controlled by the client
+        MockHttpServletRequest headerOnly = request("/api/season/list", "1", false);
+        headerOnly.addHeader("Sec-Fetch-Site", "same-origin");
+        assertFalse(ApiAdmissionFilter.isInteractive(headerOnly, service));
+
+        MockHttpServletRequest otherClient = request("/api/season/list", "1", false);
+        otherClient.setCookies(new Cookie
+        (
+            InteractiveCookieFilter.COOKIE_NAME,
+            service.createInteractiveToken("2")
+        ));
+        assertFalse(ApiAdmissionFilter.isInteractive(otherClient, service));
+
+        MockHttpServletRequest forged = request("/api/season/list", "1", false);
+        forged.setCookies(new Cookie(InteractiveCookieFilter.COOKIE_NAME, "99999999999.abc"));
+        assertFalse(ApiAdmissionFilter.isInteractive(forged, service));
+
+        ApiAdmissionService otherKey = new ApiAdmissionService(limit, 10, 0.1, 0.5, ()->false);
+        assertFalse(ApiAdmissionFilter.isInteractive(request("/api/season/list", "1", true), otherKey));
+    }
+
+    @Test
+    public void whenStreaming_thenDontSampleLatency()
+    throws ServletException, IOException
+    {
+        congested.set(true);
+        doFilter(request("/api/export/ladder", "1", false), (req, resp)->{});
+        assertEquals(4, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+        assertEquals(0, limit.getStats().shortRtt().toNanos());
+        assertEquals(0, service.getStats().congested());
+    }
+
+    @Test
+    public void whenChainThrowsException_thenReleasePermit()
+    {
+        FilterChain chain = (req, resp)->{throw new ServletException("test");};
+        assertThrows(ServletException.class, ()->doFilter(request("/api/season/list", "1", false), chain));
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    public void whenCongested_thenShrinkLimit()
+    throws ServletException, IOException
+    {
+        congested.set(true);
+        doFilter(request("/api/season/list", "1", false), (req, resp)->{});
+        assertEquals(3, limit.getLimit());
+        assertEquals(1, service.getStats().congested());
+    }
+
+    @Test
+    public void whenBudgetCapacityIsBelowMaxCost_thenThrowException()
+    {
+        assertThrows
+        (
+            IllegalArgumentException.class,
+            ()->new ApiAdmissionService(limit, 9, 1, 0.5, ()->false)
+        );
+    }
+
+}
@@ -0,0 +1,46 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.config.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.nephest.battlenet.sc2.config.data.Workload;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class WorkloadFilterTest
+{
+
+    @CsvSource
+    ({
+        "/api/export/ladder, MAINTENANCE",
+        "/api/export, MAINTENANCE",
+        "/admin/match/versus/reindex/1, MAINTENANCE",
+        "/api/exports, WEB",
+        "/api/character/1, WEB",
+        "/administrator, WEB",
+        "/, WEB"
+    })
+    @ParameterizedTest
+    public void testWorkload(String path, Workload expected)
+    throws ServletException, IOException
+    {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/context" + path);
+        request.setContextPath("/context");
+        Workload[] workload = new Workload[1];
+        new WorkloadFilter().doFilter
+        (
+            request,
+            new MockHttpServletResponse(),
+            (req, resp)->workload[0] = Workload.current()
+        );
+        assertEquals(expected, workload[0]);
+        assertEquals(Workload.DEFAULT, Workload.current());
+    }
+
+}
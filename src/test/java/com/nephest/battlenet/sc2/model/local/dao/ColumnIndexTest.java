@@ -0,0 +1,101 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.model.local.dao;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+public class ColumnIndexTest
+{
+
+    private static ResultSet mockResultSet()
+    throws SQLException
+    {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.findColumn("team.id")).thenReturn(3);
+        when(rs.findColumn("team.rating")).thenReturn(1);
+        return rs;
+    }
+
+    @Test
+    public void testResolve()
+    throws SQLException
+    {
+        ColumnIndex columns = new ColumnIndex();
+        int id = columns.add("team.id");
+        int rating = columns.add("team.rating");
+        assertEquals(0, id);
+        assertEquals(1, rating);
+        assertEquals(List.of("team.id", "team.rating"), columns.getLabels());
+
+        ResultSet rs = mockResultSet();
+        int[] indexes = columns.resolve(rs);
+        assertEquals(3, indexes[id]);
+        assertEquals(1, indexes[rating]);
+    }
+
+    @Test
+    public void whenSameResultSet_thenResolveOnce()
+    throws SQLException
+    {
+        ColumnIndex columns = new ColumnIndex();
+        columns.add("team.id");
+        columns.add("team.rating");
+        ResultSet rs1 = mockResultSet();
+        ResultSet rs2 = mockResultSet();
+
+        for(int i = 0; i < 3; i++) assertArrayEquals(new int[]{3, 1}, columns.resolve(rs1));
+        verify(rs1, times(1)).findColumn("team.id");
+
+        assertArrayEquals(new int[]{3, 1}, columns.resolve(rs2));
+        verify(rs2, times(1)).findColumn("team.id");
+        assertArrayEquals(new int[]{3, 1}, columns.resolve(rs1));
+        verify(rs1, times(2)).findColumn("team.id");
+    }
+
+    @Test
+    public void whenDifferentThreads_thenResolvePerThread()
+    throws Exception
+    {
+        ColumnIndex columns = new ColumnIndex();
+        columns.add("team.id");
+        ResultSet rs = mockResultSet();
+        columns.resolve(rs);
+        CompletableFuture.runAsync(()->
+        {
+            try
+            {
+                columns.resolve(rs);
+            }
+            catch(SQLException e)
+            {
+                throw new RuntimeException(e);
+            }
+        }).get();
+        verify(rs, times(2)).findColumn("team.id");
+    }
+
+    @Test
+    public void whenLabelIsNotFound_thenThrowException()
+    throws SQLException
+    {
+        ColumnIndex columns = new ColumnIndex();
+        columns.add("team.id");
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.findColumn("team.id")).thenThrow(new SQLException("not found"));
+        assertThrows(SQLException.class, ()->columns.resolve(rs));
+    }
+
+}
@@ -0,0 +1,160 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.model.local.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import com.nephest.battlenet.sc2.model.BaseLeague;
+import com.nephest.battlenet.sc2.model.QueueType;
+import com.nephest.battlenet.sc2.model.Race;
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.TeamType;
+import com.nephest.battlenet.sc2.model.local.LeagueStats;
+import com.nephest.battlenet.sc2.model.local.Team;
+import com.nephest.battlenet.sc2.model.local.inner.TeamLegacyId;
+import com.nephest.battlenet.sc2.model.local.inner.TeamLegacyIdEntry;
+import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class FastLeagueStatsDAOTest
+{
+
+    private static final int SEASON = 10;
+    private static final FastLeagueStatsDAO.LeagueKey GOLD_1V1 = new FastLeagueStatsDAO.LeagueKey
+    (
+        QueueType.LOTV_1V1,
+        TeamType.ARRANGED,
+        BaseLeague.LeagueType.GOLD
+    );
+    private static final FastLeagueStatsDAO.LeagueKey PLATINUM_1V1 = new FastLeagueStatsDAO.LeagueKey
+    (
+        QueueType.LOTV_1V1,
+        TeamType.ARRANGED,
+        BaseLeague.LeagueType.PLATINUM
+    );
+    private static final FastLeagueStatsDAO.LeagueKey GOLD_2V2 = new FastLeagueStatsDAO.LeagueKey
+    (
+        QueueType.LOTV_2V2,
+        TeamType.ARRANGED,
+        BaseLeague.LeagueType.GOLD
+    );
+
+    @Mock
+    private LeagueStatsDAO leagueStatsDAO;
+
+    private FastLeagueStatsDAO fastLeagueStatsDAO;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        fastLeagueStatsDAO = new FastLeagueStatsDAO(leagueStatsDAO);
+    }
+
+    private static Team team
+    (
+        int season,
+        FastLeagueStatsDAO.LeagueKey key,
+        long id,
+        Race race,
+        int wins
+    )
+    {
+        OffsetDateTime now = SC2Pulse.offsetDateTime();
+        return new Team
+        (
+            null,
+            season, Region.EU,
+            new BaseLeague(key.leagueType(), key.queueType(), key.teamType()), null,
+            TeamLegacyId.standard(List.of(new TeamLegacyIdEntry(1, id, race))), 1,
+            1L, wins, 1, 0, 1,
+            now, now, now
+        );
+    }
+
+    @Test
+    public void testStats()
+    {
+        Team terran = team(SEASON, GOLD_1V1, 1L, Race.TERRAN, 9);
+        fastLeagueStatsDAO.reset
+        (
+            Region.EU,
+            SEASON,
+            List.of
+            (
+                terran,
+                team(SEASON, GOLD_1V1, 2L, Race.TERRAN, 19),
+                team(SEASON, GOLD_1V1, 3L, Race.ZERG, 4),
+                team(SEASON, GOLD_2V2, 4L, null, 4)
+            )
+        );
+        Assertions.assertThat(fastLeagueStatsDAO.find(Region.EU, SEASON))
+            .usingRecursiveComparison()
+            .isEqualTo(Map.of
+            (
+                GOLD_1V1, new LeagueStats(null, 3, 30, 0, 5, 0, 2, null, 1, null),
+                GOLD_2V2, new LeagueStats(null, 1, 0, 0, 0, 0, null, null, null, null)
+            ));
+
+        //promotion
+        fastLeagueStatsDAO.update(terran, team(SEASON, PLATINUM_1V1, 1L, Race.TERRAN, 10));
+        Map<FastLeagueStatsDAO.LeagueKey, LeagueStats> stats = fastLeagueStatsDAO.find(Region.EU, SEASON);
+        Assertions.assertThat(stats.get(GOLD_1V1))
+            .usingRecursiveComparison()
+            .isEqualTo(new LeagueStats(null, 2, 20, 0, 5, 0, 1, null, 1, null));
+        Assertions.assertThat(stats.get(PLATINUM_1V1))
+            .usingRecursiveComparison()
+            .isEqualTo(new LeagueStats(null, 1, 11, 0, 0, 0, 1, null, null, null));
+        //new team
+        fastLeagueStatsDAO.update(null, team(SEASON, GOLD_2V2, 5L, null, 4));
+        assertEquals(2, fastLeagueStatsDAO.find(Region.EU, SEASON).get(GOLD_2V2).getTeamCount());
+    }
+
+    @Test
+    public void testMerge()
+    {
+        fastLeagueStatsDAO.reset(Region.EU, SEASON, List.of(team(SEASON, GOLD_1V1, 1L, Race.TERRAN, 9)));
+        assertTrue(fastLeagueStatsDAO.merge(SEASON));
+        verify(leagueStatsDAO).merge(eq(Region.EU), eq(SEASON), any());
+
+        //not dirty, nothing to write
+        assertTrue(fastLeagueStatsDAO.merge(SEASON));
+        verify(leagueStatsDAO, times(1)).merge(any(), anyInt(), any());
+
+        //season is not loaded
+        assertFalse(fastLeagueStatsDAO.merge(SEASON - 1));
+        verifyNoMoreInteractions(leagueStatsDAO);
+    }
+
+    @Test
+    public void whenTeamOfUnloadedSeasonIsMerged_thenSeasonIsIncomplete()
+    {
+        fastLeagueStatsDAO.reset(Region.EU, SEASON, List.of());
+        fastLeagueStatsDAO.update(null, team(SEASON - 1, GOLD_1V1, 1L, Race.TERRAN, 9));
+        assertFalse(fastLeagueStatsDAO.merge(SEASON - 1));
+
+        //unsaved changes are lost when another season is loaded
+        fastLeagueStatsDAO.update(null, team(SEASON, GOLD_1V1, 1L, Race.TERRAN, 9));
+        fastLeagueStatsDAO.reset(Region.EU, SEASON + 1, List.of());
+        assertFalse(fastLeagueStatsDAO.merge(SEASON));
+        verifyNoMoreInteractions(leagueStatsDAO);
+    }
+
+}
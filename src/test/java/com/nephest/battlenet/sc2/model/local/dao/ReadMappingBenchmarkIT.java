@@ -0,0 +1,122 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.model.local.dao;
+
+import com.nephest.battlenet.sc2.config.AllTestConfig;
+import com.nephest.battlenet.sc2.model.QueueType;
+import com.nephest.battlenet.sc2.model.SortingOrder;
+import com.nephest.battlenet.sc2.model.TeamType;
+import com.nephest.battlenet.sc2.model.local.inner.TeamHistoryDAO;
+import com.nephest.battlenet.sc2.model.local.ladder.LadderTeam;
+import com.nephest.battlenet.sc2.model.local.ladder.dao.LadderSearchDAO;
+import com.nephest.battlenet.sc2.model.web.SortParameter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+/*
+    # Read mapping benchmark
+
+    Reads ladder pages and team histories of the last season from an existing database and
+    reports client-side CPU time and allocated bytes per call. DB time is not included, so the
+    numbers reflect driver decoding and row mapping. Disabled by default, it doesn't modify the
+    database, run it against a populated database with
+    `-Dsc2.benchmark.read=<iterations> -Dit.test=ReadMappingBenchmarkIT`
+
+    Run it on two revisions to compare mappers.
+ */
+@SpringBootTest(classes = {AllTestConfig.class})
+@TestPropertySource("classpath:application.properties")
+@TestPropertySource("classpath:application-private.properties")
+@EnabledIfSystemProperty(named = "sc2.benchmark.read", matches = "\\d+")
+public class ReadMappingBenchmarkIT
+{
+
+    public static final int WARMUP_ITERATIONS = 50;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReadMappingBenchmarkIT.class);
+
+    @Autowired
+    private LadderSearchDAO ladderSearchDAO;
+
+    @Autowired
+    private TeamHistoryDAO teamHistoryDAO;
+
+    @Autowired
+    private SeasonDAO seasonDAO;
+
+    @Test
+    public void benchmark()
+    {
+        int iterations = Integer.parseInt(System.getProperty("sc2.benchmark.read"));
+        int season = seasonDAO.getMaxBattlenetId();
+        SortParameter sort = new SortParameter("rating", SortingOrder.DESC);
+        Supplier<List<LadderTeam>> ladder = ()->ladderSearchDAO.find
+        (
+            season,
+            Set.of(),
+            Set.of(),
+            QueueType.LOTV_1V1,
+            TeamType.ARRANGED,
+            sort,
+            null
+        ).result();
+        Set<Long> teamIds = ladder.get().stream()
+            .map(LadderTeam::getId)
+            .collect(Collectors.toSet());
+        Supplier<?> histories = ()->teamHistoryDAO.find
+        (
+            teamIds,
+            null,
+            null,
+            EnumSet.allOf(TeamHistoryDAO.StaticColumn.class),
+            EnumSet.allOf(TeamHistoryDAO.HistoryColumn.class),
+            TeamHistoryDAO.GroupMode.TEAM
+        );
+
+        measure("ladder", ladder, iterations);
+        measure("team histories(" + teamIds.size() + " teams)", histories, iterations);
+    }
+
+    private static void measure(String name, Supplier<?> supplier, int iterations)
+    {
+        for(int i = 0; i < WARMUP_ITERATIONS; i++) supplier.get();
+
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocationBean
+            = bean instanceof com.sun.management.ThreadMXBean b ? b : null;
+        long cpuStart = bean.getCurrentThreadCpuTime();
+        long allocatedStart = allocationBean != null
+            ? allocationBean.getCurrentThreadAllocatedBytes()
+            : 0;
+        long start = System.nanoTime();
+        for(int i = 0; i < iterations; i++) supplier.get();
+        long nanos = System.nanoTime() - start;
+        long cpu = bean.getCurrentThreadCpuTime() - cpuStart;
+        long allocated = allocationBean != null
+            ? allocationBean.getCurrentThreadAllocatedBytes() - allocatedStart
+            : -1;
+        LOG.info
+        (
+            "{}: {} iterations, wall {} us/op, cpu {} us/op, allocated {} KiB/op",
+            name,
+            iterations,
+            nanos / iterations / 1000,
+            cpu / iterations / 1000,
+            allocated / iterations / 1024
+        );
+    }
+
+}
@@ -0,0 +1,221 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.model.local.dao;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.nephest.battlenet.sc2.model.local.LongVar;
+import com.nephest.battlenet.sc2.model.local.Var;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+public class VarDAOTest
+{
+
+    @Mock
+    private NamedParameterJdbcTemplate template;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private VarDAO varDAO;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        varDAO = new VarDAO(template);
+    }
+
+    @AfterEach
+    public void afterEach()
+    {
+        if(TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.unbindResourceIfPossible(varDAO);
+        }
+    }
+
+    @Test
+    public void testBulkLoad()
+    throws Exception
+    {
+        when(resultSet.getString("key")).thenReturn("key1", "key2");
+        when(resultSet.getString("value")).thenReturn("val1", "val2");
+        doAnswer(inv->{
+            RowCallbackHandler handler = inv.getArgument(1);
+            handler.processRow(resultSet);
+            handler.processRow(resultSet);
+            return null;
+        }).when(template).query(anyString(), any(RowCallbackHandler.class));
+
+        assertEquals(Optional.of("val1"), varDAO.find("key1"));
+        assertEquals(Optional.of("val2"), varDAO.find("key2"));
+        assertEquals(Optional.empty(), varDAO.find("key3"));
+        verify(template).query(anyString(), any(RowCallbackHandler.class));
+        verifyNoMoreInteractions(template);
+
+        //keys are served from the snapshot only once
+        when(template.query(anyString(), any(MapSqlParameterSource.class), eq(DAOUtils.STRING_EXTRACTOR)))
+            .thenReturn("val11");
+        assertEquals(Optional.of("val11"), varDAO.find("key1"));
+    }
+
+    @Test
+    public void whenTransactionIsNotActive_thenWriteImmediately()
+    {
+        when(template.update(anyString(), any(MapSqlParameterSource.class))).thenReturn(1);
+        assertEquals(1, varDAO.merge("key", "val1"));
+        ArgumentCaptor<MapSqlParameterSource> captor = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(template).update(anyString(), captor.capture());
+        assertEquals("key", captor.getValue().getValue("key"));
+        assertEquals("val1", captor.getValue().getValue("value"));
+        verify(template, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+    }
+
+    @Test
+    public void whenTransactionIsActive_thenWriteBeforeCommit()
+    {
+        TransactionSynchronizationManager.initSynchronization();
+        varDAO.merge("key", "val1");
+        varDAO.merge("key", "val2");
+        varDAO.merge("key2", null);
+        //pending values are visible
+        assertEquals(Optional.of("val2"), varDAO.find("key"));
+        assertEquals(Optional.empty(), varDAO.find("key2"));
+        verify(template, never()).update(anyString(), any(MapSqlParameterSource.class));
+        verify(template, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+
+        ArgumentCaptor<SqlParameterSource[]> captor = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        for(TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations())
+        {
+            sync.beforeCommit(false);
+            sync.afterCommit();
+            sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        verify(template).batchUpdate(anyString(), captor.capture());
+        assertEquals(2, captor.getValue().length);
+        //only the latest value is written
+        assertEquals
+        (
+            "val2",
+            Arrays.stream(captor.getValue())
+                .filter(p->"key".equals(p.getValue("key")))
+                .findAny()
+                .orElseThrow()
+                .getValue("value")
+        );
+        assertNull(TransactionSynchronizationManager.getResource(varDAO));
+    }
+
+    @Test
+    public void whenTransactionIsNotActive_thenWriteAllVarsInOneStatement()
+    {
+        assertEquals(0, varDAO.merge(Map.of()));
+        verifyNoMoreInteractions(template);
+
+        when(template.update(anyString(), any(MapSqlParameterSource.class))).thenReturn(2);
+        LongVar var1 = new LongVar(varDAO, "key1", false);
+        var1.setValue(1L);
+        LongVar var2 = new LongVar(varDAO, "key2", false);
+        var2.setValue(2L);
+        Var.saveAll(List.of(var1, var2));
+
+        ArgumentCaptor<MapSqlParameterSource> captor = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(template).update(anyString(), captor.capture());
+        @SuppressWarnings("unchecked")
+        List<Object[]> data = (List<Object[]>) captor.getValue().getValue("data");
+        assertEquals(2, data.size());
+        assertArrayEquals(new Object[]{"key1", "1"}, data.get(0));
+        assertArrayEquals(new Object[]{"key2", "2"}, data.get(1));
+        verify(template, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+    }
+
+    @Test
+    public void whenTransactionIsActive_thenWriteAllVarsBeforeCommit()
+    {
+        TransactionSynchronizationManager.initSynchronization();
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("key1", "val1");
+        values.put("key2", null);
+        assertEquals(2, varDAO.merge(values));
+        assertEquals(Optional.of("val1"), varDAO.find("key1"));
+        assertEquals(Optional.empty(), varDAO.find("key2"));
+        verify(template, never()).update(anyString(), any(MapSqlParameterSource.class));
+
+        for(TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations())
+            sync.beforeCommit(false);
+        ArgumentCaptor<SqlParameterSource[]> captor = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(template).batchUpdate(anyString(), captor.capture());
+        assertEquals(2, captor.getValue().length);
+    }
+
+    @Test
+    public void testReloadAll()
+    throws Exception
+    {
+        LongVar loaded = new LongVar(varDAO, "key1", false);
+        loaded.setValue(1L);
+        LongVar missing = new LongVar(varDAO, "key2", false);
+        missing.setValue(2L);
+        when(resultSet.getString("key")).thenReturn("key1");
+        when(resultSet.getString("value")).thenReturn("11");
+        doAnswer(inv->{
+            RowCallbackHandler handler = inv.getArgument(1);
+            handler.processRow(resultSet);
+            return null;
+        }).when(template).query(anyString(), any(RowCallbackHandler.class));
+
+        assertEquals(2, varDAO.reloadAll());
+        assertEquals(11L, loaded.getValue());
+        //unsaved defaults are kept
+        assertEquals(2L, missing.getValue());
+        //the snapshot is fresh
+        assertEquals(Optional.of("11"), varDAO.find("key1"));
+        verify(template).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    public void testDelete()
+    {
+        assertEquals(0, varDAO.delete(Set.of()));
+        verifyNoMoreInteractions(template);
+
+        when(template.update(anyString(), any(SqlParameterSource.class))).thenReturn(2);
+        assertEquals(2, varDAO.delete(Set.of("key1", "key2")));
+        ArgumentCaptor<SqlParameterSource> captor = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(template).update(anyString(), captor.capture());
+        assertEquals(Set.of("key1", "key2"), captor.getValue().getValue("keys"));
+    }
+
+}
@@ -88,5 +88,42 @@ public class TeamLegacyIdTest
         );
     }
 
+    @Test
+    public void whenCreatingStandardFromArray_thenSortAndRemoveDuplicates()
+    {
+        TeamLegacyIdEntry[] entries = new TeamLegacyIdEntry[]
+        {
+            new TeamLegacyIdEntry(3, 4L),
+            new TeamLegacyIdEntry(1, 3L, Race.ZERG),
+            new TeamLegacyIdEntry(1, 2L, Race.TERRAN),
+            new TeamLegacyIdEntry(1, 3L, Race.PROTOSS)
+        };
+        TeamLegacyId id = TeamLegacyId.standard(entries);
+        assertEquals("1.2.1~1.3.3~3.4.", id.getId());
+        assertEquals(3, id.getEntries().size());
+        assertEquals(TeamLegacyId.trusted(id.getId()).getEntries(), id.getEntries());
+        assertThrows
+        (
+            UnsupportedOperationException.class,
+            ()->id.getEntries().add(entries[0])
+        );
+    }
+
+    @Test
+    public void whenCreatingStandardFromArray_thenIdIsEqualToCollectionId()
+    {
+        List<TeamLegacyIdEntry> entries = List.of
+        (
+            new TeamLegacyIdEntry(2, 1L),
+            new TeamLegacyIdEntry(1, 2L, Race.RANDOM),
+            new TeamLegacyIdEntry(1, 1L, Race.ZERG)
+        );
+        assertEquals
+        (
+            TeamLegacyId.standard(entries).getId(),
+            TeamLegacyId.standard(entries.toArray(TeamLegacyIdEntry[]::new)).getId()
+        );
+    }
+
 
 }
@@ -0,0 +1,184 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.model.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nephest.battlenet.sc2.extension.ValidatorExtension;
+import com.nephest.battlenet.sc2.model.Race;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardAccount;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardAccountKey;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardPlayerCharacter;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardTeam;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardTeamMember;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardTeamMemberRace;
+import jakarta.validation.Validator;
+import jakarta.validation.metadata.BeanDescriptor;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+@ExtendWith(ValidatorExtension.class)
+public class BlizzardTeamValidatorTest
+{
+
+    private static final String VALID_HREF
+        = "https://eu.api.blizzard.com/data/sc2/character/tag-1234/1?namespace=prod";
+
+    /*
+        Constraints of the team object graph. Update BlizzardTeamValidator and this snapshot
+        when the constraints change.
+     */
+    private static final Map<String, String> CONSTRAINTS = new TreeMap<>(Map.of
+    (
+        "BlizzardTeam", "Games; id:NotNull; joined:NotNull; lastPlayedTimeStamp:NotNull; "
+            + "losses:NotNull; members:NotNull,Valid; points:NotNull; rating:NotNull; "
+            + "ties:NotNull; wins:NotNull",
+        "BlizzardTeamMember", "account:NotNull,Valid; character:NotNull,Valid; races:Valid",
+        "BlizzardPlayerCharacter", "id:NotNull; name:NotNull; realm:NotNull",
+        "BlizzardAccount", "ValidOriginalOrKeyBattleTag; battleTag:NotNull; id:NotNull; "
+            + "key:NotNull,Valid",
+        "BlizzardAccountKey", "href:NotNull",
+        "BlizzardTeamMemberRace", "gamesPlayed:Max,NotNull; race:NotNull"
+    ));
+
+    private Validator validator;
+
+    private static BlizzardTeam createTeam()
+    {
+        BlizzardTeam team = new BlizzardTeam
+        (
+            BigInteger.ONE,
+            new BlizzardTeamMember[]
+            {
+                new BlizzardTeamMember
+                (
+                    new BlizzardPlayerCharacter(1L, 1, "name"),
+                    new BlizzardTeamMemberRace[]{new BlizzardTeamMemberRace(Race.ZERG, 1)},
+                    new BlizzardAccount(1L, "tag#1234", new BlizzardAccountKey(VALID_HREF))
+                )
+            },
+            Instant.now(),
+            1L,
+            1,
+            1,
+            1,
+            0
+        );
+        team.setJoined(Instant.now());
+        return team;
+    }
+
+    private static BlizzardTeamMember member(BlizzardTeam team)
+    {
+        return team.getMembers()[0];
+    }
+
+    public static Stream<Arguments> testParity()
+    {
+        return Stream.<Map.Entry<String, Consumer<BlizzardTeam>>>of
+        (
+            Map.entry("valid", t->{}),
+            Map.entry("id", t->t.setId(null)),
+            Map.entry("members", t->t.setMembers(null)),
+            Map.entry("empty members", t->t.setMembers(new BlizzardTeamMember[0])),
+            Map.entry("null member", t->t.setMembers(new BlizzardTeamMember[]{null})),
+            Map.entry("lastPlayed", t->t.setLastPlayedTimeStamp(null)),
+            Map.entry("joined", t->t.setJoined(null)),
+            Map.entry("rating", t->t.setRating(null)),
+            Map.entry("rating max", t->t.setRating(BlizzardTeam.RATING_MAX + 1)),
+            Map.entry("games", t->t.setWins(Short.MAX_VALUE - 1)),
+            Map.entry("max games", t->t.setWins(Short.MAX_VALUE - 2)),
+            Map.entry("character", t->member(t).setCharacter(null)),
+            Map.entry("character id", t->member(t).getCharacter().setId(null)),
+            Map.entry("character realm", t->member(t).getCharacter().setRealm(null)),
+            Map.entry("character name", t->member(t).getCharacter().setName(null)),
+            Map.entry("races", t->member(t).setRaces(null)),
+            Map.entry("null race", t->member(t).setRaces(new BlizzardTeamMemberRace[]{null})),
+            Map.entry("race", t->member(t).getRaces()[0].setRace((Race) null)),
+            Map.entry("race games", t->member(t).getRaces()[0].setGamesPlayed(null)),
+            Map.entry
+            (
+                "race max games",
+                t->member(t).getRaces()[0].setGamesPlayed(Short.MAX_VALUE + 1)
+            ),
+            Map.entry("account", t->member(t).setAccount(null)),
+            Map.entry("account id", t->member(t).getAccount().setId(null)),
+            Map.entry("account key", t->member(t).getAccount().setKey(null)),
+            Map.entry
+            (
+                "account key href",
+                t->member(t).getAccount().setKey(new BlizzardAccountKey(null))
+            ),
+            Map.entry("battle tag", t->member(t).getAccount().setBattleTag("tag")),
+            Map.entry
+            (
+                "battle tag and href",
+                t->{
+                    member(t).getAccount().setBattleTag("tag");
+                    member(t).getAccount().setKey(new BlizzardAccountKey("href"));
+                }
+            )
+        )
+            .map(e->Arguments.of(e.getKey(), e.getValue()));
+    }
+
+    @MethodSource
+    @ParameterizedTest(name = "{0}")
+    public void testParity(String name, Consumer<BlizzardTeam> mutation)
+    {
+        BlizzardTeam team = createTeam();
+        mutation.accept(team);
+        assertEquals(validator.validate(team).isEmpty(), BlizzardTeamValidator.isValid(team));
+    }
+
+    @Test
+    public void testValidTeam()
+    {
+        assertTrue(BlizzardTeamValidator.isValid(createTeam()));
+    }
+
+    @Test
+    public void whenConstraintsChange_thenFail()
+    {
+        Map<String, String> constraints = new TreeMap<>();
+        for(Class<?> clazz : new Class<?>[]{
+            BlizzardTeam.class,
+            BlizzardTeamMember.class,
+            BlizzardPlayerCharacter.class,
+            BlizzardAccount.class,
+            BlizzardAccountKey.class,
+            BlizzardTeamMemberRace.class
+        })
+            constraints.put(clazz.getSimpleName(), describe(validator.getConstraintsForClass(clazz)));
+        assertEquals(CONSTRAINTS, constraints);
+    }
+
+    private static String describe(BeanDescriptor descriptor)
+    {
+        TreeSet<String> parts = new TreeSet<>();
+        descriptor.getConstraintDescriptors().forEach(c->parts.add(
+            c.getAnnotation().annotationType().getSimpleName()));
+        descriptor.getConstrainedProperties().forEach(p->{
+            TreeSet<String> annotations = p.getConstraintDescriptors().stream()
+                .map(c->c.getAnnotation().annotationType().getSimpleName())
+                .collect(Collectors.toCollection(TreeSet::new));
+            if(p.isCascaded()) annotations.add("Valid");
+            parts.add(p.getPropertyName() + ":" + String.join(",", annotations));
+        });
+        return String.join("; ", parts);
+    }
+
+}
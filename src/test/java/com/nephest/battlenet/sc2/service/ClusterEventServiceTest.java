@@ -0,0 +1,157 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nephest.battlenet.sc2.model.Region;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+@ExtendWith(MockitoExtension.class)
+public class ClusterEventServiceTest
+{
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private NamedParameterJdbcTemplate template;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private EventService eventService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ClusterEventService clusterEventService;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        when(eventService.getLadderUpdateEvent(any())).thenReturn(Flux.empty());
+        clusterEventService = new ClusterEventService
+        (
+            dataSource,
+            template,
+            objectMapper,
+            cacheManager,
+            eventService,
+            true
+        );
+    }
+
+    private String publishAndCapture(String type, Object payload)
+    {
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        clusterEventService.publish(type, payload);
+        verify(template).query(eq("SELECT pg_notify(:channel, :payload)"), params.capture(), ArgumentMatchers.<ResultSetExtractor<Object>>any());
+        assertEquals(ClusterEventService.CHANNEL, params.getValue().getValue("channel"));
+        return (String) params.getValue().getValue("payload");
+    }
+
+    @Test
+    public void testPublishAndReceive()
+    throws InterruptedException
+    {
+        ClusterEventService.LadderUpdateSummary summary = new ClusterEventService.LadderUpdateSummary
+        (
+            true,
+            Set.of(Region.EU),
+            Set.of(1, 2),
+            10
+        );
+        String json = publishAndCapture(ClusterEventService.LADDER_UPDATE, summary);
+
+        BlockingQueue<Optional<ClusterEventService.LadderUpdateSummary>> events = new ArrayBlockingQueue<>(3);
+        Disposable sub = clusterEventService
+            .getEvent("test", ClusterEventService.LADDER_UPDATE, ClusterEventService.LadderUpdateSummary.class)
+            .subscribe(events::add);
+        try
+        {
+            //own events are ignored
+            clusterEventService.receive(json);
+            //other types are ignored
+            clusterEventService.receive(json.replace(clusterEventService.getNode(), "node2")
+                .replace(ClusterEventService.LADDER_UPDATE, "other"));
+            clusterEventService.receive(json.replace(clusterEventService.getNode(), "node2"));
+            //invalid events are ignored
+            clusterEventService.receive("{");
+            assertEquals(Optional.of(summary), events.poll(5, TimeUnit.SECONDS));
+            assertTrue(events.isEmpty());
+        }
+        finally
+        {
+            sub.dispose();
+        }
+    }
+
+    @Test
+    public void whenPayloadIsTooBig_thenPublishWithoutPayload()
+    throws InterruptedException
+    {
+        String json = publishAndCapture
+        (
+            "big",
+            List.of("a".repeat(ClusterEventService.MAX_PAYLOAD_SIZE))
+        );
+        BlockingQueue<Optional<String>> events = new ArrayBlockingQueue<>(1);
+        Disposable sub = clusterEventService.getEvent("test", "big", String.class)
+            .subscribe(events::add);
+        try
+        {
+            clusterEventService.receive(json.replace(clusterEventService.getNode(), "node2"));
+            assertEquals(Optional.empty(), events.poll(5, TimeUnit.SECONDS));
+        }
+        finally
+        {
+            sub.dispose();
+        }
+    }
+
+    @Test
+    public void whenDisabled_thenDontPublish()
+    {
+        ClusterEventService disabled = new ClusterEventService
+        (
+            dataSource,
+            template,
+            objectMapper,
+            cacheManager,
+            eventService,
+            false
+        );
+        assertFalse(disabled.publish("type", "payload"));
+        verifyNoInteractions(template);
+    }
+
+}
@@ -1,11 +1,15 @@
-// Copyright (C) 2020-2023 Oleksandr Masniuk
+// Copyright (C) 2020-2025 Oleksandr Masniuk
 // SPDX-License-Identifier: AGPL-3.0-or-later
 
 package com.nephest.battlenet.sc2.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import com.nephest.battlenet.sc2.model.Region;
 import com.nephest.battlenet.sc2.model.local.PlayerCharacter;
 import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import reactor.test.StepVerifier;
@@ -22,17 +26,37 @@ public class EventServiceTest
     }
 
     @Test
-    public void testCharacterQueue() throws InterruptedException
+    public void testCharacterQueue()
     {
         PlayerCharacter char1 = new PlayerCharacter(1L, 1L, Region.EU, 1L, 1, "name#1");
         PlayerCharacter char2 = new PlayerCharacter(2L, 2L, Region.EU, 2L, 2, "name#2");
-        eventService.createLadderCharacterActivityEvent(char1);
-        eventService.createLadderCharacterActivityEvent(char2);
 
-        StepVerifier.create(eventService.getLadderCharacterActivityEvent())
-            .expectNext(char1)
-            .expectNext(char2)
-            .expectNoEvent(Duration.ofMillis(1));
+        StepVerifier.create(eventService.getLadderCharacterActivityEvent("test"))
+            .then(()->eventService.createLadderCharacterActivityEvent(char1, char2))
+            .expectNext(List.of(char1, char2))
+            .expectNoEvent(Duration.ofMillis(1))
+            .thenCancel()
+            .verify();
+    }
+
+    @Test
+    public void testCharacterBatches()
+    {
+        PlayerCharacter[] characters = IntStream
+            .range(0, EventService.CHARACTER_ACTIVITY_BATCH_SIZE + 1)
+            .mapToObj(i->new PlayerCharacter((long) i, (long) i, Region.EU, (long) i, 1, "name#" + i))
+            .toArray(PlayerCharacter[]::new);
+
+        StepVerifier.create(eventService.getLadderCharacterActivityEvent("test"), 0)
+            .then(()->eventService.createLadderCharacterActivityEvent(characters))
+            .then(()->assertEquals(1, eventService.getSubscriberStats().get(0).lag()))
+            //oldest batch is dropped
+            .then(()->assertEquals(1, eventService.getSubscriberStats().get(0).dropped()))
+            .thenRequest(1)
+            .expectNext(List.of(characters[EventService.CHARACTER_ACTIVITY_BATCH_SIZE]))
+            .thenCancel()
+            .verify();
+        assertEquals(List.of(), eventService.getSubscriberStats());
     }
 
 }
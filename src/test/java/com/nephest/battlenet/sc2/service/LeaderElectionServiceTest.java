@@ -0,0 +1,156 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.nephest.battlenet.sc2.model.local.dao.VarDAO;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class LeaderElectionServiceTest
+{
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private VarDAO varDAO;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement lockStatement;
+
+    @Mock
+    private Statement unlockStatement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private void stubLock()
+    throws SQLException
+    {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("SELECT pg_try_advisory_lock(?)")).thenReturn(lockStatement);
+        when(lockStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+    }
+
+    @Test
+    public void whenDisabled_thenAlwaysLeader()
+    {
+        LeaderElectionService service = new LeaderElectionService(dataSource, varDAO, false, 1L);
+        service.init();
+        service.check();
+        assertTrue(service.isLeader());
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    public void whenLockIsAcquired_thenLeader()
+    throws SQLException
+    {
+        stubLock();
+        when(resultSet.getBoolean(1)).thenReturn(false, true);
+        LeaderElectionService service = new LeaderElectionService(dataSource, varDAO, true, 1L);
+        service.init();
+        assertFalse(service.isLeader());
+        verify(lockStatement).setLong(1, 1L);
+
+        service.check();
+        assertTrue(service.isLeader());
+
+        //the lock is held, no new lock attempts
+        when(connection.isValid(anyInt())).thenReturn(true);
+        service.check();
+        assertTrue(service.isLeader());
+        verify(lockStatement, times(2)).executeQuery();
+        verify(dataSource, times(1)).getConnection();
+    }
+
+    @Test
+    public void whenConnectionIsInvalid_thenUnlockAndLoseLeadership()
+    throws SQLException
+    {
+        stubLock();
+        when(resultSet.getBoolean(1)).thenReturn(true);
+        when(connection.createStatement()).thenReturn(unlockStatement);
+        LeaderElectionService service = new LeaderElectionService(dataSource, varDAO, true, 1L);
+        service.init();
+        assertTrue(service.isLeader());
+
+        when(connection.isValid(anyInt())).thenReturn(false);
+        service.check();
+        assertFalse(service.isLeader());
+        verify(unlockStatement).execute("SELECT pg_advisory_unlock_all()");
+        verify(connection).close();
+
+        //new connection, new lock
+        service.check();
+        assertTrue(service.isLeader());
+        verify(dataSource, times(2)).getConnection();
+    }
+
+    @Test
+    public void whenLeadershipIsAcquired_thenReloadStateBeforeLeading()
+    throws SQLException
+    {
+        stubLock();
+        when(resultSet.getBoolean(1)).thenReturn(false, true);
+        LeaderElectionService service = new LeaderElectionService(dataSource, varDAO, true, 1L);
+        service.init();
+        List<Boolean> leaderInListener = new ArrayList<>();
+        service.onLeadershipAcquired(()->leaderInListener.add(service.isLeader()));
+        verify(varDAO, never()).reloadAll();
+
+        service.check();
+        assertTrue(service.isLeader());
+        assertEquals(List.of(false), leaderInListener);
+        InOrder order = inOrder(lockStatement, varDAO);
+        order.verify(lockStatement, times(2)).executeQuery();
+        order.verify(varDAO).reloadAll();
+    }
+
+    @Test
+    public void whenLeaderStateCantBeInitialized_thenReleaseLock()
+    throws SQLException
+    {
+        stubLock();
+        when(resultSet.getBoolean(1)).thenReturn(true);
+        when(connection.createStatement()).thenReturn(unlockStatement);
+        when(varDAO.reloadAll()).thenThrow(new IllegalStateException("test")).thenReturn(1);
+        LeaderElectionService service = new LeaderElectionService(dataSource, varDAO, true, 1L);
+        service.init();
+        assertFalse(service.isLeader());
+        verify(unlockStatement).execute("SELECT pg_advisory_unlock_all()");
+        verify(connection).close();
+
+        service.check();
+        assertTrue(service.isLeader());
+    }
+
+}
@@ -0,0 +1,100 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveConcurrencyLimitTest
+{
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static void runBatch(AdaptiveConcurrencyLimit limit, long rtt, boolean congested)
+    {
+        int acquired = 0;
+        while(limit.tryAcquire(1)) acquired++;
+        for(int i = 0; i < acquired; i++) limit.release(rtt, congested);
+    }
+
+    @Test
+    public void testShare()
+    {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 10);
+        for(int i = 0; i < 6; i++) assertTrue(limit.tryAcquire(0.75));
+        assertFalse(limit.tryAcquire(0.75));
+        assertTrue(limit.tryAcquire(1));
+        assertTrue(limit.tryAcquire(1));
+        assertFalse(limit.tryAcquire(1));
+        assertEquals(8, limit.getInFlight());
+
+        limit.cancel();
+        assertEquals(7, limit.getInFlight());
+        assertEquals(8, limit.getLimit());
+        assertTrue(limit.tryAcquire(1));
+    }
+
+    @Test
+    public void whenLatencyIsStable_thenGrowToMax()
+    {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 5, 50);
+        for(int i = 0; i < 100; i++) runBatch(limit, RTT, false);
+        assertEquals(50, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    public void whenLatencyGrows_thenShrink()
+    {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(40, 5, 50);
+        for(int i = 0; i < 20; i++) runBatch(limit, RTT, false);
+        int stableLimit = limit.getLimit();
+
+        for(int i = 0; i < 20; i++) runBatch(limit, RTT * 10, false);
+        assertTrue(limit.getLimit() < stableLimit / 2, limit.getLimit() + " " + stableLimit);
+        assertTrue(limit.getLimit() >= 5);
+    }
+
+    @Test
+    public void whenUnderutilized_thenDontChange()
+    {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 5, 50);
+        for(int i = 0; i < 100; i++)
+        {
+            assertTrue(limit.tryAcquire(1));
+            limit.release(RTT * (i % 2 == 0 ? 1 : 10), false);
+        }
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    public void whenCongested_thenShrinkToMin()
+    {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 5, 50);
+        assertTrue(limit.tryAcquire(1));
+        limit.release(RTT, true);
+        assertEquals(18, limit.getLimit());
+
+        for(int i = 0; i < 50; i++)
+        {
+            assertTrue(limit.tryAcquire(1));
+            limit.release(RTT, true);
+        }
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    public void whenInvalidLimits_thenThrowException()
+    {
+        assertThrows(IllegalArgumentException.class, ()->new AdaptiveConcurrencyLimit(1, 0, 10));
+        assertThrows(IllegalArgumentException.class, ()->new AdaptiveConcurrencyLimit(5, 10, 1));
+        assertThrows(IllegalArgumentException.class, ()->new AdaptiveConcurrencyLimit(11, 1, 10));
+    }
+
+}
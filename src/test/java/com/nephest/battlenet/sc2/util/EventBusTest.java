@@ -0,0 +1,100 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+public class EventBusTest
+{
+
+    private final EventBus<Integer> bus = new EventBus<>("test");
+
+    @Test
+    public void whenNoSubscribers_thenDiscard()
+    {
+        bus.emit(1);
+        StepVerifier.create(bus.subscribe("sub", 1, EventBus.OverflowPolicy.FAIL))
+            .then(()->bus.emit(2))
+            .expectNext(2)
+            .thenCancel()
+            .verify();
+    }
+
+    @Test
+    public void testDropOldest()
+    {
+        StepVerifier.create(bus.subscribe("sub", 2, EventBus.OverflowPolicy.DROP_OLDEST), 0)
+            .then(()->IntStream.range(0, 4).forEach(bus::emit))
+            .then(()->assertEquals
+            (
+                List.of(new EventBus.SubscriberStats("test", "sub", EventBus.OverflowPolicy.DROP_OLDEST, 2, 2, 0, 2)),
+                bus.getSubscriberStats()
+            ))
+            .thenRequest(2)
+            .expectNext(2, 3)
+            .then(()->assertEquals(2, bus.getSubscriberStats().get(0).delivered()))
+            .then(()->assertEquals(0, bus.getSubscriberStats().get(0).lag()))
+            .thenCancel()
+            .verify();
+        //cancelled subscribers are removed
+        assertEquals(List.of(), bus.getSubscriberStats());
+    }
+
+    @Test
+    public void testDropLatest()
+    {
+        StepVerifier.create(bus.subscribe("sub", 2, EventBus.OverflowPolicy.DROP_LATEST), 0)
+            .then(()->IntStream.range(0, 4).forEach(bus::emit))
+            .thenRequest(2)
+            .expectNext(0, 1)
+            .then(()->assertEquals(2, bus.getSubscriberStats().get(0).dropped()))
+            .thenCancel()
+            .verify();
+    }
+
+    @Test
+    public void whenFail_thenThrowAndDeliverToOtherSubscribers()
+    {
+        ConcurrentLinkedQueue<Integer> fast = new ConcurrentLinkedQueue<>();
+        Disposable fastSub = bus.subscribe("fast", 1, EventBus.OverflowPolicy.FAIL).subscribe(fast::add);
+        StepVerifier.create(bus.subscribe("slow", 1, EventBus.OverflowPolicy.FAIL), 0)
+            .then(()->bus.emit(1))
+            .then(()->assertThrows(EventBus.OverflowException.class, ()->bus.emit(2)))
+            .thenRequest(1)
+            .expectNext(1)
+            .thenCancel()
+            .verify();
+        assertEquals(List.of(1, 2), List.copyOf(fast));
+        fastSub.dispose();
+    }
+
+    @Test
+    public void testConcurrentProducers()
+    throws Exception
+    {
+        int producers = 4;
+        int events = 10_000;
+        CompletableFuture<Long> count = bus
+            .subscribe("sub", producers * events, EventBus.OverflowPolicy.FAIL)
+            .take(producers * events)
+            .count()
+            .toFuture();
+        List<Thread> threads = IntStream.range(0, producers)
+            .mapToObj(p->new Thread(()->IntStream.range(0, events).forEach(bus::emit)))
+            .toList();
+        threads.forEach(Thread::start);
+        for(Thread thread : threads) thread.join();
+        assertEquals(producers * events, count.get());
+    }
+
+}
@@ -0,0 +1,154 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SingleFlightTest
+{
+
+    private static final int THREADS = 8;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    public void afterEach()
+    {
+        executor.shutdownNow();
+    }
+
+    private static void await(CountDownLatch latch)
+    {
+        try
+        {
+            if(!latch.await(10, TimeUnit.SECONDS)) throw new IllegalStateException("Timeout");
+        }
+        catch(InterruptedException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private <V> List<Future<V>> executeConcurrently
+    (
+        SingleFlight<String, V> flight,
+        Supplier<V> supplier,
+        CountDownLatch started
+    )
+    {
+        List<Future<V>> futures = new ArrayList<>();
+        futures.add(executor.submit(()->flight.execute("key", supplier)));
+        //wait for the leader to start the computation
+        await(started);
+        for(int i = 1; i < THREADS; i++)
+            futures.add(executor.submit(()->flight.execute("key", supplier)));
+        //wait for the followers to join
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while(flight.getStats().coalesced() < THREADS - 1 && System.nanoTime() < deadline)
+            Thread.onSpinWait();
+        return futures;
+    }
+
+    @Test
+    public void whenConcurrentCallsWithEqualKeys_thenComputeOnce()
+    throws Exception
+    {
+        SingleFlight<String, Object> flight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Object value = new Object();
+        List<Future<Object>> futures = executeConcurrently
+        (
+            flight,
+            ()->
+            {
+                computations.incrementAndGet();
+                started.countDown();
+                await(release);
+                return value;
+            },
+            started
+        );
+        release.countDown();
+
+        for(Future<Object> future : futures) assertSame(value, future.get(10, TimeUnit.SECONDS));
+        assertEquals(1, computations.get());
+        SingleFlight.Stats stats = flight.getStats();
+        assertEquals(THREADS, stats.calls());
+        assertEquals(THREADS - 1, stats.coalesced());
+        assertEquals(0, stats.inFlight());
+        assertEquals((double) (THREADS - 1) / THREADS, stats.getCoalescedRate());
+
+        //nothing is retained
+        flight.execute("key", computations::incrementAndGet);
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    public void whenComputationFails_thenPropagateExceptionToAllCallers()
+    throws Exception
+    {
+        SingleFlight<String, Object> flight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException exception = new IllegalStateException("test");
+        List<Future<Object>> futures = executeConcurrently
+        (
+            flight,
+            ()->
+            {
+                started.countDown();
+                await(release);
+                throw exception;
+            },
+            started
+        );
+        release.countDown();
+
+        for(Future<Object> future : futures)
+        {
+            ExecutionException ex = assertThrows
+            (
+                ExecutionException.class,
+                ()->future.get(10, TimeUnit.SECONDS)
+            );
+            assertSame(exception, ex.getCause());
+        }
+        assertEquals(0, flight.getStats().inFlight());
+    }
+
+    @Test
+    public void whenKeysAreDifferent_thenDontCoalesce()
+    {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        assertEquals("1", flight.execute("1", ()->"1"));
+        assertEquals("2", flight.execute("2", ()->"2"));
+        assertEquals(0, flight.getStats().coalesced());
+        assertEquals(0, flight.getStats().getCoalescedRate());
+    }
+
+}
@@ -0,0 +1,69 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketTest
+{
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testBurstAndRefill()
+    {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+        assertEquals(0, bucket.tryConsume(6, 0));
+        assertEquals(0, bucket.tryConsume(4, 0));
+
+        //empty, 2 tokens per second
+        assertEquals(SECOND / 2, bucket.tryConsume(1, 0));
+        assertEquals(SECOND * 2, bucket.tryConsume(4, 0));
+        assertEquals(0, bucket.tryConsume(1, SECOND / 2));
+        assertEquals(0, bucket.getTokens(SECOND / 2));
+    }
+
+    @Test
+    public void whenRejected_thenNothingIsSpent()
+    {
+        TokenBucket bucket = new TokenBucket(10, 1, 0);
+        assertEquals(0, bucket.tryConsume(8, 0));
+        assertTrue(bucket.tryConsume(3, 0) > 0);
+        assertEquals(2, bucket.getTokens(0));
+    }
+
+    @Test
+    public void testCapacityCap()
+    {
+        TokenBucket bucket = new TokenBucket(10, 1, 0);
+        assertEquals(0, bucket.tryConsume(10, 0));
+        assertFalse(bucket.isFull(SECOND * 5));
+        assertTrue(bucket.isFull(SECOND * 100));
+        assertEquals(10, bucket.getTokens(SECOND * 100));
+        //time went back, nothing is refilled
+        assertEquals(10, bucket.getTokens(0));
+    }
+
+    @Test
+    public void whenCostIsAboveCapacity_thenReportTimeToFillBucket()
+    {
+        TokenBucket bucket = new TokenBucket(10, 1, 0);
+        assertEquals(0, bucket.tryConsume(5, 0));
+        assertEquals(SECOND * 5, bucket.tryConsume(20, 0));
+    }
+
+    @Test
+    public void whenInvalidArguments_thenThrowException()
+    {
+        assertThrows(IllegalArgumentException.class, ()->new TokenBucket(0, 1, 0));
+        assertThrows(IllegalArgumentException.class, ()->new TokenBucket(1, 0, 0));
+    }
+
+}
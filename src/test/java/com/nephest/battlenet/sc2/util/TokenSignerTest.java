@@ -0,0 +1,70 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+public class TokenSignerTest
+{
+
+    private static final byte[] KEY = "key".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testSignAndVerify()
+    {
+        TokenSigner signer = new TokenSigner(KEY);
+        String token = signer.sign("subject", 10);
+        assertTrue(signer.verify(token, "subject", 9));
+        //same key, different instance
+        assertTrue(new TokenSigner(KEY).verify(token, "subject", 9));
+    }
+
+    @Test
+    public void whenExpired_thenInvalid()
+    {
+        TokenSigner signer = new TokenSigner(KEY);
+        assertFalse(signer.verify(signer.sign("subject", 10), "subject", 10));
+    }
+
+    @Test
+    public void whenSubjectOrKeyIsDifferent_thenInvalid()
+    {
+        TokenSigner signer = new TokenSigner(KEY);
+        String token = signer.sign("subject", 10);
+        assertFalse(signer.verify(token, "subject2", 9));
+        assertFalse(TokenSigner.random().verify(token, "subject", 9));
+    }
+
+    @Test
+    public void whenExpirationIsModified_thenInvalid()
+    {
+        TokenSigner signer = new TokenSigner(KEY);
+        String token = signer.sign("subject", 10);
+        assertFalse(signer.verify("20" + token.substring(2), "subject", 9));
+    }
+
+    @Test
+    public void whenTokenIsMalformed_thenInvalid()
+    {
+        TokenSigner signer = new TokenSigner(KEY);
+        assertFalse(signer.verify(null, "subject", 0));
+        assertFalse(signer.verify("", "subject", 0));
+        assertFalse(signer.verify("10", "subject", 0));
+        assertFalse(signer.verify(".abc", "subject", 0));
+        assertFalse(signer.verify("abc.abc", "subject", 0));
+        assertFalse(signer.verify("10.!!!", "subject", 0));
+    }
+
+    @Test
+    public void whenKeyIsEmpty_thenThrowException()
+    {
+        assertThrows(IllegalArgumentException.class, ()->new TokenSigner(new byte[0]));
+    }
+
+}
@@ -7,7 +7,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -35,6 +38,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
@@ -102,6 +106,19 @@ public class BlizzardSC2APITest
         );
     }
 
+    @Test
+    public void whenSavingHealth_thenSaveAllMonitorsInOneStatement()
+    {
+        api.getHealthMonitor(Region.US, false).addRequest();
+        api.saveHealth();
+
+        ArgumentCaptor<Map<String, String>> captor = ArgumentCaptor.captor();
+        verify(varDAO).merge(captor.capture());
+        assertTrue(captor.getValue().size() > 2);
+        assertTrue(captor.getValue().containsValue("1"));
+        verify(varDAO, never()).merge(anyString(), any());
+    }
+
     @Test
     public void testConditionalLadderParsing()
     {
@@ -61,6 +61,9 @@ public class ClanServiceTest
     @Mock
     private ClanMemberEventDAO clanMemberEventDAO;
 
+    @Mock
+    private GroupMembershipIndex groupMembershipIndex;
+
     @Mock
     private BlizzardSC2API api;
     
@@ -97,13 +100,14 @@ public class ClanServiceTest
             return CompletableFuture.completedFuture(null);
         });
         ladderUpdateEvent = Sinks.unsafe().many().multicast().onBackpressureBuffer(10);
-        when(eventService.getLadderUpdateEvent()).thenReturn(ladderUpdateEvent.asFlux());
+        when(eventService.getLadderUpdateEvent(any())).thenReturn(ladderUpdateEvent.asFlux());
         clanService = new ClanService
         (
             playerCharacterDAO,
             clanDAO,
             clanMemberDAO,
             clanMemberEventDAO,
+            groupMembershipIndex,
             varDAO,
             api,
             eventService,
@@ -209,6 +213,13 @@ public class ClanServiceTest
             )
         );
         when(clanMemberDAO.getInactiveCount(any())).thenReturn(inactiveMembers.size());
+        //same clan, left clan 5, moved from clan 7
+        when(clanMemberDAO.find(Set.of(1L, 2L, 3L))).thenReturn(List.of
+        (
+            new ClanMember(1L, 0),
+            new ClanMember(2L, 5),
+            new ClanMember(3L, 7)
+        ));
         when(playerCharacterDAO.findInactiveClanMembers(any(), eq(Long.MAX_VALUE), eq(inactiveMembers.size())))
             .thenReturn(inactiveMembers);
         when(api.getLegacyProfiles(inactiveMembers, false)).thenReturn(apiData);
@@ -245,6 +256,9 @@ public class ClanServiceTest
         assertEquals(inactiveMembers.get(2).getId(), cm2.getPlayerCharacterId());
         assertEquals(0, cm2.getClanId());
 
+        //only changed memberships are invalidated
+        verify(groupMembershipIndex).invalidateClans(Set.of(0, 5, 7), Set.of(2L, 3L));
+
         //vars were updated
         assertTrue(beforeUpdate.isBefore(clanService.getInactiveClanMembersUpdated().getValue()));
         assertEquals(inactiveMembers.get(2).getId(), clanService.getInactiveClanMembersCursor().getValue());
@@ -86,6 +86,7 @@ import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuples;
 
@@ -140,7 +141,7 @@ public class DiscordServiceTest
     @BeforeEach
     public void beforeEach()
     {
-        when(eventService.getLadderCharacterActivityEvent()).thenReturn(Flux.empty());
+        when(eventService.getLadderCharacterActivityEvent(any())).thenReturn(Flux.empty());
         discordService = new DiscordService
         (
             discordUserDAO,
@@ -481,6 +482,17 @@ public class DiscordServiceTest
         assertEquals(expectedResult, result != null);
     }
 
+    @Test
+    public void whenBotIsOffline_thenFailInsideManagedRoleGuildsFlux()
+    {
+        when(api.getBotGuilds()).thenThrow(new IllegalStateException("offline"));
+        Flux<Guild> guilds = discordService
+            .getManagedRoleGuilds(Flux.just(new IdentifiableEntity(Snowflake.of(10L))));
+        StepVerifier.create(guilds)
+            .expectError(IllegalStateException.class)
+            .verify();
+    }
+
     private GatewayDiscordClient mockClient()
     {
         GatewayDiscordClient client = mock(GatewayDiscordClient.class);
@@ -0,0 +1,126 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.local.Season;
+import com.nephest.battlenet.sc2.model.local.dao.ExportDAO;
+import com.nephest.battlenet.sc2.model.local.dao.SeasonDAO;
+import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+
+public class ExportServiceTest
+{
+
+    private static final List<String> COLUMNS = List.of("id", "region", "name", "date", "ids", "flag");
+    private static final OffsetDateTime DATE = OffsetDateTime.of(2020, 1, 2, 3, 4, 5, 0, ZoneOffset.UTC);
+
+    private static void export(Consumer<Object[]> consumer)
+    {
+        consumer.accept(new Object[]{1L, Region.EU, "name", DATE, new Object[]{1L, 2L}, true});
+        consumer.accept(new Object[]{2, null, "a,\"b\"\nc", null, new Object[]{}, null});
+    }
+
+    private static String writeAndRead(ExportFormat format)
+    throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportService.writeGzip(out, format, COLUMNS, ExportServiceTest::export);
+        try(InputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())))
+        {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testNdjson()
+    throws IOException
+    {
+        assertEquals
+        (
+            "{\"id\":1,\"region\":\"EU\",\"name\":\"name\",\"date\":\"2020-01-02T03:04:05Z\","
+                + "\"ids\":[1,2],\"flag\":true}\n"
+            + "{\"id\":2,\"region\":null,\"name\":\"a,\\\"b\\\"\\nc\",\"date\":null,"
+                + "\"ids\":[],\"flag\":null}\n",
+            writeAndRead(ExportFormat.NDJSON)
+        );
+    }
+
+    @Test
+    public void testCsv()
+    throws IOException
+    {
+        assertEquals
+        (
+            "id,region,name,date,ids,flag\r\n"
+            + "1,EU,name,2020-01-02T03:04:05Z,1 2,true\r\n"
+            + "2,,\"a,\"\"b\"\"\nc\",,,\r\n",
+            writeAndRead(ExportFormat.CSV)
+        );
+    }
+
+    private static Season season(int battlenetId, Region region, OffsetDateTime start)
+    {
+        return new Season(null, battlenetId, region, 2020, battlenetId, start, start.plusMonths(3));
+    }
+
+    @Test
+    public void whenSomeRegionsDidntMovePastSeason_thenSeasonIsNotFinished()
+    throws IOException
+    {
+        SeasonDAO seasonDAO = mock(SeasonDAO.class);
+        ExportService service = new ExportService
+        (
+            mock(ExportDAO.class),
+            seasonDAO,
+            new GlobalContext(EnumSet.of(Region.EU, Region.US)),
+            null
+        );
+        OffsetDateTime old = SC2Pulse.offsetDateTime().minusMonths(3);
+        OffsetDateTime recent = SC2Pulse.offsetDateTime()
+            .minus(ExportService.FINISHED_SEASON_GRACE).plusHours(1);
+        when(seasonDAO.findListByRegion(Region.EU)).thenReturn(List.of
+        (
+            season(1, Region.EU, old.minusMonths(3)),
+            season(2, Region.EU, old),
+            season(3, Region.EU, recent)
+        ));
+        when(seasonDAO.findListByRegion(Region.US)).thenReturn(List.of
+        (
+            season(1, Region.US, old.minusMonths(3)),
+            season(2, Region.US, old)
+        ));
+
+        assertTrue(service.isSeasonFinished(1));
+        //US is still in season 2
+        assertFalse(service.isSeasonFinished(2));
+        //EU started season 3 recently, final season 2 updates could still be saved
+        when(seasonDAO.findListByRegion(Region.US)).thenReturn(List.of
+        (
+            season(1, Region.US, old.minusMonths(3)),
+            season(2, Region.US, old),
+            season(3, Region.US, old.plusMonths(1))
+        ));
+        assertFalse(service.isSeasonFinished(2));
+        assertFalse(service.isSeasonFinished(3));
+    }
+
+}
@@ -0,0 +1,215 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.nephest.battlenet.sc2.model.BaseLeague;
+import com.nephest.battlenet.sc2.model.BaseLeagueTier;
+import com.nephest.battlenet.sc2.model.QueueType;
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.TeamType;
+import com.nephest.battlenet.sc2.model.local.Team;
+import com.nephest.battlenet.sc2.model.local.dao.FastTeamDAO;
+import com.nephest.battlenet.sc2.model.local.inner.TeamLegacyId;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class FastTeamSnapshotServiceTest
+{
+
+    private static final OffsetDateTime ODT = OffsetDateTime
+        .of(2025, 1, 1, 0, 0, 0, 123_456_000, ZoneOffset.UTC);
+    private static final Instant UPDATED = Instant.ofEpochMilli(1_700_000_000_123L);
+
+    @Mock
+    private FastTeamDAO fastTeamDAO;
+
+    @Mock
+    private UpdateService updateService;
+
+    @TempDir
+    private Path dir;
+
+    private FastTeamSnapshotService service;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        service = new FastTeamSnapshotService(fastTeamDAO, updateService, dir);
+    }
+
+    private static FastTeamDAO.Snapshot createSnapshot()
+    {
+        return new FastTeamDAO.Snapshot
+        (
+            Region.EU,
+            10,
+            ODT,
+            List.of
+            (
+                new Team
+                (
+                    1L, 10, Region.EU,
+                    new BaseLeague(BaseLeague.LeagueType.DIAMOND, QueueType.LOTV_1V1, TeamType.ARRANGED),
+                    BaseLeagueTier.LeagueTierType.SECOND,
+                    TeamLegacyId.trusted("1.2.1"),
+                    3,
+                    4L, 5, 6, 7, 8,
+                    ODT, ODT.minusDays(1), ODT.plusSeconds(1)
+                ),
+                new Team
+                (
+                    null, 10, Region.EU,
+                    new BaseLeague(null, QueueType.LOTV_4V4, TeamType.RANDOM),
+                    null,
+                    TeamLegacyId.trusted("1.1.~1.2.~1.3.~1.4."),
+                    null,
+                    null, null, null, null, null,
+                    null, ODT, ODT
+                )
+            )
+        );
+    }
+
+    private static void assertTeamEquals(Team expected, Team actual)
+    {
+        assertEquals(expected, actual);
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getLeagueType(), actual.getLeagueType());
+        assertEquals(expected.getTierType(), actual.getTierType());
+        assertEquals(expected.getDivisionId(), actual.getDivisionId());
+        assertEquals(expected.getRating(), actual.getRating());
+        assertEquals(expected.getWins(), actual.getWins());
+        assertEquals(expected.getLosses(), actual.getLosses());
+        assertEquals(expected.getTies(), actual.getTies());
+        assertEquals(expected.getPoints(), actual.getPoints());
+        assertEquals(expected.getLastPlayed(), actual.getLastPlayed());
+        assertEquals(expected.getJoined(), actual.getJoined());
+        assertEquals(expected.getPrimaryDataUpdated(), actual.getPrimaryDataUpdated());
+    }
+
+    @Test
+    public void testWriteRead()
+    throws IOException
+    {
+        FastTeamDAO.Snapshot snapshot = createSnapshot();
+        Path path = dir.resolve("test.snapshot");
+        FastTeamSnapshotService.write(path, snapshot, UPDATED.plusNanos(1));
+
+        FastTeamSnapshotService.Header header = FastTeamSnapshotService.readHeader(path);
+        assertEquals(FastTeamSnapshotService.VERSION, header.version());
+        assertEquals(Region.EU, header.region());
+        assertEquals(10, header.season());
+        //truncated to var precision
+        assertEquals(UPDATED, header.updated());
+
+        FastTeamDAO.Snapshot read = FastTeamSnapshotService.read(path);
+        assertEquals(Region.EU, read.region());
+        assertEquals(10, read.season());
+        assertEquals(ODT, read.minLastPlayed());
+        assertEquals(2, read.teams().size());
+        List<Team> teams = List.copyOf(read.teams());
+        assertTeamEquals(snapshot.teams().stream().toList().get(0), teams.get(0));
+        assertTeamEquals(snapshot.teams().stream().toList().get(1), teams.get(1));
+        assertNull(teams.get(1).getLastPlayed());
+    }
+
+    @Test
+    public void whenSnapshotIsCorrupted_thenThrowException()
+    throws IOException
+    {
+        Path path = dir.resolve("test.snapshot");
+        FastTeamSnapshotService.write(path, createSnapshot(), UPDATED);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(path, bytes);
+
+        assertThrows(IOException.class, ()->FastTeamSnapshotService.read(path));
+    }
+
+    @Test
+    public void whenSnapshotIsValid_thenRestore()
+    {
+        when(fastTeamDAO.getSnapshot(Region.EU)).thenReturn(Optional.of(createSnapshot()));
+        when(updateService.getUpdateContext(Region.EU)).thenReturn(new UpdateContext(UPDATED, UPDATED));
+        assertTrue(service.checkpoint(Region.EU));
+        assertTrue(Files.exists(service.getPath(Region.EU)));
+
+        assertTrue(service.restore(Region.EU));
+        ArgumentCaptor<FastTeamDAO.Snapshot> captor = ArgumentCaptor.forClass(FastTeamDAO.Snapshot.class);
+        verify(fastTeamDAO).restore(captor.capture());
+        assertEquals(2, captor.getValue().teams().size());
+
+        //only the first restore is attempted
+        assertFalse(service.restore(Region.EU));
+    }
+
+    @Test
+    public void whenSnapshotIsStale_thenDontRestore()
+    {
+        when(fastTeamDAO.getSnapshot(Region.EU)).thenReturn(Optional.of(createSnapshot()));
+        when(updateService.getUpdateContext(Region.EU))
+            .thenReturn(new UpdateContext(UPDATED, UPDATED))
+            .thenReturn(new UpdateContext(UPDATED, UPDATED.plusSeconds(1)));
+        assertTrue(service.checkpoint(Region.EU));
+
+        assertFalse(service.restore(Region.EU));
+        verify(fastTeamDAO, never()).restore(any());
+    }
+
+    @Test
+    public void whenRegionIsUpdatedAgain_thenCheckpointAgain()
+    throws IOException
+    {
+        when(fastTeamDAO.getSnapshot(Region.EU)).thenReturn(Optional.of(createSnapshot()));
+        when(updateService.getUpdateContext(Region.EU))
+            .thenReturn(new UpdateContext(UPDATED, UPDATED))
+            .thenReturn(new UpdateContext(UPDATED, UPDATED.plusSeconds(1)));
+        assertTrue(service.checkpoint(Region.EU));
+        assertTrue(service.checkpoint(Region.EU));
+        assertEquals
+        (
+            UPDATED.plusSeconds(1),
+            FastTeamSnapshotService.readHeader(service.getPath(Region.EU)).updated()
+        );
+    }
+
+    @Test
+    public void whenReset_thenClearWorkingSetAndAllowRestore()
+    {
+        when(fastTeamDAO.getSnapshot(Region.EU)).thenReturn(Optional.of(createSnapshot()));
+        when(updateService.getUpdateContext(Region.EU)).thenReturn(new UpdateContext(UPDATED, UPDATED));
+        assertTrue(service.checkpoint(Region.EU));
+        assertTrue(service.restore(Region.EU));
+        assertFalse(service.restore(Region.EU));
+
+        service.reset();
+        for(Region region : Region.values()) verify(fastTeamDAO).clear(region);
+        assertTrue(service.restore(Region.EU));
+    }
+
+}
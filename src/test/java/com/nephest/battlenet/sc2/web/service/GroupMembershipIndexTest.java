@@ -0,0 +1,198 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.nephest.battlenet.sc2.model.PlayerCharacterNaturalId;
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.local.ClanMember;
+import com.nephest.battlenet.sc2.model.local.dao.ClanMemberDAO;
+import com.nephest.battlenet.sc2.model.local.dao.PlayerCharacterDAO;
+import com.nephest.battlenet.sc2.service.ClusterEventService;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import reactor.core.publisher.Sinks;
+
+@ExtendWith(MockitoExtension.class)
+public class GroupMembershipIndexTest
+{
+
+    @Mock
+    private ClanMemberDAO clanMemberDAO;
+
+    @Mock
+    private PlayerCharacterDAO playerCharacterDAO;
+
+    @Mock
+    private ClusterEventService clusterEventService;
+
+    private Sinks.Many<Optional<GroupMembershipIndex.ClanInvalidation>> clanInvalidations;
+    private Sinks.Many<Optional<GroupMembershipIndex.ProPlayerInvalidation>> proPlayerInvalidations;
+    private GroupMembershipIndex index;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        clanInvalidations = Sinks.unsafe().many().multicast().onBackpressureBuffer(2);
+        proPlayerInvalidations = Sinks.unsafe().many().multicast().onBackpressureBuffer(2);
+        when(clusterEventService.getEvent
+        (
+            any(),
+            eq(GroupMembershipIndex.CLAN_INVALIDATION_EVENT),
+            eq(GroupMembershipIndex.ClanInvalidation.class)
+        ))
+            .thenReturn(clanInvalidations.asFlux());
+        when(clusterEventService.getEvent
+        (
+            any(),
+            eq(GroupMembershipIndex.PRO_PLAYER_INVALIDATION_EVENT),
+            eq(GroupMembershipIndex.ProPlayerInvalidation.class)
+        ))
+            .thenReturn(proPlayerInvalidations.asFlux());
+        index = new GroupMembershipIndex
+        (
+            clanMemberDAO,
+            playerCharacterDAO,
+            new CaffeineCacheManager(),
+            clusterEventService
+        );
+    }
+
+    @Test
+    public void whenCached_thenLoadMissingGroupsOnly()
+    {
+        when(clanMemberDAO.findByClanIds(Set.of(1, 2))).thenReturn(List.of(
+            new ClanMember(10L, 1),
+            new ClanMember(11L, 1)
+        ));
+        when(clanMemberDAO.findByClanIds(Set.of(3))).thenReturn(List.of(new ClanMember(30L, 3)));
+
+        assertEquals(Set.of(10L, 11L), index.getClanCharacterIds(Set.of(1, 2)));
+        assertEquals(Set.of(10L, 11L, 30L), index.getClanCharacterIds(Set.of(1, 2, 3)));
+        assertEquals(Set.of(10L, 11L, 30L), index.getClanCharacterIds(Set.of(1, 2, 3)));
+        verify(clanMemberDAO, times(1)).findByClanIds(Set.of(1, 2));
+        verify(clanMemberDAO, times(1)).findByClanIds(Set.of(3));
+    }
+
+    @Test
+    public void whenClanMembersChange_thenInvalidateAffectedClans()
+    {
+        when(clanMemberDAO.findByClanIds(Set.of(1, 2))).thenReturn(List.of(
+            new ClanMember(10L, 1),
+            new ClanMember(20L, 2)
+        ));
+        index.getClanCharacterIds(Set.of(1, 2));
+
+        //character 10 left clan 1 and joined clan 3
+        index.invalidateClans(Set.of(3), Set.of(10L));
+        when(clanMemberDAO.findByClanIds(Set.of(1))).thenReturn(List.of());
+        assertEquals(Set.of(20L), index.getClanCharacterIds(Set.of(1, 2)));
+        verify(clanMemberDAO).findByClanIds(Set.of(1));
+        verify(clusterEventService).publish
+        (
+            GroupMembershipIndex.CLAN_INVALIDATION_EVENT,
+            new GroupMembershipIndex.ClanInvalidation(Set.of(3), Set.of(10L))
+        );
+    }
+
+    @Test
+    public void whenClansAreInvalidatedByAnotherNode_thenInvalidateLocally()
+    {
+        when(clanMemberDAO.findByClanIds(Set.of(1, 2))).thenReturn(List.of(
+            new ClanMember(10L, 1),
+            new ClanMember(20L, 2)
+        ));
+        index.getClanCharacterIds(Set.of(1, 2));
+
+        clanInvalidations.tryEmitNext(Optional.of(new GroupMembershipIndex.ClanInvalidation(Set.of(), Set.of(10L))));
+        when(clanMemberDAO.findByClanIds(Set.of(1))).thenReturn(List.of());
+        assertEquals(Set.of(20L), index.getClanCharacterIds(Set.of(1, 2)));
+
+        //payload was too big or events were lost
+        when(clanMemberDAO.findByClanIds(Set.of(1, 2))).thenReturn(List.of(new ClanMember(20L, 2)));
+        clanInvalidations.tryEmitNext(Optional.empty());
+        assertEquals(Set.of(20L), index.getClanCharacterIds(Set.of(1, 2)));
+        verify(clanMemberDAO, times(2)).findByClanIds(Set.of(1, 2));
+        verify(clusterEventService, never()).publish(any(), any());
+    }
+
+    @Test
+    public void whenInvalidatedWhileLoading_thenDontCache()
+    {
+        when(clanMemberDAO.findByClanIds(Set.of(1))).thenAnswer(inv->
+        {
+            index.invalidateClans(Set.of(1), Set.of());
+            return List.of(new ClanMember(10L, 1));
+        });
+        index.getClanCharacterIds(Set.of(1));
+        index.getClanCharacterIds(Set.of(1));
+        verify(clanMemberDAO, times(2)).findByClanIds(Set.of(1));
+    }
+
+    @Test
+    public void whenProPlayerInvalidated_thenReload()
+    {
+        when(playerCharacterDAO.findCharacterIdsGroupedByProPlayerIds(Set.of(1L)))
+            .thenReturn(Map.of(1L, Set.of(10L)))
+            .thenReturn(Map.of(1L, Set.of(10L, 11L)));
+        assertEquals(Set.of(10L), index.getProPlayerCharacterIds(Set.of(1L)));
+        assertEquals(Set.of(10L), index.getProPlayerCharacterIds(Set.of(1L)));
+
+        index.invalidateProPlayers(Set.of(1L));
+        assertEquals(Set.of(10L, 11L), index.getProPlayerCharacterIds(Set.of(1L)));
+        verify(clusterEventService).publish
+        (
+            GroupMembershipIndex.PRO_PLAYER_INVALIDATION_EVENT,
+            new GroupMembershipIndex.ProPlayerInvalidation(Set.of(1L))
+        );
+    }
+
+    @Test
+    public void whenProPlayersAreInvalidatedByAnotherNode_thenInvalidateLocally()
+    {
+        when(playerCharacterDAO.findCharacterIdsGroupedByProPlayerIds(Set.of(1L)))
+            .thenReturn(Map.of(1L, Set.of(10L)))
+            .thenReturn(Map.of(1L, Set.of(10L, 11L)))
+            .thenReturn(Map.of(1L, Set.of(11L)));
+        assertEquals(Set.of(10L), index.getProPlayerCharacterIds(Set.of(1L)));
+
+        proPlayerInvalidations.tryEmitNext(Optional.of(new GroupMembershipIndex.ProPlayerInvalidation(Set.of(1L))));
+        assertEquals(Set.of(10L, 11L), index.getProPlayerCharacterIds(Set.of(1L)));
+
+        proPlayerInvalidations.tryEmitNext(Optional.empty());
+        assertEquals(Set.of(11L), index.getProPlayerCharacterIds(Set.of(1L)));
+        verify(clusterEventService, never()).publish(any(), any());
+    }
+
+    @Test
+    public void whenToonHandleIsNotFound_thenDontCacheIt()
+    {
+        PlayerCharacterNaturalId found = PlayerCharacterNaturalId.of(Region.EU, 1, 1L);
+        PlayerCharacterNaturalId notFound = PlayerCharacterNaturalId.of(Region.EU, 1, 2L);
+        when(playerCharacterDAO.findIdsGroupedByNaturalIds(Set.of(found, notFound)))
+            .thenReturn(Map.of(found, 10L));
+        when(playerCharacterDAO.findIdsGroupedByNaturalIds(Set.of(notFound)))
+            .thenReturn(Map.of());
+
+        assertEquals(Set.of(10L), index.getToonHandleCharacterIds(Set.of(found, notFound)));
+        assertEquals(Set.of(10L), index.getToonHandleCharacterIds(Set.of(found, notFound)));
+        verify(playerCharacterDAO).findIdsGroupedByNaturalIds(Set.of(notFound));
+    }
+
+}
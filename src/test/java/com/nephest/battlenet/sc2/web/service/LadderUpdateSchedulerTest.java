@@ -0,0 +1,184 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.nephest.battlenet.sc2.model.BaseLeague;
+import com.nephest.battlenet.sc2.model.QueueType;
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.local.dao.VarDAO;
+import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class LadderUpdateSchedulerTest
+{
+
+    private static final Instant NOW = SC2Pulse.instant().truncatedTo(ChronoUnit.SECONDS);
+    private static final Map<QueueType, Set<BaseLeague.LeagueType>> DATA = Map.of
+    (
+        QueueType.LOTV_1V1, EnumSet.of(BaseLeague.LeagueType.GRANDMASTER),
+        QueueType.LOTV_2V2, EnumSet.of(BaseLeague.LeagueType.BRONZE, BaseLeague.LeagueType.MASTER),
+        QueueType.LOTV_4V4, EnumSet.of(BaseLeague.LeagueType.BRONZE)
+    );
+    private static final Map<QueueType, Set<BaseLeague.LeagueType>> PRIORITIZED
+        = Map.of(QueueType.LOTV_1V1, EnumSet.of(BaseLeague.LeagueType.GRANDMASTER));
+
+    @Mock
+    private VarDAO varDAO;
+
+    private LadderUpdateScheduler scheduler;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        scheduler = new LadderUpdateScheduler(varDAO);
+        scheduler.init();
+    }
+
+    private void addLadders(QueueType queueType, BaseLeague.LeagueType leagueType, int changedTeams)
+    {
+        scheduler.addLadder(Region.EU, queueType, leagueType, changedTeams);
+        scheduler.addLadder(Region.EU, queueType, leagueType, changedTeams);
+    }
+
+    private void update(Instant instant, int highChurn, int lowChurn)
+    {
+        addLadders(QueueType.LOTV_1V1, BaseLeague.LeagueType.GRANDMASTER, highChurn);
+        addLadders(QueueType.LOTV_2V2, BaseLeague.LeagueType.MASTER, highChurn);
+        addLadders(QueueType.LOTV_2V2, BaseLeague.LeagueType.BRONZE, lowChurn);
+        addLadders(QueueType.LOTV_4V4, BaseLeague.LeagueType.BRONZE, lowChurn);
+        scheduler.complete(instant);
+    }
+
+    @Test
+    public void whenNoStats_thenChargeBudget()
+    {
+        //prioritized league only, it spends the whole budget
+        assertEquals(PRIORITIZED, scheduler.schedule(Region.EU, DATA, PRIORITIZED, 0.1, NOW));
+        //4 leagues, default cost: prioritized league + 1 new league
+        Map<QueueType, Set<BaseLeague.LeagueType>> scheduled
+            = scheduler.schedule(Region.EU, DATA, PRIORITIZED, 0.5, NOW);
+        assertEquals(2, scheduled.values().stream().mapToInt(Set::size).sum());
+        assertEquals(PRIORITIZED.get(QueueType.LOTV_1V1), scheduled.get(QueueType.LOTV_1V1));
+    }
+
+    @Test
+    public void whenSomeLeaguesHaveNoStats_thenScheduleThemFirstWithinBudget()
+    {
+        Map<LadderUpdateScheduler.Key, LadderUpdateScheduler.Stats> stats = scheduler.getStats(Region.EU);
+        Instant updated = NOW.minus(Duration.ofMinutes(30));
+        stats.put(new LadderUpdateScheduler.Key(QueueType.LOTV_2V2, BaseLeague.LeagueType.MASTER),
+            new LadderUpdateScheduler.Stats(100, 1, updated));
+        stats.put(new LadderUpdateScheduler.Key(QueueType.LOTV_2V2, BaseLeague.LeagueType.BRONZE),
+            new LadderUpdateScheduler.Stats(100, 1, updated));
+
+        //4 leagues, 1 ladder each, 2 ladders of budget
+        Map<QueueType, Set<BaseLeague.LeagueType>> expected = Map.of
+        (
+            QueueType.LOTV_1V1, EnumSet.of(BaseLeague.LeagueType.GRANDMASTER),
+            QueueType.LOTV_4V4, EnumSet.of(BaseLeague.LeagueType.BRONZE)
+        );
+        assertEquals(expected, scheduler.schedule(Region.EU, DATA, Map.of(), 0.5, NOW));
+    }
+
+    @Test
+    public void whenSameRatePerLadder_thenRankEqually()
+    {
+        Instant updated = NOW.minus(Duration.ofMinutes(30));
+        LadderUpdateScheduler.Stats twoLadders = new LadderUpdateScheduler.Stats(10, 2, updated);
+        LadderUpdateScheduler.Stats oneLadder = new LadderUpdateScheduler.Stats(10, 1, updated);
+        assertEquals(oneLadder.getExpectedChanges(NOW), twoLadders.getExpectedChanges(NOW), 0.0001);
+
+        //the larger league has slightly more changes per ladder, it must not be pushed back
+        Map<LadderUpdateScheduler.Key, LadderUpdateScheduler.Stats> stats = scheduler.getStats(Region.EU);
+        stats.put(new LadderUpdateScheduler.Key(QueueType.LOTV_2V2, BaseLeague.LeagueType.MASTER),
+            new LadderUpdateScheduler.Stats(10, 2, updated));
+        stats.put(new LadderUpdateScheduler.Key(QueueType.LOTV_2V2, BaseLeague.LeagueType.BRONZE),
+            new LadderUpdateScheduler.Stats(9, 1, updated));
+        Map<QueueType, Set<BaseLeague.LeagueType>> data = Map.of
+        (
+            QueueType.LOTV_2V2, EnumSet.of(BaseLeague.LeagueType.BRONZE, BaseLeague.LeagueType.MASTER)
+        );
+        //3 ladders in total, 2 ladders of budget
+        assertEquals
+        (
+            Map.of(QueueType.LOTV_2V2, EnumSet.of(BaseLeague.LeagueType.MASTER)),
+            scheduler.schedule(Region.EU, data, Map.of(), 0.7, NOW)
+        );
+    }
+
+    @Test
+    public void whenInitialized_thenRemoveObsoleteVars()
+    {
+        verify(varDAO).delete(LadderUpdateScheduler.getObsoleteVarKeys());
+        assertTrue(LadderUpdateScheduler.getObsoleteVarKeys().contains(Region.EU.getId() + ".ladder.partial.ix"));
+        assertTrue(LadderUpdateScheduler.getObsoleteVarKeys().contains(Region.EU.getId() + ".ladder.partial.ix.2"));
+    }
+
+    @Test
+    public void testSchedule()
+    {
+        Instant start = NOW.minus(Duration.ofMinutes(30));
+        update(start.minus(Duration.ofMinutes(10)), 0, 0);
+        update(start, 100, 1);
+
+        Map<QueueType, Set<BaseLeague.LeagueType>> expected = Map.of
+        (
+            QueueType.LOTV_1V1, EnumSet.of(BaseLeague.LeagueType.GRANDMASTER),
+            QueueType.LOTV_2V2, EnumSet.of(BaseLeague.LeagueType.MASTER)
+        );
+        //prioritized + the high churn league
+        assertEquals(expected, scheduler.schedule(Region.EU, DATA, PRIORITIZED, 0.5, NOW));
+
+        //low churn leagues exceeded their SLO
+        Instant slo = start.plus(LadderUpdateScheduler.FRESHNESS_SLO);
+        assertEquals(DATA, scheduler.schedule(Region.EU, DATA, PRIORITIZED, 0.5, slo));
+    }
+
+    @Test
+    public void testRateAndPersistence()
+    {
+        Instant start = NOW.minus(Duration.ofHours(2));
+        update(start, 0, 0);
+        update(start.plus(Duration.ofHours(1)), 10, 0);
+
+        LadderUpdateScheduler.Stats stats = scheduler.getStats(Region.EU)
+            .get(new LadderUpdateScheduler.Key(QueueType.LOTV_1V1, BaseLeague.LeagueType.GRANDMASTER));
+        //10 teams per ladder per hour
+        assertEquals(LadderUpdateScheduler.RATE_ALPHA * 10, stats.rate(), 0.0001);
+        assertEquals(2, stats.cost(), 0.0001);
+        assertEquals(start.plus(Duration.ofHours(1)), stats.updated());
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(varDAO, atLeastOnce()).merge(eq(Region.EU.getId() + ".ladder.scheduler"), captor.capture());
+        when(varDAO.find(any())).thenReturn(Optional.empty());
+        when(varDAO.find(Region.EU.getId() + ".ladder.scheduler"))
+            .thenReturn(Optional.of(captor.getValue()));
+        LadderUpdateScheduler loaded = new LadderUpdateScheduler(varDAO);
+        loaded.init();
+        assertEquals(scheduler.getStats(Region.EU), loaded.getStats(Region.EU));
+        assertTrue(loaded.getStats(Region.US).isEmpty());
+    }
+
+}
@@ -6,13 +6,22 @@ package com.nephest.battlenet.sc2.web.service;
 import static com.nephest.battlenet.sc2.service.EventService.DEFAULT_FAILURE_HANDLER;
 import static com.nephest.battlenet.sc2.web.service.MapService.MAP_STATS_SKIP_NEW_SEASON_FRAME;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.nephest.battlenet.sc2.model.BaseLeague;
+import com.nephest.battlenet.sc2.model.BaseLeagueTier;
+import com.nephest.battlenet.sc2.model.QueueType;
+import com.nephest.battlenet.sc2.model.Race;
 import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.TeamType;
 import com.nephest.battlenet.sc2.model.local.Season;
 import com.nephest.battlenet.sc2.model.local.dao.MapStatsDAO;
 import com.nephest.battlenet.sc2.model.local.dao.MapStatsFilmFrameDAO;
@@ -21,10 +30,13 @@ import com.nephest.battlenet.sc2.model.local.dao.SeasonDAO;
 import com.nephest.battlenet.sc2.model.local.dao.VarDAO;
 import com.nephest.battlenet.sc2.model.local.ladder.dao.LadderMapStatsFilmDAO;
 import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import com.nephest.battlenet.sc2.service.ClusterEventService;
 import com.nephest.battlenet.sc2.service.EventService;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -33,6 +45,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Sinks;
@@ -56,9 +71,17 @@ public class MapServiceTest
     @Mock
     private LadderMapStatsFilmDAO ladderMapStatsFilmDAO;
 
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ClusterEventService clusterEventService;
+
     @Mock
     private VarDAO varDAO;
 
+    private MapStatsFilmAccumulator mapStatsFilmAccumulator;
+
     @Mock
     private EventService eventService;
 
@@ -67,7 +90,9 @@ public class MapServiceTest
     @BeforeEach
     public void beforeEach()
     {
-        when(eventService.getMatchUpdateEvent()).thenReturn(Flux.empty());
+        mapStatsFilmAccumulator = new MapStatsFilmAccumulator();
+        when(eventService.getMatchUpdateEvent(any())).thenReturn(Flux.empty());
+        when(clusterEventService.getEvent(any(), any(), any())).thenReturn(Flux.empty());
         mapService = new MapService
         (
             seasonDAO,
@@ -75,6 +100,9 @@ public class MapServiceTest
             mapStatsFilmSpecDAO,
             mapStatsFilmFrameDAO,
             ladderMapStatsFilmDAO,
+            mapStatsFilmAccumulator,
+            cacheManager,
+            clusterEventService,
             varDAO,
             eventService
         );
@@ -117,7 +145,7 @@ public class MapServiceTest
         );
         Sinks.Many<MatchUpdateContext> matchUpdateEvent = Sinks.unsafe()
             .many().multicast().onBackpressureBuffer(2);
-        when(eventService.getMatchUpdateEvent()).thenReturn(matchUpdateEvent.asFlux());
+        when(eventService.getMatchUpdateEvent(any())).thenReturn(matchUpdateEvent.asFlux());
         mapService = new MapService
         (
             seasonDAO,
@@ -125,6 +153,9 @@ public class MapServiceTest
             mapStatsFilmSpecDAO,
             mapStatsFilmFrameDAO,
             ladderMapStatsFilmDAO,
+            mapStatsFilmAccumulator,
+            cacheManager,
+            clusterEventService,
             varDAO,
             eventService
         );
@@ -144,4 +175,119 @@ public class MapServiceTest
         }
     }
 
+    @Test
+    public void whenFilmFramesAreUpdated_thenEvictAffectedFilmsOnly()
+    {
+        OffsetDateTime oldDate = SC2Pulse.offsetDateTime()
+            .minusDays(MAP_STATS_SKIP_NEW_SEASON_FRAME.toDays());
+        when(seasonDAO.findLast())
+            .thenReturn(Optional.of(new Season(1, 1, Region.EU, 2020, 1, oldDate, oldDate.plusDays(1))));
+        when(mapStatsFilmFrameDAO.findMatches(any(), any(), any())).thenReturn(List.of
+        (
+            new MapStatsFilmFrameDAO.FilmMatch
+            (
+                1, Region.EU, 1, Race.PROTOSS, Race.TERRAN,
+                BaseLeague.LeagueType.GOLD, BaseLeagueTier.LeagueTierType.FIRST,
+                BaseLeague.LeagueType.GOLD, BaseLeagueTier.LeagueTierType.FIRST,
+                1, true
+            )
+        ));
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        mapService = new MapService
+        (
+            seasonDAO,
+            mapStatsDAO,
+            mapStatsFilmSpecDAO,
+            mapStatsFilmFrameDAO,
+            ladderMapStatsFilmDAO,
+            mapStatsFilmAccumulator,
+            cacheManager,
+            clusterEventService,
+            varDAO,
+            eventService
+        );
+        Cache cache = cacheManager.getCache(MapService.FILM_CACHE_NAME);
+        MapService.FilmCacheKey affected = filmCacheKey(Set.of(Race.PROTOSS, Race.TERRAN), Region.EU);
+        MapService.FilmCacheKey otherRace = filmCacheKey(Set.of(Race.ZERG, Race.TERRAN), Region.EU);
+        MapService.FilmCacheKey otherRegion = filmCacheKey(Set.of(Race.PROTOSS, Race.TERRAN), Region.US);
+        cache.put(affected, new Object());
+        cache.put(otherRace, new Object());
+        cache.put(otherRegion, new Object());
+
+        mapService.update(new MatchUpdateContext
+        (
+            Map.of(),
+            new UpdateContext(SC2Pulse.instant(), SC2Pulse.instant())
+        ));
+        verify(mapStatsFilmFrameDAO).merge(argThat(d->d.size() == 1), eq(MapService.FILM_FRAME_DURATION));
+        verify(clusterEventService).publish
+        (
+            eq(MapService.FILM_EVICTION_EVENT),
+            argThat(e->((MapService.FilmEviction) e).frames().size() == 1)
+        );
+        assertNull(cache.get(affected));
+        assertNotNull(cache.get(otherRace));
+        assertNotNull(cache.get(otherRegion));
+    }
+
+    @Test
+    public void whenFilmEvictionIsReceived_thenEvictAffectedFilms()
+    {
+        MapStatsFilmFrameDAO.FrameKey frame = new MapStatsFilmFrameDAO.FrameKey
+        (
+            1, Region.EU,
+            BaseLeague.LeagueType.GOLD, BaseLeagueTier.LeagueTierType.FIRST,
+            0, Race.PROTOSS, Race.TERRAN,
+            false, null
+        );
+        Sinks.Many<Optional<MapService.FilmEviction>> evictions = Sinks.unsafe()
+            .many().multicast().onBackpressureBuffer(2);
+        when(clusterEventService.getEvent(any(), eq(MapService.FILM_EVICTION_EVENT), eq(MapService.FilmEviction.class)))
+            .thenReturn(evictions.asFlux());
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        mapService = new MapService
+        (
+            seasonDAO,
+            mapStatsDAO,
+            mapStatsFilmSpecDAO,
+            mapStatsFilmFrameDAO,
+            ladderMapStatsFilmDAO,
+            mapStatsFilmAccumulator,
+            cacheManager,
+            clusterEventService,
+            varDAO,
+            eventService
+        );
+        Cache cache = cacheManager.getCache(MapService.FILM_CACHE_NAME);
+        MapService.FilmCacheKey affected = filmCacheKey(Set.of(Race.PROTOSS, Race.TERRAN), Region.EU);
+        MapService.FilmCacheKey otherRace = filmCacheKey(Set.of(Race.ZERG, Race.TERRAN), Region.EU);
+        cache.put(affected, new Object());
+        cache.put(otherRace, new Object());
+
+        evictions.emitNext(Optional.of(new MapService.FilmEviction(Set.of(frame))), DEFAULT_FAILURE_HANDLER);
+        assertNull(cache.get(affected));
+        assertNotNull(cache.get(otherRace));
+
+        //empty payload, everything has changed
+        evictions.emitNext(Optional.empty(), DEFAULT_FAILURE_HANDLER);
+        assertNull(cache.get(otherRace));
+    }
+
+    private static MapService.FilmCacheKey filmCacheKey(Set<Race> races, Region region)
+    {
+        return new MapService.FilmCacheKey
+        (
+            races,
+            MapService.FILM_FRAME_DURATION,
+            null,
+            1,
+            Set.of(region),
+            QueueType.LOTV_1V1,
+            TeamType.ARRANGED,
+            BaseLeague.LeagueType.GOLD,
+            BaseLeagueTier.LeagueTierType.FIRST,
+            Set.of(false)
+        );
+    }
+
 }
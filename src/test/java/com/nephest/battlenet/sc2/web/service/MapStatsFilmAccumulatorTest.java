@@ -0,0 +1,112 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nephest.battlenet.sc2.model.BaseLeague;
+import com.nephest.battlenet.sc2.model.BaseLeagueTier;
+import com.nephest.battlenet.sc2.model.Race;
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.local.dao.MapStatsFilmFrameDAO.FilmMatch;
+import com.nephest.battlenet.sc2.model.local.dao.MapStatsFilmFrameDAO.FrameDelta;
+import com.nephest.battlenet.sc2.model.local.dao.MapStatsFilmFrameDAO.FrameKey;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MapStatsFilmAccumulatorTest
+{
+
+    private MapStatsFilmAccumulator accumulator;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        accumulator = new MapStatsFilmAccumulator();
+    }
+
+    private static FilmMatch match
+    (
+        BaseLeague.LeagueType league2,
+        BaseLeagueTier.LeagueTierType tier2,
+        Integer number,
+        boolean win
+    )
+    {
+        return new FilmMatch
+        (
+            1, Region.EU, 10, Race.PROTOSS, Race.TERRAN,
+            BaseLeague.LeagueType.GOLD, BaseLeagueTier.LeagueTierType.FIRST,
+            league2, tier2,
+            number, win
+        );
+    }
+
+    private static FrameKey key
+    (
+        BaseLeague.LeagueType league,
+        BaseLeagueTier.LeagueTierType tier,
+        boolean crossTier,
+        Integer number
+    )
+    {
+        return new FrameKey
+        (
+            10, Region.EU, league, tier,
+            1, Race.PROTOSS, Race.TERRAN,
+            crossTier, number
+        );
+    }
+
+    @Test
+    public void testFlush()
+    {
+        accumulator.add(List.of
+        (
+            match(BaseLeague.LeagueType.GOLD, BaseLeagueTier.LeagueTierType.FIRST, 1, true),
+            match(BaseLeague.LeagueType.GOLD, BaseLeagueTier.LeagueTierType.FIRST, 1, false),
+            match(BaseLeague.LeagueType.GOLD, BaseLeagueTier.LeagueTierType.FIRST, null, true),
+            //cross tier matches are added to both tiers
+            match(BaseLeague.LeagueType.PLATINUM, BaseLeagueTier.LeagueTierType.THIRD, 1, true)
+        ));
+        assertEquals(4, accumulator.getSize());
+
+        List<FrameDelta> deltas = accumulator.flush(d->{});
+        assertEquals
+        (
+            Set.of
+            (
+                new FrameDelta(key(BaseLeague.LeagueType.GOLD, BaseLeagueTier.LeagueTierType.FIRST, false, 1), 2, 1),
+                new FrameDelta(key(BaseLeague.LeagueType.GOLD, BaseLeagueTier.LeagueTierType.FIRST, false, null), 1, 1),
+                new FrameDelta(key(BaseLeague.LeagueType.GOLD, BaseLeagueTier.LeagueTierType.FIRST, true, 1), 1, 1),
+                new FrameDelta(key(BaseLeague.LeagueType.PLATINUM, BaseLeagueTier.LeagueTierType.THIRD, true, 1), 1, 1)
+            ),
+            Set.copyOf(deltas)
+        );
+        assertEquals(0, accumulator.getSize());
+        assertTrue(accumulator.flush(d->{}).isEmpty());
+    }
+
+    @Test
+    public void whenWriterFails_thenKeepDeltas()
+    {
+        accumulator.add(match(BaseLeague.LeagueType.GOLD, BaseLeagueTier.LeagueTierType.FIRST, 1, true));
+        assertThrows(IllegalStateException.class, ()->accumulator.flush(d->{
+            throw new IllegalStateException("test");
+        }));
+        assertEquals(1, accumulator.getSize());
+
+        accumulator.add(match(BaseLeague.LeagueType.GOLD, BaseLeagueTier.LeagueTierType.FIRST, 1, false));
+        assertEquals
+        (
+            List.of(new FrameDelta(key(BaseLeague.LeagueType.GOLD, BaseLeagueTier.LeagueTierType.FIRST, false, 1), 2, 1)),
+            accumulator.flush(d->{})
+        );
+    }
+
+}
@@ -0,0 +1,92 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.local.PlayerCharacter;
+import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class MatchFetchSchedulerTest
+{
+
+    private static final Instant NOW = SC2Pulse.instant();
+    private static final OffsetDateTime NOW_ODT = OffsetDateTime.ofInstant(NOW, ZoneOffset.UTC);
+
+    private static PlayerCharacter character(long id)
+    {
+        return new PlayerCharacter(id, id, Region.EU, id, 1, "name#" + id);
+    }
+
+    @Test
+    public void testRankAndDefer()
+    {
+        MatchFetchScheduler scheduler = new MatchFetchScheduler();
+        scheduler.addActivity(1L, new CharacterActivity(1, NOW_ODT), NOW);
+        scheduler.addActivity(2L, new CharacterActivity(10, NOW_ODT), NOW);
+        //same games, but played a long time ago
+        scheduler.addActivity(3L, new CharacterActivity(10, NOW_ODT.minusDays(1)), NOW);
+
+        MatchFetchScheduler.Schedule schedule = scheduler.schedule
+        (
+            Map.of(Region.EU, Set.of(character(1L), character(2L), character(3L))),
+            2,
+            NOW
+        );
+        assertEquals(List.of(character(2L), character(1L)), List.copyOf(schedule.selected().get(Region.EU)));
+        assertEquals(Set.of(character(3L)), schedule.deferred().get(Region.EU));
+        assertEquals(2, schedule.getSelectedCount());
+        assertEquals(1, schedule.getDeferredCount());
+
+        //deferred characters are boosted
+        double score = scheduler.getScore(3L, NOW);
+        scheduler.schedule(Map.of(Region.EU, Set.of(character(3L))), 0, NOW);
+        assertEquals(score * 1.5, scheduler.getScore(3L, NOW), 0.0001);
+    }
+
+    @Test
+    public void testYield()
+    {
+        MatchFetchScheduler scheduler = new MatchFetchScheduler();
+        scheduler.addActivity(1L, new CharacterActivity(5, NOW_ODT), NOW);
+        scheduler.addActivity(2L, new CharacterActivity(5, NOW_ODT), NOW);
+        Map<Region, Set<PlayerCharacter>> characters
+            = Map.of(Region.EU, Set.of(character(1L), character(2L)));
+        scheduler.schedule(characters, 10, NOW);
+        scheduler.addFound(1L, 5);
+        scheduler.complete(characters);
+
+        assertTrue(scheduler.getYield(1L) > scheduler.getYield(2L));
+        //same activity, but different yield
+        scheduler.addActivity(1L, new CharacterActivity(5, NOW_ODT), NOW);
+        scheduler.addActivity(2L, new CharacterActivity(5, NOW_ODT), NOW);
+        assertTrue(scheduler.getScore(1L, NOW) > scheduler.getScore(2L, NOW));
+    }
+
+    @Test
+    public void testRemoveExpired()
+    {
+        MatchFetchScheduler scheduler = new MatchFetchScheduler();
+        scheduler.addActivity(1L, new CharacterActivity(1, NOW_ODT), NOW);
+        scheduler.addActivity(2L, new CharacterActivity(1, NOW_ODT), NOW);
+        scheduler.schedule
+        (
+            Map.of(Region.EU, Set.of(character(2L))),
+            10,
+            NOW.plus(MatchFetchScheduler.STATS_TTL).plus(Duration.ofSeconds(1))
+        );
+        assertEquals(1, scheduler.size());
+    }
+
+}
@@ -97,7 +97,7 @@ public class MatchServiceIT
     {
         api.setAutoForceRegion(true);
         CompletableFuture<MatchUpdateContext> update = new CompletableFuture<>();
-        eventService.getMatchUpdateEvent().subscribe(update::complete);
+        eventService.getMatchUpdateEvent("test").subscribe(update::complete);
         try
         {
             //no matches found
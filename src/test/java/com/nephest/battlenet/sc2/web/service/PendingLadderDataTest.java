@@ -3,20 +3,36 @@
 
 package com.nephest.battlenet.sc2.web.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.nephest.battlenet.sc2.model.Region;
 import com.nephest.battlenet.sc2.model.local.PlayerCharacter;
+import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import java.time.OffsetDateTime;
 import java.util.List;
 import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 public class PendingLadderDataTest
 {
 
+    @Test
+    public void testAddCharacterActivity()
+    {
+        PendingLadderData data = new PendingLadderData();
+        OffsetDateTime odt = SC2Pulse.offsetDateTime();
+        data.addCharacterActivity(1L, 2, odt);
+        data.addCharacterActivity(1L, 3, odt.minusDays(1));
+        data.addCharacterActivity(2L, 1, null);
+        assertEquals(new CharacterActivity(5, odt), data.getCharacterActivity().get(1L));
+        assertEquals(new CharacterActivity(1, null), data.getCharacterActivity().get(2L));
+    }
+
     @ValueSource(booleans = {true, false})
     @ParameterizedTest
     public void testCopyConstructor(boolean immutable)
@@ -28,6 +44,7 @@ public class PendingLadderDataTest
             new PlayerCharacter(1L, 2L, Region.EU, 3L, 4, "name#1"),
             new PlayerCharacter(2L, 3L, Region.US, 4L, 5, "name#5")
         ));
+        src.addCharacterActivity(1L, 2, SC2Pulse.offsetDateTime());
         PendingLadderData copy = immutable
             ? PendingLadderData.immutableCopy(src)
             : new PendingLadderData(src);
@@ -45,6 +62,7 @@ public class PendingLadderDataTest
             assertThrows(UnsupportedOperationException.class, ()->copy.getStatsUpdates().clear());
             assertThrows(UnsupportedOperationException.class, ()->copy.getTeams().clear());
             assertThrows(UnsupportedOperationException.class, ()->copy.getCharacters().clear());
+            assertThrows(UnsupportedOperationException.class, ()->copy.getCharacterActivity().clear());
         }
         else
         {
@@ -52,9 +70,11 @@ public class PendingLadderDataTest
             assertTrue(src.getStatsUpdates().isEmpty());
             assertTrue(src.getTeams().isEmpty());
             assertTrue(src.getCharacters().isEmpty());
+            assertTrue(src.getCharacterActivity().isEmpty());
             assertFalse(copy.getStatsUpdates().isEmpty());
             assertFalse(copy.getTeams().isEmpty());
             assertFalse(copy.getCharacters().isEmpty());
+            assertFalse(copy.getCharacterActivity().isEmpty());
         }
     }
 
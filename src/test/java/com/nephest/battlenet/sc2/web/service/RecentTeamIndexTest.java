@@ -0,0 +1,172 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nephest.battlenet.sc2.model.BaseLeague;
+import com.nephest.battlenet.sc2.model.QueueType;
+import com.nephest.battlenet.sc2.model.Race;
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.TeamType;
+import com.nephest.battlenet.sc2.model.local.Team;
+import com.nephest.battlenet.sc2.model.local.inner.TeamLegacyId;
+import com.nephest.battlenet.sc2.model.local.inner.TeamLegacyIdEntry;
+import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RecentTeamIndexTest
+{
+
+    private RecentTeamIndex index;
+    private OffsetDateTime now;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        index = new RecentTeamIndex(3);
+        now = SC2Pulse.offsetDateTime();
+    }
+
+    private static Team team
+    (
+        long id,
+        Region region,
+        BaseLeague.LeagueType league,
+        Race race,
+        int wins,
+        long rating,
+        OffsetDateTime lastPlayed
+    )
+    {
+        return new Team
+        (
+            id,
+            10, region,
+            new BaseLeague(league, QueueType.LOTV_1V1, TeamType.ARRANGED), null,
+            TeamLegacyId.standard(List.of(new TeamLegacyIdEntry(1, id, race))), 1,
+            rating, wins, 1, 0, 1,
+            lastPlayed, lastPlayed, lastPlayed
+        );
+    }
+
+    private Optional<List<Long>> find
+    (
+        BaseLeague.LeagueType league,
+        OffsetDateTime from,
+        Integer winsMin,
+        Integer ratingMin,
+        Race race,
+        Region region,
+        int limit
+    )
+    {
+        return index.findIds
+        (
+            QueueType.LOTV_1V1,
+            league,
+            from,
+            winsMin, null,
+            ratingMin, null,
+            race,
+            region,
+            limit
+        );
+    }
+
+    @Test
+    public void whenIndexIsNotFedForThePeriod_thenEmpty()
+    {
+        assertTrue(find(BaseLeague.LeagueType.GOLD, now, null, null, null, null, 10).isEmpty());
+        index.add(List.of(team(1L, Region.EU, BaseLeague.LeagueType.GOLD, Race.TERRAN, 1, 1L, now)));
+        assertTrue(find(BaseLeague.LeagueType.GOLD, now.minusHours(1), null, null, null, null, 10)
+            .isEmpty());
+    }
+
+    @Test
+    public void testFilterAndOrder()
+    {
+        index = new RecentTeamIndex(10);
+        index.add(List.of());
+        OffsetDateTime from = SC2Pulse.offsetDateTime();
+        now = from.plusMinutes(1);
+        index.add(List.of
+        (
+            team(1L, Region.EU, BaseLeague.LeagueType.GOLD, Race.TERRAN, 10, 100L, now),
+            team(2L, Region.US, BaseLeague.LeagueType.GOLD, Race.TERRAN, 20, 200L, now),
+            team(3L, Region.EU, BaseLeague.LeagueType.GOLD, Race.ZERG, 30, 300L, now.minusMinutes(1)),
+            team(4L, Region.EU, BaseLeague.LeagueType.GOLD, Race.TERRAN, 40, 400L, now.minusHours(2)),
+            team(5L, Region.EU, BaseLeague.LeagueType.PLATINUM, Race.TERRAN, 50, 500L, now)
+        ));
+
+        assertTrue(find(BaseLeague.LeagueType.DIAMOND, now, null, null, null, null, 10)
+            .orElseThrow().isEmpty());
+        //outdated teams are excluded, last played desc, id desc
+        assertEquals(List.of(2L, 1L, 3L), find(BaseLeague.LeagueType.GOLD, from, null, null, null, null, 10)
+            .orElseThrow());
+        assertEquals(List.of(2L, 1L), find(BaseLeague.LeagueType.GOLD, from, null, null, null, null, 2)
+            .orElseThrow());
+        assertEquals(List.of(1L, 3L), find(BaseLeague.LeagueType.GOLD, from, null, null, null, Region.EU, 10)
+            .orElseThrow());
+        assertEquals(List.of(2L, 1L), find(BaseLeague.LeagueType.GOLD, from, null, null, Race.TERRAN, null, 10)
+            .orElseThrow());
+        assertEquals(List.of(2L, 3L), find(BaseLeague.LeagueType.GOLD, from, 20, null, null, null, 10)
+            .orElseThrow());
+        assertEquals(List.of(3L), find(BaseLeague.LeagueType.GOLD, from, null, 300, null, null, 10)
+            .orElseThrow());
+
+        //promotion, the old entry is stale
+        index.add(List.of(team(1L, Region.EU, BaseLeague.LeagueType.PLATINUM, Race.TERRAN, 11, 110L, now)));
+        assertEquals(List.of(2L, 3L), find(BaseLeague.LeagueType.GOLD, from, null, null, null, null, 10)
+            .orElseThrow());
+        assertEquals(List.of(5L, 1L), find(BaseLeague.LeagueType.PLATINUM, from, null, null, null, null, 10)
+            .orElseThrow());
+    }
+
+    @Test
+    public void whenActiveEntriesAreEvicted_thenEmpty()
+    {
+        index.add(List.of());
+        OffsetDateTime from = SC2Pulse.offsetDateTime();
+        now = from.plusMinutes(1);
+        index.add(List.of
+        (
+            team(1L, Region.EU, BaseLeague.LeagueType.GOLD, Race.TERRAN, 1, 1L, now.minusHours(2)),
+            team(2L, Region.EU, BaseLeague.LeagueType.GOLD, Race.TERRAN, 1, 1L, now),
+            team(3L, Region.EU, BaseLeague.LeagueType.GOLD, Race.TERRAN, 1, 1L, now)
+        ));
+        //outdated entry is evicted, the period is still covered
+        index.add(List.of(team(4L, Region.EU, BaseLeague.LeagueType.GOLD, Race.TERRAN, 1, 1L, now)));
+        assertEquals(List.of(4L, 3L, 2L), find(BaseLeague.LeagueType.GOLD, from, null, null, null, null, 10)
+            .orElseThrow());
+
+        //active entry is evicted
+        index.add(List.of(team(5L, Region.EU, BaseLeague.LeagueType.GOLD, Race.TERRAN, 1, 1L, now)));
+        assertTrue(find(BaseLeague.LeagueType.GOLD, from, null, null, null, null, 10).isEmpty());
+    }
+
+    @Test
+    public void whenInvalidParameters_thenThrowException()
+    {
+        assertThrows(IllegalArgumentException.class, ()->index.findIds
+        (
+            QueueType.LOTV_2V2, BaseLeague.LeagueType.GOLD, now,
+            null, null, null, null,
+            Race.TERRAN, null, 10
+        ));
+        assertThrows(IllegalArgumentException.class, ()->index.findIds
+        (
+            QueueType.LOTV_1V1, BaseLeague.LeagueType.GOLD, now,
+            2, 1, null, null,
+            null, null, 10
+        ));
+    }
+
+}
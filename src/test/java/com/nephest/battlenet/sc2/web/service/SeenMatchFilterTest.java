@@ -0,0 +1,90 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nephest.battlenet.sc2.model.BaseMatch;
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardMatch;
+import com.nephest.battlenet.sc2.model.local.PlayerCharacter;
+import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import org.junit.jupiter.api.Test;
+
+public class SeenMatchFilterTest
+{
+
+    private static final OffsetDateTime DATE = SC2Pulse.offsetDateTime(2020, 1, 1);
+    private static final Instant NOW = SC2Pulse.instant();
+
+    private static SeenMatchFilter.Key key(long characterId, BaseMatch.Decision decision)
+    {
+        return SeenMatchFilter.Key.of
+        (
+            new BlizzardMatch(DATE, BaseMatch.MatchType._1V1, "map", decision),
+            new PlayerCharacter(characterId, 1L, Region.EU, characterId, 1, "name#1")
+        );
+    }
+
+    @Test
+    public void testKey()
+    {
+        assertEquals(key(1L, BaseMatch.Decision.WIN), key(1L, BaseMatch.Decision.WIN));
+        //decision can be changed, it must be a new key
+        assertFalse(key(1L, BaseMatch.Decision.WIN).equals(key(1L, BaseMatch.Decision.LOSS)));
+        assertNull(SeenMatchFilter.Key.of
+        (
+            new BlizzardMatch(null, BaseMatch.MatchType._1V1, "map", BaseMatch.Decision.WIN),
+            new PlayerCharacter(1L, 1L, Region.EU, 1L, 1, "name#1")
+        ));
+    }
+
+    @Test
+    public void testRollingWindow()
+    {
+        SeenMatchFilter filter = new SeenMatchFilter(Duration.ofMinutes(10), 3, 100);
+        filter.add(key(1L, BaseMatch.Decision.WIN), NOW);
+        filter.add(key(2L, BaseMatch.Decision.WIN), NOW.plus(Duration.ofMinutes(5)));
+        filter.add(key(3L, BaseMatch.Decision.WIN), NOW.plus(Duration.ofMinutes(10)));
+        assertEquals(3, filter.size());
+        assertTrue(filter.contains(key(1L, BaseMatch.Decision.WIN), NOW.plus(Duration.ofMinutes(29))));
+        assertFalse(filter.contains(key(1L, BaseMatch.Decision.LOSS), NOW.plus(Duration.ofMinutes(29))));
+
+        //the first bucket is out of the window, both keys are evicted
+        assertFalse(filter.contains(key(1L, BaseMatch.Decision.WIN), NOW.plus(Duration.ofMinutes(30))));
+        assertFalse(filter.contains(key(2L, BaseMatch.Decision.WIN), NOW.plus(Duration.ofMinutes(30))));
+        assertTrue(filter.contains(key(3L, BaseMatch.Decision.WIN), NOW.plus(Duration.ofMinutes(30))));
+        assertEquals(1, filter.size());
+
+        filter.clear();
+        assertEquals(0, filter.size());
+        assertFalse(filter.contains(key(3L, BaseMatch.Decision.WIN), NOW.plus(Duration.ofMinutes(30))));
+    }
+
+    @Test
+    public void testSizeMax()
+    {
+        SeenMatchFilter filter = new SeenMatchFilter(Duration.ofMinutes(10), 3, 2);
+        filter.add(key(1L, BaseMatch.Decision.WIN), NOW);
+        filter.add(key(2L, BaseMatch.Decision.WIN), NOW.plus(Duration.ofMinutes(10)));
+        filter.add(key(3L, BaseMatch.Decision.WIN), NOW.plus(Duration.ofMinutes(20)));
+        //the oldest bucket is evicted early
+        assertEquals(2, filter.size());
+        assertFalse(filter.contains(key(1L, BaseMatch.Decision.WIN), NOW.plus(Duration.ofMinutes(20))));
+        assertTrue(filter.contains(key(2L, BaseMatch.Decision.WIN), NOW.plus(Duration.ofMinutes(20))));
+
+        //a single full bucket doesn't accept new keys
+        filter.add(key(4L, BaseMatch.Decision.WIN), NOW.plus(Duration.ofMinutes(21)));
+        filter.add(key(5L, BaseMatch.Decision.WIN), NOW.plus(Duration.ofMinutes(21)));
+        assertEquals(2, filter.size());
+        assertFalse(filter.contains(key(5L, BaseMatch.Decision.WIN), NOW.plus(Duration.ofMinutes(21))));
+    }
+
+}
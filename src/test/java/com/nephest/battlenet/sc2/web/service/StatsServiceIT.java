@@ -65,7 +65,6 @@ import org.springframework.http.MediaType;
 import org.springframework.jdbc.datasource.init.ScriptUtils;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.validation.Validator;
 import org.springframework.web.context.WebApplicationContext;
 
 @SpringBootTest(classes = {AllTestConfig.class})
@@ -95,8 +94,7 @@ public class StatsServiceIT
     public void beforeEach
     (
         @Autowired DataSource dataSource,
-        @Autowired WebApplicationContext webApplicationContext,
-        @Autowired Validator validator
+        @Autowired WebApplicationContext webApplicationContext
     )
     throws SQLException
     {
@@ -129,10 +127,12 @@ public class StatsServiceIT
             null,
             null,
             null,
-            validator,
+            null,
             dbExecutorService,
             mock(ClanService.class),
-            null
+            null,
+            new RecentTeamIndex(),
+            mock(LadderUpdateScheduler.class)
         );
         StatsService nss = mock(StatsService.class);
         statsService.setNestedService(nss);
@@ -32,6 +32,7 @@ import com.nephest.battlenet.sc2.model.local.LeagueTier;
 import com.nephest.battlenet.sc2.model.local.Season;
 import com.nephest.battlenet.sc2.model.local.dao.AccountDAO;
 import com.nephest.battlenet.sc2.model.local.dao.DivisionDAO;
+import com.nephest.battlenet.sc2.model.local.dao.FastLeagueStatsDAO;
 import com.nephest.battlenet.sc2.model.local.dao.FastTeamDAO;
 import com.nephest.battlenet.sc2.model.local.dao.LeagueDAO;
 import com.nephest.battlenet.sc2.model.local.dao.LeagueStatsDAO;
@@ -62,7 +63,6 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.convert.ConversionService;
-import org.springframework.validation.Validator;
 
 @ExtendWith(MockitoExtension.class)
 public class StatsServiceTest
@@ -119,6 +119,9 @@ public class StatsServiceTest
     @Mock
     private LeagueStatsDAO leagueStatsDao;
 
+    @Mock
+    private FastLeagueStatsDAO fastLeagueStatsDAO;
+
     @Mock
     private PlayerCharacterStatsDAO playerCharacterStatsDAO;
 
@@ -143,7 +146,10 @@ public class StatsServiceTest
     private EventService eventService;
 
     @Mock
-    private Validator validator;
+    private RecentTeamIndex recentTeamIndex;
+
+    @Mock
+    private LadderUpdateScheduler ladderUpdateScheduler;
     
     @Mock
     StatsService nss;
@@ -167,16 +173,18 @@ public class StatsServiceTest
             teamMemberDao,
             queueStatsDAO,
             leagueStatsDao,
+            fastLeagueStatsDAO,
             playerCharacterStatsDAO,
             populationStateDAO,
             varDAO,
             seasonService,
             sc2WebServiceUtil,
             conversionService,
-            validator,
             dbExecutorService,
             clanService,
-            eventService
+            eventService,
+            recentTeamIndex,
+            ladderUpdateScheduler
         );
         ss.setNestedService(nss);
     }
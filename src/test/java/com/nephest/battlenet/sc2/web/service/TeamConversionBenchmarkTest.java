@@ -0,0 +1,172 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import static org.mockito.Mockito.mock;
+
+import com.nephest.battlenet.sc2.config.CommonBeanConfig;
+import com.nephest.battlenet.sc2.extension.ValidatorExtension;
+import com.nephest.battlenet.sc2.model.BaseLeague;
+import com.nephest.battlenet.sc2.model.BaseLeagueTier;
+import com.nephest.battlenet.sc2.model.QueueType;
+import com.nephest.battlenet.sc2.model.Race;
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.TeamType;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardAccount;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardAccountKey;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardPlayerCharacter;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardTeam;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardTeamMember;
+import com.nephest.battlenet.sc2.model.blizzard.BlizzardTeamMemberRace;
+import com.nephest.battlenet.sc2.model.local.Division;
+import com.nephest.battlenet.sc2.model.local.League;
+import com.nephest.battlenet.sc2.model.local.LeagueTier;
+import com.nephest.battlenet.sc2.model.local.Season;
+import com.nephest.battlenet.sc2.model.local.Team;
+import com.nephest.battlenet.sc2.model.local.dao.TeamDAO;
+import com.nephest.battlenet.sc2.model.local.inner.TeamLegacyId;
+import com.nephest.battlenet.sc2.model.local.inner.TeamLegacyIdEntry;
+import com.nephest.battlenet.sc2.model.validation.BlizzardTeamValidator;
+import jakarta.validation.Validator;
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/*
+    # Team conversion benchmark
+
+    Converts a synthetic full-size 4v4 ladder into local teams the way ladder updates do and
+    reports CPU time and allocated bytes per team. Bean validation and stream based legacy id
+    construction are measured alongside the fast path for comparison. Disabled by default, run
+    it with `-Dsc2.benchmark.conversion=<iterations> -Dtest=TeamConversionBenchmarkTest`
+ */
+@ExtendWith(ValidatorExtension.class)
+@EnabledIfSystemProperty(named = "sc2.benchmark.conversion", matches = "\\d+")
+public class TeamConversionBenchmarkTest
+{
+
+    public static final int LADDER_SIZE = 200;
+    public static final int WARMUP_ITERATIONS = 200;
+
+    private static final Logger LOG = LoggerFactory.getLogger(TeamConversionBenchmarkTest.class);
+
+    private Validator validator;
+
+    private static BlizzardTeam[] createLadder()
+    {
+        BlizzardTeam[] ladder = new BlizzardTeam[LADDER_SIZE];
+        for(int i = 0; i < ladder.length; i++)
+        {
+            BlizzardTeamMember[] members = new BlizzardTeamMember[4];
+            for(int m = 0; m < members.length; m++)
+            {
+                long id = i * 4L + m;
+                members[m] = new BlizzardTeamMember
+                (
+                    new BlizzardPlayerCharacter(id, 1, "name" + id),
+                    new BlizzardTeamMemberRace[]{new BlizzardTeamMemberRace(Race.ZERG, 10)},
+                    new BlizzardAccount
+                    (
+                        id,
+                        "tag#" + id,
+                        new BlizzardAccountKey
+                        (
+                            "https://eu.api.blizzard.com/data/sc2/character/tag-" + id + "/1"
+                        )
+                    )
+                );
+            }
+            ladder[i] = new BlizzardTeam
+            (
+                BigInteger.valueOf(i),
+                members,
+                Instant.now(),
+                3000L + i,
+                10,
+                10,
+                0,
+                0
+            );
+            ladder[i].setJoined(Instant.now());
+        }
+        return ladder;
+    }
+
+    @Test
+    public void benchmark()
+    {
+        int iterations = Integer.parseInt(System.getProperty("sc2.benchmark.conversion"));
+        TeamDAO teamDAO = new TeamDAO
+        (
+            mock(NamedParameterJdbcTemplate.class),
+            new CommonBeanConfig().sc2StatsConversionService(),
+            null
+        );
+        Season season = new Season(1, 1, Region.EU, 2020, 1, OffsetDateTime.now(), OffsetDateTime.now());
+        League league = new League(1, 1, BaseLeague.LeagueType.GOLD, QueueType.LOTV_4V4, TeamType.ARRANGED);
+        LeagueTier tier = new LeagueTier(1, 1, BaseLeagueTier.LeagueTierType.FIRST, 0, 1);
+        Division division = new Division(1, 1, 1L);
+        BlizzardTeam[] ladder = createLadder();
+
+        measure("bean validation", iterations, ()->{
+            for(BlizzardTeam bTeam : ladder) validator.validate(bTeam);
+        });
+        measure("hand-written validation", iterations, ()->{
+            for(BlizzardTeam bTeam : ladder) BlizzardTeamValidator.isValid(bTeam);
+        });
+        measure("legacy id(streams)", iterations, ()->{
+            for(BlizzardTeam bTeam : ladder)
+                TeamLegacyId.standard(Arrays.stream(bTeam.getMembers())
+                    .map(m->new TeamLegacyIdEntry(
+                        m.getCharacter().getRealm(),
+                        m.getCharacter().getId()))
+                    .collect(Collectors.toSet()));
+        });
+        measure("legacy id(fast path)", iterations, ()->{
+            for(BlizzardTeam bTeam : ladder) teamDAO.legacyIdOf(league, bTeam);
+        });
+        measure("full conversion", iterations, ()->{
+            for(BlizzardTeam bTeam : ladder)
+                if(BlizzardTeamValidator.isValid(bTeam))
+                    Team.of(season, league, tier, division, bTeam, teamDAO);
+        });
+    }
+
+    private static void measure(String name, int iterations, Runnable runnable)
+    {
+        for(int i = 0; i < WARMUP_ITERATIONS; i++) runnable.run();
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocationBean
+            = bean instanceof com.sun.management.ThreadMXBean b ? b : null;
+        long cpuStart = bean.getCurrentThreadCpuTime();
+        long allocatedStart = allocationBean != null
+            ? allocationBean.getCurrentThreadAllocatedBytes()
+            : 0;
+        for(int i = 0; i < iterations; i++) runnable.run();
+        long cpu = bean.getCurrentThreadCpuTime() - cpuStart;
+        long allocated = allocationBean != null
+            ? allocationBean.getCurrentThreadAllocatedBytes() - allocatedStart
+            : -1;
+        long teams = (long) iterations * LADDER_SIZE;
+        LOG.info
+        (
+            "{}: {} teams, cpu {} ns/team, allocated {} B/team",
+            name,
+            teams,
+            cpu / teams,
+            allocated / teams
+        );
+    }
+
+}
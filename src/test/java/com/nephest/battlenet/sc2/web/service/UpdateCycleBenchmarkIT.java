@@ -0,0 +1,234 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nephest.battlenet.sc2.config.AllTestConfig;
+import com.nephest.battlenet.sc2.model.BaseLeague;
+import com.nephest.battlenet.sc2.model.QueueType;
+import com.nephest.battlenet.sc2.model.Region;
+import com.nephest.battlenet.sc2.model.util.SC2Pulse;
+import com.nephest.battlenet.sc2.service.EventService;
+import com.nephest.battlenet.sc2.web.util.ExchangeArchive;
+import com.nephest.battlenet.sc2.web.util.ExchangeReplayServer;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.Disposable;
+
+/*
+    # Update cycle benchmark
+
+    Replays an exchange archive recorded with
+    `com.nephest.battlenet.sc2.api.archive.record=<file>` and runs a full update cycle against
+    the local database. Disabled by default, run it with
+    `-Dsc2.benchmark.archive=<file> -Dit.test=UpdateCycleBenchmarkIT`
+
+    * `sc2.benchmark.speed` archived latency divisor, 0 disables the latency. 0 by default.
+    * `sc2.benchmark.errorRate` injected 503 error rate. 0 by default.
+    * `sc2.benchmark.seed` error injection seed.
+
+    Reported DB time is the pg_stat_database active time delta(PostgreSQL 14+), it includes
+    other sessions. Allocated bytes are summed over live threads, so memory allocated by
+    terminated threads is not included. Both values are approximations that are good enough to
+    compare runs with the same archive.
+ */
+@SpringBootTest(classes = {AllTestConfig.class})
+@TestPropertySource("classpath:application.properties")
+@TestPropertySource("classpath:application-private.properties")
+@EnabledIfSystemProperty(named = "sc2.benchmark.archive", matches = ".+")
+public class UpdateCycleBenchmarkIT
+{
+
+    private static final Logger LOG = LoggerFactory.getLogger(UpdateCycleBenchmarkIT.class);
+
+    private static ExchangeReplayServer replayServer;
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private TeamStateService teamStateService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private GlobalContext globalContext;
+
+    @Autowired
+    private JdbcTemplate template;
+
+    @DynamicPropertySource
+    public static void replayProperties(DynamicPropertyRegistry registry)
+    throws IOException
+    {
+        replayServer = new ExchangeReplayServer
+        (
+            ExchangeArchive.read
+            (
+                new ObjectMapper().findAndRegisterModules(),
+                Path.of(System.getProperty("sc2.benchmark.archive"))
+            ),
+            Double.parseDouble(System.getProperty("sc2.benchmark.speed", "0")),
+            Double.parseDouble(System.getProperty("sc2.benchmark.errorRate", "0")),
+            Long.parseLong(System.getProperty("sc2.benchmark.seed", "1"))
+        );
+        replayServer.start();
+        registry.add("com.nephest.battlenet.sc2.api.archive.replay", ()->replayServer.getUri().toString());
+    }
+
+    @BeforeAll
+    public static void beforeAll(@Autowired DataSource dataSource)
+    throws SQLException
+    {
+        try(Connection connection = dataSource.getConnection())
+        {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema-drop-postgres.sql"));
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema-postgres.sql"));
+        }
+    }
+
+    @AfterAll
+    public static void afterAll(@Autowired DataSource dataSource)
+    throws SQLException, IOException
+    {
+        try(Connection connection = dataSource.getConnection())
+        {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema-drop-postgres.sql"));
+        }
+        if(replayServer != null) replayServer.close();
+    }
+
+    @Test
+    public void benchmark()
+    throws Exception
+    {
+        Map<Region, Map<QueueType, Set<BaseLeague.LeagueType>>> data = globalContext.getActiveRegions()
+            .stream()
+            .collect(Collectors.toMap(Function.identity(), r->LadderUpdateContext.ALL));
+
+        Measurement total = start("total");
+        Measurement all = start("updateAll");
+        statsService.updateAll(data);
+        all.report();
+
+        CompletableFuture<MatchUpdateContext> matchUpdate = new CompletableFuture<>();
+        CompletableFuture<LadderUpdateData> teamStateUpdate = new CompletableFuture<>();
+        Disposable matchSub = eventService.getMatchUpdateEvent(UpdateCycleBenchmarkIT.class.getSimpleName())
+            .subscribe(matchUpdate::complete);
+        Disposable teamStateSub = teamStateService.getUpdateEvent().subscribe(teamStateUpdate::complete);
+        try
+        {
+            matchService.getUpdateMatchesTask()
+                .setValue(SC2Pulse.instant().minus(MatchService.MATCH_UPDATE_FRAME));
+            matchService.setUpdateContext(null);
+
+            Measurement current = start("updateCurrent");
+            statsService.updateCurrent(data, true);
+            statsService.afterCurrentSeasonUpdate(true).get();
+            current.report();
+
+            Measurement events = start("matches and team states");
+            CompletableFuture.allOf(matchUpdate, teamStateUpdate).get();
+            events.report();
+        }
+        finally
+        {
+            matchSub.dispose();
+            teamStateSub.dispose();
+        }
+        total.report();
+        LOG.info
+        (
+            "Replay server: {} served, {} missing, {} errors",
+            replayServer.getServed(), replayServer.getMissing(), replayServer.getErrors()
+        );
+    }
+
+    private Measurement start(String name)
+    {
+        return new Measurement(name, System.nanoTime(), getDbActiveTime(), getAllocatedBytes());
+    }
+
+    private double getDbActiveTime()
+    {
+        Double time = template.queryForObject
+        (
+            "SELECT active_time FROM pg_stat_database WHERE datname = current_database()",
+            Double.class
+        );
+        return time != null ? time : 0;
+    }
+
+    private static long getAllocatedBytes()
+    {
+        if(!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean))
+            return -1;
+
+        return Arrays.stream(bean.getThreadAllocatedBytes(bean.getAllThreadIds()))
+            .filter(b->b > 0)
+            .sum();
+    }
+
+    private class Measurement
+    {
+
+        private final String name;
+        private final long nanos;
+        private final double dbTime;
+        private final long allocatedBytes;
+
+        private Measurement(String name, long nanos, double dbTime, long allocatedBytes)
+        {
+            this.name = name;
+            this.nanos = nanos;
+            this.dbTime = dbTime;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        private void report()
+        {
+            //pg_stat_database is updated asynchronously
+            template.execute("SELECT pg_stat_clear_snapshot()");
+            LOG.info
+            (
+                "{}: {} wall, {} db, {} MiB allocated",
+                name,
+                Duration.ofNanos(System.nanoTime() - nanos),
+                Duration.ofMillis(Math.round(getDbActiveTime() - dbTime)),
+                (getAllocatedBytes() - allocatedBytes) / 1024 / 1024
+            );
+        }
+
+    }
+
+}
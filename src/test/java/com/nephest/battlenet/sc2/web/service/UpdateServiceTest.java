@@ -5,6 +5,7 @@ package com.nephest.battlenet.sc2.web.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 import com.nephest.battlenet.sc2.model.BaseLeague;
@@ -45,7 +46,7 @@ public class UpdateServiceTest
     @BeforeEach
     public void beforeEach()
     {
-        when(eventService.getLadderUpdateEvent()).thenReturn(Flux.empty());
+        when(eventService.getLadderUpdateEvent(any())).thenReturn(Flux.empty());
         updateService = new UpdateService(varDAO, eventService, ladderUpdateDAO);
         updateService.init();
     }
@@ -40,11 +40,13 @@ import com.nephest.battlenet.sc2.model.local.dao.ClanMemberDAO;
 import com.nephest.battlenet.sc2.model.local.dao.DivisionDAO;
 import com.nephest.battlenet.sc2.model.local.dao.MatchDAO;
 import com.nephest.battlenet.sc2.model.local.dao.MatchParticipantDAO;
+import com.nephest.battlenet.sc2.model.local.dao.MatchVersusDAO;
 import com.nephest.battlenet.sc2.model.local.dao.PlayerCharacterDAO;
 import com.nephest.battlenet.sc2.model.local.dao.SC2MapDAO;
 import com.nephest.battlenet.sc2.model.local.dao.TeamDAO;
 import com.nephest.battlenet.sc2.model.local.dao.TeamMemberDAO;
 import com.nephest.battlenet.sc2.model.local.dao.TeamStateDAO;
+import com.nephest.battlenet.sc2.model.local.dao.VarDAO;
 import com.nephest.battlenet.sc2.model.local.inner.TeamLegacyId;
 import com.nephest.battlenet.sc2.model.local.inner.TeamLegacyIdEntry;
 import com.nephest.battlenet.sc2.model.local.inner.TeamLegacyUid;
@@ -64,7 +66,8 @@ import java.util.function.Predicate;
 import javax.sql.DataSource;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
-import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -120,6 +123,12 @@ public class VersusIT
     @Autowired
     private LadderMatchDAO ladderMatchDAO;
 
+    @Autowired
+    private MatchVersusDAO matchVersusDAO;
+
+    @Autowired
+    private VarDAO varDAO;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -132,6 +141,15 @@ public class VersusIT
     @Autowired @Qualifier("mvcConversionService")
     private ConversionService mvcConversionService;
 
+    /*
+        Matches are always indexed, the backfill cursor decides which of them are read from the
+        index and which are read from the legacy tables.
+     */
+    private enum IndexState
+    {
+        NONE, PARTIAL, COMPLETE
+    }
+
     private static Clan clan1, clan2;
     private static Match[] matches;
     private static Team team1, team2, team3, team4;
@@ -150,6 +168,7 @@ public class VersusIT
         @Autowired TeamMemberDAO teamMemberDAO,
         @Autowired MatchDAO matchDAO,
         @Autowired MatchParticipantDAO matchParticipantDAO,
+        @Autowired MatchVersusDAO matchVersusDAO,
         @Autowired TeamStateDAO teamStateDAO,
         @Autowired SC2MapDAO mapDAO,
         @Autowired WebApplicationContext webApplicationContext
@@ -265,6 +284,7 @@ public class VersusIT
         ));
 
         matchParticipantDAO.identify(SeasonGenerator.DEFAULT_SEASON_ID, OffsetDateTime.MIN);
+        matchVersusDAO.index(OffsetDateTime.MIN);
     }
 
     @AfterAll
@@ -291,6 +311,16 @@ public class VersusIT
         ))).iterator().next();
     }
 
+    private void setIndexState(IndexState state)
+    {
+        switch(state)
+        {
+            case NONE -> varDAO.merge(MatchVersusDAO.INDEXED_FROM_VAR, null);
+            case PARTIAL -> matchVersusDAO.setIndexedFrom(matches[3].getDate());
+            case COMPLETE -> matchVersusDAO.setIndexedFrom(MatchVersusDAO.INDEX_COMPLETE);
+        }
+    }
+
     private <T> T getVersus
     (
         Integer[] clans1,
@@ -444,10 +474,12 @@ public class VersusIT
         ladderMatchDAO.setResultsPerPage(originalPerPage);
     }
 
-    @Test
-    public void testClanVersusClan()
+    @ParameterizedTest
+    @EnumSource(IndexState.class)
+    public void testClanVersusClan(IndexState indexState)
     throws Exception
     {
+        setIndexState(indexState);
         testVersus
         (
             Tuples.of(new Integer[]{clan1.getId()}, Set.of(), new Integer[]{clan2.getId()}, Set.of()),
@@ -470,10 +502,12 @@ public class VersusIT
         );
     }
 
-    @Test
-    public void testTeamVersusTeam()
+    @ParameterizedTest
+    @EnumSource(IndexState.class)
+    public void testTeamVersusTeam(IndexState indexState)
     throws Exception
     {
+        setIndexState(indexState);
         testVersus
         (
             Tuples.of(new Integer[0], Set.of(TeamLegacyUid.of(team2)), new Integer[0], Set.of(TeamLegacyUid.of(team3))),
@@ -496,10 +530,12 @@ public class VersusIT
         );
     }
 
-    @Test
-    public void testTeamVersusMixed()
+    @ParameterizedTest
+    @EnumSource(IndexState.class)
+    public void testTeamVersusMixed(IndexState indexState)
     throws Exception
     {
+        setIndexState(indexState);
         testVersus
         (
             Tuples.of
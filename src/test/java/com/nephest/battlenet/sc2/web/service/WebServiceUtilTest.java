@@ -8,6 +8,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.nephest.battlenet.sc2.config.data.Workload;
 import com.nephest.battlenet.sc2.util.LogUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.Duration;
@@ -51,6 +52,26 @@ public class WebServiceUtilTest
         );
     }
 
+    @Test
+    public void whenWorkloadIsPassed_thenBindBlockingTask()
+    {
+        Workload[] workload = new Workload[2];
+        WebServiceUtil
+            .blockingRunnable(Workload.INGEST, ()->workload[0] = Workload.current())
+            .block();
+        assertEquals(Workload.INGEST, workload[0]);
+        assertEquals
+        (
+            Workload.MAINTENANCE,
+            WebServiceUtil.blockingCallable(Workload.MAINTENANCE, Workload::current).block()
+        );
+        //the scheduler thread is restored
+        WebServiceUtil
+            .blockingRunnable(()->workload[1] = Workload.current())
+            .block();
+        assertEquals(Workload.DEFAULT, workload[1]);
+    }
+
     @Test
     public void whenExceptionIsThrownInSkipErrorsFlux_thenComplete()
     {
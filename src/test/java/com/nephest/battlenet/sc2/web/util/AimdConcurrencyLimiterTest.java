@@ -0,0 +1,153 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+public class AimdConcurrencyLimiterTest
+{
+
+    private AimdConcurrencyLimiter limiter;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        limiter = new AimdConcurrencyLimiter
+        (
+            "test",
+            1, 4, 8,
+            0.5,
+            Duration.ofSeconds(10),
+            Duration.ZERO
+        );
+    }
+
+    private static WebClientResponseException exception(HttpStatus status)
+    {
+        return WebClientResponseException.create
+        (
+            status.value(),
+            status.getReasonPhrase(),
+            HttpHeaders.EMPTY,
+            new byte[0],
+            StandardCharsets.UTF_8
+        );
+    }
+
+    @Test
+    public void testAdditiveIncrease()
+    {
+        //~+1 per window
+        for(int i = 0; i < 5; i++) limiter.onSuccess(Duration.ofMillis(100));
+        assertEquals(5, limiter.getLimit());
+        for(int i = 0; i < 100; i++) limiter.onSuccess(Duration.ofMillis(100));
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    public void testMultiplicativeDecrease()
+    {
+        limiter.onError(exception(HttpStatus.TOO_MANY_REQUESTS));
+        assertEquals(2, limiter.getLimit());
+        limiter.onError(exception(HttpStatus.SERVICE_UNAVAILABLE));
+        assertEquals(1, limiter.getLimit());
+        //min limit
+        limiter.onSuccess(Duration.ofSeconds(11));
+        assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    public void whenNotCongestion_thenDontDecrease()
+    {
+        limiter.onError(exception(HttpStatus.NOT_FOUND));
+        limiter.onError(new IllegalStateException("test"));
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    public void testIsCongestion()
+    {
+        assertTrue(AimdConcurrencyLimiter.isCongestion(exception(HttpStatus.TOO_MANY_REQUESTS)));
+        assertTrue(AimdConcurrencyLimiter.isCongestion(exception(HttpStatus.BAD_GATEWAY)));
+        assertTrue(AimdConcurrencyLimiter.isCongestion(
+            new IllegalStateException(new java.util.concurrent.TimeoutException())));
+        assertFalse(AimdConcurrencyLimiter.isCongestion(exception(HttpStatus.NOT_FOUND)));
+        assertFalse(AimdConcurrencyLimiter.isCongestion(new IllegalStateException()));
+    }
+
+    @Test
+    public void testDecreaseCooldown()
+    {
+        limiter = new AimdConcurrencyLimiter("test", 1, 8, 8, 0.5, null, Duration.ofDays(1));
+        limiter.onError(exception(HttpStatus.TOO_MANY_REQUESTS));
+        limiter.onError(exception(HttpStatus.TOO_MANY_REQUESTS));
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    public void testInFlightLimit()
+    {
+        List<Sinks.Empty<Void>> gates = IntStream.range(0, 10)
+            .mapToObj(i->Sinks.<Void>empty())
+            .collect(Collectors.toList());
+        AtomicInteger started = new AtomicInteger();
+        Disposable subscription = Flux.range(0, 10)
+            .flatMap(i->limiter.limit(Mono.fromRunnable(started::incrementAndGet)
+                .then(gates.get(i).asMono())))
+            .subscribe();
+        assertEquals(4, started.get());
+        assertEquals(4, limiter.getInFlight());
+        assertEquals(6, limiter.getQueueSize());
+
+        //released slots are not reused until in-flight count is below the decreased limit
+        limiter.onError(exception(HttpStatus.TOO_MANY_REQUESTS));
+        assertEquals(2, limiter.getLimit());
+        gates.get(0).tryEmitEmpty();
+        gates.get(1).tryEmitEmpty();
+        assertEquals(4, started.get());
+        assertEquals(2, limiter.getInFlight());
+        //successful requests increase the limit: 2 -> 3.24
+        gates.get(2).tryEmitEmpty();
+        assertEquals(3, limiter.getLimit());
+        assertEquals(6, started.get());
+        assertEquals(3, limiter.getInFlight());
+
+        gates.forEach(Sinks.Empty::tryEmitEmpty);
+        assertEquals(10, started.get());
+        assertEquals(0, limiter.getInFlight());
+        subscription.dispose();
+    }
+
+    @Test
+    public void whenCancelled_thenReleaseSlots()
+    {
+        Disposable subscription = Flux.range(0, 10)
+            .flatMap(i->limiter.limit(Mono.never()))
+            .subscribe();
+        assertEquals(4, limiter.getInFlight());
+        assertEquals(6, limiter.getQueueSize());
+        subscription.dispose();
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getQueueSize());
+    }
+
+}
@@ -0,0 +1,132 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.test.StepVerifier;
+
+public class ExchangeArchiveTest
+{
+
+    private static final String BODY = "{\"id\":1}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    private Path dir;
+
+    private MockWebServer server;
+
+    @BeforeEach
+    public void beforeEach()
+    throws Exception
+    {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    public void afterEach()
+    throws Exception
+    {
+        server.shutdown();
+    }
+
+    @Test
+    public void testRecordAndReplay()
+    throws Exception
+    {
+        Path file = dir.resolve("archive.jsonl");
+        server.enqueue(new MockResponse()
+            .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .setBody(BODY));
+        server.enqueue(new MockResponse().setResponseCode(HttpStatus.NOT_FOUND.value()));
+        URI ladderUri = server.url("/data/sc2/ladder/1?locale=en_US").uri();
+        try(ExchangeArchive archive = new ExchangeArchive
+        (
+            objectMapper,
+            file,
+            uri->uri.getPath().startsWith("/data/")
+        ))
+        {
+            WebClient client = WebClient.builder().filter(archive).build();
+            StepVerifier.create(client.get().uri(ladderUri).retrieve().bodyToMono(String.class))
+                .expectNext(BODY)
+                .verifyComplete();
+            //not archived
+            client.get().uri(server.url("/sc2/ladder/2").uri()).exchangeToMono(r->r.releaseBody()).block();
+            archive.flush();
+            while(archive.getCount() < 1) Thread.sleep(10);
+        }
+
+        List<ExchangeArchive.Exchange> exchanges = ExchangeArchive.read(objectMapper, file);
+        assertEquals(1, exchanges.size());
+        ExchangeArchive.Exchange exchange = exchanges.get(0);
+        assertEquals(ladderUri.toString(), exchange.uri());
+        assertEquals(200, exchange.status());
+        assertEquals(BODY, exchange.body());
+        assertEquals
+        (
+            "/" + ladderUri.getHost() + "/data/sc2/ladder/1?locale=en_US",
+            exchange.toReplayPath()
+        );
+
+        try(ExchangeReplayServer replayServer = new ExchangeReplayServer(exchanges, 0, 0, 1))
+        {
+            replayServer.start();
+            WebClient replayClient = WebClient.builder()
+                .filter(ExchangeArchive.replayFilter(replayServer.getUri()))
+                .build();
+            for(int i = 0; i < 2; i++)
+                StepVerifier.create(replayClient.get().uri(ladderUri).retrieve().bodyToMono(String.class))
+                    .expectNext(BODY)
+                    .verifyComplete();
+            StepVerifier.create(replayClient.get().uri(server.url("/data/sc2/ladder/2").uri())
+                .retrieve().bodyToMono(String.class))
+                .expectError(WebClientResponseException.NotFound.class)
+                .verify();
+            assertEquals(2, replayServer.getServed());
+            assertEquals(1, replayServer.getMissing());
+        }
+    }
+
+    @Test
+    public void testErrorInjection()
+    throws Exception
+    {
+        ExchangeArchive.Exchange exchange = new ExchangeArchive.Exchange
+        (
+            null, "GET", "https://eu.api.blizzard.com/data/sc2/ladder/1", 200,
+            MediaType.APPLICATION_JSON_VALUE, 1, BODY
+        );
+        try(ExchangeReplayServer replayServer = new ExchangeReplayServer(List.of(exchange), 0, 1, 1))
+        {
+            replayServer.start();
+            WebClient replayClient = WebClient.builder()
+                .filter(ExchangeArchive.replayFilter(replayServer.getUri()))
+                .build();
+            StepVerifier.create(replayClient.get().uri(exchange.uri()).retrieve().bodyToMono(String.class))
+                .expectError(WebClientResponseException.ServiceUnavailable.class)
+                .verify();
+            assertEquals(1, replayServer.getErrors());
+        }
+    }
+
+}
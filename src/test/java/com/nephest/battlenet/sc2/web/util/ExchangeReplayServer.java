@@ -0,0 +1,140 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+/*
+    # Replay server for archived exchanges
+
+    * Exchanges are matched by method, original host, path and query.
+    * Repeated requests get archived responses in the archived order, the last response is
+      repeated when there are no more responses.
+    * Unknown requests get 404, this is what Blizzard API does for missing ladders and profiles.
+    * Archived latency is divided by the speed factor. Use 0 to disable the latency.
+    * Errors are injected with the configured rate. The random generator is seeded, so a
+      sequential run is deterministic.
+ */
+public class ExchangeReplayServer
+implements Closeable
+{
+
+    private final Map<String, Deque<ExchangeArchive.Exchange>> exchanges = new HashMap<>();
+    private final double speed;
+    private final double errorRate;
+    private final Random random;
+    private final MockWebServer server = new MockWebServer();
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong missing = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    public ExchangeReplayServer
+    (
+        Collection<ExchangeArchive.Exchange> exchanges,
+        double speed,
+        double errorRate,
+        long seed
+    )
+    {
+        if(speed < 0) throw new IllegalArgumentException("Speed can't be negative");
+        if(errorRate < 0 || errorRate > 1) throw new IllegalArgumentException("Error rate must be in [0, 1] range");
+
+        for(ExchangeArchive.Exchange exchange : exchanges)
+            this.exchanges.computeIfAbsent(getKey(exchange.method(), exchange.toReplayPath()),
+                k->new ArrayDeque<>()).add(exchange);
+        this.speed = speed;
+        this.errorRate = errorRate;
+        this.random = new Random(seed);
+        server.setDispatcher(new Dispatcher()
+        {
+            @Override
+            public MockResponse dispatch(RecordedRequest request)
+            {
+                return ExchangeReplayServer.this.dispatch(request);
+            }
+        });
+    }
+
+    private static String getKey(String method, String path)
+    {
+        return method + " " + path;
+    }
+
+    private synchronized MockResponse dispatch(RecordedRequest request)
+    {
+        if(errorRate > 0 && random.nextDouble() < errorRate)
+        {
+            errors.incrementAndGet();
+            return new MockResponse().setResponseCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+        }
+
+        Deque<ExchangeArchive.Exchange> queue = exchanges.get(getKey(request.getMethod(), request.getPath()));
+        if(queue == null)
+        {
+            missing.incrementAndGet();
+            return new MockResponse().setResponseCode(HttpStatus.NOT_FOUND.value());
+        }
+
+        ExchangeArchive.Exchange exchange = queue.size() > 1 ? queue.poll() : queue.peek();
+        served.incrementAndGet();
+        MockResponse response = new MockResponse()
+            .setResponseCode(exchange.status())
+            .setBody(exchange.body());
+        if(exchange.contentType() != null)
+            response.setHeader(HttpHeaders.CONTENT_TYPE, exchange.contentType());
+        if(speed > 0)
+            response.setHeadersDelay(Math.round(exchange.durationMillis() / speed), TimeUnit.MILLISECONDS);
+        return response;
+    }
+
+    public void start()
+    throws IOException
+    {
+        server.start();
+    }
+
+    @Override
+    public void close()
+    throws IOException
+    {
+        server.shutdown();
+    }
+
+    public URI getUri()
+    {
+        return server.url("/").uri();
+    }
+
+    public long getServed()
+    {
+        return served.get();
+    }
+
+    public long getMissing()
+    {
+        return missing.get();
+    }
+
+    public long getErrors()
+    {
+        return errors.get();
+    }
+
+}
@@ -0,0 +1,113 @@
+// Copyright (C) 2020-2025 Oleksandr Masniuk
+// SPDX-License-Identifier: AGPL-3.0-or-later
+
+package com.nephest.battlenet.sc2.web.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+public class RequestHedgerTest
+{
+
+    private static RequestHedger hedger(double hedgesPerHour)
+    {
+        RequestHedger hedger = new RequestHedger(10, 5, 0.9, Duration.ZERO, ()->hedgesPerHour);
+        for(int i = 1; i <= 10; i++) hedger.addSample(Duration.ofMillis(i * 10));
+        return hedger;
+    }
+
+    @Test
+    public void testDelay()
+    {
+        RequestHedger hedger = new RequestHedger(10, 5, 0.9, Duration.ofMillis(15), ()->0);
+        for(int i = 1; i <= 4; i++) hedger.addSample(Duration.ofMillis(i * 10));
+        //not enough samples
+        assertNull(hedger.getDelay());
+
+        for(int i = 5; i <= 10; i++) hedger.addSample(Duration.ofMillis(i * 10));
+        assertEquals(Duration.ofMillis(90), hedger.getDelay());
+
+        //rolling window, old samples are overwritten
+        for(int i = 0; i < 10; i++) hedger.addSample(Duration.ofMillis(1));
+        //min delay
+        assertEquals(Duration.ofMillis(15), hedger.getDelay());
+    }
+
+    @Test
+    public void whenPrimaryIsSlow_thenHedgeWins()
+    {
+        RequestHedger hedger = hedger(Duration.ofHours(1).toMillis());
+        AtomicBoolean primaryCancelled = new AtomicBoolean(false);
+        String result = hedger.hedge
+        (
+            Mono.just("primary")
+                .delayElement(Duration.ofSeconds(5))
+                .doOnCancel(()->primaryCancelled.set(true)),
+            ()->Mono.just("hedge")
+        )
+            .block(Duration.ofSeconds(2));
+        assertEquals("hedge", result);
+        assertTrue(primaryCancelled.get());
+        assertEquals(1, hedger.getHedges());
+        assertEquals(1, hedger.getHedgeWins());
+    }
+
+    @Test
+    public void whenPrimaryIsFast_thenDontHedge()
+    {
+        RequestHedger hedger = hedger(Duration.ofHours(1).toMillis());
+        AtomicBoolean hedged = new AtomicBoolean(false);
+        assertEquals
+        (
+            "primary",
+            hedger.hedge(Mono.just("primary"), ()->Mono.fromCallable(()->{
+                hedged.set(true);
+                return "hedge";
+            })).block()
+        );
+        assertFalse(hedged.get());
+        assertEquals(0, hedger.getHedges());
+    }
+
+    @Test
+    public void whenHedgeFails_thenUsePrimary()
+    {
+        RequestHedger hedger = hedger(Duration.ofHours(1).toMillis());
+        assertEquals
+        (
+            "primary",
+            hedger.hedge
+            (
+                Mono.just("primary").delayElement(Duration.ofMillis(300)),
+                ()->Mono.error(new IllegalStateException("test"))
+            ).block()
+        );
+        assertEquals(1, hedger.getHedges());
+        assertEquals(0, hedger.getHedgeWins());
+    }
+
+    @Test
+    public void whenNoBudget_thenDontHedge()
+    {
+        RequestHedger hedger = hedger(0);
+        assertFalse(hedger.tryAcquire());
+        assertEquals
+        (
+            "primary",
+            hedger.hedge
+            (
+                Mono.just("primary").delayElement(Duration.ofMillis(300)),
+                ()->Mono.just("hedge")
+            ).block()
+        );
+        assertEquals(0, hedger.getHedges());
+    }
+
+}
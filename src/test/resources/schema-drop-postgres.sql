@@ -10,6 +10,7 @@ DROP TABLE IF EXISTS "evidence_vote" CASCADE;
 DROP TABLE IF EXISTS "evidence" CASCADE;
 DROP TABLE IF EXISTS "player_character_report" CASCADE;
 DROP TABLE IF EXISTS "var" CASCADE;
+DROP TABLE IF EXISTS "match_versus" CASCADE;
 DROP TABLE IF EXISTS "match_participant" CASCADE;
 DROP TABLE IF EXISTS "match" CASCADE;
 DROP TABLE IF EXISTS "map_stats_film_spec" CASCADE;